@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Counts the bytes that characters take in a character set, for {@link ExtendedBufferedReader#getBytesRead()}.
+ * <p>
+ * A supplementary character counts when its low surrogate is read: the high surrogate counts zero bytes and a low surrogate that does not follow a high
+ * surrogate is an error. UTF-8, UTF-16, UTF-32 and single-byte character sets are counted with arithmetic; other character sets are counted by encoding each
+ * character into reused buffers.
+ * </p>
+ * <p>
+ * A single-byte character set counts one byte per character without encoding it, so a character it cannot encode, which only a reader that did not decode
+ * the input with that character set returns, counts one byte instead of failing with a {@link CharacterCodingException}.
+ * </p>
+ */
+abstract class ByteCounter {
+
+    /**
+     * Counts by encoding, for character sets with variable-length or stateful encodings.
+     */
+    private static final class EncodingCounter extends ByteCounter {
+
+        /** Bytes {@link #encoder} emits as a byte-order mark on every encoding (for example {@code x-UTF-16LE-BOM}). */
+        private final int bomLength;
+
+        private final char[] chars = new char[2];
+
+        private final CharsetEncoder encoder;
+
+        private final CharBuffer in = CharBuffer.wrap(chars);
+
+        private ByteBuffer out;
+
+        EncodingCounter(final CharsetEncoder encoder) {
+            this.encoder = encoder;
+            this.out = ByteBuffer.allocate((int) Math.ceil(encoder.maxBytesPerChar() * 2) + 16);
+            this.bomLength = measureBomLength();
+        }
+
+        @Override
+        int count(final char c) throws CharacterCodingException {
+            chars[0] = c;
+            return encode(1) - bomLength;
+        }
+
+        @Override
+        int count(final char high, final char low) throws CharacterCodingException {
+            chars[0] = high;
+            chars[1] = low;
+            return encode(2) - bomLength;
+        }
+
+        /**
+         * Encodes the first characters of {@link #chars} like {@link CharsetEncoder#encode(CharBuffer)}, without allocating.
+         */
+        private int encode(final int length) throws CharacterCodingException {
+            while (true) {
+                in.clear();
+                in.limit(length);
+                out.clear();
+                encoder.reset();
+                CoderResult result = encoder.encode(in, out, true);
+                if (result.isUnderflow()) {
+                    result = encoder.flush(out);
+                }
+                if (result.isUnderflow()) {
+                    return out.position();
+                }
+                if (!result.isOverflow()) {
+                    result.throwException();
+                }
+                out = ByteBuffer.allocate(out.capacity() * 2);
+            }
+        }
+
+        /**
+         * Measures the byte-order mark that the encoder writes before every encoding, the constant prefix shared by encoding one and two characters.
+         */
+        private int measureBomLength() {
+            try {
+                chars[0] = 'a';
+                chars[1] = 'a';
+                final int one = encode(1);
+                final int two = encode(2);
+                return Math.max(0, 2 * one - two);
+            } catch (final CharacterCodingException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Counts a fixed number of bytes per character and per supplementary character.
+     */
+    private static final class FixedWidthCounter extends ByteCounter {
+
+        private final int pairWidth;
+        private final int width;
+
+        FixedWidthCounter(final int width, final int pairWidth) {
+            this.width = width;
+            this.pairWidth = pairWidth;
+        }
+
+        @Override
+        int count(final char c) {
+            return width;
+        }
+
+        @Override
+        int count(final char high, final char low) {
+            return pairWidth;
+        }
+
+        @Override
+        long count(final int previous, final char[] buf, final int offset, final int length) throws CharacterCodingException {
+            if (!hasSurrogate(buf, offset, length)) {
+                return (long) width * length;
+            }
+            return super.count(previous, buf, offset, length);
+        }
+
+        private static boolean hasSurrogate(final char[] buf, final int offset, final int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (Character.isSurrogate(buf[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Counts UTF-8 bytes from the code point ranges.
+     */
+    private static final class Utf8Counter extends ByteCounter {
+
+        @Override
+        int count(final char c) {
+            return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+
+        @Override
+        int count(final char high, final char low) {
+            return 4;
+        }
+
+        @Override
+        long count(final int previous, final char[] buf, final int offset, final int length) throws CharacterCodingException {
+            long count = 0;
+            int prev = previous;
+            for (int i = offset; i < offset + length; i++) {
+                final char c = buf[i];
+                if (c < 0x80) {
+                    count++;
+                } else if (c < 0x800) {
+                    count += 2;
+                } else if (!Character.isSurrogate(c)) {
+                    count += 3;
+                } else {
+                    count += count(prev, c);
+                }
+                prev = c;
+            }
+            return count;
+        }
+    }
+
+    /** The names of the UTF-32 character sets, which {@link StandardCharsets} does not define on Java 8. */
+    private static final String[] UTF_32 = { "UTF-32", "UTF-32BE", "UTF-32LE" };
+
+    /**
+     * Creates a counter for a character set.
+     *
+     * @param charset The character set.
+     * @return A new counter.
+     */
+    static ByteCounter of(final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return new Utf8Counter();
+        }
+        // The UTF-16 encoder writes a byte-order mark on every encoding, which the byte count of the input excludes.
+        if (StandardCharsets.UTF_16.equals(charset) || StandardCharsets.UTF_16BE.equals(charset) || StandardCharsets.UTF_16LE.equals(charset)) {
+            return new FixedWidthCounter(2, 4);
+        }
+        for (final String name : UTF_32) {
+            if (name.equals(charset.name())) {
+                return new FixedWidthCounter(4, 4);
+            }
+        }
+        final CharsetEncoder encoder = charset.newEncoder();
+        if (encoder.maxBytesPerChar() == 1) {
+            // A single-byte character set decodes every byte, malformed or not, to one character; unencodable characters count one byte too.
+            return new FixedWidthCounter(1, 1);
+        }
+        return new EncodingCounter(encoder);
+    }
+
+    /**
+     * Counts the bytes of a character that is not a surrogate.
+     *
+     * @param c The character.
+     * @return The number of bytes.
+     * @throws CharacterCodingException if the character cannot be encoded.
+     */
+    abstract int count(char c) throws CharacterCodingException;
+
+    /**
+     * Counts the bytes of a supplementary character.
+     *
+     * @param high The high surrogate.
+     * @param low  The low surrogate.
+     * @return The number of bytes.
+     * @throws CharacterCodingException if the character cannot be encoded.
+     */
+    abstract int count(char high, char low) throws CharacterCodingException;
+
+    /**
+     * Counts the bytes of a character read after another.
+     *
+     * @param previous The character read before, or a negative value.
+     * @param current  The character.
+     * @return The number of bytes.
+     * @throws CharacterCodingException if the character cannot be encoded or is a low surrogate that does not follow a high surrogate.
+     */
+    int count(final int previous, final int current) throws CharacterCodingException {
+        final char c = (char) current;
+        if (!Character.isSurrogate(c)) {
+            return count(c);
+        }
+        if (Character.isHighSurrogate(c)) {
+            // Counted with the low surrogate.
+            return 0;
+        }
+        if (Character.isHighSurrogate((char) previous)) {
+            return count((char) previous, c);
+        }
+        throw new CharacterCodingException();
+    }
+
+    /**
+     * Counts the bytes of characters read after another.
+     *
+     * @param previous The character read before, or a negative value.
+     * @param buf      The characters.
+     * @param offset   The offset of the first character in {@code buf}.
+     * @param length   The number of characters.
+     * @return The number of bytes.
+     * @throws CharacterCodingException if a character cannot be encoded or is a low surrogate that does not follow a high surrogate.
+     */
+    long count(final int previous, final char[] buf, final int offset, final int length) throws CharacterCodingException {
+        long count = 0;
+        int prev = previous;
+        for (int i = offset; i < offset + length; i++) {
+            count += count(prev, buf[i]);
+            prev = buf[i];
+        }
+        return count;
+    }
+}
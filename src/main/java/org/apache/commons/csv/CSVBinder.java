@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Binds records to instances of a Java record class or a JavaBean, resolving the class's properties to column indices once per header.
+ * <p>
+ * For a Java record class, the binder passes the values of the columns named like the record components to the canonical constructor. For another class,
+ * it calls the public no-argument constructor and then the public setters, {@code setName(value)}, of the properties named like a column. A property
+ * matches a header name exactly, or else ignoring case. Without a header, the components of a record class bind to the columns in order.
+ * </p>
+ * <p>
+ * The binder looks up the constructor and setters once, as {@link MethodHandle}s, and {@link #bind(CSVParser)} resolves their columns once, so binding a
+ * record costs about as much as converting its values and calling the constructor and setters directly. Values are converted by a converter for the
+ * property's type: the default converters handle {@link String}, the primitive types and their wrappers, {@link BigDecimal}, {@link BigInteger}, enums and
+ * the {@code java.time} types with a {@code parse} method, and {@link Builder#setConverter(Class, Function)} adds or replaces converters. A null value,
+ * see {@link CSVFormat#getNullString()}, or a value missing from a short record binds as null, or as zero or {@code false} for a primitive type. An
+ * exception a converter throws, such as a {@link NumberFormatException}, propagates from the binding.
+ * </p>
+ *
+ * <pre>
+ * record City(String name, long population, double latitude) { }
+ *
+ * try (CSVParser parser = CSVParser.builder().setPath(path).setFormat(format).get()) {
+ *     List&lt;City&gt; cities = parser.stream(City.class).collect(Collectors.toList());
+ * }
+ * </pre>
+ *
+ * @param <T> The type to bind records to.
+ * @since 1.15.0
+ */
+public final class CSVBinder<T> {
+
+    /**
+     * Builds a new {@link CSVBinder}.
+     *
+     * @param <T> The type to bind records to.
+     */
+    public static final class Builder<T> implements Supplier<CSVBinder<T>> {
+
+        private final Map<Class<?>, Function<String, ?>> converters = new HashMap<>(DEFAULT_CONVERTERS);
+
+        private final Class<T> type;
+
+        private Builder(final Class<T> type) {
+            this.type = Objects.requireNonNull(type, "type");
+        }
+
+        /**
+         * Builds a new binder, looking up the constructor and setters of the type.
+         *
+         * @return A new binder.
+         * @throws IllegalArgumentException if the type has no accessible constructor to bind with, or if a record component has a type without a
+         *                                  converter.
+         */
+        @Override
+        public CSVBinder<T> get() {
+            return new CSVBinder<>(type, converters);
+        }
+
+        /**
+         * Sets the converter for values of a type, replacing any default converter.
+         * <p>
+         * A converter for a wrapper type, such as {@link Integer}, also converts values of its primitive type, unless the primitive type has its own.
+         * Converters are only called for non-null values.
+         * </p>
+         *
+         * @param <V>       The type of converted values.
+         * @param type      The type of converted values.
+         * @param converter The converter, or null to remove the converter for the type.
+         * @return {@code this} instance.
+         */
+        public <V> Builder<T> setConverter(final Class<V> type, final Function<String, ? extends V> converter) {
+            if (converter == null) {
+                converters.remove(type);
+            } else {
+                converters.put(type, converter);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A property of the bound type: a record component or a setter.
+     */
+    private static final class Property {
+
+        final Function<String, ?> converter;
+
+        /** The value of a null value: null, or the zero value of a primitive type. */
+        final Object nullValue;
+
+        final String name;
+
+        /** The setter, typed {@code (Object, Object)void}, or null for a record component. */
+        final MethodHandle setter;
+
+        Property(final String name, final Class<?> type, final Function<String, ?> converter, final MethodHandle setter) {
+            this.name = name;
+            this.converter = converter;
+            this.nullValue = type.isPrimitive() ? PRIMITIVE_DEFAULTS.get(type) : null;
+            this.setter = setter;
+        }
+    }
+
+    private static final Map<Class<?>, Function<String, ?>> DEFAULT_CONVERTERS = new HashMap<>();
+
+    private static final Method GET_RECORD_COMPONENTS;
+
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<>();
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+    static {
+        DEFAULT_CONVERTERS.put(String.class, Function.identity());
+        DEFAULT_CONVERTERS.put(CharSequence.class, Function.identity());
+        DEFAULT_CONVERTERS.put(Object.class, Function.identity());
+        DEFAULT_CONVERTERS.put(Boolean.class, Boolean::valueOf);
+        DEFAULT_CONVERTERS.put(Byte.class, Byte::valueOf);
+        DEFAULT_CONVERTERS.put(Character.class, CSVBinder::toCharacter);
+        DEFAULT_CONVERTERS.put(Double.class, Double::valueOf);
+        DEFAULT_CONVERTERS.put(Float.class, Float::valueOf);
+        DEFAULT_CONVERTERS.put(Integer.class, Integer::valueOf);
+        DEFAULT_CONVERTERS.put(Long.class, Long::valueOf);
+        DEFAULT_CONVERTERS.put(Short.class, Short::valueOf);
+        DEFAULT_CONVERTERS.put(BigDecimal.class, BigDecimal::new);
+        DEFAULT_CONVERTERS.put(BigInteger.class, BigInteger::new);
+        DEFAULT_CONVERTERS.put(Instant.class, Instant::parse);
+        DEFAULT_CONVERTERS.put(LocalDate.class, LocalDate::parse);
+        DEFAULT_CONVERTERS.put(LocalDateTime.class, LocalDateTime::parse);
+        DEFAULT_CONVERTERS.put(LocalTime.class, LocalTime::parse);
+        DEFAULT_CONVERTERS.put(OffsetDateTime.class, OffsetDateTime::parse);
+        DEFAULT_CONVERTERS.put(ZonedDateTime.class, ZonedDateTime::parse);
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(double.class, Double.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(short.class, Short.class);
+        PRIMITIVE_DEFAULTS.put(boolean.class, Boolean.FALSE);
+        PRIMITIVE_DEFAULTS.put(byte.class, Byte.valueOf((byte) 0));
+        PRIMITIVE_DEFAULTS.put(char.class, Character.valueOf((char) 0));
+        PRIMITIVE_DEFAULTS.put(double.class, Double.valueOf(0));
+        PRIMITIVE_DEFAULTS.put(float.class, Float.valueOf(0));
+        PRIMITIVE_DEFAULTS.put(int.class, Integer.valueOf(0));
+        PRIMITIVE_DEFAULTS.put(long.class, Long.valueOf(0));
+        PRIMITIVE_DEFAULTS.put(short.class, Short.valueOf((short) 0));
+        Method getRecordComponents;
+        try {
+            // Java 16 and above.
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+        } catch (final NoSuchMethodException e) {
+            getRecordComponents = null;
+        }
+        GET_RECORD_COMPONENTS = getRecordComponents;
+    }
+
+    /**
+     * Creates a new builder for a type.
+     *
+     * @param <T>  The type to bind records to.
+     * @param type The type to bind records to.
+     * @return A new builder.
+     */
+    public static <T> Builder<T> builder(final Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    /**
+     * Finds the converter for a type.
+     *
+     * @return The converter, or null if there is none.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Function<String, ?> converter(final Map<Class<?>, Function<String, ?>> converters, final Class<?> type) {
+        Function<String, ?> converter = converters.get(type);
+        if (converter == null && type.isPrimitive()) {
+            converter = converters.get(WRAPPERS.get(type));
+        }
+        if (converter == null && type.isEnum()) {
+            final Class<? extends Enum> enumType = type.asSubclass(Enum.class);
+            converter = value -> Enum.valueOf(enumType, value);
+        }
+        return converter;
+    }
+
+    /**
+     * Creates a binder with the default converters.
+     *
+     * @param <T>  The type to bind records to.
+     * @param type The type to bind records to.
+     * @return A new binder.
+     * @throws IllegalArgumentException if the type has no accessible constructor to bind with, or if a record component has a type without a converter.
+     */
+    public static <T> CSVBinder<T> of(final Class<T> type) {
+        return builder(type).get();
+    }
+
+    /**
+     * Gets the record components of a type.
+     *
+     * @return The components, or null if the type is not a record class.
+     */
+    private static Object[] recordComponents(final Class<?> type) {
+        if (GET_RECORD_COMPONENTS == null) {
+            return null;
+        }
+        try {
+            return (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object recordComponent(final Object component, final String accessor) {
+        try {
+            return component.getClass().getMethod(accessor).invoke(component);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Character toCharacter(final String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Not a single character: '" + value + "'");
+        }
+        return Character.valueOf(value.charAt(0));
+    }
+
+    private static MethodHandle unreflect(final Constructor<?> constructor) {
+        try {
+            if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+                constructor.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access " + constructor, e);
+        }
+    }
+
+    private static MethodHandle unreflect(final Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method);
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access " + method, e);
+        }
+    }
+
+    /** The constructor, typed {@code (Object[])Object} for a record class and {@code ()Object} for a JavaBean. */
+    private final MethodHandle constructor;
+
+    private final Property[] properties;
+
+    /** Whether the type is a record class, bound through its canonical constructor. */
+    private final boolean recordClass;
+
+    private final Class<T> type;
+
+    private CSVBinder(final Class<T> type, final Map<Class<?>, Function<String, ?>> converters) {
+        this.type = type;
+        final Object[] components = recordComponents(type);
+        this.recordClass = components != null;
+        if (recordClass) {
+            final Class<?>[] types = new Class<?>[components.length];
+            properties = new Property[components.length];
+            for (int i = 0; i < components.length; i++) {
+                final String name = (String) recordComponent(components[i], "getName");
+                types[i] = (Class<?>) recordComponent(components[i], "getType");
+                final Function<String, ?> converter = converter(converters, types[i]);
+                if (converter == null) {
+                    throw new IllegalArgumentException("No converter for component " + name + " of type " + types[i].getName());
+                }
+                properties[i] = new Property(name, types[i], converter, null);
+            }
+            final Constructor<T> canonical;
+            try {
+                canonical = type.getDeclaredConstructor(types);
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalArgumentException("No canonical constructor for " + type.getName(), e);
+            }
+            constructor = unreflect(canonical).asSpreader(Object[].class, types.length).asType(MethodType.methodType(Object.class, Object[].class));
+        } else {
+            try {
+                constructor = unreflect(type.getConstructor()).asType(MethodType.methodType(Object.class));
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " is neither a record class nor has a public no-argument constructor", e);
+            }
+            properties = setters(type, converters);
+        }
+    }
+
+    /**
+     * Binds records with a header map to instances of the type.
+     *
+     * @param headerMap The header map, or null if there is no header.
+     * @return A function that binds a record.
+     */
+    Function<CSVRecord, T> bind(final Map<String, Integer> headerMap) {
+        final List<Property> bound = new ArrayList<>();
+        final List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < properties.length; i++) {
+            final Property property = properties[i];
+            final Integer index = headerMap == null ? recordClass ? Integer.valueOf(i) : null : indexOf(headerMap, property.name);
+            if (index != null) {
+                bound.add(property);
+                indices.add(index);
+            } else if (recordClass) {
+                throw new IllegalArgumentException(String.format("No column for component %s, expected one of %s", property.name, headerMap.keySet()));
+            }
+        }
+        if (!recordClass && headerMap == null) {
+            throw new IllegalStateException("No header mapping was specified, the properties of " + type.getName() + " can't be bound by name");
+        }
+        if (bound.isEmpty() && !recordClass) {
+            throw new IllegalArgumentException(String.format("No setter of %s matches a column of %s", type.getName(), headerMap.keySet()));
+        }
+        final Property[] boundProperties = bound.toArray(new Property[0]);
+        final int[] boundIndices = indices.stream().mapToInt(Integer::intValue).toArray();
+        return recordClass ? record -> newRecord(record, boundProperties, boundIndices) : record -> newBean(record, boundProperties, boundIndices);
+    }
+
+    /**
+     * Binds the records of a parser to instances of the type, resolving the parser's header once.
+     * <p>
+     * The function can bind the records of the parser, and of the parsers of a parallel {@link CSVParser#stream() stream} of the parser, on any thread.
+     * </p>
+     *
+     * @param parser The parser.
+     * @return A function that binds a record of the parser.
+     * @throws IllegalArgumentException if a record component has no column, or if no setter has a column.
+     * @throws IllegalStateException    if the type is not a record class and the parser has no header.
+     */
+    public Function<CSVRecord, T> bind(final CSVParser parser) {
+        return bind(parser.getHeaderMapRaw());
+    }
+
+    /**
+     * Gets the type records are bound to.
+     *
+     * @return The type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    private Integer indexOf(final Map<String, Integer> headerMap, final String name) {
+        final Integer index = headerMap.get(name);
+        if (index != null) {
+            return index;
+        }
+        for (final Map.Entry<String, Integer> entry : headerMap.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private T newBean(final CSVRecord record, final Property[] properties, final int[] indices) {
+        try {
+            final Object bean = constructor.invokeExact();
+            for (int i = 0; i < properties.length; i++) {
+                properties[i].setter.invokeExact(bean, value(record, properties[i], indices[i]));
+            }
+            return type.cast(bean);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Cannot bind record " + record.getRecordNumber() + " to " + type.getName(), e);
+        }
+    }
+
+    private T newRecord(final CSVRecord record, final Property[] properties, final int[] indices) {
+        final Object[] args = new Object[properties.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = value(record, properties[i], indices[i]);
+        }
+        try {
+            return type.cast(constructor.invokeExact(args));
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Cannot bind record " + record.getRecordNumber() + " to " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Finds the setters of a JavaBean that have converters, one per property, preferring a String parameter.
+     */
+    private Property[] setters(final Class<T> type, final Map<Class<?>, Function<String, ?>> converters) {
+        final List<Method> methods = new ArrayList<>();
+        for (final Method method : type.getMethods()) {
+            final String name = method.getName();
+            if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                methods.add(method);
+            }
+        }
+        // Sort for a stable choice between overloaded setters.
+        methods.sort(Comparator.comparing(Method::getName).thenComparing(method -> method.getParameterTypes()[0].getName()));
+        final Map<String, Property> setters = new LinkedHashMap<>();
+        for (final Method method : methods) {
+            final Class<?> parameterType = method.getParameterTypes()[0];
+            final Function<String, ?> converter = converter(converters, parameterType);
+            final String property = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+            if (converter == null || setters.containsKey(property) && parameterType != String.class) {
+                continue;
+            }
+            setters.put(property, new Property(property, parameterType, converter, unreflect(method).asType(MethodType.methodType(void.class, Object.class,
+                    Object.class))));
+        }
+        return setters.values().toArray(new Property[0]);
+    }
+
+    /**
+     * Streams the records of a parser as instances of the type.
+     *
+     * @param parser The parser.
+     * @return A stream of bound records.
+     * @see CSVParser#stream(CSVBinder)
+     */
+    public Stream<T> stream(final CSVParser parser) {
+        return parser.stream().map(bind(parser));
+    }
+
+    @Override
+    public String toString() {
+        return "CSVBinder [type=" + type.getName() + ", recordClass=" + recordClass + ", properties="
+                + Arrays.toString(Arrays.stream(properties).map(property -> property.name).toArray()) + "]";
+    }
+
+    private Object value(final CSVRecord record, final Property property, final int index) {
+        final String value = index < record.size() ? record.get(index) : null;
+        return value == null ? property.nullValue : property.converter.apply(value);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state a {@link CSVParser} needs to continue parsing from a record, captured by {@link CSVParser#getCheckpoint()} and restored by
+ * {@link CSVParser.Builder#setCheckpoint(CSVCheckpoint)}.
+ * <p>
+ * A checkpoint holds the byte and character positions of the next record, its record number, the resolved header, the first end-of-line string and the
+ * header and trailer comments. It is immutable and {@link Serializable}, so a long-running job can store it with its progress and resume from it after a
+ * restart without parsing the records before it again.
+ * </p>
+ *
+ * <pre>
+ * // While parsing, with byte tracking enabled:
+ * store(parser.getCheckpoint());
+ * // After a restart:
+ * CSVParser parser = CSVParser.builder().setPath(path).setCharset(charset).setFormat(format).setCheckpoint(load()).get();
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long bytePosition;
+
+    private final long characterPosition;
+
+    private final String firstEndOfLine;
+
+    private final String headerComment;
+
+    /** The column index of each key of the header map, or null. */
+    private final int[] headerIndices;
+
+    /** The keys of the header map, in map order, or null if the format has no header. */
+    private final String[] headerKeys;
+
+    private final String[] headerNames;
+
+    private final long recordNumber;
+
+    private final String trailerComment;
+
+    CSVCheckpoint(final long bytePosition, final long characterPosition, final long recordNumber, final CSVParser.Headers headers, final String firstEndOfLine,
+            final String headerComment, final String trailerComment) {
+        this.bytePosition = bytePosition;
+        this.characterPosition = characterPosition;
+        this.recordNumber = recordNumber;
+        this.firstEndOfLine = firstEndOfLine;
+        this.headerComment = headerComment;
+        this.trailerComment = trailerComment;
+        this.headerNames = headers.headerNames.toArray(new String[0]);
+        if (headers.headerMap == null) {
+            this.headerKeys = null;
+            this.headerIndices = null;
+        } else {
+            this.headerKeys = new String[headers.headerMap.size()];
+            this.headerIndices = new int[headerKeys.length];
+            int i = 0;
+            for (final Map.Entry<String, Integer> entry : headers.headerMap.entrySet()) {
+                headerKeys[i] = entry.getKey();
+                headerIndices[i++] = entry.getValue().intValue(); // Explicit unboxing is intentional
+            }
+        }
+    }
+
+    /**
+     * Gets the byte position of the next record.
+     *
+     * @return The byte position of the next record.
+     */
+    public long getBytePosition() {
+        return bytePosition;
+    }
+
+    /**
+     * Gets the character position of the next record.
+     *
+     * @return The character position of the next record.
+     */
+    public long getCharacterPosition() {
+        return characterPosition;
+    }
+
+    /**
+     * Gets the first end-of-line string the parser encountered.
+     *
+     * @return The first end-of-line string, or null.
+     * @see CSVParser#getFirstEndOfLine()
+     */
+    public String getFirstEndOfLine() {
+        return firstEndOfLine;
+    }
+
+    /**
+     * Gets the header comment.
+     *
+     * @return The header comment, or null.
+     * @see CSVParser#getHeaderComment()
+     */
+    public String getHeaderComment() {
+        return headerComment;
+    }
+
+    /**
+     * Gets the header map entries, for the parser to rebuild its header map with its format.
+     *
+     * @param headerMap The empty header map to fill.
+     * @return The header map, or null if the format has no header.
+     */
+    Map<String, Integer> getHeaderMap(final Map<String, Integer> headerMap) {
+        if (headerKeys == null) {
+            return null;
+        }
+        for (int i = 0; i < headerKeys.length; i++) {
+            headerMap.put(headerKeys[i], Integer.valueOf(headerIndices[i])); // Explicit boxing is intentional
+        }
+        return headerMap;
+    }
+
+    /**
+     * Gets the header names.
+     *
+     * @return The header names, empty if the format has no header.
+     * @see CSVParser#getHeaderNames()
+     */
+    public List<String> getHeaderNames() {
+        return Collections.unmodifiableList(Arrays.asList(headerNames));
+    }
+
+    /**
+     * Gets the record number of the next record.
+     *
+     * @return The record number of the next record.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Gets the trailer comment, if the parser reached the end of the input.
+     *
+     * @return The trailer comment, or null.
+     * @see CSVParser#getTrailerComment()
+     */
+    public String getTrailerComment() {
+        return trailerComment;
+    }
+
+    @Override
+    public String toString() {
+        return "CSVCheckpoint [bytePosition=" + bytePosition + ", characterPosition=" + characterPosition + ", recordNumber=" + recordNumber + "]";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.util.Map;
+
+/**
+ * A header column resolved once by name, to get values from records by index instead of looking the name up in the header map for each value.
+ * <p>
+ * Get a column from {@link CSVParser#getColumn(String)} and pass it to {@link CSVRecord#get(CSVColumn)} or {@link CSVReusableRecord#get(CSVColumn)}. A
+ * record of the parser that resolved the column, or of a parser that shares its header such as the parsers of a parallel parse, returns the value at the
+ * column's index. A record of another parser returns the value of the column's name in its own header, like {@link CSVRecord#get(String)}.
+ * </p>
+ *
+ * <pre>
+ * CSVColumn city = parser.getColumn("City");
+ * for (CSVRecord record : parser) {
+ *     String value = record.get(city);
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVColumn {
+
+    /** The header map the column was resolved in. */
+    private final Map<String, Integer> headerMap;
+
+    private final int index;
+
+    private final String name;
+
+    CSVColumn(final Map<String, Integer> headerMap, final String name, final int index) {
+        this.headerMap = headerMap;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Resolves a column name in a header map.
+     *
+     * @param headerMap The header map, or null if there is no header.
+     * @param name      The column name.
+     * @return A new column.
+     * @throws IllegalStateException    if there is no header map.
+     * @throws IllegalArgumentException if {@code name} is not mapped.
+     */
+    static CSVColumn of(final Map<String, Integer> headerMap, final String name) {
+        if (headerMap == null) {
+            throw new IllegalStateException("No header mapping was specified, the record values can't be accessed by name");
+        }
+        final Integer index = name == null ? null : headerMap.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(String.format("Mapping for %s not found, expected one of %s", name, headerMap.keySet()));
+        }
+        return new CSVColumn(headerMap, name, index.intValue());
+    }
+
+    /**
+     * Gets the index of the column.
+     *
+     * @return The 0-based index of the column.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the name of the column, as given to resolve it.
+     *
+     * @return The name of the column.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tests whether the column was resolved in a header map, so that its index is valid for the map's records.
+     *
+     * @param headerMap The header map of a record.
+     * @return Whether the column was resolved in {@code headerMap}.
+     */
+    boolean isResolvedIn(final Map<String, Integer> headerMap) {
+        return headerMap == this.headerMap;
+    }
+
+    @Override
+    public String toString() {
+        return "CSVColumn [name=" + name + ", index=" + index + "]";
+    }
+}
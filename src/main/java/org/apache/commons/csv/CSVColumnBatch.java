@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.util.Arrays;
+
+/**
+ * A reusable batch of records stored by column, that a {@link CSVParser} refills with up to {@link #getCapacity()} records, see
+ * {@link CSVParser#readBatch(CSVColumnBatch)}.
+ * <p>
+ * Each column is an array with one element per row: a {@code String[]} by default, or a {@code long[]} or {@code double[]} for a column declared with
+ * {@link #setLongColumns(int...)} or {@link #setDoubleColumns(int...)}, whose values are parsed from the parser's buffer without creating Strings. Each
+ * column also has a bitmap of its null values, where bit {@code row % 64} of word {@code row / 64} is set for a value that is null, see
+ * {@link CSVFormat#getNullString()}, or missing because the record is shorter than others in the batch. A null numeric value is stored as 0.
+ * </p>
+ * <p>
+ * The batch reuses its arrays from one read to the next: <strong>the arrays and their contents are only valid until the next batch is read into
+ * it</strong>, and elements at or after {@link #getRowCount()} are unspecified.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * <pre>
+ * try (CSVParser parser = CSVParser.builder().setPath(path).setFormat(format).get()) {
+ *     final CSVColumnBatch batch = new CSVColumnBatch(1024).setLongColumns(0).setDoubleColumns(3);
+ *     while (parser.readBatch(batch) &gt; 0) {
+ *         final long[] ids = batch.getLongs(0);
+ *         final double[] prices = batch.getDoubles(3);
+ *         for (int row = 0; row &lt; batch.getRowCount(); row++) {
+ *             process(ids[row], prices[row]);
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVColumnBatch {
+
+    private static final byte STRING = 0;
+
+    private static final byte LONG = 1;
+
+    private static final byte DOUBLE = 2;
+
+    private final int capacity;
+
+    /** The number of columns of the current batch. */
+    private int columnCount;
+
+    /** The values of each double column, or null. */
+    private double[][] doubles = new double[0][];
+
+    /** The values of each long column, or null. */
+    private long[][] longs = new long[0][];
+
+    /** The null bitmap of each column, or null before the column is first used. */
+    private long[][] nulls = new long[0][];
+
+    /** The record buffer the parser reads each record into. */
+    private final CSVReusableRecord record = new CSVReusableRecord();
+
+    /** The record number of each row. */
+    private final long[] recordNumbers;
+
+    /** The number of rows of the current batch. */
+    private int rowCount;
+
+    /** The values of each String column, or null. */
+    private String[][] strings = new String[0][];
+
+    /** The declared type of each column, String for columns past the end. */
+    private byte[] types = new byte[0];
+
+    /**
+     * Constructs a new empty batch, to pass to {@link CSVParser#readBatch(CSVColumnBatch)}.
+     *
+     * @param capacity The maximum number of records a batch holds.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public CSVColumnBatch(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.recordNumbers = new long[capacity];
+    }
+
+    /**
+     * Adds the record the parser read into {@link #getRecord()} as the next row.
+     */
+    void addRecord() {
+        final int row = rowCount;
+        final int size = record.size();
+        for (int column = columnCount; column < size; column++) {
+            startColumn(column, row);
+        }
+        columnCount = Math.max(columnCount, size);
+        for (int column = 0; column < columnCount; column++) {
+            final boolean isNull = column >= size || record.get(column) == null;
+            if (isNull) {
+                nulls[column][row >>> 6] |= 1L << row;
+            }
+            switch (typeOf(column)) {
+            case LONG:
+                longs[column][row] = isNull ? 0 : record.getLong(column);
+                break;
+            case DOUBLE:
+                doubles[column][row] = isNull ? 0 : record.getDouble(column);
+                break;
+            default:
+                strings[column][row] = isNull ? null : record.get(column).toString();
+                break;
+            }
+        }
+        recordNumbers[row] = record.getRecordNumber();
+        rowCount++;
+    }
+
+    /**
+     * Clears this batch before a parser fills it.
+     */
+    void clear() {
+        // Each column clears its null bitmap when the batch first uses it.
+        rowCount = 0;
+        columnCount = 0;
+    }
+
+    /**
+     * Gets the column's array, checking its declared type.
+     */
+    private Object column(final Object[] columns, final int column, final byte type) {
+        if (column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + columnCount);
+        }
+        if (typeOf(column) != type) {
+            throw new IllegalStateException("Column " + column + " is not a " + (type == LONG ? "long" : type == DOUBLE ? "double" : "String") + " column");
+        }
+        return columns[column];
+    }
+
+    /**
+     * Gets the maximum number of records a batch holds.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of columns of the current batch: the size of its longest record.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Gets the values of a column declared with {@link #setDoubleColumns(int...)}.
+     *
+     * @param column a column index (0-based).
+     * @return The values, with 0 for a null value, valid for the first {@link #getRowCount()} elements.
+     * @throws IndexOutOfBoundsException if the column is not in the current batch.
+     * @throws IllegalStateException     if the column is not a double column.
+     */
+    public double[] getDoubles(final int column) {
+        return (double[]) column(doubles, column, DOUBLE);
+    }
+
+    /**
+     * Gets the values of a column declared with {@link #setLongColumns(int...)}.
+     *
+     * @param column a column index (0-based).
+     * @return The values, with 0 for a null value, valid for the first {@link #getRowCount()} elements.
+     * @throws IndexOutOfBoundsException if the column is not in the current batch.
+     * @throws IllegalStateException     if the column is not a long column.
+     */
+    public long[] getLongs(final int column) {
+        return (long[]) column(longs, column, LONG);
+    }
+
+    /**
+     * Gets the null bitmap of a column: bit {@code row % 64} of word {@code row / 64} is set if the value of the row is null or missing.
+     *
+     * @param column a column index (0-based).
+     * @return The null bitmap, valid for the first {@link #getRowCount()} bits.
+     * @throws IndexOutOfBoundsException if the column is not in the current batch.
+     */
+    public long[] getNulls(final int column) {
+        if (column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + columnCount);
+        }
+        return nulls[column];
+    }
+
+    /**
+     * Gets the record buffer the parser reads each record into.
+     *
+     * @return The record buffer.
+     */
+    CSVReusableRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Gets the record number of a row, see {@link CSVRecord#getRecordNumber()}.
+     *
+     * @param row a row index (0-based).
+     * @return The record number.
+     * @throws IndexOutOfBoundsException if the row is not in the current batch.
+     */
+    public long getRecordNumber(final int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return recordNumbers[row];
+    }
+
+    /**
+     * Gets the number of rows of the current batch.
+     *
+     * @return The number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the values of a column that is not declared as a numeric column.
+     *
+     * @param column a column index (0-based).
+     * @return The values, with null for a null or missing value, valid for the first {@link #getRowCount()} elements.
+     * @throws IndexOutOfBoundsException if the column is not in the current batch.
+     * @throws IllegalStateException     if the column is a numeric column.
+     */
+    public String[] getStrings(final int column) {
+        return (String[]) column(strings, column, STRING);
+    }
+
+    /**
+     * Tests whether the value of a row and column is null or missing.
+     *
+     * @param row    a row index (0-based).
+     * @param column a column index (0-based).
+     * @return Whether the value is null or missing.
+     * @throws IndexOutOfBoundsException if the row or column is not in the current batch.
+     */
+    public boolean isNull(final int row, final int column) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return (getNulls(column)[row >>> 6] & 1L << row) != 0;
+    }
+
+    /**
+     * Declares columns whose values are parsed as doubles, like {@link CSVReusableRecord#getDouble(int)}.
+     *
+     * @param columns column indices (0-based).
+     * @return {@code this} instance.
+     */
+    public CSVColumnBatch setDoubleColumns(final int... columns) {
+        return setTypes(columns, DOUBLE);
+    }
+
+    /**
+     * Declares columns whose values are parsed as longs, like {@link CSVReusableRecord#getLong(int)}.
+     *
+     * @param columns column indices (0-based).
+     * @return {@code this} instance.
+     */
+    public CSVColumnBatch setLongColumns(final int... columns) {
+        return setTypes(columns, LONG);
+    }
+
+    private CSVColumnBatch setTypes(final int[] columns, final byte type) {
+        for (final int column : columns) {
+            if (column < 0) {
+                throw new IllegalArgumentException("Column index must not be negative: " + column);
+            }
+            if (column >= types.length) {
+                types = Arrays.copyOf(types, column + 1);
+            }
+            types[column] = type;
+            // A column whose type changes gets new arrays when it is next used.
+            if (column < nulls.length) {
+                strings[column] = null;
+                longs[column] = null;
+                doubles[column] = null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Starts a column that the batch's previous rows lack, marking their values missing.
+     */
+    private void startColumn(final int column, final int row) {
+        if (column >= nulls.length) {
+            final int length = Math.max(column + 1, 2 * nulls.length);
+            nulls = Arrays.copyOf(nulls, length);
+            strings = Arrays.copyOf(strings, length);
+            longs = Arrays.copyOf(longs, length);
+            doubles = Arrays.copyOf(doubles, length);
+        }
+        if (nulls[column] == null) {
+            nulls[column] = new long[capacity + 63 >>> 6];
+        } else {
+            Arrays.fill(nulls[column], 0L);
+        }
+        switch (typeOf(column)) {
+        case LONG:
+            if (longs[column] == null) {
+                longs[column] = new long[capacity];
+            }
+            Arrays.fill(longs[column], 0, row, 0L);
+            break;
+        case DOUBLE:
+            if (doubles[column] == null) {
+                doubles[column] = new double[capacity];
+            }
+            Arrays.fill(doubles[column], 0, row, 0d);
+            break;
+        default:
+            if (strings[column] == null) {
+                strings[column] = new String[capacity];
+            }
+            Arrays.fill(strings[column], 0, row, null);
+            break;
+        }
+        for (int i = 0; i < row; i++) {
+            nulls[column][i >>> 6] |= 1L << i;
+        }
+    }
+
+    private byte typeOf(final int column) {
+        return column < types.length ? types[column] : STRING;
+    }
+}
@@ -459,6 +459,10 @@ public final class CSVFormat implements Serializable {
 
         /**
          * Sets the delimiter character.
+         * <p>
+         * A delimiter of more than one character makes parsing slower than a single character, unless the parser scans in blocks, see
+         * {@link CSVParser.Builder#setBlockScanning(boolean)}.
+         * </p>
          *
          * @param delimiter The delimiter character.
          * @return This instance.
@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.function.IOConsumer;
+
+/**
+ * Joins the records of two CSV inputs sorted on their keys, with a sort-merge join that streams both inputs.
+ * <p>
+ * The inputs must be sorted on their {@link Builder#addKey(String, String, CSVSchema.Type, boolean) keys} in the order the keys define, for example by a
+ * {@link CSVSorter} with the same keys. The joiner reads each input once, and holds the right records of one key value at a time: up to
+ * {@link Builder#setMaxBufferedRecords(int) a limit} in memory, and the rest in a temporary file. Left records with the same key value stream through, so
+ * duplicate keys on either side take bounded memory.
+ * </p>
+ * <p>
+ * Each joined record has the columns of the left input, then the columns of the right input other than its key columns. The number of columns of an input
+ * is the size of its header, or of its first record if it has no header; shorter records are padded with nulls and longer records are truncated. Columns of a
+ * side without a matching record are null, except that the left key columns of a right record without a match hold the right key values. As in SQL, a
+ * record with a null key matches no record.
+ * </p>
+ *
+ * <pre>
+ * CSVJoiner joiner = CSVJoiner.builder().addKey("customer_id", "id", CSVSchema.Type.INTEGER, false).setType(CSVJoiner.Type.LEFT).get();
+ * try (CSVParser orders = ...; CSVParser customers = ...) {
+ *     String[] header = joiner.getHeaderNames(orders, customers).toArray(new String[0]);
+ *     try (CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.builder().setHeader(header).get())) {
+ *         joiner.join(orders, customers, printer);
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVJoiner {
+
+    /**
+     * Builds a new {@link CSVJoiner}.
+     */
+    public static final class Builder implements Supplier<CSVJoiner> {
+
+        private final List<SortKey> leftKeys = new ArrayList<>();
+        private int maxBufferedRecords = DEFAULT_MAX_BUFFERED_RECORDS;
+        private final List<SortKey> rightKeys = new ArrayList<>();
+        private Path tempDirectory;
+        private Type type = Type.INNER;
+
+        private Builder() {
+            // empty
+        }
+
+        /**
+         * Adds a join key: a column of each input, compared as a type.
+         *
+         * @param leftColumn  The 0-based index of the column in the left input.
+         * @param rightColumn The 0-based index of the column in the right input.
+         * @param type        How to compare the values, as {@link CSVSorter.Builder#addKey(String, CSVSchema.Type, boolean)} does.
+         * @param descending  Whether the inputs are sorted on the key in descending order.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if a column index is negative.
+         */
+        public Builder addKey(final int leftColumn, final int rightColumn, final CSVSchema.Type type, final boolean descending) {
+            leftKeys.add(new SortKey(leftColumn, type, descending));
+            rightKeys.add(new SortKey(rightColumn, type, descending));
+            return this;
+        }
+
+        /**
+         * Adds a join key: a column of each input, compared as a type.
+         *
+         * @param leftColumn  The name of the column in the header of the left input.
+         * @param rightColumn The name of the column in the header of the right input.
+         * @param type        How to compare the values, as {@link CSVSorter.Builder#addKey(String, CSVSchema.Type, boolean)} does.
+         * @param descending  Whether the inputs are sorted on the key in descending order.
+         * @return {@code this} instance.
+         */
+        public Builder addKey(final String leftColumn, final String rightColumn, final CSVSchema.Type type, final boolean descending) {
+            leftKeys.add(new SortKey(leftColumn, type, descending));
+            rightKeys.add(new SortKey(rightColumn, type, descending));
+            return this;
+        }
+
+        /**
+         * Builds a new joiner.
+         *
+         * @return A new joiner.
+         * @throws IllegalStateException if there is no key.
+         */
+        @Override
+        public CSVJoiner get() {
+            if (leftKeys.isEmpty()) {
+                throw new IllegalStateException("No join key");
+            }
+            return new CSVJoiner(this);
+        }
+
+        /**
+         * Sets the maximum number of right records with the same key value to hold in memory, defaults to {@value CSVJoiner#DEFAULT_MAX_BUFFERED_RECORDS}.
+         * <p>
+         * The joiner writes the records of a key value with more right records to a temporary file, and reads them back for each matching left record.
+         * </p>
+         *
+         * @param maxBufferedRecords The maximum number of records to hold in memory.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxBufferedRecords} is negative.
+         */
+        public Builder setMaxBufferedRecords(final int maxBufferedRecords) {
+            if (maxBufferedRecords < 0) {
+                throw new IllegalArgumentException("Max buffered records " + maxBufferedRecords + " is negative");
+            }
+            this.maxBufferedRecords = maxBufferedRecords;
+            return this;
+        }
+
+        /**
+         * Sets the directory of temporary files, defaults to the default temporary-file directory.
+         *
+         * @param tempDirectory The directory, or null for the default temporary-file directory.
+         * @return {@code this} instance.
+         */
+        public Builder setTempDirectory(final Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the type of join, defaults to {@link Type#INNER}.
+         *
+         * @param type The type of join.
+         * @return {@code this} instance.
+         */
+        public Builder setType(final Type type) {
+            this.type = Objects.requireNonNull(type, "type");
+            return this;
+        }
+    }
+
+    /**
+     * The right records of one key value.
+     */
+    private final class Group implements Closeable {
+
+        private Path file;
+
+        private DataOutputStream out;
+
+        /** The right parser, for access by header name. */
+        private final CSVParser parser;
+
+        private final List<CSVRecord> records = new ArrayList<>();
+
+        private long size;
+
+        Group(final CSVParser parser) {
+            this.parser = parser;
+        }
+
+        void add(final CSVRecord record) throws IOException {
+            if (file == null && records.size() < maxBufferedRecords) {
+                records.add(record);
+            } else {
+                if (file == null) {
+                    file = RunFiles.create(tempDirectory, "csv-join-");
+                    out = RunFiles.newOutput(file);
+                    for (final CSVRecord buffered : records) {
+                        RunFiles.writeRecord(out, buffered);
+                    }
+                    records.clear();
+                }
+                RunFiles.writeRecord(out, record);
+            }
+            size++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                try {
+                    out.close();
+                } finally {
+                    RunFiles.delete(Collections.singletonList(file));
+                }
+            }
+        }
+
+        void forEach(final IOConsumer<CSVRecord> consumer) throws IOException {
+            if (file == null) {
+                for (final CSVRecord record : records) {
+                    consumer.accept(record);
+                }
+                return;
+            }
+            out.flush();
+            try (DataInputStream in = RunFiles.newInput(file)) {
+                CSVRecord record;
+                while ((record = RunFiles.readRecord(in, parser)) != null) {
+                    consumer.accept(record);
+                }
+            }
+        }
+    }
+
+    /**
+     * A join of two inputs into a printer.
+     */
+    private final class Merge {
+
+        private final Side left;
+
+        private final CSVPrinter printer;
+
+        private final Side right;
+
+        /** The right columns to print, all but the key columns. */
+        private final int[] rightColumns;
+
+        /** The values of the joined record to print. */
+        private final String[] values;
+
+        Merge(final CSVParser left, final CSVParser right, final CSVPrinter printer) {
+            this.left = new Side(left, leftKeys, "left");
+            this.right = new Side(right, rightKeys, "right");
+            this.printer = printer;
+            this.left.advance();
+            this.right.advance();
+            this.rightColumns = valueColumns(this.right.columns, this.right.width());
+            this.values = new String[this.left.width() + rightColumns.length];
+        }
+
+        /**
+         * Prints a joined record.
+         */
+        private void print(final CSVRecord leftRecord, final CSVRecord rightRecord) throws IOException {
+            final int leftWidth = values.length - rightColumns.length;
+            for (int i = 0; i < leftWidth; i++) {
+                values[i] = value(leftRecord, i);
+            }
+            if (leftRecord == null) {
+                for (int i = 0; i < left.columns.length; i++) {
+                    if (left.columns[i] < leftWidth) {
+                        values[left.columns[i]] = value(rightRecord, right.columns[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < rightColumns.length; i++) {
+                values[leftWidth + i] = value(rightRecord, rightColumns[i]);
+            }
+            printer.printRecord((Object[]) values);
+        }
+
+        long run() throws IOException {
+            long count = 0;
+            while (left.record != null || right.record != null) {
+                int result = left.record == null ? 1 : right.record == null ? -1 : SortKey.compare(leftKeys, left.keys, right.keys);
+                if (result == 0 && left.hasNullKey()) {
+                    result = -1;
+                }
+                if (result < 0) {
+                    if (type.keepLeft) {
+                        print(left.record, null);
+                        count++;
+                    }
+                    left.advance();
+                } else if (result > 0) {
+                    if (type.keepRight) {
+                        print(null, right.record);
+                        count++;
+                    }
+                    right.advance();
+                } else {
+                    final Comparable<?>[] key = right.keys;
+                    try (Group group = new Group(right.parser)) {
+                        do {
+                            group.add(right.record);
+                        } while (right.advance() && SortKey.compare(leftKeys, right.keys, key) == 0);
+                        do {
+                            final CSVRecord leftRecord = left.record;
+                            group.forEach(rightRecord -> print(leftRecord, rightRecord));
+                            count += group.size;
+                        } while (left.advance() && SortKey.compare(leftKeys, left.keys, key) == 0);
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * One input of a join and its current record.
+     */
+    private static final class Side {
+
+        /** The column index of each key. */
+        final int[] columns;
+
+        private final Iterator<CSVRecord> iterator;
+
+        /** The converted key values of {@link #record}. */
+        Comparable<?>[] keys;
+
+        private final String name;
+
+        final CSVParser parser;
+
+        /** The current record, or null at the end of the input. */
+        CSVRecord record;
+
+        private final SortKey[] sortKeys;
+
+        private int width = -1;
+
+        Side(final CSVParser parser, final SortKey[] sortKeys, final String name) {
+            this.parser = Objects.requireNonNull(parser, name);
+            this.sortKeys = sortKeys;
+            this.name = name;
+            this.columns = SortKey.resolve(sortKeys, parser);
+            this.iterator = parser.iterator();
+        }
+
+        /**
+         * Reads the next record.
+         *
+         * @return Whether there was a record.
+         * @throws IllegalStateException if the record sorts before the previous one.
+         */
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                record = null;
+                return false;
+            }
+            final CSVRecord next = iterator.next();
+            final Comparable<?>[] nextKeys = SortKey.convert(sortKeys, columns, next);
+            if (record != null && SortKey.compare(sortKeys, keys, nextKeys) > 0) {
+                throw new IllegalStateException(String.format("The %s input is not sorted on the join keys at record %,d", name, next.getRecordNumber()));
+            }
+            record = next;
+            keys = nextKeys;
+            if (width < 0) {
+                final int headerSize = parser.getHeaderNames().size();
+                width = headerSize > 0 ? headerSize : next.size();
+            }
+            return true;
+        }
+
+        boolean hasNullKey() {
+            for (final Comparable<?> key : keys) {
+                if (key == null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int width() {
+            return width < 0 ? parser.getHeaderNames().size() : width;
+        }
+    }
+
+    /**
+     * The type of join.
+     */
+    public enum Type {
+
+        /** Prints only matched records. */
+        INNER(false, false),
+
+        /** Prints matched records, and left records without a match. */
+        LEFT(true, false),
+
+        /** Prints matched records, and right records without a match. */
+        RIGHT(false, true),
+
+        /** Prints matched records, and records of either input without a match. */
+        FULL(true, true);
+
+        private final boolean keepLeft;
+
+        private final boolean keepRight;
+
+        Type(final boolean keepLeft, final boolean keepRight) {
+            this.keepLeft = keepLeft;
+            this.keepRight = keepRight;
+        }
+    }
+
+    /** The default maximum number of right records with the same key value to hold in memory. */
+    public static final int DEFAULT_MAX_BUFFERED_RECORDS = 10_000;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static String value(final CSVRecord record, final int column) {
+        return record != null && column < record.size() ? record.get(column) : null;
+    }
+
+    /**
+     * Gets the columns of an input other than its key columns.
+     */
+    private static int[] valueColumns(final int[] keyColumns, final int width) {
+        final int[] columns = new int[width];
+        int count = 0;
+        for (int i = 0; i < width; i++) {
+            boolean key = false;
+            for (final int keyColumn : keyColumns) {
+                key |= keyColumn == i;
+            }
+            if (!key) {
+                columns[count++] = i;
+            }
+        }
+        final int[] result = new int[count];
+        System.arraycopy(columns, 0, result, 0, count);
+        return result;
+    }
+
+    /** The keys of the left input, which also compare left and right key values. */
+    private final SortKey[] leftKeys;
+
+    private final int maxBufferedRecords;
+
+    private final SortKey[] rightKeys;
+
+    private final Path tempDirectory;
+
+    private final Type type;
+
+    private CSVJoiner(final Builder builder) {
+        this.leftKeys = builder.leftKeys.toArray(new SortKey[0]);
+        this.rightKeys = builder.rightKeys.toArray(new SortKey[0]);
+        this.maxBufferedRecords = builder.maxBufferedRecords;
+        this.tempDirectory = builder.tempDirectory;
+        this.type = builder.type;
+    }
+
+    /**
+     * Gets the header names of the joined records: the header names of the left input, then those of the right input other than its key columns.
+     *
+     * @param left  The left input.
+     * @param right The right input.
+     * @return The header names, or an empty list if either input has no header.
+     * @throws IllegalArgumentException if a key's column is not in the header.
+     */
+    public List<String> getHeaderNames(final CSVParser left, final CSVParser right) {
+        final List<String> leftNames = left.getHeaderNames();
+        final List<String> rightNames = right.getHeaderNames();
+        if (leftNames.isEmpty() || rightNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> names = new ArrayList<>(leftNames);
+        for (final int column : valueColumns(SortKey.resolve(rightKeys, right), rightNames.size())) {
+            names.add(rightNames.get(column));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Gets the type of join.
+     *
+     * @return The type of join.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Joins two inputs sorted on their keys and prints the joined records.
+     * <p>
+     * The joiner reads both parsers to their ends and does not close them or the printer.
+     * </p>
+     *
+     * @param left    The left input.
+     * @param right   The right input.
+     * @param printer The output.
+     * @return The number of records printed.
+     * @throws IOException              If an I/O error occurs.
+     * @throws CSVException             on invalid CSV input data.
+     * @throws IllegalArgumentException if a key's column is not in the header.
+     * @throws IllegalStateException    if an input is not sorted on the keys, or if a key's column is named and the input has no header.
+     * @throws NumberFormatException    if a value of a numeric key is not a number.
+     */
+    public long join(final CSVParser left, final CSVParser right, final CSVPrinter printer) throws IOException {
+        return new Merge(left, right, Objects.requireNonNull(printer, "printer")).run();
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.io.build.AbstractStreamBuilder;
+
+/**
+ * Parses a CSV file in parallel by splitting it into byte ranges that start on record boundaries.
+ * <p>
+ * The file is first scanned in chunks on a {@link ForkJoinPool} to find, for each chunk, the end of the first record that ends in it. Each range between
+ * two such record ends is then parsed by its own {@link CSVParser} on the pool while earlier ranges are consumed. The scan also counts the characters and
+ * records before each range, so records carry the same {@link CSVRecord#getRecordNumber() record numbers} and {@link CSVRecord#getCharacterPosition()
+ * character positions} as when the file is parsed sequentially, and the same {@link CSVRecord#getBytePosition() byte positions} when byte tracking is
+ * enabled.
+ * </p>
+ * <p>
+ * Record boundaries are found by counting quote characters, so the input must follow RFC 4180: a quote character only appears around a quoted value or
+ * doubled inside one. A parse that finds a different number of records in a range than the scan predicted throws a {@link CSVException}. The format must
+ * not define an escape character or a comment marker, and the character set must be UTF-8 or a single-byte character set that encodes ASCII characters as
+ * themselves.
+ * </p>
+ * <p>
+ * A parsed range is held as {@link CSVRecord}s until the consumer moves past it. Records take several times the memory of their input bytes, as their
+ * values are Strings. A stream therefore parses ahead at most {@link Builder#setMaxBufferedBytes(long) max buffered bytes} of input, and at most twice as
+ * many ranges as the pool's parallelism. A slow consumer holds back further parsing rather than letting parsed ranges pile up.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ * <pre>{@code
+ * CSVParallelParser parser = CSVParallelParser.builder()
+ *     .setPath(path)
+ *     .setCharset(StandardCharsets.UTF_8)
+ *     .setFormat(CSVFormat.RFC4180.builder().setHeader().get())
+ *     .get();
+ * try (Stream<CSVRecord> stream = parser.stream()) {
+ *     stream.forEach(record -> ...);
+ * }
+ * }</pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVParallelParser {
+
+    /**
+     * Builds a new {@link CSVParallelParser}.
+     * <p>
+     * The origin must be a file, set with {@link #setPath(Path)} or {@link #setFile(java.io.File)}.
+     * </p>
+     */
+    public static class Builder extends AbstractStreamBuilder<CSVParallelParser, Builder> {
+
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private ForkJoinPool forkJoinPool;
+        private CSVFormat format;
+        private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+        private boolean ordered = true;
+        private boolean trackBytes;
+
+        /**
+         * Constructs a new instance.
+         */
+        protected Builder() {
+            // empty
+        }
+
+        /**
+         * Scans the file for record boundaries and reads the header, if the format has one.
+         *
+         * @return A new parser.
+         * @throws IOException                   Thrown if an I/O error occurs.
+         * @throws IllegalArgumentException      Thrown if the format or character set does not allow finding record boundaries by counting quotes.
+         * @throws UnsupportedOperationException Thrown if the origin is not a file.
+         */
+        @Override
+        public CSVParallelParser get() throws IOException {
+            return new CSVParallelParser(this);
+        }
+
+        /**
+         * Sets the number of bytes each scan task covers, defaults to {@link CSVParallelParser#DEFAULT_CHUNK_SIZE}.
+         * <p>
+         * Each chunk in which a record ends starts a new range, so this is also the approximate size of the ranges parsed in parallel. A stream holds the
+         * records of at least one whole range, however large the range is, see {@link #setMaxBufferedBytes(long)}.
+         * </p>
+         *
+         * @param chunkSize The number of bytes each scan task covers.
+         * @return {@code this} instance.
+         */
+        public Builder setChunkSize(final int chunkSize) {
+            if (chunkSize <= 0 || chunkSize > RecordBoundaryScanner.MAX_CHUNK_SIZE) {
+                throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return asThis();
+        }
+
+        /**
+         * Sets the pool to scan and parse on, {@code null} resets to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param forkJoinPool The pool to scan and parse on.
+         * @return {@code this} instance.
+         */
+        public Builder setForkJoinPool(final ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = forkJoinPool;
+            return asThis();
+        }
+
+        /**
+         * Sets the CSV format. A copy of the given format is kept.
+         *
+         * @param format The CSV format, {@code null} resets to {@link CSVFormat#DEFAULT}.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = CSVFormat.copy(format);
+            return asThis();
+        }
+
+        /**
+         * Sets the maximum number of input bytes a stream parses ahead of the consumer, defaults to {@link CSVParallelParser#DEFAULT_MAX_BUFFERED_BYTES}.
+         * <p>
+         * This counts the bytes of the ranges being parsed, parsed and waiting, and being consumed. A range is parsed ahead only if it fits within this
+         * limit, except that one range is always parsed, so each range's records stay in memory until the consumer is done with them. The heap these
+         * records need is several times this limit: each input character becomes a UTF-16 {@code char} of a value String, and each record and value has
+         * its own object. Lower this, or the {@link #setChunkSize(int) chunk size}, to reduce memory use; raise it to keep a large pool busy.
+         * </p>
+         *
+         * @param maxBufferedBytes The maximum number of input bytes a stream parses ahead of the consumer.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxBufferedBytes} is not positive.
+         */
+        public Builder setMaxBufferedBytes(final long maxBufferedBytes) {
+            if (maxBufferedBytes <= 0) {
+                throw new IllegalArgumentException("Max buffered bytes " + maxBufferedBytes + " is not positive");
+            }
+            this.maxBufferedBytes = maxBufferedBytes;
+            return asThis();
+        }
+
+        /**
+         * Sets whether streams deliver records in file order, defaults to {@code true}.
+         * <p>
+         * When disabled, a stream delivers the records of each range as soon as that range is parsed, so a slow range does not hold back the ranges after
+         * it. The records of one range are still delivered in file order, and every record keeps its record number and positions.
+         * </p>
+         *
+         * @param ordered {@code true} to deliver records in file order; {@code false} to deliver them as ranges complete.
+         * @return {@code this} instance.
+         */
+        public Builder setOrdered(final boolean ordered) {
+            this.ordered = ordered;
+            return asThis();
+        }
+
+        /**
+         * Sets whether to enable byte tracking for the range parsers.
+         *
+         * @param trackBytes {@code true} to enable byte tracking; {@code false} to disable it.
+         * @return {@code this} instance.
+         * @see CSVParser.Builder#setTrackBytes(boolean)
+         */
+        public Builder setTrackBytes(final boolean trackBytes) {
+            this.trackBytes = trackBytes;
+            return asThis();
+        }
+
+    }
+
+    /**
+     * Parses one range on the pool, keeping the outcome for the consumer.
+     */
+    @SuppressWarnings("serial")
+    private final class ParseTask extends RecursiveAction {
+
+        private final BlockingQueue<ParseTask> completed;
+        private Throwable failure;
+        private final int index;
+        private List<CSVRecord> records;
+
+        ParseTask(final int index, final BlockingQueue<ParseTask> completed) {
+            this.index = index;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                records = ranges.parse(index);
+            } catch (final IOException | RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                if (completed != null) {
+                    completed.add(this);
+                }
+            }
+        }
+
+        List<CSVRecord> getRecords() {
+            if (failure instanceof IOException) {
+                throw new UncheckedIOException((IOException) failure);
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Parses ranges ahead of the consumer, a bounded number and size at a time.
+     * <p>
+     * Waiting for a range goes through {@link ForkJoinTask#join()} or {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, so a consumer that
+     * runs on the same pool helps or is compensated for instead of starving the pool.
+     * </p>
+     */
+    private final class RecordIterator implements Iterator<CSVRecord> {
+
+        /** The ranges that completed, in completion order, when records are not ordered. */
+        private final BlockingQueue<ParseTask> completed;
+        private Iterator<CSVRecord> current = Collections.emptyIterator();
+
+        /** The bytes of the submitted ranges, including the range being consumed. */
+        private long bufferedBytes;
+
+        /** The range being consumed, or null. */
+        private ParseTask consumed;
+
+        /** The submitted ranges that have not been taken yet, in submission order. */
+        private final Deque<ParseTask> pending = new ArrayDeque<>();
+        private int submitted;
+        private int taken;
+        private final int window = Math.max(2, 2 * pool.getParallelism());
+
+        RecordIterator() {
+            this.completed = ordered ? null : new LinkedBlockingQueue<>();
+        }
+
+        void close() {
+            pending.forEach(task -> task.cancel(false));
+            pending.clear();
+            taken = ranges.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (taken == ranges.size()) {
+                    return false;
+                }
+                current = take().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public CSVRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<CSVRecord> take() {
+            // The consumer is done with the range before, so its records no longer count.
+            if (consumed != null) {
+                bufferedBytes -= ranges.getByteCount(consumed.index);
+                consumed = null;
+            }
+            while (submitted < ranges.size() && submitted - taken < window
+                    && (bufferedBytes == 0 || bufferedBytes + ranges.getByteCount(submitted) <= maxBufferedBytes)) {
+                final ParseTask task = new ParseTask(submitted++, completed);
+                bufferedBytes += ranges.getByteCount(task.index);
+                pool.execute(task);
+                pending.add(task);
+            }
+            final ParseTask task;
+            if (ordered) {
+                task = pending.remove();
+                task.join();
+            } else {
+                task = takeCompleted();
+                pending.remove(task);
+            }
+            taken++;
+            consumed = task;
+            try {
+                return task.getRecords();
+            } catch (final RuntimeException | Error e) {
+                close();
+                throw e;
+            }
+        }
+
+        private ParseTask takeCompleted() {
+            final AtomicReference<ParseTask> task = new AtomicReference<>(completed.poll());
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        if (task.get() == null) {
+                            task.set(completed.take());
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return task.get() != null || task.compareAndSet(null, completed.poll()) && task.get() != null;
+                    }
+                });
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new UncheckedIOException(new InterruptedIOException(e.getMessage()));
+            }
+            return task.get();
+        }
+    }
+
+    /** The default chunk size, 4 MiB. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The default maximum number of input bytes a stream parses ahead of the consumer, 128 MiB. */
+    public static final long DEFAULT_MAX_BUFFERED_BYTES = 128L * 1024 * 1024;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final CSVFormat format;
+
+    private final long maxBufferedBytes;
+
+    private final boolean ordered;
+
+    private final ForkJoinPool pool;
+
+    private final FileRanges ranges;
+
+    private CSVParallelParser(final Builder builder) throws IOException {
+        this.format = builder.format != null ? builder.format : CSVFormat.DEFAULT;
+        this.pool = builder.forkJoinPool != null ? builder.forkJoinPool : ForkJoinPool.commonPool();
+        this.ordered = builder.ordered;
+        this.maxBufferedBytes = builder.maxBufferedBytes;
+        this.ranges = new FileRanges(builder.getPath(), builder.getCharset(), format, null, builder.trackBytes, false, false, 0, 0, 1, builder.chunkSize, pool);
+    }
+
+    /**
+     * Gets a read-only list of header names that iterates in column order.
+     *
+     * @return read-only list of header names that iterates in column order.
+     * @see CSVParser#getHeaderNames()
+     */
+    public List<String> getHeaderNames() {
+        return Collections.unmodifiableList(ranges.getHeaders().headerNames);
+    }
+
+    /**
+     * Gets the number of byte ranges the file was split into, which bounds the parallelism of a parse.
+     *
+     * @return the number of byte ranges.
+     */
+    public int getRangeCount() {
+        return ranges.size();
+    }
+
+    /**
+     * Returns a stream of the records in the file, parsing ranges on the pool ahead of the consumer.
+     * <p>
+     * Each call parses the file again. Close the stream to cancel the parsing of ranges that have not been consumed. The format's
+     * {@link CSVFormat#getMaxRows() maximum rows} limit the stream; when records are not {@link Builder#setOrdered(boolean) ordered}, the limited stream
+     * holds the first records to complete rather than the first in the file.
+     * </p>
+     * <p>
+     * A parse error or I/O error is thrown from the stream as an {@link UncheckedIOException}.
+     * </p>
+     *
+     * @return a new stream of records.
+     */
+    public Stream<CSVRecord> stream() {
+        final RecordIterator iterator = new RecordIterator();
+        final int characteristics = ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+        final Stream<CSVRecord> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false).onClose(iterator::close);
+        final long maxRows = format.getMaxRows();
+        return maxRows > 0 ? stream.limit(maxRows) : stream;
+    }
+}
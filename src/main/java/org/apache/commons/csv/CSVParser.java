@@ -30,9 +30,13 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,12 +49,18 @@ import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.build.AbstractOrigin;
 import org.apache.commons.io.build.AbstractStreamBuilder;
 import org.apache.commons.io.function.IOSupplier;
 import org.apache.commons.io.function.Uncheck;
@@ -156,10 +166,24 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
     public static class Builder extends AbstractStreamBuilder<CSVParser, Builder> {
 
         private CSVFormat format;
+        private boolean blockScanning;
         private long byteOffset = -1;
         private long characterOffset;
+        private CSVCheckpoint checkpoint;
+        private boolean directDecoding;
+        private Predicate<? super CharSequence> filter;
+        private int filterColumn = -1;
+        private String filterName;
+        private Headers headers;
+        private boolean lazyValues;
+        private int[] projection;
+        private String[] projectionNames;
+        private int readAhead;
+        private ThreadFactory readAheadThreadFactory = ReadAheadReader.DEFAULT_THREAD_FACTORY;
         private long recordNumber = 1;
+        private boolean splittable;
         private boolean trackBytes;
+        private CSVValueCache valueCache;
 
         /**
          * Constructs a new instance.
@@ -168,11 +192,109 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
             // empty
         }
 
+        /**
+         * Creates the reader to parse from the origin.
+         *
+         * @return A new reader.
+         * @throws IOException Thrown if an I/O error occurs.
+         */
+        private Reader createReader() throws IOException {
+            final Reader reader = createSourceReader();
+            return readAhead > 0 ? new ReadAheadReader(reader, readAhead, getBufferSize(), readAheadThreadFactory) : reader;
+        }
+
+        /**
+         * Creates the reader that decodes the origin.
+         *
+         * @return A new reader.
+         * @throws IOException Thrown if an I/O error occurs.
+         */
+        private Reader createSourceReader() throws IOException {
+            final AbstractOrigin<?, ?> origin = getOrigin();
+            final Path file = getFile();
+            final long start = checkpoint != null && file != null ? checkpoint.getBytePosition() : 0;
+            final boolean direct = directDecoding && StandardCharsets.UTF_8.equals(getCharset()) && !(origin instanceof AbstractOrigin.ReaderOrigin)
+                    && !(origin instanceof AbstractOrigin.CharSequenceOrigin);
+            if (start > 0) {
+                final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                try {
+                    channel.position(start);
+                } catch (final IOException e) {
+                    IOUtils.closeQuietly(channel);
+                    throw e;
+                }
+                final InputStream inputStream = Channels.newInputStream(channel);
+                return direct ? new Utf8Reader(inputStream) : new InputStreamReader(inputStream, getCharset());
+            }
+            if (direct) {
+                return new Utf8Reader(getInputStream());
+            }
+            return getReader();
+        }
+
+        /**
+         * Checks that projected column indices are not negative and not repeated.
+         *
+         * @param columns The column indices.
+         * @return the given column indices.
+         * @throws IllegalArgumentException if an index is negative or repeated.
+         */
+        private static int[] checkProjection(final int[] columns) {
+            final int[] sorted = columns.clone();
+            Arrays.sort(sorted);
+            if (sorted[0] < 0) {
+                throw new IllegalArgumentException("Negative column index in projection " + Arrays.toString(columns));
+            }
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] == sorted[i - 1]) {
+                    throw new IllegalArgumentException("Column " + sorted[i] + " is repeated in projection " + Arrays.toString(columns));
+                }
+            }
+            return columns;
+        }
+
         @Override
         public CSVParser get() throws IOException {
             return new CSVParser(this);
         }
 
+        /**
+         * Gets the file to parse, if the origin is a file.
+         *
+         * @return The file, or null if the origin is not a file.
+         */
+        private Path getFile() {
+            final AbstractOrigin<?, ?> origin = getOrigin();
+            return origin instanceof AbstractOrigin.PathOrigin || origin instanceof AbstractOrigin.FileOrigin ? getPath() : null;
+        }
+
+        /**
+         * Tests whether the parser opens its input, rather than reading a reader or stream the caller opened.
+         *
+         * @return Whether the parser opens its input.
+         */
+        private boolean isOpenedInput() {
+            return getFile() != null || getOrigin() instanceof AbstractOrigin.URIOrigin;
+        }
+
+        /**
+         * Sets whether the lexer copies runs of ordinary characters into field values in blocks.
+         * <p>
+         * By default, the lexer reads and tests the input one character at a time. With block scanning enabled, it scans ahead in the reader's buffer for the
+         * next delimiter, quote, escape or line break and appends the whole run at once, which is faster for long fields. It also matches a multi-character
+         * delimiter within the scanned block, so a delimiter of 2 or 3 characters costs within about 10% of a single character per file. Without block
+         * scanning, such delimiters cost about 15% to 30% more per file than a single character. Both modes produce the same records.
+         * </p>
+         *
+         * @param blockScanning {@code true} to enable block scanning; {@code false} to disable it.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setBlockScanning(final boolean blockScanning) {
+            this.blockScanning = blockScanning;
+            return asThis();
+        }
+
         /**
          * Sets the lexer byte offset when the parser does not start parsing at the beginning of the source.
          * <p>
@@ -201,6 +323,98 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
             return asThis();
         }
 
+        /**
+         * Sets a checkpoint to resume parsing from, as captured by {@link CSVParser#getCheckpoint()}.
+         * <p>
+         * When the origin is a {@link Path} or {@link File}, the parser opens it and seeks to the checkpoint's byte position. For other origins, the caller
+         * positions the origin at {@link CSVCheckpoint#getBytePosition()} first, for example with {@link java.nio.channels.SeekableByteChannel#position(long)}
+         * and {@link Channels#newInputStream(java.nio.channels.ReadableByteChannel)}. The parser does not read the header again: it takes the header,
+         * record number, byte and character positions, first end-of-line string and comments from the checkpoint, and tracks bytes so that it can take
+         * checkpoints too. These override {@link #setByteOffset(long)}, {@link #setCharacterOffset(long)} and {@link #setRecordNumber(long)}.
+         * </p>
+         * <p>
+         * Resume with the character set, format and options of the parser that took the checkpoint. {@link CSVFormat.Builder#setMaxRows(long)} counts the
+         * records parsed after the checkpoint, and {@link CSVParser#getCurrentLineNumber()} counts lines from it.
+         * </p>
+         *
+         * @param checkpoint The checkpoint, null to parse from the start.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setCheckpoint(final CSVCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return asThis();
+        }
+
+        /**
+         * Sets whether to decode UTF-8 byte input without a {@link java.nio.charset.CharsetDecoder} for ASCII bytes.
+         * <p>
+         * When enabled and the origin is a byte source (such as a path, file or input stream) with the UTF-8 character set, ASCII bytes, which include all
+         * CSV metacharacters, are translated directly to characters and only multi-byte sequences go through a decoder. On mostly-ASCII input this decodes
+         * more than twice as fast as an {@link java.io.InputStreamReader}, which makes a parse about 10% to 20% faster. The parser produces the same records
+         * either way. Other origins and character sets, whose JDK decoders are already as fast, are unaffected. The range parsers of a parallel
+         * {@link CSVParser#stream() stream} ignore this setting.
+         * </p>
+         *
+         * @param directDecoding {@code true} to enable direct decoding; {@code false} to disable it.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setDirectDecoding(final boolean directDecoding) {
+            this.directDecoding = directDecoding;
+            return asThis();
+        }
+
+        /**
+         * Sets a filter on the value of one column, to skip the records it rejects.
+         * <p>
+         * The parser tests the value as soon as the lexer reads that column, before it makes a {@link CSVRecord}. The value is a view of the lexer's buffer,
+         * trimmed and mapped to null like a record value, and only valid during the call. When the filter rejects a record, the parser makes no value for its
+         * other columns and moves on to the next record. A record without the column is tested with null. The header record is not filtered.
+         * </p>
+         * <p>
+         * A rejected record still takes a record number: {@link CSVRecord#getRecordNumber()} stays the number of the record in the input, so the numbers of
+         * the records the filter keeps have gaps. {@link CSVFormat.Builder#setMaxRows(long)} counts the records the filter keeps. A parallel stream of a
+         * filtered parser is not split by file ranges.
+         * </p>
+         *
+         * @param column    The 0-based index of the column to test in the input, before any {@link #setProjection(int...) projection}.
+         * @param predicate The filter, which returns {@code true} to keep a record; null to keep all records.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if the column index is negative.
+         * @see #setFilter(String, Predicate)
+         * @since 1.15.0
+         */
+        public Builder setFilter(final int column, final Predicate<? super CharSequence> predicate) {
+            if (column < 0) {
+                throw new IllegalArgumentException("Negative filter column " + column);
+            }
+            this.filter = predicate;
+            this.filterColumn = column;
+            this.filterName = null;
+            return asThis();
+        }
+
+        /**
+         * Sets a filter on the value of one column, by header name, to skip the records it rejects.
+         * <p>
+         * The format must define a header. The name is resolved against the header when the parser is built, then the filter behaves like
+         * {@link #setFilter(int, Predicate)}.
+         * </p>
+         *
+         * @param name      The header name of the column to test.
+         * @param predicate The filter, which returns {@code true} to keep a record; null to keep all records.
+         * @return {@code this} instance.
+         * @see #setFilter(int, Predicate)
+         * @since 1.15.0
+         */
+        public Builder setFilter(final String name, final Predicate<? super CharSequence> predicate) {
+            this.filter = predicate;
+            this.filterColumn = -1;
+            this.filterName = name;
+            return asThis();
+        }
+
         /**
          * Sets the CSV format. A copy of the given format is kept.
          *
@@ -212,6 +426,118 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
             return asThis();
         }
 
+        /**
+         * Sets the headers to use instead of reading them from the input, for a parser that starts after the header record.
+         *
+         * @param headers The headers resolved by a parser that read the start of the same input, or null to read them from the input.
+         * @return {@code this} instance.
+         */
+        Builder setHeaders(final Headers headers) {
+            this.headers = headers;
+            return asThis();
+        }
+
+        /**
+         * Sets whether records create their values on first access.
+         * <p>
+         * By default, the parser creates a String for each value of a record. With lazy values, it copies the characters of the values into a buffer that
+         * it shares between records, one byte per character when all of a record's characters are ISO-8859-1 characters, and creates a value's String when
+         * {@link CSVRecord#get(int)} or another accessor first reads it, then keeps it. This saves the allocation of the values a consumer never reads, for
+         * example when it reads a few columns of wide records. A record keeps its shared buffer, of about 8 KB, in memory. Lazy values do not use the
+         * {@link #setValueCache(CSVValueCache) value cache}.
+         * </p>
+         *
+         * @param lazyValues {@code true} to create values on first access; {@code false} to create them when parsing.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setLazyValues(final boolean lazyValues) {
+            this.lazyValues = lazyValues;
+            return asThis();
+        }
+
+        /**
+         * Sets the columns to keep, by index, in the order records hold them.
+         * <p>
+         * The lexer still reads the other columns, but the parser makes no value for them: a record holds the value of {@code columns[i]} at index
+         * {@code i}, and only as many values as it has up to the last projected column it contains. The header map, if any, maps the names of the projected
+         * columns to their index in the record. The header record itself is read in full.
+         * </p>
+         *
+         * @param columns The 0-based indices of the columns to keep, null or empty to keep all columns.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if an index is negative or repeated.
+         * @see #setProjection(String...)
+         * @since 1.15.0
+         */
+        public Builder setProjection(final int... columns) {
+            this.projection = columns == null || columns.length == 0 ? null : checkProjection(columns.clone());
+            this.projectionNames = null;
+            return asThis();
+        }
+
+        /**
+         * Sets the columns to keep, by header name, in the order records hold them.
+         * <p>
+         * The format must define a header. Names are resolved against the header when the parser is built, then the projection behaves like
+         * {@link #setProjection(int...)}: {@code record.get(name)} still works for the projected names.
+         * </p>
+         *
+         * @param names The header names of the columns to keep, null or empty to keep all columns.
+         * @return {@code this} instance.
+         * @see #setProjection(int...)
+         * @since 1.15.0
+         */
+        public Builder setProjection(final String... names) {
+            this.projectionNames = names == null || names.length == 0 ? null : names.clone();
+            this.projection = null;
+            return asThis();
+        }
+
+        /**
+         * Sets the number of buffers to read ahead of the lexer on a background thread, defaults to {@code 0}, which reads on the parsing thread.
+         * <p>
+         * When enabled, a background thread reads and decodes the origin into buffers of the {@link #setBufferSize(int) buffer size} while the parser lexes
+         * the buffer before them, so that I/O latency, such as from a network file system, overlaps with parsing instead of adding to it. Use {@code 2} for
+         * double buffering; more buffers absorb larger variations in I/O latency. The background thread blocks when all buffers are filled, so memory is
+         * bounded by {@code buffers} times the buffer size.
+         * </p>
+         * <p>
+         * An exception thrown while reading ahead is thrown by the parser when it reaches that point of the input. {@link CSVParser#close()} stops the
+         * background thread and closes the origin; if a read in progress does not return shortly, the background thread closes the origin once it does. The
+         * range parsers of a parallel {@link CSVParser#stream() stream} do not read ahead.
+         * </p>
+         *
+         * @param buffers The number of buffers to read ahead, {@code 0} to read on the parsing thread.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code buffers} is negative.
+         * @see #setReadAheadThreadFactory(ThreadFactory)
+         * @since 1.15.0
+         */
+        public Builder setReadAhead(final int buffers) {
+            if (buffers < 0) {
+                throw new IllegalArgumentException("Negative read-ahead buffers " + buffers);
+            }
+            this.readAhead = buffers;
+            return asThis();
+        }
+
+        /**
+         * Sets the factory of the thread that reads ahead, defaults to a factory of daemon platform threads.
+         * <p>
+         * On Java 21 and above, {@code Thread.ofVirtual().factory()} reads ahead on a virtual thread.
+         * </p>
+         *
+         * @param threadFactory The thread factory, {@code null} resets to the default.
+         * @return {@code this} instance.
+         * @see #setReadAhead(int)
+         * @since 1.15.0
+         */
+        public Builder setReadAheadThreadFactory(final ThreadFactory threadFactory) {
+            this.readAheadThreadFactory = threadFactory != null ? threadFactory : ReadAheadReader.DEFAULT_THREAD_FACTORY;
+            return asThis();
+        }
+
         /**
          * Sets the next record number to assign, defaults to {@code 1}.
          *
@@ -223,6 +549,26 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
             return asThis();
         }
 
+        /**
+         * Sets whether a parallel {@link CSVParser#stream() stream} of a file origin splits the file into byte ranges on record boundaries, defaults to
+         * {@code false}.
+         * <p>
+         * When enabled, the file is scanned for record boundaries by counting quote characters, and its byte ranges are parsed concurrently by range
+         * parsers. This only finds the same records as a sequential parse when quote characters appear only in quoted values: input such as
+         * {@code a,b"c,d}, which a sequential parse accepts, makes the stream throw a {@link CSVException} wrapped in an {@link UncheckedIOException}.
+         * Range parsers also ignore some settings of this builder, see {@link CSVParser#stream()}. When disabled, a parallel stream reads records from this
+         * parser in batches. {@link CSVParallelParser} splits a file without an open parser.
+         * </p>
+         *
+         * @param splittable {@code true} to split parallel streams of a file origin; {@code false} to read them from this parser.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setSplittable(final boolean splittable) {
+            this.splittable = splittable;
+            return asThis();
+        }
+
         /**
          * Sets whether to enable byte tracking for the parser.
          *
@@ -235,6 +581,22 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
             return asThis();
         }
 
+        /**
+         * Sets a cache that lets records share one String instance for equal values.
+         * <p>
+         * The parser looks up the characters of each value in the cache before it creates a String, which saves heap when many records that repeat the
+         * same values are kept. {@link CSVReusableRecord Reusable records} make no Strings and do not use the cache, nor do the range parsers of a parallel
+         * stream, since a cache is not thread-safe.
+         * </p>
+         *
+         * @param valueCache The cache, or null to make a new String for each value.
+         * @return {@code this} instance.
+         * @since 1.15.0
+         */
+        public Builder setValueCache(final CSVValueCache valueCache) {
+            this.valueCache = valueCache;
+            return asThis();
+        }
     }
 
     final class CSVRecordIterator implements Iterator<CSVRecord> {
@@ -293,10 +655,61 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         }
     }
 
+    /**
+     * Iterates this parser's records, unless a parallel stream splits a {@link Builder#setSplittable(boolean) splittable} parser before the first record:
+     * then the file is scanned for record boundaries and its byte ranges are handed off to {@link RangeSpliterator range parsers}.
+     */
+    private final class CSVRecordSpliterator implements Spliterator<CSVRecord> {
+
+        private boolean advanced;
+        private Spliterator<CSVRecord> delegate = Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super CSVRecord> action) {
+            advanced = true;
+            delegate.forEachRemaining(action);
+        }
+
+        private boolean isSplittable() {
+            return file != null && !advanced && fileRanges == null && !isClosed() && format.getMaxRows() == 0 && filter == null
+                    && recordNumber == firstRecordNumber - 1 && csvRecordIterator.current == null && RecordBoundaryScanner.isSplittable(format, charset);
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super CSVRecord> action) {
+            advanced = true;
+            return delegate.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<CSVRecord> trySplit() {
+            if (isSplittable()) {
+                final ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+                final long size = Uncheck.apply(Files::size, file);
+                // Several ranges per worker balance the load when ranges parse at different speeds.
+                final int chunkSize = (int) Math.min(CSVParallelParser.DEFAULT_CHUNK_SIZE, Math.max(MIN_SPLIT_SIZE, size / (4L * pool.getParallelism())));
+                fileRanges = Uncheck.get(() -> new FileRanges(file, charset, format, projection, trackBytes, blockScanning, lazyValues, characterOffset,
+                        byteOffset, firstRecordNumber, chunkSize, pool));
+                delegate = new RangeSpliterator(fileRanges, 0, fileRanges.size());
+            }
+            return delegate.trySplit();
+        }
+    }
+
     /**
      * Header information based on name and position.
      */
-    private static final class Headers {
+    static final class Headers {
 
         /**
          * Header column positions (0-based)
@@ -314,6 +727,49 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         }
     }
 
+    /**
+     * A view of a token's value, the part of its content left by trimming.
+     */
+    private static final class TokenValue implements CharSequence {
+
+        private final StringBuilder content;
+        private int end;
+        private int start;
+
+        TokenValue(final StringBuilder content) {
+            this.content = content;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+            }
+            return content.charAt(start + index);
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            return content.substring(start, end);
+        }
+    }
+
+    /** The smallest byte range a parallel stream splits a file into. */
+    private static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+    /** The size of the buffers records with lazy values share. */
+    private static final int LAZY_BUFFER_SIZE = 8192;
+
     /**
      * Creates a new builder.
      *
@@ -484,10 +940,16 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
 
     private String trailerComment;
 
+    /** The comment of the record last parsed, or null. */
+    private String recordComment;
+
     private final CSVFormat format;
 
     private final Headers headers;
 
+    /** The headers of the input, before projection. */
+    private final Headers inputHeaders;
+
     private final Lexer lexer;
 
     private final CSVRecordIterator csvRecordIterator;
@@ -495,11 +957,25 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
     /** A record buffer for getRecord(). Grows as necessary and is reused. */
     private final List<String> recordList = new ArrayList<>();
 
+    /** The record buffer for records with lazy values, or null to create values when parsing. */
+    private final CSVReusableRecord lazyRecord;
+
+    /** The ISO-8859-1 characters of lazy values, shared by records until full. */
+    private byte[] lazyLatin1;
+
+    /** The number of bytes of {@link #lazyLatin1} in use. */
+    private int lazyLatin1Count;
+
     /**
      * The next record number to assign.
      */
     private long recordNumber;
 
+    /** The record number and trailer comment at the last {@link #mark()}. */
+    private long recordNumberMark;
+
+    private String trailerCommentMark;
+
     /**
      * Lexer offset when the parser does not start parsing at the beginning of the source. Usually used in combination
      * with {@link #recordNumber}.
@@ -514,6 +990,48 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
 
     private final Token reusableToken = new Token();
 
+    /** The file origin of a splittable parser, or null if the parser is not splittable or the origin is not a file. */
+    private final Path file;
+
+    /** The character set of a file origin. */
+    private final Charset charset;
+
+    /** Whether a file origin is parsed with block scanning, for range parsers. */
+    private final boolean blockScanning;
+
+    /** Whether a file origin is parsed with byte tracking, for range parsers. */
+    private final boolean trackBytes;
+
+    /** Whether a file origin is parsed with lazy values, for range parsers. */
+    private final boolean lazyValues;
+
+    /** The number of the first record. */
+    private final long firstRecordNumber;
+
+    /** The byte ranges a parallel stream split the file into, or null. */
+    private FileRanges fileRanges;
+
+    /** The input column indices of a projection, or null to keep all columns. */
+    private final int[] projection;
+
+    /** The record index of each input column, or -1 for a column that is not kept; null to keep all columns, and while the header is read. */
+    private int[] slots;
+
+    /** The filter on the value of {@link #filterColumn}; null to keep all records, and while the header is read. */
+    private Predicate<? super CharSequence> filter;
+
+    /** The input column index the filter tests. */
+    private final int filterColumn;
+
+    /** Whether the filter rejected the record being parsed. */
+    private boolean rejected;
+
+    /** The cache of values, or null. */
+    private final CSVValueCache valueCache;
+
+    /** A view of the current token's value for the filter and reusable records. */
+    private final TokenValue tokenValue = new TokenValue(reusableToken.content);
+
     /**
      * Constructs a new instance from a builder.
      *
@@ -523,12 +1041,52 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
     @SuppressWarnings("resource") // Lexer manages ExtendedBufferedReader.
     private CSVParser(final Builder builder) throws IOException {
         this.format = (builder.format != null ? builder.format : CSVFormat.DEFAULT).copy();
-        this.lexer = new Lexer(format, new ExtendedBufferedReader(builder.getReader(), builder.getCharset(), builder.trackBytes));
-        this.csvRecordIterator = new CSVRecordIterator();
-        this.headers = createHeaders();
-        this.byteOffset = builder.byteOffset != -1 ? builder.byteOffset : builder.characterOffset;
-        this.characterOffset = builder.characterOffset;
-        this.recordNumber = builder.recordNumber - 1;
+        this.valueCache = builder.valueCache;
+        final CSVCheckpoint checkpoint = builder.checkpoint;
+        this.trackBytes = builder.trackBytes || checkpoint != null;
+        final Reader reader = builder.createReader();
+        this.lexer = new Lexer(format, new ExtendedBufferedReader(reader, builder.getCharset(), trackBytes), builder.blockScanning);
+        try {
+            this.csvRecordIterator = new CSVRecordIterator();
+            this.lazyValues = builder.lazyValues;
+            this.lazyRecord = lazyValues ? new CSVReusableRecord() : null;
+            if (checkpoint != null) {
+                lexer.setFirstEol(checkpoint.getFirstEndOfLine());
+                this.headerComment = checkpoint.getHeaderComment();
+                this.trailerComment = checkpoint.getTrailerComment();
+            }
+            this.inputHeaders = builder.headers != null ? builder.headers
+                    : checkpoint != null ? new Headers(checkpoint.getHeaderMap(createEmptyHeaderMap()), checkpoint.getHeaderNames()) : createHeaders();
+            this.projection = builder.projectionNames != null ? resolveProjection(builder.projectionNames, inputHeaders) : builder.projection;
+            // Headers from the builder are already projected.
+            this.headers = projection == null || builder.headers != null ? inputHeaders : projectHeaders(inputHeaders, projection);
+            this.slots = projection == null ? null : createSlots(projection);
+            this.filterColumn = builder.filter == null ? -1
+                    : builder.filterName != null ? resolveColumn(builder.filterName, inputHeaders, "filter") : builder.filterColumn;
+            this.filter = builder.filter;
+            if (checkpoint != null) {
+                this.byteOffset = checkpoint.getBytePosition();
+                this.characterOffset = checkpoint.getCharacterPosition();
+                this.firstRecordNumber = checkpoint.getRecordNumber();
+            } else {
+                this.byteOffset = builder.byteOffset != -1 ? builder.byteOffset : builder.characterOffset;
+                this.characterOffset = builder.characterOffset;
+                this.firstRecordNumber = builder.recordNumber;
+            }
+            this.recordNumber = firstRecordNumber - 1;
+            // File ranges start at the start of the file.
+            this.file = builder.splittable && checkpoint == null ? builder.getFile() : null;
+            this.charset = builder.getCharset();
+            this.blockScanning = builder.blockScanning;
+        } catch (final IOException | RuntimeException e) {
+            // The caller never gets a parser to close: close the input this parser opened, and leave the caller's input open.
+            if (builder.isOpenedInput()) {
+                IOUtils.closeQuietlySuppress(lexer, e);
+            } else if (reader instanceof ReadAheadReader) {
+                ((ReadAheadReader) reader).stop();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -591,14 +1149,61 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         // @formatter:off
     }
 
-    private void addRecordValue(final boolean lastRecord) {
-        final String input = format.trim(reusableToken.content.toString());
+    private boolean addRecordValue(final int column, final boolean lastRecord, final CSVReusableRecord reusableRecord) {
         // Only drop the empty field produced by an actual trailing delimiter. A quoted empty
         // field ("") is a real value, not a trailing delimiter, so it must be kept.
-        if (lastRecord && input.isEmpty() && format.getTrailingDelimiter() && !reusableToken.isQuoted) {
-            return;
+        if (lastRecord && format.getTrailingDelimiter() && !reusableToken.isQuoted && isEmptyValue()) {
+            return false;
+        }
+        if (rejected) {
+            return true;
+        }
+        if (column == filterColumn && filter != null && !filter.test(setTokenValue() ? null : tokenValue)) {
+            // Skip making values for the rest of the record.
+            rejected = true;
+            return true;
+        }
+        int index = column;
+        if (slots != null) {
+            index = column < slots.length ? slots[column] : -1;
+            if (index < 0) {
+                // Not projected, skip making a value.
+                return true;
+            }
         }
-        recordList.add(handleNull(input));
+        if (reusableRecord != null) {
+            addReusableValue(index, reusableRecord);
+            return true;
+        }
+        final String value = valueCache != null ? cachedValue() : handleNull(format.trim(reusableToken.content.toString()));
+        if (index == recordList.size()) {
+            recordList.add(value);
+        } else {
+            // A projection that reorders columns.
+            while (recordList.size() <= index) {
+                recordList.add(null);
+            }
+            recordList.set(index, value);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the token as a value of a reusable record, trimming and mapping null values like {@link #addRecordValue(int, boolean, CSVReusableRecord)} without
+     * creating a String.
+     */
+    private void addReusableValue(final int index, final CSVReusableRecord reusableRecord) {
+        final boolean isNull = setTokenValue();
+        reusableRecord.setValue(index, reusableToken.content, tokenValue.start, tokenValue.end, isNull);
+    }
+
+    /**
+     * Gets the current token's value from the value cache, trimmed and mapped to null like {@link #handleNull(String)}.
+     *
+     * @return The value.
+     */
+    private String cachedValue() {
+        return setTokenValue() ? null : valueCache.get(reusableToken.content, tokenValue.start, tokenValue.end);
     }
 
     /**
@@ -609,9 +1214,24 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
      */
     @Override
     public void close() throws IOException {
+        if (fileRanges != null) {
+            fileRanges.close();
+        }
         lexer.close();
     }
 
+    private static boolean contentEquals(final StringBuilder content, final int start, final int end, final String string) {
+        if (string == null || string.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (content.charAt(i) != string.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Map<String, Integer> createEmptyHeaderMap() {
         return format.getIgnoreHeaderCase() ?
                 new TreeMap<>(String.CASE_INSENSITIVE_ORDER) :
@@ -682,6 +1302,71 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         return new Headers(headerMap, headerNames == null ? Collections.emptyList() : Collections.unmodifiableList(headerNames));
     }
 
+    /**
+     * Creates the record index of each input column of a projection.
+     *
+     * @param columns The input column indices to keep.
+     * @return the record index of each input column, -1 for a column that is not kept.
+     */
+    private static int[] createSlots(final int[] columns) {
+        final int[] slots = new int[Arrays.stream(columns).max().getAsInt() + 1];
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < columns.length; i++) {
+            slots[columns[i]] = i;
+        }
+        return slots;
+    }
+
+    /**
+     * Gets the character position of the input the parser consumed, the start of the next record after a record is parsed.
+     *
+     * @return The character position, including the builder's character offset.
+     */
+    long getCharacterPosition() {
+        return lexer.getCharacterPosition() + characterOffset;
+    }
+
+    /**
+     * Captures a checkpoint to resume parsing from the next record later, with {@link Builder#setCheckpoint(CSVCheckpoint)}.
+     * <p>
+     * The next record is the record that {@link #nextRecord()} or the {@link #iterator() iterator} returns next, including a record the iterator has
+     * already read ahead for {@link Iterator#hasNext()}. Call this method between records, for example after processing a batch of records.
+     * </p>
+     *
+     * @return A new checkpoint.
+     * @throws IllegalStateException if the parser does not track bytes, see {@link Builder#setTrackBytes(boolean)}.
+     * @since 1.15.0
+     */
+    public CSVCheckpoint getCheckpoint() {
+        if (!trackBytes) {
+            throw new IllegalStateException("A checkpoint needs byte positions, see CSVParser.Builder.setTrackBytes(boolean)");
+        }
+        final CSVRecord next = csvRecordIterator.current;
+        if (next != null) {
+            return new CSVCheckpoint(next.getBytePosition(), next.getCharacterPosition(), next.getRecordNumber(), inputHeaders, lexer.getFirstEol(),
+                    headerComment, null);
+        }
+        return new CSVCheckpoint(lexer.getBytesRead() + byteOffset, getCharacterPosition(), recordNumber + 1, inputHeaders, lexer.getFirstEol(), headerComment,
+                trailerComment);
+    }
+
+    /**
+     * Resolves a column name in the header once, to get its values from records with {@link CSVRecord#get(CSVColumn)} at the cost of an array access.
+     * <p>
+     * The column's name is matched like {@link CSVRecord#get(String)} matches it, ignoring case if the format ignores header case. With a projection, the
+     * column indexes the projected values.
+     * </p>
+     *
+     * @param name the name of the column.
+     * @return A new column.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped.
+     * @since 1.15.0
+     */
+    public CSVColumn getColumn(final String name) {
+        return CSVColumn.of(headers.headerMap, name);
+    }
+
     /**
      * Gets the current line number in the input stream.
      *
@@ -747,6 +1432,24 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         return headers.headerMap;
     }
 
+    /**
+     * Gets the resolved headers, to share with parsers of other parts of the same input.
+     *
+     * @return The resolved headers.
+     */
+    Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the character position of the opening quote of the current token, if it is quoted.
+     *
+     * @return The character position of the opening quote, or -1 if the current token is not quoted.
+     */
+    long getQuotePosition() {
+        return reusableToken.isQuoted ? lexer.getQuotePosition() + characterOffset : -1;
+    }
+
     /**
      * Gets a read-only list of header names that iterates in column order as defined in the CSVFormat's header.
      * <p>
@@ -815,15 +1518,7 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
      * @return null if input is parsed as null, or input itself if the input isn't parsed as null
      */
     private String handleNull(final String input) {
-        final boolean isQuoted = reusableToken.isQuoted;
-        final String nullString = format.getNullString();
-        final boolean strictQuoteMode = isStrictQuoteMode();
-        if (input.equals(nullString)) {
-            // nullString = NULL(String), distinguish between "NULL" and NULL in ALL_NON_NULL or NON_NUMERIC quote mode
-            return strictQuoteMode && isQuoted ? input : null;
-        }
-        // don't set nullString, distinguish between "" and ,, (absent values) in All_NON_NULL or NON_NUMERIC quote mode
-        return strictQuoteMode && nullString == null && input.isEmpty() && !isQuoted ? null : input;
+        return isNullValue(input.equals(format.getNullString()), input.isEmpty()) ? null : input;
     }
 
     /**
@@ -864,6 +1559,34 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         return lexer.isClosed();
     }
 
+    /**
+     * Tests whether the parser has read the end of the input.
+     *
+     * @return whether the parser has read the end of the input.
+     */
+    boolean isEndOfInput() {
+        return lexer.isEndOfInput();
+    }
+
+    /**
+     * Tests whether the current token is empty once trimmed, if the format trims values.
+     *
+     * @return whether the current token is empty.
+     */
+    private boolean isEmptyValue() {
+        final StringBuilder content = reusableToken.content;
+        if (!format.getTrim()) {
+            return content.length() == 0;
+        }
+        // Same as String.trim().isEmpty()
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Tests whether the format's {@link QuoteMode} is {@link QuoteMode#ALL_NON_NULL} or {@link QuoteMode#NON_NUMERIC}.
      *
@@ -875,6 +1598,24 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
                format.getQuoteMode() == QuoteMode.NON_NUMERIC;
     }
 
+    /**
+     * Tests whether the current token maps to a null value.
+     *
+     * @param matchesNullString whether the value equals the format's null string.
+     * @param isEmpty whether the value is empty.
+     * @return whether the value is null.
+     */
+    private boolean isNullValue(final boolean matchesNullString, final boolean isEmpty) {
+        final boolean isQuoted = reusableToken.isQuoted;
+        final boolean strictQuoteMode = isStrictQuoteMode();
+        if (matchesNullString) {
+            // nullString = NULL(String), distinguish between "NULL" and NULL in ALL_NON_NULL or NON_NUMERIC quote mode
+            return !(strictQuoteMode && isQuoted);
+        }
+        // don't set nullString, distinguish between "" and ,, (absent values) in All_NON_NULL or NON_NUMERIC quote mode
+        return strictQuoteMode && format.getNullString() == null && isEmpty && !isQuoted;
+    }
+
     /**
      * Returns the record iterator.
      *
@@ -902,6 +1643,17 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
         return csvRecordIterator;
     }
 
+    /**
+     * Marks the start of the next record, so that {@link #reset()} can go back to it and parse the record again once more of it has arrived.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void mark() throws IOException {
+        lexer.mark();
+        recordNumberMark = recordNumber;
+        trailerCommentMark = trailerComment;
+    }
+
     /**
      * Parses the next record from the current point in the stream.
      *
@@ -910,24 +1662,79 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
      * @throws CSVException on invalid CSV input data.
      */
     CSVRecord nextRecord() throws IOException {
-        CSVRecord result = null;
-        recordList.clear();
+        long startCharPosition;
+        long startBytePosition;
+        do {
+            recordList.clear();
+            startCharPosition = lexer.getCharacterPosition() + characterOffset;
+            startBytePosition = lexer.getBytesRead() + byteOffset;
+            if (lazyRecord != null) {
+                lazyRecord.clear(this);
+            }
+            if (nextValues(lazyRecord) == 0) {
+                return null;
+            }
+            // A rejected record takes a record number too.
+            recordNumber++;
+        } while (rejected);
+        if (lazyRecord != null) {
+            return newLazyRecord(startCharPosition, startBytePosition);
+        }
+        return new CSVRecord(this, recordList.toArray(Constants.EMPTY_STRING_ARRAY), recordComment, recordNumber, startCharPosition, startBytePosition);
+    }
+
+    /**
+     * Creates a record with lazy values from {@link #lazyRecord}, copying its characters into the shared buffer.
+     *
+     * @param startCharPosition The character position of the record.
+     * @param startBytePosition The byte position of the record.
+     * @return A new record.
+     */
+    private CSVRecord newLazyRecord(final long startCharPosition, final long startBytePosition) {
+        final int charCount = lazyRecord.getCharCount();
+        if (lazyLatin1 == null || lazyLatin1Count + charCount > lazyLatin1.length) {
+            lazyLatin1 = new byte[Math.max(LAZY_BUFFER_SIZE, charCount)];
+            lazyLatin1Count = 0;
+        }
+        if (lazyRecord.copyLatin1(lazyLatin1, lazyLatin1Count)) {
+            // One byte per character, like a compact String.
+            final int[] bounds = lazyRecord.getBounds(lazyLatin1Count);
+            lazyLatin1Count += charCount;
+            return new CSVRecord(this, lazyLatin1, null, bounds, recordComment, recordNumber, startCharPosition, startBytePosition);
+        }
+        return new CSVRecord(this, null, lazyRecord.copyChars(), lazyRecord.getBounds(0), recordComment, recordNumber, startCharPosition,
+                startBytePosition);
+    }
+
+    /**
+     * Parses the values of the next record, and its comment into {@link #recordComment}.
+     *
+     * @param reusableRecord The record to add the values to, or null to add them to the record buffer.
+     * @return The number of fields in the input record, including fields a projection skips; 0 at the end of the stream.
+     * @throws IOException  on parse error or input read-failure.
+     * @throws CSVException on invalid CSV input data.
+     */
+    private int nextValues(final CSVReusableRecord reusableRecord) throws IOException {
         StringBuilder sb = null;
-        final long startCharPosition = lexer.getCharacterPosition() + characterOffset;
-        final long startBytePosition = lexer.getBytesRead() + byteOffset;
+        int fields = 0;
+        rejected = false;
         do {
             reusableToken.reset();
             lexer.nextToken(reusableToken);
             switch (reusableToken.type) {
             case TOKEN:
-                addRecordValue(false);
+                addRecordValue(fields++, false, reusableRecord);
                 break;
             case EORECORD:
-                addRecordValue(true);
+                if (addRecordValue(fields, true, reusableRecord)) {
+                    fields++;
+                }
                 break;
             case EOF:
                 if (reusableToken.isReady) {
-                    addRecordValue(true);
+                    if (addRecordValue(fields, true, reusableRecord)) {
+                        fields++;
+                    }
                 } else if (sb != null) {
                     trailerComment = sb.toString();
                 }
@@ -947,12 +1754,178 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
                 throw new CSVException("Unexpected Token type: %s", reusableToken.type);
             }
         } while (reusableToken.type == TOKEN);
-        if (!recordList.isEmpty()) {
+        if (filter != null && 0 < fields && fields <= filterColumn && !rejected) {
+            // The record has no value to test.
+            rejected = !filter.test(null);
+        }
+        recordComment = Objects.toString(sb, null);
+        return fields;
+    }
+
+    /**
+     * Maps the names of projected columns to their index in a record.
+     *
+     * @param inputHeaders The headers of the input columns.
+     * @param columns      The input column indices to keep.
+     * @return The headers of the projected columns.
+     */
+    private Headers projectHeaders(final Headers inputHeaders, final int[] columns) {
+        if (inputHeaders.headerMap == null) {
+            return inputHeaders;
+        }
+        final String[] names = new String[columns.length];
+        inputHeaders.headerMap.forEach((name, column) -> {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == column.intValue()) {
+                    names[i] = name;
+                }
+            }
+        });
+        final Map<String, Integer> headerMap = createEmptyHeaderMap();
+        final List<String> headerNames = new ArrayList<>(columns.length);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) {
+                headerMap.put(names[i], Integer.valueOf(i)); // Explicit boxing is intentional
+                headerNames.add(names[i]);
+            }
+        }
+        return new Headers(headerMap, Collections.unmodifiableList(headerNames));
+    }
+
+    /**
+     * Parses up to {@link CSVColumnBatch#getCapacity()} records into a reusable columnar batch, instead of creating a {@link CSVRecord} for each.
+     * <p>
+     * The batch stores the values by column, parsing the values of its declared numeric columns without creating Strings, and reuses its arrays, so they
+     * are <strong>only valid until the next call</strong>. See {@link CSVColumnBatch}.
+     * </p>
+     * <p>
+     * Records read this way count toward {@link CSVFormat.Builder#setMaxRows(long)} together with the records of {@link #iterator()}.
+     * </p>
+     *
+     * @param batch The batch to fill.
+     * @return The number of records read, 0 at the end of the stream, after max rows, or if the parser is closed.
+     * @throws IOException           on parse error or input read-failure.
+     * @throws CSVException          on invalid CSV input data.
+     * @throws NumberFormatException if a value of a numeric column is not a number; the batch holds the records before it.
+     * @since 1.15.0
+     */
+    public int readBatch(final CSVColumnBatch batch) throws IOException {
+        Objects.requireNonNull(batch, "batch");
+        batch.clear();
+        final CSVReusableRecord record = batch.getRecord();
+        for (int i = batch.getCapacity(); i > 0 && readRecord(record); i--) {
+            batch.addRecord();
+        }
+        return batch.getRowCount();
+    }
+
+    /**
+     * Parses the next record into a reusable record, instead of creating a new {@link CSVRecord}.
+     * <p>
+     * Reading a record this way allocates no values, no value array, and no record: the values are views into a buffer the given record reuses, so they are
+     * <strong>only valid until the next call</strong>. See {@link CSVReusableRecord}.
+     * </p>
+     * <p>
+     * Records read this way count toward {@link CSVFormat.Builder#setMaxRows(long)} together with the records of {@link #iterator()}.
+     * </p>
+     *
+     * @param record The record to fill.
+     * @return {@code true} if a record was read, {@code false} at the end of the stream, after max rows, or if the parser is closed.
+     * @throws IOException  on parse error or input read-failure.
+     * @throws CSVException on invalid CSV input data.
+     * @since 1.15.0
+     */
+    public boolean readRecord(final CSVReusableRecord record) throws IOException {
+        Objects.requireNonNull(record, "record");
+        if (isClosed() || !format.useRow(csvRecordIterator.recordCount + 1)) {
+            return false;
+        }
+        long startCharPosition;
+        long startBytePosition;
+        do {
+            startCharPosition = lexer.getCharacterPosition() + characterOffset;
+            startBytePosition = lexer.getBytesRead() + byteOffset;
+            record.clear(this);
+            if (nextValues(record) == 0) {
+                return false;
+            }
             recordNumber++;
-            result = new CSVRecord(this, recordList.toArray(Constants.EMPTY_STRING_ARRAY), Objects.toString(sb, null), recordNumber, startCharPosition,
-                    startBytePosition);
+        } while (rejected);
+        csvRecordIterator.recordCount++;
+        record.set(recordComment, recordNumber, startCharPosition, startBytePosition);
+        return true;
+    }
+
+    /**
+     * Goes back to the start of the record of the last {@link #mark()}.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void reset() throws IOException {
+        lexer.reset();
+        recordNumber = recordNumberMark;
+        trailerComment = trailerCommentMark;
+    }
+
+    /**
+     * Resolves a header name to an input column index.
+     *
+     * @param name         The header name.
+     * @param inputHeaders The headers of the input columns.
+     * @param option       The option that names the column, for messages.
+     * @return The input column index.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if the name is not mapped.
+     */
+    private static int resolveColumn(final String name, final Headers inputHeaders, final String option) {
+        if (inputHeaders.headerMap == null) {
+            throw new IllegalStateException("No header mapping was specified, the " + option + " can't select columns by name");
+        }
+        final Integer column = name == null ? null : inputHeaders.headerMap.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException(String.format("Mapping for %s not found, expected one of %s", name, inputHeaders.headerMap.keySet()));
         }
-        return result;
+        return column.intValue();
+    }
+
+    /**
+     * Resolves projected header names to input column indices.
+     *
+     * @param names        The header names.
+     * @param inputHeaders The headers of the input columns.
+     * @return The input column indices.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if a name is not mapped or is repeated.
+     */
+    private static int[] resolveProjection(final String[] names, final Headers inputHeaders) {
+        final int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = resolveColumn(names[i], inputHeaders, "projection");
+        }
+        return Builder.checkProjection(columns);
+    }
+
+    /**
+     * Sets the {@link #tokenValue} view to the current token's value, trimmed if the format trims values.
+     *
+     * @return whether the value maps to null.
+     */
+    private boolean setTokenValue() {
+        final StringBuilder content = reusableToken.content;
+        int start = 0;
+        int end = content.length();
+        if (format.getTrim()) {
+            // Same as String.trim()
+            while (start < end && content.charAt(start) <= ' ') {
+                start++;
+            }
+            while (start < end && content.charAt(end - 1) <= ' ') {
+                end--;
+            }
+        }
+        tokenValue.start = start;
+        tokenValue.end = end;
+        return isNullValue(contentEquals(content, start, end, format.getNullString()), start == end);
     }
 
     /**
@@ -964,12 +1937,60 @@ public final class CSVParser implements Iterable<CSVRecord>, Closeable {
      * <p>
      * You can use {@link CSVFormat.Builder#setMaxRows(long)} to limit how many rows a Stream produces.
      * </p>
+     * <p>
+     * When the parser is {@link Builder#setSplittable(boolean) splittable}, the origin is a file and the stream is made {@link Stream#parallel() parallel}
+     * before any record is read, the file is scanned for record boundaries and split into byte ranges that are parsed concurrently, with exact
+     * {@link Spliterator#SIZED sizes}. Records keep the record numbers and positions of a sequential parse. This requires a format without an escape
+     * character or comment marker, no maximum rows, and a UTF-8 or ASCII-compatible single-byte character set; a quote character outside a quoted value
+     * makes the stream throw a {@link CSVException} wrapped in an {@link UncheckedIOException}. Otherwise, a parallel stream reads records from this
+     * parser in batches. See {@link CSVParallelParser}.
+     * </p>
+     * <p>
+     * Each range is parsed by its own parser, which keeps this parser's format, projection, byte tracking, block scanning and lazy values. Range parsers
+     * always read the file through memory-mapped windows, so the builder's {@link Builder#setDirectDecoding(boolean) direct decoding},
+     * {@link Builder#setReadAhead(int) read-ahead} and buffer size do not apply to them, and they do not use a
+     * {@link Builder#setValueCache(CSVValueCache) value cache}, which is not thread-safe. {@link CSVRecord#getParser()} returns the range parser of a
+     * record, which is closed once its range has been parsed.
+     * </p>
      *
      * @return A sequential {@code Stream} with this collection as its source.
      * @since 1.9.0
      */
     public Stream<CSVRecord> stream() {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+        return StreamSupport.stream(new CSVRecordSpliterator(), false);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} of the records bound to instances of a Java record class or a JavaBean with the default converters.
+     *
+     * @param <T>  The type to bind records to.
+     * @param type The type to bind records to.
+     * @return A sequential {@code Stream} of bound records.
+     * @throws IllegalArgumentException if the type cannot be bound to the records, see {@link CSVBinder#bind(CSVParser)}.
+     * @throws IllegalStateException    if the type is not a record class and the parser has no header.
+     * @see #stream(CSVBinder)
+     * @since 1.15.0
+     */
+    public <T> Stream<T> stream(final Class<T> type) {
+        return stream(CSVBinder.of(type));
+    }
+
+    /**
+     * Returns a sequential {@code Stream} of the records bound to instances of a type, see {@link CSVBinder}.
+     * <p>
+     * The binder resolves the header once, so a parallel stream of a {@link Builder#setSplittable(boolean) splittable} parser binds records on each worker
+     * without looking up names. See {@link #stream()}.
+     * </p>
+     *
+     * @param <T>    The type to bind records to.
+     * @param binder The binder.
+     * @return A sequential {@code Stream} of bound records.
+     * @throws IllegalArgumentException if the binder's type cannot be bound to the records, see {@link CSVBinder#bind(CSVParser)}.
+     * @throws IllegalStateException    if the binder's type is not a record class and the parser has no header.
+     * @since 1.15.0
+     */
+    public <T> Stream<T> stream(final CSVBinder<T> binder) {
+        return binder.stream(this);
     }
 
 }
@@ -105,9 +105,33 @@ public final class CSVPrinter implements Flushable, Closeable {
      * @throws NullPointerException     thrown if either parameters are null.
      */
     public CSVPrinter(final Appendable appendable, final CSVFormat format) throws IOException {
+        this(appendable, format, 0);
+    }
+
+    /**
+     * Creates a printer that will print values to the given stream following the CSVFormat, collecting the output in a buffer of the given size.
+     * <p>
+     * With a positive buffer size, the printer formats values into an internal {@code char[]} and appends it to {@code appendable} in blocks, rather than
+     * appending each delimiter, quote and value segment separately; this saves the lock and checks a {@link java.io.Writer Writer} takes on each call. The
+     * output reaches {@code appendable} when the buffer fills and on {@link #flush()} and {@link #close()}, so flush or close the printer before reading
+     * {@code appendable}. {@link #getOut()} returns the buffer, so that output appended to it stays in order.
+     * </p>
+     *
+     * @param appendable stream to which to print. Must not be null.
+     * @param format     The CSV format. Must not be null.
+     * @param bufferSize The size of the buffer in characters, or 0 to append to {@code appendable} directly.
+     * @throws IOException              thrown if the optional header cannot be printed.
+     * @throws IllegalArgumentException thrown if the parameters of the format are inconsistent, or if {@code bufferSize} is negative.
+     * @throws NullPointerException     thrown if either parameters are null.
+     * @since 1.15.0
+     */
+    public CSVPrinter(final Appendable appendable, final CSVFormat format, final int bufferSize) throws IOException {
         Objects.requireNonNull(appendable, "appendable");
         Objects.requireNonNull(format, "format");
-        this.appendable = appendable;
+        if (bufferSize < 0) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " is negative");
+        }
+        this.appendable = bufferSize > 0 ? new PrintBuffer(appendable, bufferSize) : appendable;
         this.format = format.copy();
         // TODO: Is it a good idea to do this here instead of on the first call to a print method?
         // It seems a pain to have to track whether the header has already been printed or not.
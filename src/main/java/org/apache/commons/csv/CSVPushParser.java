@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Parses CSV input that the caller pushes in chunks, as it arrives, instead of pulling it from a blocking {@link Reader}.
+ * <p>
+ * Each call to {@link #feed(char[], int, int)}, {@link #feed(CharSequence)} or {@link #feed(ByteBuffer)} returns the records the input completes, and
+ * never waits for more input: a record, a quoted value or a line break split across chunks is held until a later chunk completes it. Call {@link #end()}
+ * after the last chunk to parse the rest of the input with the same end-of-file rules as {@link CSVParser}, including
+ * {@link CSVFormat.Builder#setLenientEof(boolean)} and {@link CSVFormat.Builder#setTrailingDelimiter(boolean)}.
+ * </p>
+ * <p>
+ * The records are the records a {@link CSVParser} returns for the whole input, with the same record numbers and character positions; byte positions are
+ * not tracked. A record's {@link CSVRecord#getParser() parser} is the internal parser of the input, closed once the input ends, which provides the header
+ * map.
+ * </p>
+ * <p>
+ * Invalid input fails the parser: a feed that reaches it returns the records before it, and every later call throws a {@link CSVException}.
+ * </p>
+ * <p>
+ * One parser and its lexer parse the whole input, keeping their state from chunk to chunk. When the input that has arrived ends inside a record, the
+ * lexer goes back to the start of the record, which it parses again once a line break arrives that may end it: a long quoted value is only scanned until it
+ * closes, but a record with many quoted values that span lines costs more to parse. This class is not thread-safe.
+ * </p>
+ *
+ * <pre>
+ * CSVPushParser parser = CSVPushParser.builder().setFormat(CSVFormat.RFC4180).setCharset(StandardCharsets.UTF_8).get();
+ * // For each network buffer:
+ * for (CSVRecord record : parser.feed(byteBuffer)) {
+ *     ...
+ * }
+ * // When the input ends:
+ * for (CSVRecord record : parser.end()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVPushParser {
+
+    /**
+     * Builds a new {@link CSVPushParser}.
+     */
+    public static final class Builder implements Supplier<CSVPushParser> {
+
+        private Charset charset = Charset.defaultCharset();
+        private CSVFormat format = CSVFormat.DEFAULT;
+
+        private Builder() {
+            // empty
+        }
+
+        /**
+         * Builds a new parser.
+         *
+         * @return A new parser.
+         */
+        @Override
+        public CSVPushParser get() {
+            return new CSVPushParser(this);
+        }
+
+        /**
+         * Sets the character set to decode {@link #feed(ByteBuffer) byte chunks} with, defaults to {@link Charset#defaultCharset()}.
+         *
+         * @param charset The character set, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setCharset(final Charset charset) {
+            this.charset = charset != null ? charset : Charset.defaultCharset();
+            return this;
+        }
+
+        /**
+         * Sets the CSV format.
+         *
+         * @param format The CSV format, {@code null} resets to {@link CSVFormat#DEFAULT}.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = format != null ? format : CSVFormat.DEFAULT;
+            return this;
+        }
+    }
+
+    /**
+     * Reads the pending input for the parser, and reports the end of the input that has arrived so far as the end of the stream.
+     * <p>
+     * A CR at the end of the input is held back until the input ends or the next character arrives, which tells the lexer whether a LF follows.
+     * </p>
+     */
+    private final class PendingReader extends Reader {
+
+        /**
+         * Whether the reader reported the end of the stream before the input ended. A lexer that peeks at the next characters does not read the end of the
+         * stream, but may fail on a character that more input would make part of a delimiter.
+         */
+        private boolean incomplete;
+
+        private int available() {
+            return (ended || end == position || buffer[end - 1] != Constants.CR ? end : end - 1) - position;
+        }
+
+        @Override
+        public void close() {
+            // empty
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            final int count = Math.min(len, available());
+            if (count == 0) {
+                incomplete |= !ended;
+                return -1;
+            }
+            System.arraycopy(buffer, position, cbuf, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public boolean ready() {
+            return available() > 0;
+        }
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int toInt(final Character c) {
+        return c == null ? Constants.UNDEFINED : c.charValue();
+    }
+
+    /** The pending input: the characters from {@link #start} to {@link #end}. */
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+
+    /** The bytes of a character split across byte chunks, or null. */
+    private ByteBuffer byteRemainder;
+
+    /** The character position of {@link #start} in the input. */
+    private long characterOffset;
+
+    private final CharsetDecoder decoder;
+
+    /** Whether the parser read max rows. */
+    private boolean done;
+
+    /** The end of the pending input in the buffer. */
+    private int end;
+
+    /** Whether {@link #end()} was called. */
+    private boolean ended;
+
+    /** The escape character, or {@link Constants#UNDEFINED}. */
+    private final int escapeCharacter;
+
+    /** Whether the scan is in a quoted value, after an escape character. */
+    private boolean escaped;
+
+    private final CSVFormat format;
+
+    /** A failure that makes the rest of the input unparsable, thrown by every later call, or null. */
+    private IOException failure;
+
+    private String headerComment;
+
+    /** The headers, or null before the header is read. */
+    private CSVParser.Headers headers;
+
+    /** Whether the input that arrived since the last parse may complete a record. */
+    private boolean lineBreak;
+
+    /** The parser of the whole input, created once the header has arrived, or null. */
+    private CSVParser parser;
+
+    /** The position in the buffer of the next character to pass to the parser. */
+    private int position;
+
+    /** The quote character, or {@link Constants#UNDEFINED}. */
+    private final int quoteCharacter;
+
+    /** Whether the scan is in a quoted value. */
+    private boolean quoted;
+
+    /** Whether the scan is in a quoted value, after a quote that may close it. */
+    private boolean quotedEnd;
+
+    private final PendingReader reader = new PendingReader();
+
+    /** The number of records returned. */
+    private long recordCount;
+
+    /** The number of pending characters scanned for a line break. */
+    private int scanned;
+
+    /** The start of the pending input in the buffer: the start of the next record. */
+    private int start;
+
+    private String trailerComment;
+
+    private CSVPushParser(final Builder builder) {
+        this.format = builder.format;
+        this.escapeCharacter = toInt(format.getEscapeCharacter());
+        this.quoteCharacter = toInt(format.getQuoteCharacter());
+        this.decoder = builder.charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private void append(final char[] chars, final int offset, final int length) {
+        ensureCapacity(length);
+        System.arraycopy(chars, offset, buffer, end, length);
+        end += length;
+    }
+
+    private void checkFeed() throws IOException {
+        if (ended) {
+            throw new IllegalStateException("The input has ended");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void decode(final ByteBuffer bytes, final boolean endOfInput) {
+        CoderResult result;
+        do {
+            ensureCapacity(Math.max(16, (int) (bytes.remaining() * decoder.maxCharsPerByte())));
+            final CharBuffer out = CharBuffer.wrap(buffer, end, buffer.length - end);
+            result = decoder.decode(bytes, out, endOfInput);
+            end = out.position();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            do {
+                ensureCapacity(16);
+                final CharBuffer out = CharBuffer.wrap(buffer, end, buffer.length - end);
+                result = decoder.flush(out);
+                end = out.position();
+            } while (result.isOverflow());
+        }
+    }
+
+    /**
+     * Ends the input and parses the records left, applying the end-of-file rules of the format.
+     *
+     * @return The records left, maybe empty.
+     * @throws IOException  on parse error.
+     * @throws CSVException on invalid CSV input data, the records left before it are not returned.
+     */
+    public List<CSVRecord> end() throws IOException {
+        checkFeed();
+        if (byteRemainder != null) {
+            decode(byteRemainder, true);
+            byteRemainder = null;
+        }
+        ended = true;
+        return parse();
+    }
+
+    /**
+     * Makes room for more input, moving the pending input to the start of the buffer if that is enough.
+     */
+    private void ensureCapacity(final int length) {
+        if (end + length <= buffer.length) {
+            return;
+        }
+        final int pending = end - start;
+        if (pending + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, pending + length));
+        }
+        System.arraycopy(buffer, start, buffer, 0, pending);
+        position -= start;
+        start = 0;
+        end = pending;
+    }
+
+    /**
+     * Feeds a chunk of bytes, decoded with the builder's character set. A character split across chunks is decoded when its last byte arrives.
+     *
+     * @param bytes The bytes, from their position to their limit, which this method consumes.
+     * @return The records the chunk completes, maybe empty.
+     * @throws IOException           on parse error.
+     * @throws CSVException          on invalid CSV input data.
+     * @throws IllegalStateException if the input has ended.
+     */
+    public List<CSVRecord> feed(final ByteBuffer bytes) throws IOException {
+        Objects.requireNonNull(bytes, "bytes");
+        checkFeed();
+        ByteBuffer input = bytes;
+        if (byteRemainder != null) {
+            input = ByteBuffer.allocate(byteRemainder.remaining() + bytes.remaining()).put(byteRemainder).put(bytes);
+            input.flip();
+        }
+        decode(input, false);
+        byteRemainder = input.hasRemaining() ? ByteBuffer.allocate(input.remaining()).put(input) : null;
+        if (byteRemainder != null) {
+            byteRemainder.flip();
+        }
+        noteLineBreaks();
+        return parse();
+    }
+
+    /**
+     * Feeds a chunk of characters.
+     *
+     * @param chars  The characters.
+     * @param offset The offset of the chunk in {@code chars}.
+     * @param length The length of the chunk.
+     * @return The records the chunk completes, maybe empty.
+     * @throws IOException           on parse error.
+     * @throws CSVException          on invalid CSV input data.
+     * @throws IllegalStateException if the input has ended.
+     */
+    public List<CSVRecord> feed(final char[] chars, final int offset, final int length) throws IOException {
+        Objects.requireNonNull(chars, "chars");
+        checkFeed();
+        append(chars, offset, length);
+        noteLineBreaks();
+        return parse();
+    }
+
+    /**
+     * Feeds a chunk of characters.
+     *
+     * @param chars The characters.
+     * @return The records the chunk completes, maybe empty.
+     * @throws IOException           on parse error.
+     * @throws CSVException          on invalid CSV input data.
+     * @throws IllegalStateException if the input has ended.
+     */
+    public List<CSVRecord> feed(final CharSequence chars) throws IOException {
+        Objects.requireNonNull(chars, "chars");
+        checkFeed();
+        ensureCapacity(chars.length());
+        for (int i = 0; i < chars.length(); i++) {
+            buffer[end++] = chars.charAt(i);
+        }
+        noteLineBreaks();
+        return parse();
+    }
+
+    /**
+     * Resolves a column name in the header once the header is read, to get its values from records with {@link CSVRecord#get(CSVColumn)}.
+     *
+     * @param name the name of the column.
+     * @return A new column.
+     * @throws IllegalStateException    if the format has no header or the header has not been read.
+     * @throws IllegalArgumentException if {@code name} is not mapped.
+     * @see CSVParser#getColumn(String)
+     */
+    public CSVColumn getColumn(final String name) {
+        return CSVColumn.of(headers == null ? null : headers.headerMap, name);
+    }
+
+    /**
+     * Gets the header comment, once the header is read.
+     *
+     * @return The header comment, or null.
+     * @see CSVParser#getHeaderComment()
+     */
+    public String getHeaderComment() {
+        return headerComment;
+    }
+
+    /**
+     * Gets a copy of the header map, once the header is read.
+     *
+     * @return A copy of the header map, or null if the format has no header or the header has not been read.
+     * @see CSVParser#getHeaderMap()
+     */
+    public Map<String, Integer> getHeaderMap() {
+        return headers == null || headers.headerMap == null ? null : Collections.unmodifiableMap(headers.headerMap);
+    }
+
+    /**
+     * Gets the header names, once the header is read.
+     *
+     * @return The header names, empty if the format has no header or the header has not been read.
+     * @see CSVParser#getHeaderNames()
+     */
+    public List<String> getHeaderNames() {
+        return headers == null ? Collections.emptyList() : headers.headerNames;
+    }
+
+    /**
+     * Gets the number of characters held for records that are not complete yet.
+     *
+     * @return The number of pending characters.
+     */
+    public int getPendingLength() {
+        return end - start;
+    }
+
+    /**
+     * Gets the trailer comment, once the input has ended.
+     *
+     * @return The trailer comment, or null.
+     * @see CSVParser#getTrailerComment()
+     */
+    public String getTrailerComment() {
+        return trailerComment;
+    }
+
+    /**
+     * Notes whether the input scanned since the last parse may complete a record: a record ends with a line break, where a CR needs the next character to
+     * tell whether a LF follows.
+     * <p>
+     * The lexer decides where records end, the scan only tells when to parse again. After a parse that ended in a quoted value, the scan skips the value up
+     * to its closing quote, a quote followed by another character than a quote, and so does not parse again for each line break in a long quoted value.
+     * </p>
+     */
+    private void noteLineBreaks() {
+        int i = start + scanned;
+        for (; i < end && !lineBreak; i++) {
+            final char c = buffer[i];
+            if (quoted) {
+                if (escaped) {
+                    escaped = false;
+                } else if (quotedEnd) {
+                    // Two quotes are an escaped quote.
+                    quotedEnd = false;
+                    quoted = c == quoteCharacter;
+                } else if (c == quoteCharacter) {
+                    quotedEnd = true;
+                } else if (c == escapeCharacter) {
+                    escaped = true;
+                }
+                if (quoted) {
+                    continue;
+                }
+            }
+            if (c == Constants.LF || c == Constants.CR) {
+                if (c == Constants.CR && i + 1 == end) {
+                    break;
+                }
+                lineBreak = true;
+            }
+        }
+        scanned = i - start;
+    }
+
+    /**
+     * Parses the complete records of the pending input.
+     */
+    private List<CSVRecord> parse() throws IOException {
+        if (done) {
+            start = end;
+            position = end;
+            scanned = 0;
+            return Collections.emptyList();
+        }
+        if (!lineBreak && !ended) {
+            return Collections.emptyList();
+        }
+        lineBreak = false;
+        final List<CSVRecord> records = new ArrayList<>();
+        try {
+            if (parser == null && !readHeader()) {
+                return records;
+            }
+            while (format.useRow(recordCount + 1)) {
+                reader.incomplete = false;
+                parser.mark();
+                final CSVRecord record = parser.nextRecord();
+                if (!ended && (record == null || parser.isEndOfInput())) {
+                    parser.reset();
+                    resumeScan(parser.getQuotePosition());
+                    return records;
+                }
+                if (record == null) {
+                    break;
+                }
+                records.add(record);
+                recordCount++;
+                skipParsed();
+            }
+            trailerComment = parser.getTrailerComment();
+            done = true;
+            start = end;
+            position = end;
+            parser.close();
+        } catch (final IOException e) {
+            if (!ended && parser != null && reader.incomplete) {
+                // The lexer failed at the end of the input that has arrived, in a quoted value, after an escape character, or after peeking at fewer
+                // characters than a delimiter.
+                parser.reset();
+                resumeScan(parser.getQuotePosition());
+                return records;
+            }
+            failure = e;
+            if (records.isEmpty() || ended) {
+                throw e;
+            }
+            // Returns the records before the failure, the next call throws.
+        }
+        return records;
+    }
+
+    /**
+     * Creates the parser, which reads the header record if the format has one, once the header record has arrived.
+     *
+     * @return Whether the parser was created.
+     */
+    private boolean readHeader() throws IOException {
+        // Until then, each parse reads the input from the start.
+        position = start;
+        reader.incomplete = false;
+        final CSVParser candidate;
+        try {
+            candidate = CSVParser.builder().setReader(reader).setFormat(format).get();
+        } catch (final IOException | RuntimeException e) {
+            if (!ended && reader.incomplete) {
+                resumeScan(-1);
+                return false;
+            }
+            throw e;
+        }
+        if (!ended && candidate.isEndOfInput()) {
+            resumeScan(candidate.getQuotePosition());
+            candidate.close();
+            return false;
+        }
+        parser = candidate;
+        headers = parser.getHeaders();
+        headerComment = parser.getHeaderComment();
+        skipParsed();
+        return true;
+    }
+
+    /**
+     * Resumes the scan for a line break after a parse that reached the end of the input that has arrived.
+     *
+     * @param quotePosition The character position of the opening quote of the value the parse ended in, or -1.
+     */
+    private void resumeScan(final long quotePosition) {
+        escaped = false;
+        quoted = quotePosition >= 0;
+        quotedEnd = false;
+        // The parse read all the input passed to it, and a quoted value from its opening quote is scanned again.
+        scanned = quoted ? (int) (quotePosition + 1 - characterOffset) : position - start;
+        noteLineBreaks();
+    }
+
+    /**
+     * Drops the input the parser consumed.
+     */
+    private void skipParsed() {
+        final long next = parser.getCharacterPosition();
+        start += (int) (next - characterOffset);
+        characterOffset = next;
+    }
+}
@@ -19,7 +19,10 @@
 
 package org.apache.commons.csv;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -61,12 +64,21 @@ public final class CSVRecord implements Serializable, Iterable<String> {
     /** The record number. */
     private final long recordNumber;
 
-    /** The values of the record. */
+    /** The values of the record; for a record with lazy values, each value is created on first access. */
     private final String[] values;
 
     /** The parser that originates this record. This is not serialized. */
     private final transient CSVParser parser;
 
+    /** The ISO-8859-1 characters of lazy values, shared with other records of the parser, or null. This is not serialized. */
+    private final transient byte[] latin1;
+
+    /** The characters of lazy values that are not all ISO-8859-1 characters, or null. This is not serialized. */
+    private final transient char[] chars;
+
+    /** The start and end of each lazy value in {@link #latin1} or {@link #chars}, with a start of -1 for a null value, or null. This is not serialized. */
+    private final transient int[] bounds;
+
     CSVRecord(final CSVParser parser, final String[] values,  final String comment, final long recordNumber,
             final long characterPosition, final long bytePosition) {
         this.recordNumber = recordNumber;
@@ -75,6 +87,60 @@ public final class CSVRecord implements Serializable, Iterable<String> {
         this.comment = comment;
         this.characterPosition = characterPosition;
         this.bytePosition = bytePosition;
+        this.latin1 = null;
+        this.chars = null;
+        this.bounds = null;
+    }
+
+    /**
+     * Constructs a record that creates each value on first access.
+     *
+     * @param parser            The parser.
+     * @param latin1            The ISO-8859-1 characters of the values, which may hold the values of other records too, or null to use {@code chars}.
+     * @param chars             The characters of the values, or null to use {@code latin1}.
+     * @param bounds            The start and end of each value in {@code latin1} or {@code chars}, with a start of -1 for a null value.
+     * @param comment           The comment, or null.
+     * @param recordNumber      The record number.
+     * @param characterPosition The character position.
+     * @param bytePosition      The byte position.
+     */
+    CSVRecord(final CSVParser parser, final byte[] latin1, final char[] chars, final int[] bounds, final String comment, final long recordNumber,
+            final long characterPosition, final long bytePosition) {
+        this.recordNumber = recordNumber;
+        this.parser = parser;
+        this.comment = comment;
+        this.characterPosition = characterPosition;
+        this.bytePosition = bytePosition;
+        this.values = new String[bounds.length >> 1];
+        this.latin1 = latin1;
+        this.chars = chars;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Gets a value by a column resolved with {@link CSVParser#getColumn(String)}.
+     * <p>
+     * For a record of the parser that resolved the column, this gets the value at the column's index without looking up its name. For other records, this
+     * gets the value by the column's name like {@link #get(String)}.
+     * </p>
+     *
+     * @param column the column to be retrieved.
+     * @return The column value, maybe null depending on {@link CSVFormat#getNullString()}.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if the column is not mapped or if the record is inconsistent.
+     * @since 1.15.0
+     */
+    public String get(final CSVColumn column) {
+        if (!column.isResolvedIn(getHeaderMapRaw())) {
+            return get(column.getName());
+        }
+        final int index = column.getIndex();
+        if (index >= values.length) {
+            // Explicit boxing is intentional
+            throw new IllegalArgumentException(String.format("Index for header '%s' is %d but CSVRecord only has %d values!", column.getName(),
+                    Integer.valueOf(index), Integer.valueOf(values.length)));
+        }
+        return value(index);
     }
 
     /**
@@ -101,7 +167,7 @@ public final class CSVRecord implements Serializable, Iterable<String> {
      * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
      */
     public String get(final int i) {
-        return values[i];
+        return value(i);
     }
 
     /**
@@ -137,7 +203,7 @@ public final class CSVRecord implements Serializable, Iterable<String> {
             throw new IllegalArgumentException(String.format("Mapping for %s not found, expected one of %s", name, headerMap.keySet()));
         }
         try {
-            return values[index.intValue()]; // Explicit unboxing is intentional
+            return value(index.intValue()); // Explicit unboxing is intentional
         } catch (final ArrayIndexOutOfBoundsException e) {
             // Explicit boxing is intentional
             throw new IllegalArgumentException(
@@ -188,6 +254,11 @@ public final class CSVRecord implements Serializable, Iterable<String> {
      * Note: The parser is not part of the serialized state of the record. A null check
      * should be used when the record may have originated from a serialized form.
      * </p>
+     * <p>
+     * A record from a parallel {@link CSVParser#stream() stream} of a {@link CSVParser.Builder#setSplittable(boolean) splittable} parser comes from
+     * the parser of its file range, not from the parser that made the stream. That parser is closed once its range has been parsed, but still answers
+     * header lookups.
+     * </p>
      *
      * @return The parser.
      * @since 1.7
@@ -299,7 +370,7 @@ public final class CSVRecord implements Serializable, Iterable<String> {
         }
         headerMap.forEach((key, value) -> {
             if (value < values.length) {
-                map.put(key, values[value]);
+                map.put(key, value(value));
             }
         });
         return map;
@@ -321,7 +392,7 @@ public final class CSVRecord implements Serializable, Iterable<String> {
      * @since 1.9.0
      */
     public Stream<String> stream() {
-        return Stream.of(values);
+        return Stream.of(values());
     }
 
     /**
@@ -359,7 +430,7 @@ public final class CSVRecord implements Serializable, Iterable<String> {
      */
     @Override
     public String toString() {
-        return "CSVRecord [comment='" + comment + "', recordNumber=" + recordNumber + ", values=" + Arrays.toString(values) + "]";
+        return "CSVRecord [comment='" + comment + "', recordNumber=" + recordNumber + ", values=" + Arrays.toString(values()) + "]";
     }
 
     /**
@@ -369,7 +440,38 @@ public final class CSVRecord implements Serializable, Iterable<String> {
      * @since 1.10.0
      */
     public String[] values() {
+        if (bounds != null) {
+            for (int i = 0; i < values.length; i++) {
+                value(i);
+            }
+        }
         return values;
     }
 
+    /**
+     * Gets a value, creating the value of a lazy record on first access.
+     *
+     * @param i a column index (0-based).
+     * @return The value.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     */
+    private String value(final int i) {
+        String value = values[i];
+        if (value == null && bounds != null) {
+            // Racing threads store equal values, so a record with lazy values is as safe to share as any other.
+            final int start = bounds[2 * i];
+            if (start >= 0) {
+                final int length = bounds[2 * i + 1] - start;
+                value = values[i] = latin1 != null ? new String(latin1, start, length, StandardCharsets.ISO_8859_1) : new String(chars, start, length);
+            }
+        }
+        return value;
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        // Serializes the values of a record with lazy values like those of any other record.
+        values();
+        out.defaultWriteObject();
+    }
+
 }
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.build.AbstractStreamBuilder;
+
+/**
+ * An index of the byte and character positions of every {@link Builder#setInterval(int) K-th} record of a file, to parse from any record without
+ * parsing the records before it.
+ * <p>
+ * Building an index parses the file once, with byte tracking. The index can be kept in a sidecar file, which later builders read instead of parsing the
+ * file again, as long as the file has not changed. {@link #parse(long)} then seeks to the indexed record before the requested one with
+ * {@link FileChannel#position(long)} and skips at most {@code K - 1} records, so the cost of reaching a record does not depend on its number.
+ * </p>
+ *
+ * <pre>
+ * CSVRecordIndex index = CSVRecordIndex.builder().setPath(path).setCharset(StandardCharsets.UTF_8).setFormat(format).setIndexPath(sidecar).get();
+ * try (CSVParser parser = index.parse(40_000_000)) {
+ *     CSVRecord record = parser.nextRecord();
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * The parsers assign the same record numbers and byte and character positions as a parser of the whole file, but {@link CSVParser#getCurrentLineNumber()}
+ * counts lines from the indexed record. The index must be used with the character set and format it was built with. This class is thread-safe.
+ * </p>
+ *
+ * @since 1.15.0
+ */
+public final class CSVRecordIndex {
+
+    /**
+     * Builds a new {@link CSVRecordIndex} for a file, from the file or from a sidecar file.
+     */
+    public static class Builder extends AbstractStreamBuilder<CSVRecordIndex, Builder> {
+
+        private CSVFormat format = CSVFormat.DEFAULT;
+        private Path indexPath;
+        private int interval = DEFAULT_INTERVAL;
+
+        /**
+         * Constructs a new instance.
+         */
+        protected Builder() {
+            // empty
+        }
+
+        /**
+         * Builds a new index, reading it from the {@link #setIndexPath(Path) sidecar file} if it indexes the file as it is now, and parsing the file
+         * otherwise.
+         *
+         * @return A new index.
+         * @throws IOException  If an I/O error occurs.
+         * @throws CSVException on invalid CSV input data.
+         */
+        @Override
+        public CSVRecordIndex get() throws IOException {
+            final Path path = getPath();
+            final Charset charset = getCharset();
+            final long size = Files.size(path);
+            final long lastModified = Files.getLastModifiedTime(path).toMillis();
+            if (indexPath != null) {
+                final CSVRecordIndex index = read(path, charset, size, lastModified);
+                if (index != null) {
+                    return index;
+                }
+            }
+            final CSVRecordIndex index = new CSVRecordIndex(path, charset, format, interval, size, lastModified);
+            if (indexPath != null) {
+                index.write(indexPath);
+            }
+            return index;
+        }
+
+        /**
+         * Reads the sidecar file.
+         *
+         * @return The index, or null if the sidecar file does not exist, is truncated or does not index the file as it is now.
+         */
+        private CSVRecordIndex read(final Path path, final Charset charset, final long size, final long lastModified) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != size || in.readLong() != lastModified || in.readInt() != interval
+                        || !in.readUTF().equals(charset.name()) || in.readInt() != fingerprint(format)) {
+                    return null;
+                }
+                final long recordCount = in.readLong();
+                final int entries = in.readInt();
+                final long[] bytePositions = new long[entries];
+                final long[] characterPositions = new long[entries];
+                long bytePosition = 0;
+                long characterPosition = 0;
+                for (int i = 0; i < entries; i++) {
+                    bytePosition += readVarLong(in);
+                    characterPosition += readVarLong(in);
+                    bytePositions[i] = bytePosition;
+                    characterPositions[i] = characterPosition;
+                }
+                return new CSVRecordIndex(path, charset, format, interval, size, lastModified, recordCount, bytePositions, characterPositions);
+            } catch (final NoSuchFileException | EOFException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Sets the CSV format, defaults to {@link CSVFormat#DEFAULT}.
+         *
+         * @param format The CSV format, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = CSVFormat.copy(format != null ? format : CSVFormat.DEFAULT);
+            return asThis();
+        }
+
+        /**
+         * Sets the sidecar file that keeps the index.
+         * <p>
+         * When the sidecar file exists and was written for the file as it is now, with the same interval, character set and format, the builder reads it.
+         * Otherwise the builder parses the file and writes the index to the sidecar file.
+         * </p>
+         *
+         * @param indexPath The sidecar file, null to always parse the file.
+         * @return {@code this} instance.
+         */
+        public Builder setIndexPath(final Path indexPath) {
+            this.indexPath = indexPath;
+            return asThis();
+        }
+
+        /**
+         * Sets the number of records between indexed records, defaults to {@value CSVRecordIndex#DEFAULT_INTERVAL}.
+         * <p>
+         * A smaller interval skips fewer records to reach a record, a larger interval makes a smaller index, of a few bytes per indexed record.
+         * </p>
+         *
+         * @param interval The number of records between indexed records.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code interval} is not positive.
+         */
+        public Builder setInterval(final int interval) {
+            if (interval < 1) {
+                throw new IllegalArgumentException("Interval " + interval + " is not positive");
+            }
+            this.interval = interval;
+            return asThis();
+        }
+    }
+
+    /** The default number of records between indexed records. */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    /** The first bytes of a sidecar file: "CSVI". */
+    private static final int MAGIC = 0x43535649;
+
+    /** The version of the sidecar file format. */
+    private static final int VERSION = 2;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Computes a hash of the format settings that determine the records of a file, their positions and the header, which a sidecar file must match.
+     * <p>
+     * {@link String#hashCode()} is specified, so the hash is the same in every JVM, unlike {@link CSVFormat#hashCode()}, which hashes enums.
+     * </p>
+     */
+    private static int fingerprint(final CSVFormat format) {
+        // toString() covers the delimiter, escape, quote, comment marker, empty lines, surrounding spaces, header and skipped header record.
+        return (format + " AllowMissingColumnNames:" + format.getAllowMissingColumnNames() + " DuplicateHeaderMode:" + format.getDuplicateHeaderMode()
+                + " LenientEof:" + format.getLenientEof() + " MaxRows:" + format.getMaxRows() + " TrailingData:" + format.getTrailingData()
+                + " TrailingDelimiter:" + format.getTrailingDelimiter() + " Trim:" + format.getTrim()).hashCode();
+    }
+
+    static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    /** The byte position of each indexed record. */
+    private final long[] bytePositions;
+
+    /** The character position of each indexed record. */
+    private final long[] characterPositions;
+
+    private final Charset charset;
+
+    private final CSVFormat format;
+
+    /** The headers, read from the start of the file when first needed, by any thread. */
+    private volatile CSVParser.Headers headers;
+
+    private final int interval;
+
+    /** The last modified time of the file when it was indexed, in milliseconds. */
+    private final long lastModified;
+
+    private final Path path;
+
+    private final long recordCount;
+
+    /** The size of the file when it was indexed. */
+    private final long size;
+
+    /**
+     * Constructs an index by parsing a file.
+     */
+    private CSVRecordIndex(final Path path, final Charset charset, final CSVFormat format, final int interval, final long size, final long lastModified)
+            throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.format = format;
+        this.interval = interval;
+        this.size = size;
+        this.lastModified = lastModified;
+        long[] bytes = new long[16];
+        long[] chars = new long[16];
+        int entries = 0;
+        long count = 0;
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(charset).setFormat(format).setTrackBytes(true).get()) {
+            headers = parser.getHeaders();
+            final CSVReusableRecord record = new CSVReusableRecord();
+            while (parser.readRecord(record)) {
+                if (count++ % interval == 0) {
+                    if (entries == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, entries * 2);
+                        chars = Arrays.copyOf(chars, entries * 2);
+                    }
+                    bytes[entries] = record.getBytePosition();
+                    chars[entries] = record.getCharacterPosition();
+                    entries++;
+                }
+            }
+        }
+        this.recordCount = count;
+        this.bytePositions = Arrays.copyOf(bytes, entries);
+        this.characterPositions = Arrays.copyOf(chars, entries);
+    }
+
+    /**
+     * Constructs an index read from a sidecar file.
+     */
+    private CSVRecordIndex(final Path path, final Charset charset, final CSVFormat format, final int interval, final long size, final long lastModified,
+            final long recordCount, final long[] bytePositions, final long[] characterPositions) {
+        this.path = path;
+        this.charset = charset;
+        this.format = format;
+        this.interval = interval;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.recordCount = recordCount;
+        this.bytePositions = bytePositions;
+        this.characterPositions = characterPositions;
+    }
+
+    /**
+     * Gets the number of records between indexed records.
+     *
+     * @return The number of records between indexed records.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the number of records in the file.
+     *
+     * @return The number of records in the file, not counting the header record.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Opens a parser whose next record is the given record.
+     * <p>
+     * The parser reads the file from the indexed record before {@code recordNumber} and skips to it. A record number after the last record returns a parser
+     * with no records left. The positions are only valid for the file as it was indexed, so a file whose size or last modified time has changed since is
+     * rejected; build a new index for it.
+     * </p>
+     *
+     * @param recordNumber The number of the next record to parse, starting from {@code 1}.
+     * @return A new parser, to close after use.
+     * @throws IOException              If an I/O error occurs.
+     * @throws CSVException             on invalid CSV input data.
+     * @throws IllegalArgumentException if {@code recordNumber} is not positive.
+     * @throws IllegalStateException    if the size or the last modified time of the file differs from when it was indexed.
+     */
+    public CSVParser parse(final long recordNumber) throws IOException {
+        if (recordNumber < 1) {
+            throw new IllegalArgumentException("Record number " + recordNumber + " is not positive");
+        }
+        if (Files.size(path) != size || Files.getLastModifiedTime(path).toMillis() != lastModified) {
+            throw new IllegalStateException("The file " + path + " has changed since it was indexed");
+        }
+        if (bytePositions.length == 0) {
+            return CSVParser.builder().setPath(path).setCharset(charset).setFormat(format).setTrackBytes(true).get();
+        }
+        if (headers == null) {
+            try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(charset).setFormat(format).get()) {
+                headers = parser.getHeaders();
+            }
+        }
+        final int entry = (int) Math.min((recordNumber - 1) / interval, bytePositions.length - 1);
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(bytePositions[entry]);
+            // @formatter:off
+            final CSVParser parser = CSVParser.builder()
+                    .setInputStream(Channels.newInputStream(channel))
+                    .setCharset(charset)
+                    .setFormat(format)
+                    .setHeaders(headers)
+                    .setTrackBytes(true)
+                    .setByteOffset(bytePositions[entry])
+                    .setCharacterOffset(characterPositions[entry])
+                    .setRecordNumber((long) entry * interval + 1)
+                    .get();
+            // @formatter:on
+            final CSVReusableRecord record = new CSVReusableRecord();
+            for (long skip = recordNumber - 1 - (long) entry * interval; skip > 0 && parser.readRecord(record); skip--) {
+                // Skips the records before recordNumber.
+            }
+            return parser;
+        } catch (final IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of indexed records.
+     *
+     * @return The number of indexed records.
+     */
+    public int size() {
+        return bytePositions.length;
+    }
+
+    /**
+     * Writes this index to a sidecar file, replacing it if it exists.
+     *
+     * @param indexPath The sidecar file.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void write(final Path indexPath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeInt(interval);
+            out.writeUTF(charset.name());
+            out.writeInt(fingerprint(format));
+            out.writeLong(recordCount);
+            out.writeInt(bytePositions.length);
+            // Positions increase, so their deltas are small.
+            long bytePosition = 0;
+            long characterPosition = 0;
+            for (int i = 0; i < bytePositions.length; i++) {
+                writeVarLong(out, bytePositions[i] - bytePosition);
+                writeVarLong(out, characterPositions[i] - characterPosition);
+                bytePosition = bytePositions[i];
+                characterPosition = characterPositions[i];
+            }
+        }
+    }
+}
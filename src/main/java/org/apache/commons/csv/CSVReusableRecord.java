@@ -0,0 +1,597 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A mutable CSV record that a {@link CSVParser} refills with each record it reads, see {@link CSVParser#readRecord(CSVReusableRecord)}.
+ * <p>
+ * The values are {@link CharSequence} views into a buffer the record reuses, so reading a record allocates no values, no value array, and no record.
+ * Typed accessors such as {@link #getLong(int)} and {@link #getDouble(int)} parse numbers straight from the buffer.
+ * </p>
+ * <p>
+ * <strong>The contents of this record and of the values it returns are only valid until the next record is read into it.</strong> Call
+ * {@link CharSequence#toString()} on a value, or {@link #toRecord()} on the record, to keep it.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * <pre>
+ * try (CSVParser parser = CSVParser.builder().setPath(path).setFormat(format).get()) {
+ *     final CSVReusableRecord record = new CSVReusableRecord();
+ *     while (parser.readRecord(record)) {
+ *         process(record.get(2));
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVReusableRecord {
+
+    /**
+     * A view of one value in the buffer.
+     */
+    private final class Value implements CharSequence {
+
+        private final int index;
+
+        Value(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public char charAt(final int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException("index " + i + ", length " + length());
+            }
+            return buffer[starts[index] + i];
+        }
+
+        @Override
+        public int length() {
+            return ends[index] - starts[index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, starts[index], length());
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /** The characters of all values, one after another. */
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+
+    private long bytePosition;
+
+    private long characterPosition;
+
+    private String comment;
+
+    /** The end of each value in the buffer. */
+    private int[] ends = new int[DEFAULT_CAPACITY];
+
+    /** The number of characters of the buffer in use. */
+    private int length;
+
+    /** Whether each value is null. */
+    private boolean[] nulls = new boolean[DEFAULT_CAPACITY];
+
+    private CSVParser parser;
+
+    private long recordNumber;
+
+    /** The number of values. */
+    private int size;
+
+    /** The start of each value in the buffer. */
+    private int[] starts = new int[DEFAULT_CAPACITY];
+
+    /** The views of the values, created on first use and reused. */
+    private Value[] values = new Value[DEFAULT_CAPACITY];
+
+    /**
+     * Constructs a new empty instance, to pass to {@link CSVParser#readRecord(CSVReusableRecord)}.
+     */
+    public CSVReusableRecord() {
+        // empty
+    }
+
+    /**
+     * Clears this record before a parser fills it.
+     *
+     * @param parser The parser.
+     */
+    void clear(final CSVParser parser) {
+        this.parser = parser;
+        this.size = 0;
+        this.length = 0;
+        this.comment = null;
+    }
+
+    /**
+     * Gets the characters of all values of the current record, for a {@link CSVRecord} that creates each value on first access.
+     *
+     * @return A copy of the characters of the values.
+     */
+    char[] copyChars() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Copies the characters of all values of the current record as ISO-8859-1 bytes, for a {@link CSVRecord} that creates each value on first access.
+     *
+     * @param latin1 The buffer to copy to, with room for {@link #getCharCount()} bytes from {@code offset}.
+     * @param offset The offset in {@code latin1} to copy to.
+     * @return Whether all characters are ISO-8859-1 characters; if not, the buffer holds a partial copy.
+     */
+    boolean copyLatin1(final byte[] latin1, final int offset) {
+        final char[] buffer = this.buffer;
+        for (int i = 0; i < length; i++) {
+            final char c = buffer[i];
+            if (c > 0xFF) {
+                return false;
+            }
+            latin1[offset + i] = (byte) c;
+        }
+        return true;
+    }
+
+    /**
+     * Gets a value by a column resolved with {@link CSVParser#getColumn(String)}.
+     *
+     * @param column the column to be retrieved.
+     * @return A view of the value, only valid until the next record is read, maybe null depending on {@link CSVFormat#getNullString()}.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if the column is not mapped or if the record is inconsistent.
+     * @see CSVRecord#get(CSVColumn)
+     * @since 1.15.0
+     */
+    public CharSequence get(final CSVColumn column) {
+        if (parser == null || !column.isResolvedIn(parser.getHeaderMapRaw())) {
+            return get(column.getName());
+        }
+        final int index = column.getIndex();
+        if (index >= size) {
+            // Explicit boxing is intentional
+            throw new IllegalArgumentException(String.format("Index for header '%s' is %d but CSVReusableRecord only has %d values!", column.getName(),
+                    Integer.valueOf(index), Integer.valueOf(size)));
+        }
+        return get(index);
+    }
+
+    /**
+     * Gets a value by index.
+     *
+     * @param i a column index (0-based).
+     * @return A view of the value, only valid until the next record is read, maybe null depending on {@link CSVFormat#getNullString()}.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     */
+    public CharSequence get(final int i) {
+        if (i < 0 || i >= size) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        if (nulls[i]) {
+            return null;
+        }
+        Value value = values[i];
+        if (value == null) {
+            value = values[i] = new Value(i);
+        }
+        return value;
+    }
+
+    /**
+     * Gets a value by name. If multiple instances of the header name exists, only the last occurrence is returned.
+     *
+     * @param name the name of the column to be retrieved.
+     * @return A view of the value, only valid until the next record is read, maybe null depending on {@link CSVFormat#getNullString()}.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see CSVRecord#get(String)
+     */
+    public CharSequence get(final String name) {
+        return get(indexOf(name));
+    }
+
+    /**
+     * Gets the start and end of each value of the current record, for a {@link CSVRecord} that creates each value on first access.
+     *
+     * @param offset The offset of the characters of the values in the record's buffer.
+     * @return The start and end of each value, with a start of -1 for a null value.
+     */
+    int[] getBounds(final int offset) {
+        final int[] bounds = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            bounds[2 * i] = nulls[i] ? -1 : offset + starts[i];
+            bounds[2 * i + 1] = offset + ends[i];
+        }
+        return bounds;
+    }
+
+    /**
+     * Gets the number of characters of all values of the current record.
+     *
+     * @return The number of characters.
+     */
+    int getCharCount() {
+        return length;
+    }
+
+    /**
+     * Gets a value by index as a boolean, like {@link Boolean#parseBoolean(String)}: {@code true} if the value equals {@code "true"}, ignoring case, and
+     * {@code false} otherwise, including for a null value.
+     *
+     * @param i a column index (0-based).
+     * @return The value.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     */
+    public boolean getBoolean(final int i) {
+        return get(i) != null && NumberParser.parseBoolean(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by name as a boolean, like {@link Boolean#parseBoolean(String)}.
+     *
+     * @param name the name of the column to be retrieved.
+     * @return The value.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #getBoolean(int)
+     */
+    public boolean getBoolean(final String name) {
+        return getBoolean(indexOf(name));
+    }
+
+    /**
+     * Gets the starting position of the current record in the source stream, measured in bytes.
+     *
+     * @return The byte position of the current record in the source stream.
+     * @see CSVRecord#getBytePosition()
+     */
+    public long getBytePosition() {
+        return bytePosition;
+    }
+
+    /**
+     * Gets the start position of the current record as a character position in the source stream.
+     *
+     * @return The position of the current record in the source stream.
+     * @see CSVRecord#getCharacterPosition()
+     */
+    public long getCharacterPosition() {
+        return characterPosition;
+    }
+
+    /**
+     * Gets the comment for the current record, if any.
+     *
+     * @return The comment for the current record, or null if no comment for this record is available.
+     * @see CSVRecord#getComment()
+     */
+    public String getComment() {
+        return comment;
+    }
+
+    /**
+     * Gets a value by index as a double, parsed from the buffer without creating a String.
+     *
+     * @param i a column index (0-based).
+     * @return The value.
+     * @throws NumberFormatException          if the value is null or not a double.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Double#parseDouble(String)
+     */
+    public double getDouble(final int i) {
+        if (get(i) == null) {
+            throw new NumberFormatException("Value " + i + " is null");
+        }
+        return NumberParser.parseDouble(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by index as a double, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param i            a column index (0-based).
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException          if the value is not a double.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Double#parseDouble(String)
+     */
+    public double getDouble(final int i, final double defaultValue) {
+        return get(i) == null ? defaultValue : NumberParser.parseDouble(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by name as a double, parsed from the buffer without creating a String.
+     *
+     * @param name the name of the column to be retrieved.
+     * @return The value.
+     * @throws NumberFormatException    if the value is null or not a double.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public double getDouble(final String name) {
+        return getDouble(indexOf(name));
+    }
+
+    /**
+     * Gets a value by name as a double, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param name         the name of the column to be retrieved.
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException    if the value is not a double.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public double getDouble(final String name, final double defaultValue) {
+        return getDouble(indexOf(name), defaultValue);
+    }
+
+    /**
+     * Gets a value by index as an int, parsed from the buffer without creating a String.
+     *
+     * @param i a column index (0-based).
+     * @return The value.
+     * @throws NumberFormatException          if the value is null or not an int.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Integer#parseInt(String)
+     */
+    public int getInt(final int i) {
+        if (get(i) == null) {
+            throw new NumberFormatException("Value " + i + " is null");
+        }
+        return NumberParser.parseInt(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by index as an int, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param i            a column index (0-based).
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException          if the value is not an int.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Integer#parseInt(String)
+     */
+    public int getInt(final int i, final int defaultValue) {
+        return get(i) == null ? defaultValue : NumberParser.parseInt(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by name as an int, parsed from the buffer without creating a String.
+     *
+     * @param name the name of the column to be retrieved.
+     * @return The value.
+     * @throws NumberFormatException    if the value is null or not an int.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public int getInt(final String name) {
+        return getInt(indexOf(name));
+    }
+
+    /**
+     * Gets a value by name as an int, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param name         the name of the column to be retrieved.
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException    if the value is not an int.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public int getInt(final String name, final int defaultValue) {
+        return getInt(indexOf(name), defaultValue);
+    }
+
+    /**
+     * Gets a value by index as a long, parsed from the buffer without creating a String.
+     *
+     * @param i a column index (0-based).
+     * @return The value.
+     * @throws NumberFormatException          if the value is null or not a long.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Long#parseLong(String)
+     */
+    public long getLong(final int i) {
+        if (get(i) == null) {
+            throw new NumberFormatException("Value " + i + " is null");
+        }
+        return NumberParser.parseLong(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by index as a long, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param i            a column index (0-based).
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException          if the value is not a long.
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds.
+     * @see Long#parseLong(String)
+     */
+    public long getLong(final int i, final long defaultValue) {
+        return get(i) == null ? defaultValue : NumberParser.parseLong(buffer, starts[i], ends[i]);
+    }
+
+    /**
+     * Gets a value by name as a long, parsed from the buffer without creating a String.
+     *
+     * @param name the name of the column to be retrieved.
+     * @return The value.
+     * @throws NumberFormatException    if the value is null or not a long.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public long getLong(final String name) {
+        return getLong(indexOf(name));
+    }
+
+    /**
+     * Gets a value by name as a long, parsed from the buffer without creating a String, or a default for a null value.
+     *
+     * @param name         the name of the column to be retrieved.
+     * @param defaultValue The value to return if the value is null, see {@link CSVFormat#getNullString()}.
+     * @return The value, or {@code defaultValue} if the value is null.
+     * @throws NumberFormatException    if the value is not a long.
+     * @throws IllegalStateException    if no header mapping was provided.
+     * @throws IllegalArgumentException if {@code name} is not mapped or if the record is inconsistent.
+     * @see #get(String)
+     */
+    public long getLong(final String name, final long defaultValue) {
+        return getLong(indexOf(name), defaultValue);
+    }
+
+    /**
+     * Gets the parser that last read a record into this instance.
+     *
+     * @return The parser, or null if no record was read.
+     */
+    public CSVParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Gets the number of the current record in the parsed CSV file.
+     *
+     * @return The number of the current record.
+     * @see CSVRecord#getRecordNumber()
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private int indexOf(final String name) {
+        final Map<String, Integer> headerMap = parser == null ? null : parser.getHeaderMapRaw();
+        if (headerMap == null) {
+            throw new IllegalStateException("No header mapping was specified, the record values can't be accessed by name");
+        }
+        final Integer index = name == null ? null : headerMap.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(String.format("Mapping for %s not found, expected one of %s", name, headerMap.keySet()));
+        }
+        if (index.intValue() >= size) {
+            // Explicit boxing is intentional
+            throw new IllegalArgumentException(
+                    String.format("Index for header '%s' is %d but CSVReusableRecord only has %d values!", name, index, Integer.valueOf(size)));
+        }
+        return index.intValue();
+    }
+
+    /**
+     * Sets the properties of the record once its values are added.
+     *
+     * @param comment           The comment, or null.
+     * @param recordNumber      The record number.
+     * @param characterPosition The character position.
+     * @param bytePosition      The byte position.
+     */
+    void set(final String comment, final long recordNumber, final long characterPosition, final long bytePosition) {
+        this.comment = comment;
+        this.recordNumber = recordNumber;
+        this.characterPosition = characterPosition;
+        this.bytePosition = bytePosition;
+    }
+
+    /**
+     * Sets a value, growing the record as needed: values skipped over are null.
+     *
+     * @param index   The value index.
+     * @param content The characters holding the value.
+     * @param start   The start of the value in {@code content}.
+     * @param end     The end of the value in {@code content}.
+     * @param isNull  Whether the value is null.
+     */
+    void setValue(final int index, final StringBuilder content, final int start, final int end, final boolean isNull) {
+        if (index >= starts.length) {
+            final int capacity = Math.max(starts.length * 2, index + 1);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            nulls = Arrays.copyOf(nulls, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        for (; size <= index; size++) {
+            starts[size] = 0;
+            ends[size] = 0;
+            nulls[size] = true;
+        }
+        final int valueLength = end - start;
+        if (length + valueLength > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + valueLength));
+        }
+        content.getChars(start, end, buffer, length);
+        starts[index] = length;
+        length += valueLength;
+        ends[index] = length;
+        nulls[index] = isNull;
+    }
+
+    /**
+     * Returns the number of values in the current record.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the current record into a new immutable {@link CSVRecord}.
+     *
+     * @return A new record.
+     */
+    public CSVRecord toRecord() {
+        final String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            strings[i] = nulls[i] ? null : new String(buffer, starts[i], ends[i] - starts[i]);
+        }
+        return new CSVRecord(parser, strings, comment, recordNumber, characterPosition, bytePosition);
+    }
+
+    /**
+     * Returns a string representation of the contents of the current record.
+     *
+     * @return A String representation of the current record.
+     */
+    @Override
+    public String toString() {
+        return "CSVReusableRecord [comment='" + comment + "', recordNumber=" + recordNumber + ", values=" + Arrays.toString(toRecord().values()) + "]";
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.io.build.AbstractOrigin;
+import org.apache.commons.io.build.AbstractStreamBuilder;
+
+/**
+ * The column types, maximum lengths and null ratios of a CSV input, inferred from a sample of its records.
+ * <p>
+ * A schema is inferred from the first {@link Builder#setMaxRecords(int) N} records, or, for a file, from records at {@link Builder#setSamples(int) several
+ * places} spread across the file, so that a loader can choose column types and sizes without parsing the whole input first. Columns are named after the
+ * parsed header, if the format has one.
+ * </p>
+ * <p>
+ * A column's type is the most specific {@link Type} that all its non-null values of the sample match: {@link Type#INTEGER}, then {@link Type#DECIMAL},
+ * {@link Type#BOOLEAN}, {@link Type#TIMESTAMP} and {@link Type#STRING}. A value is null if it is null, see {@link CSVFormat#getNullString()}, empty, or
+ * missing because its record is shorter than others. Values are read with {@link CSVParser#readRecord(CSVReusableRecord)}, so sampling allocates no
+ * Strings.
+ * </p>
+ *
+ * <pre>
+ * CSVSchema schema = CSVSchema.builder().setPath(path).setCharset(StandardCharsets.UTF_8).setFormat(format).setSamples(10).get();
+ * for (CSVSchema.Column column : schema.getColumns()) {
+ *     createColumn(column.getName(), column.getType(), column.getMaxLength(), column.getNullRatio() &gt; 0);
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVSchema {
+
+    /**
+     * Builds a new {@link CSVSchema} by sampling the records of an input.
+     */
+    public static class Builder extends AbstractStreamBuilder<CSVSchema, Builder> {
+
+        private CSVFormat format = CSVFormat.DEFAULT;
+        private int maxRecords = DEFAULT_MAX_RECORDS;
+        private int samples = 1;
+        private DateTimeFormatter[] timestampFormatters = DEFAULT_TIMESTAMP_FORMATTERS;
+
+        /**
+         * Constructs a new instance.
+         */
+        protected Builder() {
+            // empty
+        }
+
+        /**
+         * Builds a new schema from a sample of the input's records.
+         *
+         * @return A new schema.
+         * @throws IOException  If an I/O error occurs.
+         * @throws CSVException on invalid CSV input data.
+         */
+        @Override
+        public CSVSchema get() throws IOException {
+            final AbstractOrigin<?, ?> origin = getOrigin();
+            if (samples > 1 && (origin instanceof AbstractOrigin.PathOrigin || origin instanceof AbstractOrigin.FileOrigin)
+                    && RecordBoundaryScanner.isSplittable(format, getCharset())) {
+                return sample(getPath(), getCharset());
+            }
+            try (CSVParser parser = CSVParser.builder().setReader(getReader()).setCharset(getCharset()).setFormat(format).get()) {
+                return infer(parser, maxRecords, timestampFormatters);
+            }
+        }
+
+        /**
+         * Samples records from byte ranges that start on record boundaries found near even shares of a file.
+         */
+        private CSVSchema sample(final Path path, final Charset charset) throws IOException {
+            final long size = Files.size(path);
+            final RecordBoundaryScanner scanner = new RecordBoundaryScanner(path, format, charset);
+            // The range starts, increasing, followed by the end of the file; a share without a boundary found in its window is skipped.
+            final long[] starts = new long[samples + 1];
+            int ranges = 1;
+            for (int i = 1; i < samples; i++) {
+                final long start = scanner.findRecordStart(size * i / samples, SAMPLE_WINDOW);
+                if (start > starts[ranges - 1]) {
+                    starts[ranges++] = start;
+                }
+            }
+            starts[ranges] = size;
+            CSVParser.Headers headers = null;
+            Inference inference = null;
+            for (int i = 0; i < ranges; i++) {
+                final int limit = (int) ((long) maxRecords * (i + 1) / ranges - (long) maxRecords * i / ranges);
+                // The first range's parser reads the header, if the format has one, and the others share its headers.
+                try (CSVParser parser = CSVParser.builder().setReader(new MappedFileReader(path, charset, starts[i], starts[i + 1])).setCharset(charset)
+                        .setFormat(format).setHeaders(headers).get()) {
+                    if (inference == null) {
+                        headers = parser.getHeaders();
+                        inference = new Inference(headers.headerNames, timestampFormatters);
+                    }
+                    inference.add(parser, limit);
+                }
+            }
+            return inference.toSchema();
+        }
+
+        /**
+         * Sets the CSV format, defaults to {@link CSVFormat#DEFAULT}.
+         *
+         * @param format The CSV format, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = CSVFormat.copy(format != null ? format : CSVFormat.DEFAULT);
+            return asThis();
+        }
+
+        /**
+         * Sets the maximum number of records to sample, defaults to {@value CSVSchema#DEFAULT_MAX_RECORDS}.
+         *
+         * @param maxRecords The maximum number of records to sample.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxRecords} is not positive.
+         */
+        public Builder setMaxRecords(final int maxRecords) {
+            if (maxRecords < 1) {
+                throw new IllegalArgumentException("Max records " + maxRecords + " is not positive");
+            }
+            this.maxRecords = maxRecords;
+            return asThis();
+        }
+
+        /**
+         * Sets the number of places in a file to sample records from, defaults to 1 to sample the first records.
+         * <p>
+         * With more than one sample, the builder splits a file origin into that many byte ranges that start on record boundaries, and samples the first records
+         * of each, for a total of {@link #setMaxRecords(int) max records}. Each range starts at the first record boundary within 1 MiB after an even share of
+         * the file, so only the sampled parts of the file are read. Whether a share starts inside a quoted value is guessed from the quotes that follow it; a
+         * share is not sampled if those quotes do not settle this, or if it has no record boundary within 1 MiB. This requires a format and character set that
+         * a {@link CSVParser.Builder#setSplittable(boolean) splittable} parser can split, see {@link CSVParser#stream()}; otherwise, and for other origins,
+         * the builder samples the first records.
+         * </p>
+         *
+         * @param samples The number of places to sample.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code samples} is not positive.
+         */
+        public Builder setSamples(final int samples) {
+            if (samples < 1) {
+                throw new IllegalArgumentException("Samples " + samples + " is not positive");
+            }
+            this.samples = samples;
+            return asThis();
+        }
+
+        /**
+         * Sets the formatters a {@link Type#TIMESTAMP} value must match, defaults to ISO-8601 dates, local date-times, offset date-times and instants,
+         * and local date-times with a space instead of a 'T'.
+         *
+         * @param timestampFormatters The formatters, at most 32; {@code null} resets to the default.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if there are more than 32 formatters.
+         */
+        public Builder setTimestampFormatters(final DateTimeFormatter... timestampFormatters) {
+            if (timestampFormatters == null) {
+                this.timestampFormatters = DEFAULT_TIMESTAMP_FORMATTERS;
+                return asThis();
+            }
+            if (timestampFormatters.length > Integer.SIZE) {
+                throw new IllegalArgumentException("Too many timestamp formatters: " + timestampFormatters.length);
+            }
+            this.timestampFormatters = timestampFormatters.clone();
+            return asThis();
+        }
+    }
+
+    /**
+     * A column of a schema.
+     */
+    public static final class Column {
+
+        private final int index;
+
+        private final int maxLength;
+
+        private final String name;
+
+        private final long nullCount;
+
+        private final long recordCount;
+
+        private final DateTimeFormatter timestampFormatter;
+
+        private final Type type;
+
+        Column(final int index, final String name, final Type type, final DateTimeFormatter timestampFormatter, final int maxLength, final long nullCount,
+                final long recordCount) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.timestampFormatter = timestampFormatter;
+            this.maxLength = maxLength;
+            this.nullCount = nullCount;
+            this.recordCount = recordCount;
+        }
+
+        /**
+         * Gets the index of the column.
+         *
+         * @return The 0-based index of the column.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the length of the longest value of the column in the sample.
+         *
+         * @return The maximum number of characters of a value, 0 if all values are null.
+         */
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        /**
+         * Gets the name of the column in the header.
+         *
+         * @return The name of the column, or null if the format has no header or the header has no name for the column.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of null, empty or missing values of the column in the sample.
+         *
+         * @return The number of null values.
+         */
+        public long getNullCount() {
+            return nullCount;
+        }
+
+        /**
+         * Gets the ratio of null, empty or missing values of the column in the sample.
+         *
+         * @return The null ratio, from 0 to 1.
+         */
+        public double getNullRatio() {
+            return recordCount == 0 ? 0 : (double) nullCount / recordCount;
+        }
+
+        /**
+         * Gets the first timestamp formatter that parses all values of a {@link Type#TIMESTAMP} column.
+         *
+         * @return The formatter, or null if the column is not a timestamp column.
+         */
+        public DateTimeFormatter getTimestampFormatter() {
+            return timestampFormatter;
+        }
+
+        /**
+         * Gets the type of the column.
+         *
+         * @return The type of the column.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return "Column [index=" + index + ", name=" + name + ", type=" + type + ", maxLength=" + maxLength + ", nullCount=" + nullCount + "]";
+        }
+    }
+
+    /**
+     * Collects the statistics of sampled records.
+     */
+    private static final class Inference {
+
+        /** Whether all non-null values of each column were booleans. */
+        private boolean[] booleans = new boolean[0];
+
+        /** Whether all non-null values of each column were decimals. */
+        private boolean[] decimals = new boolean[0];
+
+        private final List<String> headerNames;
+
+        /** Whether all non-null values of each column were integers. */
+        private boolean[] integers = new boolean[0];
+
+        private int[] maxLengths = new int[0];
+
+        /** The number of null values of each column. */
+        private long[] nullCounts = new long[0];
+
+        private final CSVReusableRecord record = new CSVReusableRecord();
+
+        private long recordCount;
+
+        private int size;
+
+        /** For each column, a bit for each timestamp formatter that parsed all non-null values. */
+        private int[] timestampFormats = new int[0];
+
+        private final DateTimeFormatter[] timestampFormatters;
+
+        Inference(final List<String> headerNames, final DateTimeFormatter[] timestampFormatters) {
+            this.headerNames = headerNames;
+            this.timestampFormatters = timestampFormatters;
+        }
+
+        private void add(final CharSequence value, final int column) {
+            if (value == null || value.length() == 0) {
+                nullCounts[column]++;
+                return;
+            }
+            maxLengths[column] = Math.max(maxLengths[column], value.length());
+            if (integers[column] && !isInteger(value)) {
+                integers[column] = false;
+            }
+            if (decimals[column] && !isDecimal(value)) {
+                decimals[column] = false;
+            }
+            if (booleans[column] && !isBoolean(value)) {
+                booleans[column] = false;
+            }
+            int formats = timestampFormats[column];
+            if (formats != 0) {
+                // Timestamps start with a digit, which saves parsing most other values.
+                if (!Character.isDigit(value.charAt(0))) {
+                    formats = 0;
+                }
+                // Walk the set bits, since a shift by 32 is masked to a shift by 0 when all 32 formatters are set.
+                for (int remaining = formats; remaining != 0; remaining &= remaining - 1) {
+                    final int i = Integer.numberOfTrailingZeros(remaining);
+                    if (!parses(timestampFormatters[i], value)) {
+                        formats &= ~(1 << i);
+                    }
+                }
+                timestampFormats[column] = formats;
+            }
+        }
+
+        /**
+         * Samples up to {@code limit} records from a parser.
+         */
+        void add(final CSVParser parser, final long limit) throws IOException {
+            for (long i = 0; i < limit && parser.readRecord(record); i++) {
+                final int recordSize = record.size();
+                if (recordSize > size) {
+                    grow(recordSize);
+                }
+                for (int column = 0; column < size; column++) {
+                    add(column < recordSize ? record.get(column) : null, column);
+                }
+                recordCount++;
+            }
+        }
+
+        private void grow(final int newSize) {
+            booleans = Arrays.copyOf(booleans, newSize);
+            decimals = Arrays.copyOf(decimals, newSize);
+            integers = Arrays.copyOf(integers, newSize);
+            maxLengths = Arrays.copyOf(maxLengths, newSize);
+            nullCounts = Arrays.copyOf(nullCounts, newSize);
+            timestampFormats = Arrays.copyOf(timestampFormats, newSize);
+            Arrays.fill(booleans, size, newSize, true);
+            Arrays.fill(decimals, size, newSize, true);
+            Arrays.fill(integers, size, newSize, true);
+            // The values of earlier records are missing from new columns.
+            Arrays.fill(nullCounts, size, newSize, recordCount);
+            Arrays.fill(timestampFormats, size, newSize, timestampFormatters.length == Integer.SIZE ? -1 : (1 << timestampFormatters.length) - 1);
+            size = newSize;
+        }
+
+        CSVSchema toSchema() {
+            // Header columns that no sampled record reaches, such as all of them in a header-only input, are missing from every record.
+            final int columnCount = Math.max(size, headerNames.size());
+            if (columnCount > size) {
+                grow(columnCount);
+            }
+            final List<Column> columns = new ArrayList<>(size);
+            for (int column = 0; column < size; column++) {
+                final String name = column < headerNames.size() ? headerNames.get(column) : null;
+                final int formats = timestampFormats[column];
+                final DateTimeFormatter formatter = formats == 0 ? null : timestampFormatters[Integer.numberOfTrailingZeros(formats)];
+                final Type type;
+                if (nullCounts[column] == recordCount) {
+                    type = Type.STRING;
+                } else if (integers[column]) {
+                    type = Type.INTEGER;
+                } else if (decimals[column]) {
+                    type = Type.DECIMAL;
+                } else if (booleans[column]) {
+                    type = Type.BOOLEAN;
+                } else if (formatter != null) {
+                    type = Type.TIMESTAMP;
+                } else {
+                    type = Type.STRING;
+                }
+                columns.add(new Column(column, name, type, type == Type.TIMESTAMP ? formatter : null, maxLengths[column], nullCounts[column], recordCount));
+            }
+            return new CSVSchema(columns, recordCount);
+        }
+    }
+
+    /**
+     * The type of a column.
+     */
+    public enum Type {
+
+        /** Values are {@code true} or {@code false}, ignoring case. */
+        BOOLEAN,
+
+        /** Values are decimal numbers, with an optional fraction and exponent, that {@link Double#parseDouble(String)} parses. */
+        DECIMAL,
+
+        /** Values are integers that {@link Long#parseLong(String)} parses. */
+        INTEGER,
+
+        /** Values are strings: any value, and the type of a column of null values. */
+        STRING,
+
+        /** Values are dates or date-times that a timestamp formatter parses, see {@link Column#getTimestampFormatter()}. */
+        TIMESTAMP
+    }
+
+    /** The default maximum number of records to sample. */
+    public static final int DEFAULT_MAX_RECORDS = 1000;
+
+    /** The number of bytes read at most to find a record boundary near a sampled place, 1 MiB. */
+    static final int SAMPLE_WINDOW = 1 << 20;
+
+    private static final DateTimeFormatter[] DEFAULT_TIMESTAMP_FORMATTERS = {
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+        DateTimeFormatter.ISO_INSTANT,
+        new DateTimeFormatterBuilder().append(DateTimeFormatter.ISO_LOCAL_DATE).appendLiteral(' ').append(DateTimeFormatter.ISO_LOCAL_TIME).toFormatter()
+    };
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Infers a schema from the next records of a parser.
+     *
+     * @param parser     The parser, positioned at the first record to sample.
+     * @param maxRecords The maximum number of records to sample.
+     * @return A new schema.
+     * @throws IOException  If an I/O error occurs.
+     * @throws CSVException on invalid CSV input data.
+     */
+    public static CSVSchema infer(final CSVParser parser, final int maxRecords) throws IOException {
+        return infer(parser, maxRecords, DEFAULT_TIMESTAMP_FORMATTERS);
+    }
+
+    private static CSVSchema infer(final CSVParser parser, final int maxRecords, final DateTimeFormatter[] timestampFormatters) throws IOException {
+        Objects.requireNonNull(parser, "parser");
+        final Inference inference = new Inference(parser.getHeaderNames(), timestampFormatters);
+        inference.add(parser, maxRecords);
+        return inference.toSchema();
+    }
+
+    private static boolean isBoolean(final CharSequence value) {
+        return contentEqualsIgnoreCase(value, "true") || contentEqualsIgnoreCase(value, "false");
+    }
+
+    private static boolean contentEqualsIgnoreCase(final CharSequence value, final String string) {
+        if (value.length() != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (Character.toLowerCase(value.charAt(i)) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether a value is a decimal number: an optional sign, digits with an optional decimal point, and an optional exponent.
+     */
+    private static boolean isDecimal(final CharSequence value) {
+        final int length = value.length();
+        int i = skipSign(value, 0);
+        final int start = i;
+        i = skipDigits(value, i);
+        int digits = i - start;
+        if (i < length && value.charAt(i) == '.') {
+            final int fraction = ++i;
+            i = skipDigits(value, i);
+            digits += i - fraction;
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            final int exponent = skipSign(value, i + 1);
+            i = skipDigits(value, exponent);
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * Tests whether a value is an integer in the range of a long.
+     */
+    private static boolean isInteger(final CharSequence value) {
+        final int start = skipSign(value, 0);
+        final int length = value.length();
+        final int digits = length - start;
+        if (digits == 0 || digits > 19 || skipDigits(value, start) != length) {
+            return false;
+        }
+        if (digits < 19) {
+            return true;
+        }
+        try {
+            Long.parseLong(value.toString());
+            return true;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean parses(final DateTimeFormatter formatter, final CharSequence value) {
+        try {
+            formatter.parse(value);
+            return true;
+        } catch (final DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static int skipDigits(final CharSequence value, int i) {
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSign(final CharSequence value, final int i) {
+        return i < value.length() && (value.charAt(i) == '+' || value.charAt(i) == '-') ? i + 1 : i;
+    }
+
+    private final List<Column> columns;
+
+    private final long recordCount;
+
+    private CSVSchema(final List<Column> columns, final long recordCount) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Gets a column by index.
+     *
+     * @param index a column index (0-based).
+     * @return The column.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public Column getColumn(final int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * Gets a column by header name.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException if no column has the name.
+     */
+    public Column getColumn(final String name) {
+        for (final Column column : columns) {
+            if (Objects.equals(name, column.getName())) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("No column named " + name);
+    }
+
+    /**
+     * Gets the columns, as many as the longest sampled record has.
+     *
+     * @return The columns, unmodifiable.
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of sampled records.
+     *
+     * @return The number of sampled records.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CSVSchema [recordCount=" + recordCount + ", columns=" + columns + "]";
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.build.AbstractOrigin;
+import org.apache.commons.io.build.AbstractStreamBuilder;
+import org.apache.commons.io.function.IOConsumer;
+
+/**
+ * Sorts the records of a CSV input that may be larger than memory, with an external merge sort.
+ * <p>
+ * The sorter parses the input with a {@link CSVParser} into runs of records that fit in a {@link Builder#setMaxMemory(long) memory budget}, sorts each run
+ * and spills it to a temporary file in a compact binary form, then merges the runs, {@link Builder#setMaxMergeRuns(int) several at a time}, and prints the
+ * records with a {@link CSVPrinter}. Because records are parsed rather than split on line breaks, quoted values with line breaks sort as one record. The
+ * sort is stable: records with equal keys keep their input order.
+ * </p>
+ * <p>
+ * Records sort by their {@link Builder#addKey(String, CSVSchema.Type, boolean) keys}, each the value of a column compared as its type, and then by the
+ * {@link Builder#setComparator(Comparator) comparator}, if any. The sorter converts each key value once per record and pass rather than once per
+ * comparison. The header of the input, if its format has one, is printed before the records unless the {@link Builder#setOutputFormat(CSVFormat) output
+ * format} has its own header, and record comments are printed if the output format has a comment marker.
+ * </p>
+ * <p>
+ * A sorter keeps no state between sorts. When it opens its input itself, from a path, file or URI, it can sort the input again, also from several threads
+ * at once. An input the caller opened, such as a reader or an input stream, can only be read once: a second call to {@link #sort(Appendable)} throws an
+ * {@link IllegalStateException}.
+ * </p>
+ *
+ * <pre>
+ * CSVSorter sorter = CSVSorter.builder().setPath(input).setCharset(StandardCharsets.UTF_8).setFormat(format).addKey("price", CSVSchema.Type.DECIMAL, true)
+ *         .setTempDirectory(tmp).get();
+ * try (Writer out = Files.newBufferedWriter(output)) {
+ *     sorter.sort(out);
+ * }
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVSorter {
+
+    /**
+     * Builds a new {@link CSVSorter} for an input.
+     */
+    public static class Builder extends AbstractStreamBuilder<CSVSorter, Builder> {
+
+        private Comparator<CSVRecord> comparator;
+        private CSVFormat format = CSVFormat.DEFAULT;
+        private final List<SortKey> keys = new ArrayList<>();
+        private long maxMemory = DEFAULT_MAX_MEMORY;
+        private int maxMergeRuns = DEFAULT_MAX_MERGE_RUNS;
+        private CSVFormat outputFormat;
+        private Path tempDirectory;
+
+        /**
+         * Constructs a new instance.
+         */
+        protected Builder() {
+            // empty
+        }
+
+        private Builder addKey(final SortKey key) {
+            keys.add(key);
+            return asThis();
+        }
+
+        /**
+         * Adds a sort key: the value of a column, compared as a type.
+         *
+         * @param column     The 0-based index of the column.
+         * @param type       How to compare the values, see {@link #addKey(String, CSVSchema.Type, boolean)}.
+         * @param descending Whether to sort the key in descending order.
+         * @return {@code this} instance.
+         */
+        public Builder addKey(final int column, final CSVSchema.Type type, final boolean descending) {
+            return addKey(new SortKey(column, type, descending));
+        }
+
+        /**
+         * Adds a sort key: the value of a column, compared as a type.
+         * <p>
+         * {@link CSVSchema.Type#INTEGER} and {@link CSVSchema.Type#DECIMAL} values compare as numbers, {@link CSVSchema.Type#BOOLEAN} values as
+         * {@link Boolean#parseBoolean(String) booleans}, and {@link CSVSchema.Type#STRING} and {@link CSVSchema.Type#TIMESTAMP} values as Strings, which
+         * orders ISO-8601 timestamps of the same form chronologically. Null and missing values, and blank values of the other types, sort before other
+         * values in ascending order and after them in descending order. A value that is not a number in a numeric key makes the sort throw a
+         * {@link NumberFormatException}.
+         * </p>
+         *
+         * @param column     The name of the column in the header.
+         * @param type       How to compare the values.
+         * @param descending Whether to sort the key in descending order.
+         * @return {@code this} instance.
+         */
+        public Builder addKey(final String column, final CSVSchema.Type type, final boolean descending) {
+            return addKey(new SortKey(column, type, descending));
+        }
+
+        /**
+         * Builds a new sorter.
+         *
+         * @return A new sorter.
+         * @throws IllegalStateException if there is neither a key nor a comparator, or no origin.
+         */
+        @Override
+        public CSVSorter get() throws IOException {
+            if (keys.isEmpty() && comparator == null) {
+                throw new IllegalStateException("No sort key or comparator");
+            }
+            return new CSVSorter(this, checkOrigin());
+        }
+
+        /**
+         * Sets a comparator for records, applied after the keys, if any.
+         * <p>
+         * The records passed to the comparator have the values, comment and record number of the input record, and can get values by header name.
+         * </p>
+         *
+         * @param comparator The comparator, or null for none.
+         * @return {@code this} instance.
+         */
+        public Builder setComparator(final Comparator<CSVRecord> comparator) {
+            this.comparator = comparator;
+            return asThis();
+        }
+
+        /**
+         * Sets the CSV format of the input, defaults to {@link CSVFormat#DEFAULT}.
+         *
+         * @param format The CSV format, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = CSVFormat.copy(format != null ? format : CSVFormat.DEFAULT);
+            return asThis();
+        }
+
+        /**
+         * Sets the approximate number of bytes of records to sort in memory at a time, defaults to {@value CSVSorter#DEFAULT_MAX_MEMORY}.
+         * <p>
+         * The sorter estimates the memory a record takes from its number of values and characters. A run holds at least one record.
+         * </p>
+         *
+         * @param maxMemory The memory budget in bytes.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxMemory} is not positive.
+         */
+        public Builder setMaxMemory(final long maxMemory) {
+            if (maxMemory < 1) {
+                throw new IllegalArgumentException("Max memory " + maxMemory + " is not positive");
+            }
+            this.maxMemory = maxMemory;
+            return asThis();
+        }
+
+        /**
+         * Sets the maximum number of runs to merge at a time, defaults to {@value CSVSorter#DEFAULT_MAX_MERGE_RUNS}.
+         * <p>
+         * With more runs, the sorter first merges groups of runs into longer runs, which costs another pass over the records. Each merged run holds a read
+         * buffer.
+         * </p>
+         *
+         * @param maxMergeRuns The maximum number of runs to merge at a time, at least 2.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxMergeRuns} is less than 2.
+         */
+        public Builder setMaxMergeRuns(final int maxMergeRuns) {
+            if (maxMergeRuns < 2) {
+                throw new IllegalArgumentException("Max merge runs " + maxMergeRuns + " is less than 2");
+            }
+            this.maxMergeRuns = maxMergeRuns;
+            return asThis();
+        }
+
+        /**
+         * Sets the CSV format of the output, defaults to the format of the input.
+         * <p>
+         * If this format has its own header, the sorter prints it as this format does, instead of the header of the input.
+         * </p>
+         *
+         * @param outputFormat The CSV format, {@code null} resets to the format of the input.
+         * @return {@code this} instance.
+         */
+        public Builder setOutputFormat(final CSVFormat outputFormat) {
+            this.outputFormat = CSVFormat.copy(outputFormat);
+            return asThis();
+        }
+
+        /**
+         * Sets the directory of the temporary run files, defaults to the default temporary-file directory.
+         *
+         * @param tempDirectory The directory, or null for the default temporary-file directory.
+         * @return {@code this} instance.
+         */
+        public Builder setTempDirectory(final Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return asThis();
+        }
+    }
+
+    /**
+     * A record and its converted sort keys.
+     */
+    private static final class Entry {
+
+        final Comparable<?>[] keys;
+
+        final CSVRecord record;
+
+        Entry(final CSVRecord record, final Comparable<?>[] keys) {
+            this.record = record;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Reads the records of a run file in order.
+     */
+    private final class RunReader implements Closeable {
+
+        private Entry current;
+
+        private final DataInputStream in;
+
+        /** The column index of each key. */
+        private final int[] keyColumns;
+
+        /** The position of the run in input order, to merge stably. */
+        private final int order;
+
+        /** The parser of the input, for the header of the records passed to the comparator. */
+        private final CSVParser parser;
+
+        RunReader(final Path run, final int order, final CSVParser parser, final int[] keyColumns) throws IOException {
+            this.in = RunFiles.newInput(run);
+            this.order = order;
+            this.parser = parser;
+            this.keyColumns = keyColumns;
+        }
+
+        /**
+         * Reads the next entry into {@link #current}.
+         *
+         * @return Whether there was an entry.
+         */
+        boolean advance() throws IOException {
+            final CSVRecord record = RunFiles.readRecord(in, parser);
+            current = record != null ? entry(record, keyColumns) : null;
+            return current != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /** The default memory budget for a run, 64 MiB. */
+    public static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+
+    /** The default maximum number of runs to merge at a time. */
+    public static final int DEFAULT_MAX_MERGE_RUNS = 64;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Estimates the bytes of memory a record takes. */
+    private static long estimateMemory(final String[] values) {
+        long bytes = 96 + 8L * values.length;
+        for (final String value : values) {
+            if (value != null) {
+                bytes += 48 + 2L * value.length();
+            }
+        }
+        return bytes;
+    }
+
+    private final Charset charset;
+
+    private final Comparator<Entry> entryComparator;
+
+    private final CSVFormat format;
+
+    private final SortKey[] keys;
+
+    private final long maxMemory;
+
+    private final int maxMergeRuns;
+
+    private final AbstractOrigin<?, ?> origin;
+
+    private final CSVFormat outputFormat;
+
+    /** Whether the output format has its own header, which replaces the header of the input. */
+    private final boolean outputHeader;
+
+    /** Whether an input that can only be read once has been read. */
+    private final AtomicBoolean read = new AtomicBoolean();
+
+    private final Path tempDirectory;
+
+    private CSVSorter(final Builder builder, final AbstractOrigin<?, ?> origin) {
+        this.origin = origin;
+        this.charset = builder.getCharset();
+        this.format = builder.format;
+        this.outputFormat = builder.outputFormat != null ? builder.outputFormat : builder.format;
+        final String[] header = builder.outputFormat != null ? builder.outputFormat.getHeader() : null;
+        this.outputHeader = header != null && header.length > 0;
+        this.keys = builder.keys.toArray(new SortKey[0]);
+        this.maxMemory = builder.maxMemory;
+        this.maxMergeRuns = builder.maxMergeRuns;
+        this.tempDirectory = builder.tempDirectory;
+        final Comparator<CSVRecord> comparator = builder.comparator;
+        this.entryComparator = (a, b) -> {
+            final int result = SortKey.compare(keys, a.keys, b.keys);
+            return result != 0 || comparator == null ? result : comparator.compare(a.record, b.record);
+        };
+    }
+
+    private Entry entry(final CSVRecord record, final int[] keyColumns) {
+        return new Entry(record, SortKey.convert(keys, keyColumns, record));
+    }
+
+    /**
+     * Merges runs, in order, into a sink.
+     */
+    private void merge(final List<Path> runs, final CSVParser parser, final int[] keyColumns, final IOConsumer<Entry> sink) throws IOException {
+        final List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            final PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                final int result = entryComparator.compare(a.current, b.current);
+                return result != 0 ? result : Integer.compare(a.order, b.order);
+            });
+            for (final Path run : runs) {
+                final RunReader reader = new RunReader(run, readers.size(), parser, keyColumns);
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                final RunReader reader = queue.poll();
+                sink.accept(reader.current);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (final RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Sorts the input and prints the sorted records.
+     * <p>
+     * The sorter parses the input, writes temporary run files and deletes them before returning. It flushes the output but does not close it.
+     * </p>
+     *
+     * @param out The output.
+     * @return The number of records sorted.
+     * @throws IOException              If an I/O error occurs.
+     * @throws CSVException             on invalid CSV input data.
+     * @throws IllegalArgumentException if a key's column is not in the header.
+     * @throws IllegalStateException    if a key's column is named and the input has no header, or if the input can only be read once and this sorter
+     *                                  has already read it.
+     */
+    public long sort(final Appendable out) throws IOException {
+        final boolean opensInput = origin instanceof AbstractOrigin.PathOrigin || origin instanceof AbstractOrigin.FileOrigin
+                || origin instanceof AbstractOrigin.URIOrigin;
+        if (!opensInput && !read.compareAndSet(false, true)) {
+            throw new IllegalStateException("The input has already been read, only a path, file or URI input can be sorted again");
+        }
+        // Every run file, listed before it is written, so that a failure deletes it too.
+        final List<Path> files = new ArrayList<>();
+        final List<Path> runs = new ArrayList<>();
+        try (CSVParser parser = CSVParser.builder().setReader(origin.getReader(charset)).setCharset(charset).setFormat(format).get()) {
+            final int[] keyColumns = SortKey.resolve(keys, parser);
+            final List<Entry> entries = new ArrayList<>();
+            long memory = 0;
+            long count = 0;
+            for (final CSVRecord record : parser) {
+                entries.add(entry(record, keyColumns));
+                memory += estimateMemory(record.values());
+                count++;
+                if (memory >= maxMemory) {
+                    runs.add(writeRun(entries, files));
+                    entries.clear();
+                    memory = 0;
+                }
+            }
+            // The last run stays in memory if it is the only one.
+            if (runs.isEmpty()) {
+                entries.sort(entryComparator);
+            } else if (!entries.isEmpty()) {
+                runs.add(writeRun(entries, files));
+                entries.clear();
+            }
+            while (runs.size() > maxMergeRuns) {
+                final List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxMergeRuns) {
+                    final List<Path> group = runs.subList(i, Math.min(runs.size(), i + maxMergeRuns));
+                    merged.add(mergeRun(group, parser, keyColumns, files));
+                    RunFiles.delete(group);
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+            final CSVPrinter printer = newPrinter(out, parser.getHeaderNames());
+            if (runs.isEmpty()) {
+                for (final Entry entry : entries) {
+                    print(printer, entry);
+                }
+            } else {
+                merge(runs, parser, keyColumns, entry -> print(printer, entry));
+            }
+            printer.flush();
+            return count;
+        } finally {
+            RunFiles.delete(files);
+        }
+    }
+
+    /**
+     * Merges a group of runs into a new run.
+     */
+    private Path mergeRun(final List<Path> runs, final CSVParser parser, final int[] keyColumns, final List<Path> files) throws IOException {
+        final Path run = newRun(files);
+        try (DataOutputStream out = RunFiles.newOutput(run)) {
+            merge(runs, parser, keyColumns, entry -> RunFiles.writeRecord(out, entry.record));
+        }
+        return run;
+    }
+
+    private CSVPrinter newPrinter(final Appendable out, final List<String> headerNames) throws IOException {
+        if (!outputHeader && !headerNames.isEmpty()) {
+            // The input format may skip its header record, the output has it.
+            return new CSVPrinter(out, outputFormat.builder().setHeader(headerNames.toArray(new String[0])).setSkipHeaderRecord(false).get());
+        }
+        return new CSVPrinter(out, outputFormat);
+    }
+
+    /**
+     * Creates a new run file and adds it to the run files to delete.
+     */
+    private Path newRun(final List<Path> files) throws IOException {
+        final Path run = RunFiles.create(tempDirectory, "csv-sort-");
+        files.add(run);
+        return run;
+    }
+
+    private void print(final CSVPrinter printer, final Entry entry) throws IOException {
+        final CSVRecord record = entry.record;
+        if (record.hasComment() && outputFormat.isCommentMarkerSet()) {
+            printer.printComment(record.getComment());
+        }
+        printer.printRecord((Object[]) record.values());
+    }
+
+    /**
+     * Sorts entries and writes them to a new run file.
+     */
+    private Path writeRun(final List<Entry> entries, final List<Path> files) throws IOException {
+        entries.sort(entryComparator);
+        final Path run = newRun(files);
+        try (DataOutputStream out = RunFiles.newOutput(run)) {
+            for (final Entry entry : entries) {
+                RunFiles.writeRecord(out, entry.record);
+            }
+        }
+        return run;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import org.apache.commons.csv.RecordBoundaryScanner.Range;
+import org.apache.commons.io.build.AbstractStreamBuilder;
+
+/**
+ * Splits a CSV file into shards that start on record boundaries, copying bytes without decoding them.
+ * <p>
+ * The splitter finds record boundaries by counting quotes, as {@link CSVParallelParser} does, so quoted values with line breaks stay whole; the
+ * {@link Builder#setFormat(CSVFormat) format} must have no escape character or comment marker, and the file must be in UTF-8 or an ASCII-compatible
+ * single-byte character set. Shards end on the first record boundary after a target {@link Builder#setShardCount(int) count} or
+ * {@link Builder#setShardSize(long) size} in bytes, or after an exact {@link Builder#setShardRecords(long) number of records}. The splitter then copies each
+ * shard's bytes with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the operating system copy them without
+ * passing them through the Java heap.
+ * </p>
+ * <p>
+ * The first shard starts with the header record, if the format has one. With {@link Builder#setRepeatHeader(boolean) setRepeatHeader(true)}, the other
+ * shards start with a copy of it; otherwise the shards concatenate to the file. Because boundaries are found without parsing, a quote character inside an
+ * unquoted value can misplace them.
+ * </p>
+ *
+ * <pre>
+ * CSVSplitter splitter = CSVSplitter.builder().setPath(input).setCharset(StandardCharsets.UTF_8).setFormat(format).setShardCount(8).setRepeatHeader(true)
+ *         .get();
+ * List&lt;Path&gt; shards = splitter.split(i -&gt; dir.resolve(String.format("part-%05d.csv", i)));
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVSplitter {
+
+    /**
+     * Builds a new {@link CSVSplitter} for a file, scanning it for the shard boundaries.
+     */
+    public static class Builder extends AbstractStreamBuilder<CSVSplitter, Builder> {
+
+        private CSVFormat format = CSVFormat.DEFAULT;
+        private boolean repeatHeader;
+        private int shardCount = Runtime.getRuntime().availableProcessors();
+        private long shardRecords;
+        private long shardSize;
+
+        /**
+         * Constructs a new instance.
+         */
+        protected Builder() {
+            // empty
+        }
+
+        /**
+         * Builds a new splitter, scanning the file for the shard boundaries.
+         *
+         * @return A new splitter.
+         * @throws IOException              If an I/O error occurs.
+         * @throws CSVException             on invalid CSV input data in the header record.
+         * @throws IllegalArgumentException if record boundaries cannot be found by counting quotes.
+         */
+        @Override
+        public CSVSplitter get() throws IOException {
+            return new CSVSplitter(this);
+        }
+
+        /**
+         * Sets the CSV format of the file, defaults to {@link CSVFormat#DEFAULT}.
+         *
+         * @param format The CSV format, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setFormat(final CSVFormat format) {
+            this.format = CSVFormat.copy(format != null ? format : CSVFormat.DEFAULT);
+            return asThis();
+        }
+
+        /**
+         * Sets whether shards after the first start with a copy of the header record, defaults to false.
+         *
+         * @param repeatHeader Whether to repeat the header record.
+         * @return {@code this} instance.
+         */
+        public Builder setRepeatHeader(final boolean repeatHeader) {
+            this.repeatHeader = repeatHeader;
+            return asThis();
+        }
+
+        /**
+         * Splits into at most a number of shards of about the same size in bytes, the default with the number of available processors.
+         * <p>
+         * This replaces a shard size or a number of records per shard. A file with fewer records than shards splits into fewer shards.
+         * </p>
+         *
+         * @param shardCount The maximum number of shards.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code shardCount} is not positive.
+         */
+        public Builder setShardCount(final int shardCount) {
+            if (shardCount < 1) {
+                throw new IllegalArgumentException("Shard count " + shardCount + " is not positive");
+            }
+            this.shardCount = shardCount;
+            this.shardRecords = 0;
+            this.shardSize = 0;
+            return asThis();
+        }
+
+        /**
+         * Splits into shards of an exact number of data records, the last shard holding the rest.
+         * <p>
+         * This replaces a shard count or size. The splitter parses the part of the file around each shard boundary to place it exactly.
+         * </p>
+         *
+         * @param shardRecords The number of data records per shard.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code shardRecords} is not positive.
+         */
+        public Builder setShardRecords(final long shardRecords) {
+            if (shardRecords < 1) {
+                throw new IllegalArgumentException("Shard records " + shardRecords + " is not positive");
+            }
+            this.shardRecords = shardRecords;
+            this.shardSize = 0;
+            return asThis();
+        }
+
+        /**
+         * Splits into shards of at least a size in bytes, ending on the first record boundary after it; the last shard holds the rest.
+         * <p>
+         * This replaces a shard count or a number of records per shard. The size does not include a repeated header record.
+         * </p>
+         *
+         * @param shardSize The number of bytes per shard.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code shardSize} is not positive.
+         */
+        public Builder setShardSize(final long shardSize) {
+            if (shardSize < 1) {
+                throw new IllegalArgumentException("Shard size " + shardSize + " is not positive");
+            }
+            this.shardSize = shardSize;
+            this.shardRecords = 0;
+            return asThis();
+        }
+    }
+
+    /** The number of bytes to scan at a time when splitting by number of records; the splitter parses at most this much per shard boundary. */
+    private static final int RECORD_SCAN_CHUNK_SIZE = 1024 * 1024;
+
+    /** The maximum number of bytes to scan at a time when splitting by size. */
+    private static final int SCAN_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static long ceilDiv(final long dividend, final long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static void transfer(final FileChannel in, final long start, final long end, final FileChannel out) throws IOException {
+        long position = start;
+        while (position < end) {
+            final long count = in.transferTo(position, end - position, out);
+            if (count <= 0) {
+                throw new EOFException(String.format("Expected %,d bytes but the file ends at %,d", end, position));
+            }
+            position += count;
+        }
+    }
+
+    /** The shard boundaries: shard {@code i} holds the data records between {@code boundaries[i]} and {@code boundaries[i + 1]}. */
+    private final long[] boundaries;
+
+    private final Charset charset;
+
+    private final CSVFormat format;
+
+    /** The file position after the header record, or 0 if the format has no header record. */
+    private final long headerEnd;
+
+    private final Path path;
+
+    /** The number of data records in each shard. */
+    private final long[] recordCounts;
+
+    private final boolean repeatHeader;
+
+    private CSVSplitter(final Builder builder) throws IOException {
+        this.path = builder.getPath();
+        this.charset = builder.getCharset();
+        this.format = builder.format;
+        this.repeatHeader = builder.repeatHeader;
+        final RecordBoundaryScanner scanner = new RecordBoundaryScanner(path, format, charset);
+        final String[] formatHeader = format.getHeader();
+        final long size = Files.size(path);
+        this.headerEnd = formatHeader != null && (formatHeader.length == 0 || format.getSkipHeaderRecord()) ? findHeaderEnd(size) : 0;
+        final List<Long> starts = new ArrayList<>();
+        final List<Long> counts = new ArrayList<>();
+        if (builder.shardRecords > 0) {
+            splitRecords(scanner, builder.shardRecords, starts, counts);
+        } else {
+            final long target = builder.shardSize > 0 ? builder.shardSize : Math.max(1, ceilDiv(size - headerEnd, builder.shardCount));
+            splitSize(scanner, target, starts, counts);
+        }
+        this.boundaries = new long[starts.size() + 1];
+        this.recordCounts = new long[counts.size()];
+        for (int i = 0; i < recordCounts.length; i++) {
+            boundaries[i] = starts.get(i);
+            recordCounts[i] = counts.get(i);
+        }
+        boundaries[recordCounts.length] = Math.max(headerEnd, size);
+    }
+
+    /**
+     * Finds the file position of the record after the header record.
+     */
+    private long findHeaderEnd(final long size) throws IOException {
+        // @formatter:off
+        try (CSVParser parser = CSVParser.builder()
+                .setPath(path)
+                .setCharset(charset)
+                .setFormat(format.builder().setHeader((String[]) null).setSkipHeaderRecord(false).get())
+                .setTrackBytes(true)
+                .get()) {
+            // @formatter:on
+            if (parser.nextRecord() == null) {
+                return 0;
+            }
+            final CSVRecord record = parser.nextRecord();
+            return record != null ? record.getBytePosition() : size;
+        }
+    }
+
+    /**
+     * Gets the number of data records in a shard, not counting a header record.
+     *
+     * @param shard The shard index.
+     * @return The number of data records in the shard.
+     * @throws IndexOutOfBoundsException if {@code shard} is out of range.
+     */
+    public long getRecordCount(final int shard) {
+        return recordCounts[shard];
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return The number of shards, at least one.
+     */
+    public int getShardCount() {
+        return recordCounts.length;
+    }
+
+    /**
+     * Finds the file position of a data record in a range by parsing the range.
+     */
+    private long position(final Range range, final long record) throws IOException {
+        if (record == range.getRecordOffset()) {
+            return range.getStart();
+        }
+        // @formatter:off
+        try (CSVParser parser = CSVParser.builder()
+                .setReader(new MappedFileReader(path, charset, range.getStart(), range.getEnd()))
+                .setCharset(charset)
+                .setFormat(format.builder().setHeader((String[]) null).setSkipHeaderRecord(false).get())
+                .setTrackBytes(true)
+                .setByteOffset(range.getStart())
+                .get()) {
+            // @formatter:on
+            for (long i = range.getRecordOffset(); i < record; i++) {
+                parser.nextRecord();
+            }
+            final CSVRecord next = parser.nextRecord();
+            if (next == null) {
+                throw new CSVException("Expected a record at %,d between bytes %,d and %,d; is there a quote character outside a quoted value?", record,
+                        range.getStart(), range.getEnd());
+            }
+            return next.getBytePosition();
+        }
+    }
+
+    /**
+     * Copies the shards to files.
+     * <p>
+     * Existing files are replaced.
+     * </p>
+     *
+     * @param shardPaths Maps a shard index, from 0, to the file to write the shard to.
+     * @return The shard files, in order.
+     * @throws IOException If an I/O error occurs.
+     */
+    public List<Path> split(final IntFunction<Path> shardPaths) throws IOException {
+        final List<Path> shards = new ArrayList<>(recordCounts.length);
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < recordCounts.length; i++) {
+                final Path shard = Objects.requireNonNull(shardPaths.apply(i), "shardPaths");
+                try (FileChannel out = FileChannel.open(shard, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    if (i == 0) {
+                        transfer(in, 0, boundaries[1], out);
+                    } else {
+                        if (repeatHeader) {
+                            transfer(in, 0, headerEnd, out);
+                        }
+                        transfer(in, boundaries[i], boundaries[i + 1], out);
+                    }
+                }
+                shards.add(shard);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Splits after exact numbers of records, scanning small chunks and parsing the chunk around each boundary.
+     */
+    private void splitRecords(final RecordBoundaryScanner scanner, final long shardRecords, final List<Long> starts, final List<Long> counts)
+            throws IOException {
+        final List<Range> ranges = scanner.split(headerEnd, 0, 0, RECORD_SCAN_CHUNK_SIZE, ForkJoinPool.commonPool());
+        final Range last = ranges.get(ranges.size() - 1);
+        final long total = last.getRecordOffset() + last.getRecordCount();
+        starts.add(headerEnd);
+        int index = 0;
+        for (long record = shardRecords; record < total; record += shardRecords) {
+            while (ranges.get(index).getRecordOffset() + ranges.get(index).getRecordCount() <= record) {
+                index++;
+            }
+            starts.add(position(ranges.get(index), record));
+            counts.add(shardRecords);
+        }
+        counts.add(total - (starts.size() - 1) * shardRecords);
+    }
+
+    /**
+     * Splits on the first record boundary after each multiple of a target size.
+     */
+    private void splitSize(final RecordBoundaryScanner scanner, final long target, final List<Long> starts, final List<Long> counts) throws IOException {
+        // Scan in chunks that divide the target, so that range starts fall just after its multiples.
+        final long chunks = ceilDiv(target, SCAN_CHUNK_SIZE);
+        final List<Range> ranges = scanner.split(headerEnd, 0, 0, (int) ceilDiv(target, chunks), ForkJoinPool.commonPool());
+        starts.add(headerEnd);
+        long count = 0;
+        long next = headerEnd + target;
+        for (final Range range : ranges) {
+            if (range.getStart() >= next) {
+                starts.add(range.getStart());
+                counts.add(count);
+                count = 0;
+                next = headerEnd + ((range.getStart() - headerEnd) / target + 1) * target;
+            }
+            count += range.getRecordCount();
+        }
+        counts.add(count);
+    }
+}
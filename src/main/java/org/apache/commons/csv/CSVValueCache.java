@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of record values that lets a {@link CSVParser} return one String instance for equal values, see
+ * {@link CSVParser.Builder#setValueCache(CSVValueCache)}.
+ * <p>
+ * Files often repeat a few values, such as country codes, status names or currencies, in millions of records. With a cache, the parser looks up the
+ * characters of each value before it creates a String: a hit returns the cached instance and creates nothing, which saves heap for records kept with
+ * {@link CSVParser#getRecords()}.
+ * </p>
+ * <p>
+ * The cache is a table of {@link Builder#setMaxSize(int) fixed size} indexed by the hash of a value, so a lookup costs one hash and one comparison.
+ * Values longer than {@link Builder#setMaxLength(int) a maximum length}, which are seldom repeated, are not cached. The {@link Eviction eviction} policy
+ * decides what happens when a new value hashes to a slot that holds another value.
+ * </p>
+ * <p>
+ * This class is not thread-safe: use one instance per parser, or parse with one parser at a time.
+ * </p>
+ *
+ * <pre>
+ * CSVValueCache cache = CSVValueCache.builder().setMaxSize(4096).get();
+ * List&lt;CSVRecord&gt; records = CSVParser.builder().setPath(path).setValueCache(cache).get().getRecords();
+ * System.out.println(cache.getHitRate());
+ * </pre>
+ *
+ * @since 1.15.0
+ */
+public final class CSVValueCache {
+
+    /**
+     * Builds a new {@link CSVValueCache}.
+     */
+    public static final class Builder implements Supplier<CSVValueCache> {
+
+        private Eviction eviction = Eviction.REPLACE;
+        private int maxLength = DEFAULT_MAX_LENGTH;
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private Builder() {
+            // empty
+        }
+
+        /**
+         * Builds a new cache.
+         *
+         * @return A new cache.
+         */
+        @Override
+        public CSVValueCache get() {
+            return new CSVValueCache(this);
+        }
+
+        /**
+         * Sets the eviction policy, defaults to {@link Eviction#REPLACE}.
+         *
+         * @param eviction The eviction policy, {@code null} resets to the default.
+         * @return {@code this} instance.
+         */
+        public Builder setEviction(final Eviction eviction) {
+            this.eviction = eviction != null ? eviction : Eviction.REPLACE;
+            return this;
+        }
+
+        /**
+         * Sets the length of the longest value to cache, defaults to {@value CSVValueCache#DEFAULT_MAX_LENGTH}.
+         *
+         * @param maxLength The length of the longest value to cache.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxLength} is negative.
+         */
+        public Builder setMaxLength(final int maxLength) {
+            if (maxLength < 0) {
+                throw new IllegalArgumentException("Negative maxLength " + maxLength);
+            }
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Sets the number of values the cache holds at most, defaults to {@value CSVValueCache#DEFAULT_MAX_SIZE}. The size is rounded up to a power of two.
+         *
+         * @param maxSize The number of values the cache holds at most.
+         * @return {@code this} instance.
+         * @throws IllegalArgumentException if {@code maxSize} is not positive or greater than 2<sup>30</sup>.
+         */
+        public Builder setMaxSize(final int maxSize) {
+            if (maxSize < 1 || maxSize > 1 << 30) {
+                throw new IllegalArgumentException("maxSize " + maxSize + " is not between 1 and 2^30");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+    }
+
+    /**
+     * What happens when a value that is not cached hashes to a slot that holds another value.
+     */
+    public enum Eviction {
+
+        /**
+         * The new value replaces the cached value, so the cache follows the values of the input as they change.
+         */
+        REPLACE,
+
+        /**
+         * The cached value stays and the new value is not cached, so values cached first cannot be evicted by rarer values that follow them.
+         */
+        KEEP
+    }
+
+    /** The default length of the longest value to cache. */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    /** The default number of values the cache holds at most. */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Eviction eviction;
+
+    private long evictions;
+
+    /** The hash of each value in {@link #values}. */
+    private final int[] hashes;
+
+    private long hits;
+
+    private final int mask;
+
+    private final int maxLength;
+
+    private long misses;
+
+    private int size;
+
+    private final String[] values;
+
+    private CSVValueCache(final Builder builder) {
+        this.eviction = builder.eviction;
+        this.maxLength = builder.maxLength;
+        final int capacity = Integer.highestOneBit(builder.maxSize - 1 << 1 | 1);
+        this.values = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Removes all values and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Gets the cached String equal to a range of characters, caching a new String on a miss.
+     *
+     * @param content The characters.
+     * @param start   The start of the value in {@code content}.
+     * @param end     The end of the value in {@code content}.
+     * @return A String equal to the characters.
+     */
+    String get(final CharSequence content, final int start, final int end) {
+        final int length = end - start;
+        if (length > maxLength) {
+            misses++;
+            return content.subSequence(start, end).toString();
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + content.charAt(i);
+        }
+        final int index = (hash ^ hash >>> 16) & mask;
+        final String cached = values[index];
+        if (cached != null && hashes[index] == hash && cached.length() == length && regionMatches(cached, content, start)) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        final String value = content.subSequence(start, end).toString();
+        if (cached == null) {
+            size++;
+        } else if (eviction == Eviction.KEEP) {
+            return value;
+        } else {
+            evictions++;
+        }
+        values[index] = value;
+        hashes[index] = hash;
+        return value;
+    }
+
+    /**
+     * Gets the cached String equal to a character sequence, caching it on a miss.
+     *
+     * @param value The characters, may be null.
+     * @return A String equal to the characters, or null.
+     */
+    public String get(final CharSequence value) {
+        return value == null ? null : get(value, 0, value.length());
+    }
+
+    /**
+     * Gets the eviction policy.
+     *
+     * @return The eviction policy.
+     */
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * Gets the number of cached values another value replaced.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the ratio of lookups that returned a cached value.
+     *
+     * @return The hit rate between 0 and 1, 0 before any lookup.
+     */
+    public double getHitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of lookups that returned a cached value.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the length of the longest value to cache.
+     *
+     * @return The length of the longest value to cache.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Gets the number of values the cache holds at most.
+     *
+     * @return The capacity, a power of two.
+     */
+    public int getMaxSize() {
+        return values.length;
+    }
+
+    /**
+     * Gets the number of lookups that created a String, including lookups of values longer than the maximum length.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of cached values.
+     *
+     * @return The number of cached values.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    private static boolean regionMatches(final String cached, final CharSequence content, final int start) {
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != content.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string with the statistics of this cache.
+     *
+     * @return A string with the statistics of this cache.
+     */
+    @Override
+    public String toString() {
+        return "CSVValueCache [size=" + size + ", maxSize=" + values.length + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", eviction=" + eviction + "]";
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+/**
+ * Matches a delimiter, compiled once per {@link Lexer}.
+ * <p>
+ * The {@link Lexer} peeks the characters that follow the first character of a delimiter into a buffer and tests them with {@link #matchesTail(char[], int)}
+ * and {@link #matchesEscaped(char[], int, int)}. With block scanning, {@link #scan(char[], int, int, int)} runs a Knuth-Morris-Pratt automaton over the
+ * look-ahead buffer, so characters that only start a delimiter are scanned like any other character instead of ending the block.
+ * </p>
+ * <p>
+ * A delimiter contains neither a line break nor the escape character, which {@link CSVFormat} validates.
+ * </p>
+ */
+final class DelimiterMatcher {
+
+    private final char[] delimiter;
+
+    /** For each prefix length {@code i + 1} of the delimiter, the length of its longest proper prefix that is also its suffix. */
+    private final int[] fallback;
+
+    /**
+     * Compiles a delimiter.
+     *
+     * @param delimiter The delimiter, not empty.
+     */
+    DelimiterMatcher(final char[] delimiter) {
+        this.delimiter = delimiter.clone();
+        this.fallback = new int[delimiter.length];
+        int k = 0;
+        for (int i = 1; i < delimiter.length; i++) {
+            while (k > 0 && delimiter[i] != delimiter[k]) {
+                k = fallback[k - 1];
+            }
+            if (delimiter[i] == delimiter[k]) {
+                k++;
+            }
+            fallback[i] = k;
+        }
+    }
+
+    /**
+     * Gets the length of the delimiter.
+     *
+     * @return The length of the delimiter.
+     */
+    int length() {
+        return delimiter.length;
+    }
+
+    /**
+     * Tests whether a buffer starts with the delimiter characters after the first, each preceded by the escape character.
+     * <p>
+     * For example, for delimiter "[|]" and escape '!', tests whether the buffer starts with "[!|!]".
+     * </p>
+     *
+     * @param buf    The buffer, at least {@code 2 * length() - 1} characters long.
+     * @param count  The number of characters in the buffer, or a negative value for none.
+     * @param escape The escape character.
+     * @return Whether the buffer starts with the escaped delimiter.
+     */
+    boolean matchesEscaped(final char[] buf, final int count, final int escape) {
+        if (count < 2 * delimiter.length - 1 || buf[0] != delimiter[0]) {
+            return false;
+        }
+        for (int i = 1; i < delimiter.length; i++) {
+            if (buf[2 * i - 1] != escape || buf[2 * i] != delimiter[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether a buffer starts with the delimiter characters after the first.
+     *
+     * @param buf   The buffer, at least {@code length() - 1} characters long.
+     * @param count The number of characters in the buffer, or a negative value for none.
+     * @return Whether the buffer starts with the rest of the delimiter.
+     */
+    boolean matchesTail(final char[] buf, final int count) {
+        if (count < delimiter.length - 1) {
+            return false;
+        }
+        for (int i = 1; i < delimiter.length; i++) {
+            if (buf[i - 1] != delimiter[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans a buffer for the first character that ends a simple token's run of ordinary characters: a line break, the escape character, or the first
+     * character of a delimiter.
+     * <p>
+     * A delimiter that the range cuts short counts as a delimiter, so that the caller looks at it with the next characters.
+     * </p>
+     *
+     * @param buf    The buffer.
+     * @param from   The index of the first character to scan.
+     * @param to     The index after the last character to scan.
+     * @param escape The escape character, or a value that is not a character.
+     * @return The index of the first such character, or {@code to} for none.
+     */
+    int scan(final char[] buf, final int from, final int to, final int escape) {
+        final char[] delimiter = this.delimiter;
+        final int[] fallback = this.fallback;
+        final char first = delimiter[0];
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            final char c = buf[i];
+            if (state == 0) {
+                if (c != first) {
+                    if (c == Constants.LF || c == Constants.CR || c == escape) {
+                        return i;
+                    }
+                    continue;
+                }
+            } else {
+                while (state > 0 && c != delimiter[state]) {
+                    state = fallback[state - 1];
+                }
+                if (c != delimiter[state]) {
+                    if (c == Constants.LF || c == Constants.CR || c == escape) {
+                        return i;
+                    }
+                    continue;
+                }
+            }
+            if (++state == delimiter.length) {
+                return i + 1 - state;
+            }
+        }
+        return to - state;
+    }
+}
@@ -26,13 +26,12 @@ import static org.apache.commons.io.IOUtils.EOF;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetEncoder;
+import java.util.Arrays;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.UnsynchronizedBufferedReader;
+import org.apache.commons.io.input.UnsynchronizedReader;
 
 /**
  * A special buffered reader which supports sophisticated read access.
@@ -40,25 +39,30 @@ import org.apache.commons.io.input.UnsynchronizedBufferedReader;
  * In particular the reader supports a look-ahead option, which allows you to see the next char returned by {@link #read()}. This reader also tracks how many
  * characters have been read with {@link #getPosition()}.
  * </p>
+ * <p>
+ * The reader manages its own buffer, rather than extending a buffered reader, so that the {@link Lexer} can scan runs of characters where they are buffered
+ * with {@link #getBuffer()}, {@link #fillBuffer()} and {@link #skipBuffered(int)}.
+ * </p>
  */
-final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
+final class ExtendedBufferedReader extends UnsynchronizedReader {
 
-    /**
-     * Measures the byte-order mark that {@code encoder} prepends to every {@link CharsetEncoder#encode(CharBuffer)} call. Charsets such as {@code UTF-16} emit
-     * a BOM each time, which would otherwise be counted once per character. The BOM is the constant prefix shared by encoding one and two characters.
-     *
-     * @param encoder The encoder to measure.
-     * @return The byte-order mark length in bytes, or 0 when the encoder writes none.
-     */
-    private static int measureBomLength(final CharsetEncoder encoder) {
-        try {
-            final int one = encoder.encode(CharBuffer.wrap(new char[] { 'a' })).limit();
-            final int two = encoder.encode(CharBuffer.wrap(new char[] { 'a', 'a' })).limit();
-            return Math.max(0, 2 * one - two);
-        } catch (final CharacterCodingException e) {
-            return 0;
-        }
-    }
+    /** The underlying reader. */
+    private final Reader in;
+
+    /** The buffer, null once closed. */
+    private char[] buf;
+
+    /** The index of the next character to read in {@link #buf}. */
+    private int pos;
+
+    /** The index after the last valid character in {@link #buf}. */
+    private int end;
+
+    /** The index of the mark in {@link #buf}, or -1 when there is no mark. */
+    private int bufMark = -1;
+
+    /** The number of characters that can be read after the mark before it becomes invalid. */
+    private int bufMarkLimit = -1;
 
     /** The last char returned */
     private int lastChar = UNDEFINED;
@@ -80,11 +84,8 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
 
     private long bytesReadMark;
 
-    /** Encoder for calculating the number of bytes for each character read. */
-    private final CharsetEncoder encoder;
-
-    /** Bytes {@link #encoder} emits as a byte-order mark on every {@link CharsetEncoder#encode(CharBuffer)} call (for example {@code UTF-16}). */
-    private final int bomLength;
+    /** Counts the number of bytes of each character read, or null when bytes are not tracked. */
+    private final ByteCounter byteCounter;
 
     /**
      * Constructs a new instance using the default buffer size.
@@ -94,17 +95,17 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
     }
 
     /**
-     * Constructs a new instance with the specified reader, character set, and byte tracking option. Initializes an encoder if byte tracking is enabled and a
-     * character set is provided.
+     * Constructs a new instance with the specified reader, character set, and byte tracking option. Initializes a byte counter if byte tracking is enabled and
+     * a character set is provided.
      *
      * @param reader     The reader supports a look-ahead option.
      * @param charset    The character set for encoding, or {@code null} if not applicable.
      * @param trackBytes {@code true} to enable byte tracking; {@code false} to disable it.
      */
     ExtendedBufferedReader(final Reader reader, final Charset charset, final boolean trackBytes) {
-        super(reader);
-        encoder = charset != null && trackBytes ? charset.newEncoder() : null;
-        bomLength = encoder != null ? measureBomLength(encoder) : 0;
+        this.in = reader;
+        this.buf = new char[IOUtils.DEFAULT_BUFFER_SIZE];
+        byteCounter = charset != null && trackBytes ? ByteCounter.of(charset) : null;
     }
 
     /**
@@ -116,71 +117,140 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
     public void close() throws IOException {
         // Set ivars before calling super close() in case close() throws an IOException.
         lastChar = EOF;
-        super.close();
+        if (!isClosed()) {
+            buf = null;
+            pos = 0;
+            end = 0;
+            super.close();
+            in.close();
+        }
     }
 
     /**
-     * Gets the number of bytes read by the reader.
+     * Updates the line number, position, byte count and last character for characters that have just been consumed.
      *
-     * @return The number of bytes read by the read.
+     * @param array  The consumed characters.
+     * @param offset The offset of the first consumed character in {@code array}.
+     * @param len    The number of consumed characters, greater than zero.
+     * @throws CharacterCodingException if a character cannot be encoded.
      */
-    long getBytesRead() {
-        return this.bytesRead;
+    private void consumed(final char[] array, final int offset, final int len) throws CharacterCodingException {
+        if (byteCounter != null) {
+            this.bytesRead += byteCounter.count(lastChar, array, offset, len);
+        }
+        for (int i = offset; i < offset + len; i++) {
+            final char ch = array[i];
+            if (ch == LF) {
+                if (CR != (i > offset ? array[i - 1] : lastChar)) {
+                    lineNumber++;
+                }
+            } else if (ch == CR) {
+                lineNumber++;
+            }
+        }
+        lastChar = array[offset + len - 1];
+        position += len;
     }
 
-    private long getEncodedCharLength(final char[] buf, final int offset, final int length) throws CharacterCodingException {
-        long len = 0;
-        int previous = lastChar;
-        for (int i = offset; i < offset + length; i++) {
-            len += getEncodedCharLength(previous, buf[i]);
-            previous = buf[i];
+    /**
+     * Throws an exception if the reader is closed.
+     *
+     * @throws IOException if the reader is closed.
+     */
+    private void ensureOpen() throws IOException {
+        if (isClosed()) {
+            throw new IOException("Stream closed");
         }
-        return len;
     }
 
     /**
-     * Gets the byte length of the given character based on the original Unicode specification, which defined characters as fixed-width 16-bit entities.
+     * Reads more characters into the buffer, keeping the characters after a valid mark.
+     *
+     * @return The number of characters read, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int fill() throws IOException {
+        if (bufMark != -1 && pos - bufMark < bufMarkLimit) {
+            return fillMarked();
+        }
+        // No mark to keep: start over at the beginning of the buffer.
+        final int result = in.read(buf, 0, buf.length);
+        if (result > 0) {
+            bufMark = -1;
+            pos = 0;
+            end = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of characters buffered after the current position, reading more into the buffer at most once when it holds none.
      * <p>
-     * The Unicode characters are divided into two main ranges:
-     * <ul>
-     * <li><strong>U+0000 to U+FFFF (Basic Multilingual Plane, BMP):</strong>
-     * <ul>
-     * <li>Represented using a single 16-bit {@code char}.</li>
-     * <li>Includes UTF-8 encodings of 1-byte, 2-byte, and some 3-byte characters.</li>
-     * </ul>
-     * </li>
-     * <li><strong>U+10000 to U+10FFFF (Supplementary Characters):</strong>
-     * <ul>
-     * <li>Represented as a pair of {@code char}s:</li>
-     * <li>The first {@code char} is from the high-surrogates range (\uD800-\uDBFF).</li>
-     * <li>The second {@code char} is from the low-surrogates range (\uDC00-\uDFFF).</li>
-     * <li>Includes UTF-8 encodings of some 3-byte characters and all 4-byte characters.</li>
-     * </ul>
-     * </li>
-     * </ul>
+     * Unlike {@link #peek(char[])}, this method does not wait for the source to fill an array, which lets the {@link Lexer} scan the buffered characters
+     * in place without blocking on a chunked source. The characters are in {@link #getBuffer()} from {@link #getBufferPosition()}; consume them with
+     * {@link #skipBuffered(int)}.
+     * </p>
      *
-     * @param current The current character to process.
-     * @return The byte length of the character.
-     * @throws CharacterCodingException if the character cannot be encoded.
+     * @return The number of buffered characters, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
      */
-    private int getEncodedCharLength(final int current) throws CharacterCodingException {
-        return getEncodedCharLength(lastChar, current);
+    int fillBuffer() throws IOException {
+        ensureOpen();
+        if (pos == end && fill() == EOF) {
+            return EOF;
+        }
+        return end - pos;
     }
 
-    private int getEncodedCharLength(final int previous, final int current) throws CharacterCodingException {
-        final char cChar = (char) current;
-        final char lChar = (char) previous;
-        if (!Character.isSurrogate(cChar)) {
-            return encoder.encode(CharBuffer.wrap(new char[] { cChar })).limit() - bomLength;
+    /**
+     * Reads more characters into the buffer after the characters from the mark, moving them to the start of the buffer or doubling its size.
+     *
+     * @return The number of characters read, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int fillMarked() throws IOException {
+        if (bufMark > 0) {
+            System.arraycopy(buf, bufMark, buf, 0, end - bufMark);
+            pos -= bufMark;
+            end -= bufMark;
+            bufMark = 0;
         }
-        if (Character.isHighSurrogate(cChar)) {
-            // Move on to the next char (low surrogate)
-            return 0;
+        if (end == buf.length) {
+            // Grows gradually, the mark limit may be as large as Integer.MAX_VALUE.
+            buf = Arrays.copyOf(buf, buf.length * 2);
         }
-        if (Character.isSurrogatePair(lChar, cChar)) {
-            return encoder.encode(CharBuffer.wrap(new char[] { lChar, cChar })).limit() - bomLength;
+        final int count = in.read(buf, end, buf.length - end);
+        if (count > 0) {
+            end += count;
         }
-        throw new CharacterCodingException();
+        return count;
+    }
+
+    /**
+     * Gets the buffer, valid until the next read, peek or fill.
+     *
+     * @return The buffer.
+     */
+    char[] getBuffer() {
+        return buf;
+    }
+
+    /**
+     * Gets the index in {@link #getBuffer()} of the next character to read.
+     *
+     * @return The index of the next character to read.
+     */
+    int getBufferPosition() {
+        return pos;
+    }
+
+    /**
+     * Gets the number of bytes read by the reader.
+     *
+     * @return The number of bytes read by the read.
+     */
+    long getBytesRead() {
+        return this.bytesRead;
     }
 
     /**
@@ -218,52 +288,84 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
 
     @Override
     public void mark(final int readAheadLimit) throws IOException {
+        if (readAheadLimit < 0) {
+            throw new IllegalArgumentException("Read-ahead limit < 0");
+        }
+        ensureOpen();
         lineNumberMark = lineNumber;
         lastCharMark = lastChar;
         positionMark = position;
         bytesReadMark = bytesRead;
-        super.mark(readAheadLimit);
+        bufMark = pos;
+        bufMarkLimit = readAheadLimit;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return The next character, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    int peek() throws IOException {
+        ensureOpen();
+        return pos < end || fill() != EOF ? buf[pos] : EOF;
     }
 
     /**
      * Fills {@code array} with the characters that follow the current position without consuming them.
      * <p>
-     * Overridden because the inherited implementation stops at the first short read, which leaves the tail of the array holding stale content when the source
-     * delivers data in chunks. Callers compare the whole array against a multi-character delimiter, so a partial fill makes them miss a delimiter that is
-     * really there.
+     * Reads from the source until the array is full or the stream ends, so that the tail of the array never holds stale content when the source delivers
+     * data in chunks. Callers compare the whole array against a multi-character delimiter, so a partial fill makes them miss a delimiter that is really there.
      * </p>
      *
      * @param array the buffer to fill.
      * @return the number of characters peeked, or {@link IOUtils#EOF} at the end of the stream.
      * @throws IOException If an I/O error occurs.
      */
-    @Override
-    public int peek(final char[] array) throws IOException {
+    int peek(final char[] array) throws IOException {
+        ensureOpen();
         final int length = array.length;
         if (length == 0) {
             return 0;
         }
-        super.mark(length);
-        int len = 0;
-        while (len < length) {
-            final int more = super.read(array, len, length - len);
-            if (more == EOF) {
-                break;
+        if (end - pos < length) {
+            // Mark the current position, unless a valid mark precedes it, so that reading more keeps the characters to peek.
+            final boolean marked = bufMark != -1 && pos - bufMark < bufMarkLimit;
+            final int markLimit = bufMarkLimit;
+            if (!marked) {
+                bufMark = pos;
+            }
+            bufMarkLimit = Math.max(marked ? markLimit : 0, pos - bufMark + length);
+            while (end - pos < length && fill() != EOF) {
+                // keep reading
             }
-            len += more;
+            if (marked) {
+                bufMarkLimit = markLimit;
+            } else {
+                bufMark = -1;
+            }
+        }
+        final int len = Math.min(length, end - pos);
+        if (len == 0) {
+            return EOF;
         }
-        super.reset();
-        return len == 0 ? EOF : len;
+        System.arraycopy(buf, pos, array, 0, len);
+        return len;
     }
 
     @Override
     public int read() throws IOException {
-        final int current = super.read();
+        final int current = readBuffered();
         if (current == CR || current == LF && lastChar != CR || current == EOF && lastChar != CR && lastChar != LF && lastChar != EOF) {
             lineNumber++;
         }
-        if (encoder != null && current != EOF) {
-            this.bytesRead += getEncodedCharLength(current);
+        if (byteCounter != null && current != EOF) {
+            this.bytesRead += byteCounter.count(lastChar, current);
         }
         lastChar = current;
         position++;
@@ -271,42 +373,47 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
     }
 
     @Override
-    public int read(final char[] buf, final int offset, final int length) throws IOException {
+    public int read(final char[] array, final int offset, final int length) throws IOException {
+        ensureOpen();
         if (length == 0) {
             return 0;
         }
-        int len = super.read(buf, offset, length);
-        // The underlying buffered reader stops early once the source reports it is not ready, so a stream that delivers data in chunks (a socket or a pipe)
-        // yields a short read. Callers match multi-character sequences against this buffer, so keep reading until it is full or the source is exhausted.
-        while (len > 0 && len < length) {
-            final int more = super.read(buf, offset + len, length - len);
-            if (more == EOF) {
+        // Unlike java.io.BufferedReader, keep reading until the array is full or the source is exhausted: a stream that delivers data in chunks (a socket or a
+        // pipe) yields short reads, and callers match multi-character sequences against this array.
+        int len = 0;
+        while (len < length) {
+            if (pos == end && fill() == EOF) {
                 break;
             }
-            len += more;
-        }
-        if (encoder != null && len > 0) {
-            this.bytesRead += getEncodedCharLength(buf, offset, len);
+            final int count = Math.min(end - pos, length - len);
+            System.arraycopy(buf, pos, array, offset + len, count);
+            pos += count;
+            len += count;
         }
         if (len > 0) {
-            for (int i = offset; i < offset + len; i++) {
-                final char ch = buf[i];
-                if (ch == LF) {
-                    if (CR != (i > offset ? buf[i - 1] : lastChar)) {
-                        lineNumber++;
-                    }
-                } else if (ch == CR) {
-                    lineNumber++;
-                }
-            }
-            lastChar = buf[offset + len - 1];
-        } else if (len == EOF) {
+            consumed(array, offset, len);
+        } else {
+            len = EOF;
             lastChar = EOF;
+            position += len;
         }
-        position += len;
         return len;
     }
 
+    /**
+     * Reads the next character from the buffer, filling it when it holds no more characters.
+     *
+     * @return The next character, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int readBuffered() throws IOException {
+        ensureOpen();
+        if (pos < end || fill() != EOF) {
+            return buf[pos++];
+        }
+        return EOF;
+    }
+
     /**
      * Gets the next line, dropping the line terminator(s). This method should only be called when processing a comment, otherwise, information can be lost.
      * <p>
@@ -317,9 +424,9 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
      * </p>
      *
      * @return The line that was read, or null if reached EOF.
+     * @throws IOException If an I/O error occurs.
      */
-    @Override
-    public String readLine() throws IOException {
+    String readLine() throws IOException {
         if (peek() == EOF) {
             return null;
         }
@@ -340,12 +447,35 @@ final class ExtendedBufferedReader extends UnsynchronizedBufferedReader {
         return buffer.toString();
     }
 
+    @Override
+    public boolean ready() throws IOException {
+        ensureOpen();
+        return end - pos > 0 || in.ready();
+    }
+
     @Override
     public void reset() throws IOException {
+        ensureOpen();
+        if (bufMark == -1) {
+            throw new IOException("Invalid mark");
+        }
         lineNumber = lineNumberMark;
         lastChar = lastCharMark;
         position = positionMark;
         bytesRead = bytesReadMark;
-        super.reset();
+        pos = bufMark;
+    }
+
+    /**
+     * Consumes buffered characters that {@link #fillBuffer()} or {@link #peek(char[])} reported, without copying them.
+     *
+     * @param length the number of characters to consume, at most the number reported.
+     * @throws IOException If an I/O error occurs.
+     */
+    void skipBuffered(final int length) throws IOException {
+        if (length > 0) {
+            consumed(buf, pos, length);
+            pos += length;
+        }
     }
 }
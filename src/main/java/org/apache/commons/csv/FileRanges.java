@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.csv.RecordBoundaryScanner.Range;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * The byte ranges of a file that start on record boundaries, and the parsers that read them.
+ * <p>
+ * Each range is read by its own {@link CSVParser}, which assigns the same record numbers and positions as a parser of the whole file. The first range's
+ * parser reads the header, if the format has one, and the other parsers share its headers.
+ * </p>
+ */
+final class FileRanges implements Closeable {
+
+    private final boolean blockScanning;
+
+    private final long byteOffset;
+
+    private final long characterOffset;
+
+    private final Charset charset;
+
+    private final CSVFormat format;
+
+    private final CSVParser.Headers headers;
+
+    /** The number of records the header consumes, 0 or 1. */
+    private final long headerRecords;
+
+    private final boolean lazyValues;
+
+    /** The parsers that have been opened and not released. */
+    private final Set<CSVParser> open = ConcurrentHashMap.newKeySet();
+
+    private final Path path;
+
+    /** The input column indices range parsers keep, or null to keep all columns. */
+    private final int[] projection;
+
+    private final List<Range> ranges;
+
+    private final long recordNumber;
+
+    /** The format for ranges other than the last, which must end on a record boundary. */
+    private final CSVFormat strictFormat;
+
+    private final boolean trackBytes;
+
+    /**
+     * Scans a file for record boundaries and reads its header.
+     *
+     * @param path            The file.
+     * @param charset         The character set of the file.
+     * @param format          The CSV format.
+     * @param projection      The input column indices range parsers keep, or null to keep all columns.
+     * @param trackBytes      Whether range parsers track byte positions.
+     * @param blockScanning   Whether range parsers scan in blocks.
+     * @param lazyValues      Whether range parsers create values on first access.
+     * @param characterOffset The character position of the start of the file.
+     * @param byteOffset      The byte position of the start of the file.
+     * @param recordNumber    The number of the first record.
+     * @param chunkSize       The number of bytes to scan at a time, the approximate range size.
+     * @param pool            The pool to scan on.
+     * @throws IOException If an I/O error occurs.
+     * @throws IllegalArgumentException if record boundaries cannot be found by counting quotes.
+     */
+    FileRanges(final Path path, final Charset charset, final CSVFormat format, final int[] projection, final boolean trackBytes, final boolean blockScanning,
+            final boolean lazyValues, final long characterOffset, final long byteOffset, final long recordNumber, final int chunkSize, final ForkJoinPool pool)
+            throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.format = format;
+        this.strictFormat = format.builder().setLenientEof(false).get();
+        this.projection = projection;
+        this.trackBytes = trackBytes;
+        this.blockScanning = blockScanning;
+        this.lazyValues = lazyValues;
+        this.characterOffset = characterOffset;
+        this.byteOffset = byteOffset;
+        this.recordNumber = recordNumber;
+        this.ranges = new RecordBoundaryScanner(path, format, charset).split(0, 0, 0, chunkSize, pool);
+        final Range last = ranges.get(ranges.size() - 1);
+        final String[] formatHeader = format.getHeader();
+        final boolean headerRecord = formatHeader != null && (formatHeader.length == 0 || format.getSkipHeaderRecord());
+        this.headerRecords = headerRecord && last.getRecordOffset() + last.getRecordCount() > 0 ? 1 : 0;
+        try (CSVParser parser = newParser(0, null)) {
+            this.headers = parser.getHeaders();
+        }
+    }
+
+    /**
+     * Checks that a range held the number of records the scan found.
+     *
+     * @param index  The range index.
+     * @param parsed The number of records parsed from the range.
+     * @throws CSVException if the numbers differ, because a quote character appears outside a quoted value.
+     */
+    void check(final int index, final long parsed) throws CSVException {
+        final long expected = getRecordCount(index, index + 1);
+        if (parsed != expected) {
+            final Range range = ranges.get(index);
+            throw new CSVException("Expected %,d records but parsed %,d between bytes %,d and %,d; is there a quote character outside a quoted value?",
+                    expected, parsed, range.getStart(), range.getEnd());
+        }
+    }
+
+    /**
+     * Closes the parsers that have not been released.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final CSVParser parser : open) {
+            release(parser);
+        }
+    }
+
+    /**
+     * Gets the number of bytes in a range.
+     *
+     * @param index The range index.
+     * @return the number of bytes in the range.
+     */
+    long getByteCount(final int index) {
+        final Range range = ranges.get(index);
+        return range.getEnd() - range.getStart();
+    }
+
+    /**
+     * Gets the headers read from the start of the file.
+     *
+     * @return the headers.
+     */
+    CSVParser.Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the number of data records in a span of ranges, as found by the scan.
+     *
+     * @param from The index of the first range.
+     * @param to   The index after the last range.
+     * @return the number of data records.
+     */
+    long getRecordCount(final int from, final int to) {
+        if (from >= to) {
+            return 0;
+        }
+        final Range last = ranges.get(to - 1);
+        final long count = last.getRecordOffset() + last.getRecordCount() - ranges.get(from).getRecordOffset();
+        return from == 0 ? count - headerRecords : count;
+    }
+
+    private CSVParser newParser(final int index, final CSVParser.Headers rangeHeaders) throws IOException {
+        final Range range = ranges.get(index);
+        // @formatter:off
+        return CSVParser.builder()
+                .setReader(new MappedFileReader(path, charset, range.getStart(), range.getEnd()))
+                .setCharset(charset)
+                .setFormat(index == ranges.size() - 1 ? format : strictFormat)
+                .setHeaders(rangeHeaders)
+                .setProjection(projection)
+                .setTrackBytes(trackBytes)
+                .setBlockScanning(blockScanning)
+                .setLazyValues(lazyValues)
+                .setByteOffset(byteOffset + range.getStart())
+                .setCharacterOffset(characterOffset + range.getCharacterOffset())
+                .setRecordNumber(recordNumber + range.getRecordOffset() - (index == 0 ? 0 : headerRecords))
+                .get();
+        // @formatter:on
+    }
+
+    /**
+     * Opens a parser for a range, to {@link #release(CSVParser) release} after use.
+     *
+     * @param index The range index.
+     * @return A parser positioned at the first data record of the range.
+     * @throws IOException If an I/O error occurs.
+     */
+    CSVParser open(final int index) throws IOException {
+        final CSVParser parser = newParser(index, index == 0 ? null : headers);
+        open.add(parser);
+        return parser;
+    }
+
+    /**
+     * Parses all records of a range.
+     *
+     * @param index The range index.
+     * @return The records of the range.
+     * @throws IOException If an I/O error occurs.
+     * @throws CSVException on invalid input, including input the scan split in the wrong place.
+     */
+    List<CSVRecord> parse(final int index) throws IOException {
+        final List<CSVRecord> records = new ArrayList<>();
+        final CSVParser parser = open(index);
+        try {
+            CSVRecord record;
+            while ((record = parser.nextRecord()) != null) {
+                records.add(record);
+            }
+        } finally {
+            release(parser);
+        }
+        check(index, records.size());
+        return records;
+    }
+
+    /**
+     * Closes a parser opened by {@link #open(int)}.
+     *
+     * @param parser The parser.
+     */
+    void release(final CSVParser parser) {
+        if (open.remove(parser)) {
+            IOUtils.closeQuietly(parser);
+        }
+    }
+
+    /**
+     * Gets the number of ranges.
+     *
+     * @return the number of ranges, at least one.
+     */
+    int size() {
+        return ranges.size();
+    }
+}
@@ -23,7 +23,6 @@ import static org.apache.commons.io.IOUtils.EOF;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.Arrays;
 
 import org.apache.commons.io.IOUtils;
 
@@ -36,6 +35,7 @@ final class Lexer implements Closeable {
     private static final String LF_STRING = Character.toString(Constants.LF);
 
     private final char[] delimiter;
+    private final DelimiterMatcher delimiterMatcher;
     private final char[] delimiterBuf;
     private final char[] escapeDelimiterBuf;
     private final int escape;
@@ -46,15 +46,38 @@ final class Lexer implements Closeable {
     private final boolean lenientEof;
     private final boolean trailingData;
 
+    /** Whether to scan runs of ordinary characters in the reader's buffer. */
+    private final boolean blockScanning;
+
     /** The buffered reader. */
     private final ExtendedBufferedReader reader;
     private String firstEol;
 
     private boolean isLastTokenDelimiter;
 
+    /** The character position of the opening quote of the last encapsulated token. */
+    private long quotePosition;
+
+    /** The state at the last {@link #mark()}. */
+    private String firstEolMark;
+
+    private boolean isLastTokenDelimiterMark;
+
     Lexer(final CSVFormat format, final ExtendedBufferedReader reader) {
+        this(format, reader, false);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param format        The CSV format.
+     * @param reader        The reader to tokenize.
+     * @param blockScanning Whether to copy runs of ordinary characters into tokens in blocks rather than one character at a time.
+     */
+    Lexer(final CSVFormat format, final ExtendedBufferedReader reader, final boolean blockScanning) {
         this.reader = reader;
         this.delimiter = format.getDelimiterCharArray();
+        this.delimiterMatcher = new DelimiterMatcher(delimiter);
         this.escape = nullToDisabled(format.getEscapeCharacter());
         this.quoteChar = nullToDisabled(format.getQuoteCharacter());
         this.commentStart = nullToDisabled(format.getCommentMarker());
@@ -64,6 +87,47 @@ final class Lexer implements Closeable {
         this.trailingData = format.getTrailingData();
         this.delimiterBuf = new char[delimiter.length - 1];
         this.escapeDelimiterBuf = new char[2 * delimiter.length - 1];
+        this.blockScanning = blockScanning;
+    }
+
+    /**
+     * Appends the run of ordinary characters that follows the current position to the token's content, without consuming the character that ends the run.
+     * <p>
+     * Inside an encapsulated token only the quote and escape characters end a run; elsewhere a delimiter, escape, CR and LF do too. A delimiter that ends the
+     * run within the reader's buffer is consumed too.
+     * </p>
+     *
+     * @param token       The current token.
+     * @param encapsulated Whether the token is encapsulated.
+     * @return Whether a delimiter ended the run and was consumed.
+     * @throws IOException on stream access error.
+     */
+    private boolean appendBlock(final Token token, final boolean encapsulated) throws IOException {
+        int len;
+        while ((len = reader.fillBuffer()) > 0) {
+            final char[] buf = reader.getBuffer();
+            final int from = reader.getBufferPosition();
+            final int to = from + len;
+            int i = from;
+            if (encapsulated) {
+                while (i < to && buf[i] != quoteChar && buf[i] != escape) {
+                    i++;
+                }
+            } else {
+                i = delimiterMatcher.scan(buf, from, to, escape);
+            }
+            token.content.append(buf, from, i - from);
+            // The scan stops at a line break or escape, which a delimiter does not contain, or at a delimiter that may run past the buffer.
+            if (!encapsulated && i + delimiter.length <= to && buf[i] == delimiter[0]) {
+                reader.skipBuffered(i + delimiter.length - from);
+                return true;
+            }
+            reader.skipBuffered(i - from);
+            if (i < to) {
+                return false;
+            }
+        }
+        return false;
     }
 
     /**
@@ -128,6 +192,24 @@ final class Lexer implements Closeable {
         return firstEol;
     }
 
+    /**
+     * Gets the character position of the opening quote of the last encapsulated token.
+     *
+     * @return The character position of the opening quote.
+     */
+    long getQuotePosition() {
+        return quotePosition;
+    }
+
+    /**
+     * Sets the first end-of-line string, for a lexer that continues the input of another.
+     *
+     * @param firstEol The first end-of-line string, or null.
+     */
+    void setFirstEol(final String firstEol) {
+        this.firstEol = firstEol;
+    }
+
     boolean isClosed() {
         return reader.isClosed();
     }
@@ -153,16 +235,22 @@ final class Lexer implements Closeable {
             isLastTokenDelimiter = true;
             return true;
         }
-        Arrays.fill(delimiterBuf, '\0');
-        reader.peek(delimiterBuf);
-        for (int i = 0; i < delimiterBuf.length; i++) {
-            if (delimiterBuf[i] != delimiter[i + 1]) {
-                return false;
-            }
+        final int count = reader.peek(delimiterBuf);
+        if (!delimiterMatcher.matchesTail(delimiterBuf, count)) {
+            return false;
         }
-        final int count = reader.read(delimiterBuf, 0, delimiterBuf.length);
-        isLastTokenDelimiter = count != EOF;
-        return isLastTokenDelimiter;
+        reader.skipBuffered(count);
+        isLastTokenDelimiter = true;
+        return true;
+    }
+
+    /**
+     * Tests whether the lexer has read the end of the input.
+     *
+     * @return true if the last character read is the end of the input.
+     */
+    boolean isEndOfInput() {
+        return isEndOfFile(reader.getLastChar());
     }
 
     /**
@@ -192,18 +280,12 @@ final class Lexer implements Closeable {
      * @throws IOException If an I/O error occurs.
      */
     boolean isEscapeDelimiter() throws IOException {
-        Arrays.fill(escapeDelimiterBuf, '\0');
-        reader.peek(escapeDelimiterBuf);
-        if (escapeDelimiterBuf[0] != delimiter[0]) {
+        final int count = reader.peek(escapeDelimiterBuf);
+        if (!delimiterMatcher.matchesEscaped(escapeDelimiterBuf, count, escape)) {
             return false;
         }
-        for (int i = 1; i < delimiter.length; i++) {
-            if (escapeDelimiterBuf[2 * i] != delimiter[i] || escapeDelimiterBuf[2 * i - 1] != escape) {
-                return false;
-            }
-        }
-        final int count = reader.read(escapeDelimiterBuf, 0, escapeDelimiterBuf.length);
-        return count != EOF;
+        reader.skipBuffered(count);
+        return true;
     }
 
     private boolean isMetaChar(final int ch) {
@@ -316,6 +398,21 @@ final class Lexer implements Closeable {
         return token;
     }
 
+    /**
+     * Marks the current position, so that {@link #reset()} can go back to it and lex the input from there again.
+     * <p>
+     * Lets a {@link CSVPushParser} parse a record before all of it has arrived, and parse it again with more input: the reader keeps the characters read
+     * after the mark until the next mark.
+     * </p>
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void mark() throws IOException {
+        reader.mark(Integer.MAX_VALUE);
+        firstEolMark = firstEol;
+        isLastTokenDelimiterMark = isLastTokenDelimiter;
+    }
+
     private int nullToDisabled(final Character c) {
         return c == null ? Constants.UNDEFINED : c.charValue(); // Explicit unboxing
     }
@@ -345,6 +442,7 @@ final class Lexer implements Closeable {
      */
     private Token parseEncapsulatedToken(final Token token) throws IOException {
         token.isQuoted = true;
+        quotePosition = reader.getPosition() - 1;
         // Save current line number in case needed for IOE
         final long startLineNumber = getCurrentLineNumber();
         int c;
@@ -394,6 +492,9 @@ final class Lexer implements Closeable {
             } else {
                 // consume character
                 token.content.append((char) c);
+                if (blockScanning) {
+                    appendBlock(token, true);
+                }
             }
         }
     }
@@ -438,6 +539,11 @@ final class Lexer implements Closeable {
                 appendNextEscapedCharacterToToken(token);
             } else {
                 token.content.append((char) cur);
+                if (blockScanning && appendBlock(token, false)) {
+                    isLastTokenDelimiter = true;
+                    token.type = Token.Type.TOKEN;
+                    break;
+                }
             }
             cur = reader.read(); // continue
         }
@@ -518,6 +624,17 @@ final class Lexer implements Closeable {
         }
     }
 
+    /**
+     * Goes back to the position of the last {@link #mark()}.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void reset() throws IOException {
+        reader.reset();
+        firstEol = firstEolMark;
+        isLastTokenDelimiter = isLastTokenDelimiterMark;
+    }
+
     void trimTrailingSpaces(final StringBuilder buffer) {
         int length = buffer.length();
         while (length > 0 && Character.isWhitespace(buffer.charAt(length - 1))) {
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Decodes a file through a sliding window of memory-mapped regions instead of reading its bytes into a heap buffer.
+ * <p>
+ * Characters are decoded straight from the mapping, so the operating system's page cache serves the data. The decoded characters still land in the
+ * caller's heap buffer, which for a parser is the buffer of its {@link ExtendedBufferedReader}: the {@link Lexer} tokenizes characters, not the mapped bytes,
+ * so only the byte copy is avoided. When a window is exhausted, the next one is mapped starting at the first undecoded byte, which keeps a multi-byte
+ * character that straddles two windows intact. The {@link Lexer} only sees characters, so records that span windows need no special handling.
+ * </p>
+ */
+final class MappedFileReader extends Reader {
+
+    /** The default number of bytes mapped at a time. */
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /** The smallest window, large enough to hold any character in any character set. */
+    private static final int MIN_WINDOW_SIZE = 16;
+
+    /** Marks the absence of a pending low surrogate. */
+    private static final int NO_PENDING = -1;
+
+    private final FileChannel channel;
+
+    /** The file position after the last byte to read. */
+    private final long end;
+
+    private final int windowSize;
+
+    private final CharsetDecoder decoder;
+
+    /** The current window. */
+    private MappedByteBuffer window;
+
+    /** The file position of the start of the current window. */
+    private long windowStart;
+
+    /** Whether the decoder has been flushed, after which there is nothing left to read. */
+    private boolean flushed;
+
+    /** Holds the two halves of a surrogate pair when the caller asks for a single character. */
+    private final char[] pair = new char[2];
+
+    /** The low surrogate left over from a single character read, or {@link #NO_PENDING}. */
+    private int pending = NO_PENDING;
+
+    /**
+     * Constructs a new instance using the default window size.
+     *
+     * @param path    The file to read.
+     * @param charset The character set to decode the file.
+     * @throws IOException If an I/O error occurs.
+     */
+    MappedFileReader(final Path path, final Charset charset) throws IOException {
+        this(path, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param path       The file to read.
+     * @param charset    The character set to decode the file.
+     * @param windowSize The number of bytes to map at a time.
+     * @throws IOException If an I/O error occurs.
+     */
+    MappedFileReader(final Path path, final Charset charset, final int windowSize) throws IOException {
+        this(path, charset, windowSize, 0, -1);
+    }
+
+    /**
+     * Constructs a new instance that reads a byte range of a file using the default window size.
+     *
+     * @param path    The file to read.
+     * @param charset The character set to decode the file.
+     * @param start   The file position of the first byte to read, which must start a character.
+     * @param end     The file position after the last byte to read, which must end a character.
+     * @throws IOException If an I/O error occurs.
+     */
+    MappedFileReader(final Path path, final Charset charset, final long start, final long end) throws IOException {
+        this(path, charset, DEFAULT_WINDOW_SIZE, start, end);
+    }
+
+    /**
+     * Constructs a new instance that reads a byte range of a file.
+     *
+     * @param path       The file to read.
+     * @param charset    The character set to decode the file.
+     * @param windowSize The number of bytes to map at a time.
+     * @param start      The file position of the first byte to read, which must start a character.
+     * @param end        The file position after the last byte to read, which must end a character, or -1 for the end of the file.
+     * @throws IOException If an I/O error occurs.
+     */
+    MappedFileReader(final Path path, final Charset charset, final int windowSize, final long start, final long end) throws IOException {
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.windowSize = Math.max(windowSize, MIN_WINDOW_SIZE);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.end = end < 0 ? channel.size() : end;
+            map(start);
+        } catch (final IOException | RuntimeException e) {
+            IOUtils.closeQuietlySuppress(channel, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Decodes into {@code cbuf}, which has room for at least two characters so a surrogate pair always fits.
+     *
+     * @param cbuf The destination buffer.
+     * @param off  The offset at which to start storing characters.
+     * @param len  The maximum number of characters to store, at least 2.
+     * @return The number of characters stored, or {@link IOUtils#EOF} at the end of the file.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int decode(final char[] cbuf, final int off, final int len) throws IOException {
+        if (window == null) {
+            throw new IOException("Reader closed");
+        }
+        final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (!flushed && out.position() == off) {
+            final boolean lastWindow = windowStart + window.limit() == end;
+            if (decoder.decode(window, out, lastWindow).isOverflow()) {
+                break;
+            }
+            if (lastWindow) {
+                decoder.flush(out);
+                flushed = true;
+            } else if (out.position() == off || !window.hasRemaining()) {
+                // Whatever is left is the start of a character that continues in the next window.
+                map(windowStart + window.position());
+            }
+        }
+        final int n = out.position() - off;
+        return n == 0 ? EOF : n;
+    }
+
+    private void map(final long position) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, end - position));
+        windowStart = position;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (pending != NO_PENDING) {
+            cbuf[off] = (char) pending;
+            pending = NO_PENDING;
+            return 1;
+        }
+        if (len > 1) {
+            return decode(cbuf, off, len);
+        }
+        final int n = decode(pair, 0, 2);
+        if (n > 0) {
+            cbuf[off] = pair[0];
+            if (n == 2) {
+                pending = pair[1];
+            }
+            return 1;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pending != NO_PENDING || window != null && !flushed;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+/**
+ * Parses numbers and booleans from a range of a character array without creating a String.
+ * <p>
+ * The methods accept the same input as {@link Integer#parseInt(String)}, {@link Long#parseLong(String)}, {@link Double#parseDouble(String)} and
+ * {@link Boolean#parseBoolean(String)} and return the same results. They handle ASCII digits themselves and leave other input, such as the non-ASCII
+ * digits {@link Character#digit(char, int)} accepts, to the JDK.
+ * </p>
+ */
+final class NumberParser {
+
+    /** The powers of ten a double represents exactly. */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18,
+            1e19, 1e20, 1e21, 1e22 };
+
+    /** The number of decimal digits below 2<sup>53</sup>, the largest integer a double represents exactly. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static NumberFormatException forInputString(final char[] chars, final int start, final int end) {
+        return new NumberFormatException("For input string: \"" + new String(chars, start, end - start) + "\"");
+    }
+
+    /**
+     * Parses a boolean like {@link Boolean#parseBoolean(String)}: {@code true} if the characters equal {@code "true"}, ignoring case.
+     *
+     * @param chars The characters.
+     * @param start The start of the value.
+     * @param end   The end of the value.
+     * @return The boolean.
+     */
+    static boolean parseBoolean(final char[] chars, final int start, final int end) {
+        return end - start == 4 && (chars[start] | 0x20) == 't' && (chars[start + 1] | 0x20) == 'r' && (chars[start + 2] | 0x20) == 'u'
+                && (chars[start + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * Parses a double like {@link Double#parseDouble(String)}.
+     * <p>
+     * Decimal numbers with at most 15 significant digits and a small exponent are computed exactly from their digits; other input, such as long
+     * mantissas, hexadecimal, {@code NaN} or {@code Infinity}, falls back to {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param chars The characters.
+     * @param start The start of the value.
+     * @param end   The end of the value.
+     * @return The double.
+     * @throws NumberFormatException if the characters are not a number.
+     */
+    static double parseDouble(final char[] chars, final int start, final int end) {
+        int i = start;
+        final boolean negative = i < end && chars[i] == '-';
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean digits = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            final char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (mantissa != 0 || c != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits > MAX_EXACT_DIGITS) {
+                    return slowParseDouble(chars, start, end);
+                }
+                mantissa = mantissa * 10 + c - '0';
+                if (dot) {
+                    exponent--;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (i < end || !digits || -exponent >= POWERS_OF_TEN.length) {
+            // An exponent, a suffix, no digits, or anything else.
+            return slowParseDouble(chars, start, end);
+        }
+        // Both operands are exact, so the division rounds correctly.
+        final double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an int like {@link Integer#parseInt(String)}.
+     *
+     * @param chars The characters.
+     * @param start The start of the value.
+     * @param end   The end of the value.
+     * @return The int.
+     * @throws NumberFormatException if the characters are not an int.
+     */
+    static int parseInt(final char[] chars, final int start, final int end) {
+        final long value = parseLong(chars, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw forInputString(chars, start, end);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a long like {@link Long#parseLong(String)}.
+     *
+     * @param chars The characters.
+     * @param start The start of the value.
+     * @param end   The end of the value.
+     * @return The long.
+     * @throws NumberFormatException if the characters are not a long.
+     */
+    static long parseLong(final char[] chars, final int start, final int end) {
+        int i = start;
+        if (i == end) {
+            throw forInputString(chars, start, end);
+        }
+        final boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+            if (i == end) {
+                throw forInputString(chars, start, end);
+            }
+        }
+        // Accumulate negatively, like Long.parseLong, to reach Long.MIN_VALUE.
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            final char c = chars[i];
+            final int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                if (c > 0x7f) {
+                    // Long.parseLong accepts non-ASCII digits.
+                    return Long.parseLong(new String(chars, start, end - start));
+                }
+                throw forInputString(chars, start, end);
+            }
+            if (result < multiplyLimit) {
+                throw forInputString(chars, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw forInputString(chars, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static double slowParseDouble(final char[] chars, final int start, final int end) {
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+
+    private NumberParser() {
+        // No instances.
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Collects the characters a {@link CSVPrinter} prints in a {@code char[]} and appends them to the target in blocks.
+ * <p>
+ * Printing a value takes several appends: a delimiter, quotes and the segments between characters to escape. Each append to a {@link Writer} takes its
+ * lock and checks its state and bounds, and each append to another {@link Appendable} is an interface call. This buffer takes the appends with plain array
+ * stores and hands the target one block per {@code buffer.length} characters. It is not thread-safe; the printer's lock guards it.
+ * </p>
+ * <p>
+ * {@link #flush()} and {@link #close()} append the buffered characters before flushing or closing the target.
+ * </p>
+ */
+final class PrintBuffer extends Writer {
+
+    private final char[] buffer;
+
+    /** The number of buffered characters. */
+    private int count;
+
+    private final Appendable target;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param target     The target to append blocks to.
+     * @param bufferSize The buffer size in characters.
+     * @throws IllegalArgumentException if {@code bufferSize} is not positive.
+     */
+    PrintBuffer(final Appendable target, final int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " is not positive");
+        }
+        this.target = target;
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    public Writer append(final char c) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = c;
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+        final CharSequence value = csq != null ? csq : "null";
+        return append(value, 0, value.length());
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence value = csq != null ? csq : "null";
+        if (value instanceof String) {
+            write((String) value, start, end - start);
+            return this;
+        }
+        for (int i = start; i < end; i++) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = value.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the buffered characters to the target and closes it if it is {@link Closeable}.
+     */
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        if (target instanceof Closeable) {
+            ((Closeable) target).close();
+        }
+    }
+
+    /**
+     * Appends the buffered characters to the target and flushes it if it is {@link Flushable}.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (target instanceof Flushable) {
+            ((Flushable) target).flush();
+        }
+    }
+
+    /**
+     * Appends the buffered characters to the target.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void flushBuffer() throws IOException {
+        if (count > 0) {
+            writeTarget(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len >= buffer.length) {
+            // Bypass the buffer for a block at least as large as itself.
+            flushBuffer();
+            writeTarget(cbuf, off, len);
+            return;
+        }
+        if (len > buffer.length - count) {
+            flushBuffer();
+        }
+        System.arraycopy(cbuf, off, buffer, count, len);
+        count += len;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        append((char) c);
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            final int n = Math.min(remaining, buffer.length - count);
+            str.getChars(offset, offset + n, buffer, count);
+            count += n;
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    private void writeTarget(final char[] cbuf, final int off, final int len) throws IOException {
+        if (target instanceof Writer) {
+            ((Writer) target).write(cbuf, off, len);
+        } else if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(cbuf, off, len);
+        } else {
+            target.append(CharBuffer.wrap(cbuf, off, len));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.function.Uncheck;
+
+/**
+ * Iterates the records of a span of {@link FileRanges}, splitting by handing off whole ranges.
+ * <p>
+ * The scan counted the records in every range, so the size of each split is exact.
+ * </p>
+ */
+final class RangeSpliterator implements Spliterator<CSVRecord> {
+
+    /** The index after the last range. */
+    private final int end;
+
+    /** The index of the current range. */
+    private int index;
+
+    /** The parser of the current range, or null before it starts. */
+    private CSVParser parser;
+
+    /** The number of records read from the current range. */
+    private long parsed;
+
+    private final FileRanges ranges;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param ranges The file ranges.
+     * @param index  The index of the first range.
+     * @param end    The index after the last range.
+     */
+    RangeSpliterator(final FileRanges ranges, final int index, final int end) {
+        this.ranges = ranges;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public long estimateSize() {
+        return ranges.getRecordCount(index, end) - parsed;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super CSVRecord> action) {
+        while (index < end) {
+            if (parser == null) {
+                parser = Uncheck.apply(ranges::open, index);
+            }
+            final CSVRecord record = Uncheck.get(parser::nextRecord);
+            if (record != null) {
+                parsed++;
+                action.accept(record);
+                return true;
+            }
+            ranges.release(parser);
+            parser = null;
+            Uncheck.accept(i -> ranges.check(i, parsed), index);
+            parsed = 0;
+            index++;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<CSVRecord> trySplit() {
+        final int mid = index + end >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        // The prefix takes over the range in progress.
+        final RangeSpliterator prefix = new RangeSpliterator(ranges, index, mid);
+        prefix.parser = parser;
+        prefix.parsed = parsed;
+        parser = null;
+        parsed = 0;
+        index = mid;
+        return prefix;
+    }
+}
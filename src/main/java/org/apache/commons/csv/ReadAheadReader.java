@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Reads and decodes the next buffers of a reader on a background thread while the caller consumes the current one.
+ * <p>
+ * A fixed number of buffers circulate between the two threads: the background thread fills a free buffer from the source and queues it, the caller
+ * copies it out and hands it back as soon as it is empty. The caller only blocks when no filled buffer is queued, and the background thread only blocks
+ * when all buffers are filled, so memory stays bounded by the number of buffers whatever the speed of either side.
+ * </p>
+ * <p>
+ * An exception thrown by the source is rethrown by the caller's next read once the buffers queued before it are consumed. {@link #close()} stops the
+ * background thread and closes the source. Since a read in progress may not respond to an interrupt, {@code close()} waits for it for a short time only;
+ * if the read is still blocked after that, the background thread closes the source once the read returns.
+ * </p>
+ */
+final class ReadAheadReader extends Reader {
+
+    /**
+     * A filled buffer, or the end of the source.
+     */
+    private static final class Chunk {
+
+        private final char[] buffer;
+        private final Throwable failure;
+        private final int length;
+
+        Chunk(final char[] buffer, final int length, final Throwable failure) {
+            this.buffer = buffer;
+            this.length = length;
+            this.failure = failure;
+        }
+    }
+
+    /** How long {@link #close()} waits for a read in progress to return. */
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Marks the end of the source. */
+    private static final Chunk END = new Chunk(null, 0, null);
+
+    /** The default thread factory, which makes daemon threads so that an abandoned parser does not keep the JVM running. */
+    static final ThreadFactory DEFAULT_THREAD_FACTORY = runnable -> {
+        final Thread thread = new Thread(runnable, "commons-csv-read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private volatile boolean closed;
+
+    /** Whether the background thread closes the source when it ends after {@link #close()}, published by {@link #running}. */
+    private boolean closeSource;
+
+    /** The chunk the caller reads, or null. */
+    private Chunk current;
+
+    /** The buffers queued by the background thread, with room for the last chunk. */
+    private final BlockingQueue<Chunk> filled;
+
+    /** The empty buffers. */
+    private final BlockingQueue<char[]> free;
+
+    /** The position of the caller in the current chunk. */
+    private int position;
+
+    /** Whether the background thread runs; the side that clears it leaves closing the source to the other side. */
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private final Reader source;
+
+    private final Thread thread;
+
+    /**
+     * Constructs a new instance and starts reading ahead.
+     *
+     * @param source        The reader to read ahead of the caller.
+     * @param buffers       The number of buffers, at least 1.
+     * @param bufferSize    The size of each buffer.
+     * @param threadFactory The factory of the background thread.
+     */
+    ReadAheadReader(final Reader source, final int buffers, final int bufferSize, final ThreadFactory threadFactory) {
+        this.source = source;
+        this.filled = new ArrayBlockingQueue<>(buffers + 1);
+        this.free = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            free.add(new char[bufferSize]);
+        }
+        this.thread = threadFactory.newThread(this::readAhead);
+        thread.start();
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (stop(true)) {
+            source.close();
+        }
+    }
+
+    /**
+     * Makes the next chunk current, waiting for the background thread if needed.
+     *
+     * @return Whether the current chunk has characters.
+     */
+    private boolean nextChunk() throws IOException {
+        if (current == END) {
+            return false;
+        }
+        try {
+            current = filled.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        position = 0;
+        final Throwable failure = current.failure;
+        if (failure != null) {
+            // Keeps failing on later reads.
+            filled.add(current);
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw (Error) failure;
+        }
+        return current != END;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkOpen();
+        if ((current == null || position == current.length) && !nextChunk()) {
+            return EOF;
+        }
+        final char c = current.buffer[position++];
+        recycle();
+        return c;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        checkOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if ((current == null || position == current.length) && !nextChunk()) {
+            return EOF;
+        }
+        final int count = Math.min(len, current.length - position);
+        System.arraycopy(current.buffer, position, cbuf, off, count);
+        position += count;
+        recycle();
+        return count;
+    }
+
+    /**
+     * Reads the source into free buffers until its end, a failure or {@link #close()}.
+     */
+    private void readAhead() {
+        try {
+            while (!closed) {
+                final char[] buffer = free.take();
+                final int length = source.read(buffer);
+                if (length == EOF) {
+                    filled.put(END);
+                    return;
+                }
+                filled.put(new Chunk(buffer, length, null));
+            }
+        } catch (final InterruptedException e) {
+            // Closed.
+        } catch (final IOException | RuntimeException | Error e) {
+            if (!closed) {
+                // There is room for it, since every buffer is either free or filled.
+                filled.add(new Chunk(null, 0, e));
+            }
+        } finally {
+            if (!running.compareAndSet(true, false) && closeSource) {
+                // close() gave up waiting.
+                IOUtils.closeQuietly(source);
+            }
+        }
+    }
+
+    @Override
+    public boolean ready() {
+        return current != null && position < current.length || !filled.isEmpty();
+    }
+
+    /**
+     * Hands the current buffer back to the background thread once it is empty.
+     */
+    private void recycle() {
+        if (position == current.length) {
+            free.add(current.buffer);
+            current = null;
+        }
+    }
+
+    /**
+     * Stops the background thread and closes this reader, but leaves the source open.
+     */
+    void stop() {
+        stop(false);
+    }
+
+    /**
+     * Stops the background thread, waiting a short time for a read in progress to return.
+     *
+     * @param closeSource Whether the background thread closes the source if a read is still in progress.
+     * @return Whether the caller closes the source: this reader was open and the background thread ended.
+     */
+    private boolean stop(final boolean closeSource) {
+        if (closed) {
+            return false;
+        }
+        this.closeSource = closeSource;
+        closed = true;
+        thread.interrupt();
+        boolean interrupted = false;
+        final long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+        long remaining;
+        while (thread.isAlive() && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // Otherwise the background thread is blocked in a read of the source, and closes the source once the read returns.
+        return !running.compareAndSet(true, false);
+    }
+}
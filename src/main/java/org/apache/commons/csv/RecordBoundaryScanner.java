@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.csv.Constants.CR;
+import static org.apache.commons.csv.Constants.LF;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a file into byte ranges that start on record boundaries, so that each range can be parsed on its own.
+ * <p>
+ * The file is cut into fixed-size chunks that are scanned in parallel. A line break ends a record unless it is inside a quoted value, and whether a byte is
+ * inside a quoted value only depends on the parity of the quote characters before it, because an escaped quote inside a quoted value is doubled. A chunk
+ * does not know the parity at its start, so each scan records its results for both possibilities: the first line break that ends a record, the number
+ * of records that end in the chunk and the number of characters before the end of that first record. A sequential pass over the chunk results then
+ * resolves the parity at each chunk start and starts a range after the first record that ends in each chunk, together with the character offset and the
+ * number of records before it. Starting after a record rather than after an ignored empty line matches the positions of a sequential parse, where a
+ * record's position precedes the empty lines before it.
+ * </p>
+ * <p>
+ * This relies on quote characters only appearing around or doubled inside quoted values, as RFC 4180 requires, and on the character set encoding quotes
+ * and line breaks as the ASCII bytes that no other character contains. Range parsers can verify the outcome by comparing the number of records they read
+ * with {@link Range#getRecordCount()}.
+ * </p>
+ */
+final class RecordBoundaryScanner {
+
+    /**
+     * The scan results of one chunk, indexed by the quote parity at the chunk start.
+     */
+    private static final class Chunk {
+
+        /** The number of characters in the chunk, including a line feed of a CRLF that starts in the chunk. */
+        private long characters;
+
+        /** The characters from the chunk start to the end of the first record. */
+        private final long[] charactersToRecordEnd = new long[2];
+
+        /** The file position after the first line break that ends a record, or -1. */
+        private final long[] firstRecordEnd = { -1, -1 };
+
+        /** The file position after the last line break outside quotes, or -1. */
+        private final long[] lastBreakEnd = { -1, -1 };
+
+        /** The number of quote characters in the chunk, modulo 2. */
+        private int parity;
+
+        /** The number of line breaks outside quotes that end a record. */
+        private final long[] recordEnds = new long[2];
+    }
+
+    /**
+     * A byte range of a file that starts on a record boundary.
+     */
+    static final class Range {
+
+        private final long characterOffset;
+        private final long end;
+        private final long recordCount;
+        private final long recordOffset;
+        private final long start;
+
+        Range(final long start, final long end, final long characterOffset, final long recordOffset, final long recordCount) {
+            this.start = start;
+            this.end = end;
+            this.characterOffset = characterOffset;
+            this.recordOffset = recordOffset;
+            this.recordCount = recordCount;
+        }
+
+        /**
+         * Gets the number of characters in the file before this range.
+         *
+         * @return the number of characters in the file before this range.
+         */
+        long getCharacterOffset() {
+            return characterOffset;
+        }
+
+        /**
+         * Gets the file position after the last byte of this range.
+         *
+         * @return the file position after the last byte of this range.
+         */
+        long getEnd() {
+            return end;
+        }
+
+        /**
+         * Gets the number of records in this range, including a header record.
+         *
+         * @return the number of records in this range.
+         */
+        long getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Gets the number of records in the file before this range, including a header record.
+         *
+         * @return the number of records in the file before this range.
+         */
+        long getRecordOffset() {
+            return recordOffset;
+        }
+
+        /**
+         * Gets the file position of the first byte of this range.
+         *
+         * @return the file position of the first byte of this range.
+         */
+        long getStart() {
+            return start;
+        }
+
+        @Override
+        public String toString() {
+            return "Range [start=" + start + ", end=" + end + ", characterOffset=" + characterOffset + ", recordOffset=" + recordOffset + ", recordCount="
+                    + recordCount + "]";
+        }
+    }
+
+    /**
+     * Scans one chunk on a pool, keeping an I/O error for the caller.
+     */
+    @SuppressWarnings("serial")
+    private final class ScanTask extends RecursiveAction {
+
+        private final boolean boundary;
+        private final FileChannel channel;
+        private Chunk chunk;
+        private final long end;
+        private IOException exception;
+        private final long size;
+        private final long start;
+
+        ScanTask(final FileChannel channel, final long size, final long start, final long end, final boolean boundary) {
+            this.channel = channel;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+            this.boundary = boundary;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                chunk = scan(channel, size, start, end, boundary);
+            } catch (final IOException e) {
+                exception = e;
+            }
+        }
+
+        Chunk getChunk() throws IOException {
+            if (exception != null) {
+                throw exception;
+            }
+            return chunk;
+        }
+    }
+
+    /** The largest chunk, so that a chunk and its neighboring bytes can be mapped at once. */
+    static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE - 2;
+
+    /** A value that no byte equals, for formats that do not quote and for non-ASCII delimiter characters. */
+    private static final int NO_BYTE = 0x100;
+
+    /**
+     * Checks that the record boundaries of input in the given format and character set can be found by counting quotes.
+     *
+     * @param format  The CSV format.
+     * @param charset The character set of the file.
+     * @throws IllegalArgumentException if record boundaries cannot be found by counting quotes.
+     */
+    static void checkSplittable(final CSVFormat format, final Charset charset) {
+        if (format.isEscapeCharacterSet()) {
+            throw new IllegalArgumentException("Cannot split input with an escape character: " + format.getEscapeCharacter());
+        }
+        if (format.isCommentMarkerSet()) {
+            throw new IllegalArgumentException("Cannot split input with a comment marker: " + format.getCommentMarker());
+        }
+        if (format.isQuoteCharacterSet() && format.getQuoteCharacter().charValue() >= 0x80) {
+            throw new IllegalArgumentException("Cannot split input with a non-ASCII quote character: " + format.getQuoteCharacter());
+        }
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("Cannot split input in character set " + charset);
+        }
+    }
+
+    /**
+     * Tests whether the record boundaries of input in the given format and character set can be found by counting quotes.
+     *
+     * @param format  The CSV format.
+     * @param charset The character set of the file.
+     * @return whether record boundaries can be found by counting quotes.
+     */
+    static boolean isSplittable(final CSVFormat format, final Charset charset) {
+        return !format.isEscapeCharacterSet() && !format.isCommentMarkerSet()
+                && (!format.isQuoteCharacterSet() || format.getQuoteCharacter().charValue() < 0x80) && isAsciiCompatible(charset);
+    }
+
+    /**
+     * Gets the byte that encodes an ASCII character, or {@link #NO_BYTE} for other characters.
+     */
+    private static int toByte(final char c) {
+        return c < 0x80 ? c : NO_BYTE;
+    }
+
+    /**
+     * Tests whether a character set is UTF-8 or a single-byte character set that encodes ASCII characters as themselves.
+     */
+    private static boolean isAsciiCompatible(final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return true;
+        }
+        if (!charset.canEncode()) {
+            return false;
+        }
+        final CharsetEncoder encoder = charset.newEncoder();
+        if (encoder.maxBytesPerChar() != 1) {
+            return false;
+        }
+        final byte[] ascii = new byte[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        return Arrays.equals(ascii, new String(ascii, StandardCharsets.US_ASCII).getBytes(charset));
+    }
+
+    private final boolean ignoreEmptyLines;
+
+    private final Path path;
+
+    /** The first delimiter character as a byte, or {@link #NO_BYTE}. */
+    private final int delimiterFirst;
+
+    /** The last delimiter character as a byte, or {@link #NO_BYTE}. */
+    private final int delimiterLast;
+
+    /** The quote byte, or {@link #NO_BYTE}. */
+    private final int quote;
+
+    /** Whether the character set is UTF-8 rather than a single-byte character set. */
+    private final boolean utf8;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param path    The file to scan.
+     * @param format  The CSV format.
+     * @param charset The character set of the file.
+     * @throws IllegalArgumentException if record boundaries cannot be found by counting quotes.
+     */
+    RecordBoundaryScanner(final Path path, final CSVFormat format, final Charset charset) {
+        checkSplittable(format, charset);
+        this.path = path;
+        this.quote = format.isQuoteCharacterSet() ? format.getQuoteCharacter().charValue() : NO_BYTE;
+        final String delimiter = format.getDelimiterString();
+        this.delimiterFirst = toByte(delimiter.charAt(0));
+        this.delimiterLast = toByte(delimiter.charAt(delimiter.length() - 1));
+        this.ignoreEmptyLines = format.getIgnoreEmptyLines();
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * Finds a record boundary after a file position by reading at most {@code window} bytes, without scanning the file before the position.
+     * <p>
+     * Whether the position is inside a quoted value is not known, so it is guessed from the first quote whose neighbors show whether it opens or closes a
+     * quoted value: a quote after a delimiter or line break and before another character opens one, and a quote after another character and before a
+     * delimiter or line break closes one. Without quotes, the position is taken to be outside a quoted value. The guess can be wrong for quoted values that
+     * are longer than the window or that contain delimiters or line breaks next to quotes.
+     * </p>
+     *
+     * @param position The file position to start from.
+     * @param window   The maximum number of bytes to read.
+     * @return The file position after the first line break that ends a record after {@code position}, or -1 if there is none in the window before the end
+     *         of the file, or if the window has quotes but none that shows whether the position is inside a quoted value.
+     * @throws IOException If an I/O error occurs.
+     */
+    long findRecordStart(final long position, final int window) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (position <= 0 || position >= size) {
+                return -1;
+            }
+            // Map the byte before the position to see what precedes a quote at the position.
+            final long from = position - 1;
+            final long to = Math.min(size, position + window);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            final int limit = (int) (to - from);
+            // Stop a byte early unless the window ends the file, so the byte after each one is known.
+            final int stop = to == size ? limit : limit - 1;
+            // The file position after the first line break at each quote parity since the position, or -1.
+            final long[] breakEnd = { -1, -1 };
+            // The quote parity since the position at which bytes are outside quoted values, or -1 while unknown.
+            int outside = -1;
+            boolean quoted = false;
+            int parity = 0;
+            for (int i = 1; i < stop && (outside < 0 || breakEnd[outside] < 0); i++) {
+                final int b = buffer.get(i) & 0xFF;
+                if (b == quote) {
+                    quoted = true;
+                    if (outside < 0) {
+                        final int previous = buffer.get(i - 1) & 0xFF;
+                        final int next = i + 1 < limit ? buffer.get(i + 1) & 0xFF : LF;
+                        if (previous != quote && next != quote) {
+                            final boolean afterSeparator = previous == CR || previous == LF || previous == delimiterLast;
+                            final boolean beforeSeparator = next == CR || next == LF || next == delimiterFirst;
+                            if (afterSeparator && !beforeSeparator) {
+                                outside = parity;
+                            } else if (!afterSeparator && beforeSeparator) {
+                                outside = parity ^ 1;
+                            }
+                        }
+                    }
+                    parity ^= 1;
+                } else if (b == CR || b == LF) {
+                    if (b == CR && i + 1 < limit && buffer.get(i + 1) == LF) {
+                        i++;
+                    }
+                    if (breakEnd[parity] < 0) {
+                        breakEnd[parity] = from + i + 1;
+                    }
+                }
+            }
+            if (outside < 0 && !quoted) {
+                outside = 0;
+            }
+            return outside < 0 || breakEnd[outside] >= size ? -1 : breakEnd[outside];
+        }
+    }
+
+    /**
+     * Scans a chunk, starting either on a record boundary or in the middle of the file.
+     *
+     * @param channel  The file channel.
+     * @param size     The file size.
+     * @param start    The file position of the first byte of the chunk.
+     * @param end      The file position after the last byte of the chunk.
+     * @param boundary Whether the chunk starts on a record boundary.
+     * @return The scan results.
+     * @throws IOException If an I/O error occurs.
+     */
+    private Chunk scan(final FileChannel channel, final long size, final long start, final long end, final boolean boundary) throws IOException {
+        final Chunk chunk = new Chunk();
+        // Map one byte on either side to see line breaks that straddle the chunk boundaries.
+        final long from = boundary ? start : start - 1;
+        final long to = Math.min(size, end + 1);
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        final int limit = (int) (to - from);
+        final int stop = (int) (end - from);
+        int i = (int) (start - from);
+        // The position after the previous line break outside quotes, and the parity it was found at.
+        long lastBreakEnd = -1;
+        int lastBreakParity = 0;
+        if (boundary) {
+            lastBreakEnd = start;
+        } else {
+            final byte previous = buffer.get(i - 1);
+            if (previous == CR || previous == LF) {
+                lastBreakEnd = start;
+                if (previous == CR && i < stop && buffer.get(i) == LF) {
+                    // The line feed belongs to a line break counted by the previous chunk.
+                    i++;
+                    lastBreakEnd++;
+                }
+            }
+        }
+        int parity = 0;
+        long characters = 0;
+        while (i < stop) {
+            final byte b = buffer.get(i);
+            if (b == quote) {
+                parity ^= 1;
+            } else if (b == LF || b == CR) {
+                final int breakEnd = b == CR && i + 1 < limit && buffer.get(i + 1) == LF ? i + 2 : i + 1;
+                final long breakStart = from + i;
+                final boolean endsRecord = !ignoreEmptyLines || lastBreakEnd != breakStart || lastBreakParity != parity;
+                characters += breakEnd - i;
+                if (endsRecord) {
+                    if (chunk.recordEnds[parity]++ == 0) {
+                        chunk.firstRecordEnd[parity] = from + breakEnd;
+                        chunk.charactersToRecordEnd[parity] = characters;
+                    }
+                }
+                lastBreakEnd = from + breakEnd;
+                lastBreakParity = parity;
+                chunk.lastBreakEnd[parity] = lastBreakEnd;
+                i = breakEnd;
+                continue;
+            }
+            if (utf8) {
+                // Count lead bytes, and a second UTF-16 unit for a supplementary character.
+                if ((b & 0xC0) != 0x80) {
+                    characters += (b & 0xF8) == 0xF0 ? 2 : 1;
+                }
+            } else {
+                characters++;
+            }
+            i++;
+        }
+        chunk.parity = parity;
+        chunk.characters = characters;
+        return chunk;
+    }
+
+    /**
+     * Splits the file into ranges of about {@code chunkSize} bytes that start on record boundaries.
+     * <p>
+     * The first range starts at {@code start}, which must be a record boundary, and the last range ends at the end of the file. A chunk that lies entirely
+     * inside a quoted value joins the range before it.
+     * </p>
+     *
+     * @param start           The file position of a record boundary to start from.
+     * @param characterOffset The number of characters in the file before {@code start}.
+     * @param recordOffset    The number of records in the file before {@code start}.
+     * @param chunkSize       The number of bytes to scan at a time.
+     * @param pool            The pool to scan chunks on.
+     * @return The ranges, at least one.
+     * @throws IOException If an I/O error occurs.
+     */
+    List<Range> split(final long start, final long characterOffset, final long recordOffset, final int chunkSize, final ForkJoinPool pool)
+            throws IOException {
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final List<ScanTask> tasks = new ArrayList<>();
+            for (long chunkStart = start; chunkStart < size; chunkStart += chunkSize) {
+                tasks.add(new ScanTask(channel, size, chunkStart, Math.min(size, chunkStart + chunkSize), chunkStart == start));
+            }
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+            final List<Range> ranges = new ArrayList<>();
+            long rangeStart = start;
+            long rangeCharacters = characterOffset;
+            long rangeRecords = recordOffset;
+            long characters = characterOffset;
+            long records = recordOffset;
+            long lastBreakEnd = start;
+            int parity = 0;
+            for (int k = 0; k < tasks.size(); k++) {
+                final Chunk chunk = tasks.get(k).getChunk();
+                final long recordEnd = chunk.firstRecordEnd[parity];
+                if (k > 0 && recordEnd >= 0 && recordEnd < size) {
+                    ranges.add(new Range(rangeStart, recordEnd, rangeCharacters, rangeRecords, records + 1 - rangeRecords));
+                    rangeStart = recordEnd;
+                    rangeCharacters = characters + chunk.charactersToRecordEnd[parity];
+                    rangeRecords = records + 1;
+                }
+                if (chunk.lastBreakEnd[parity] >= 0) {
+                    lastBreakEnd = chunk.lastBreakEnd[parity];
+                }
+                characters += chunk.characters;
+                records += chunk.recordEnds[parity];
+                parity ^= chunk.parity;
+            }
+            // Input after the last line break is a final record.
+            if (lastBreakEnd < size) {
+                records++;
+            }
+            ranges.add(new Range(rangeStart, Math.max(start, size), rangeCharacters, rangeRecords, records - rangeRecords));
+            return ranges;
+        }
+    }
+}
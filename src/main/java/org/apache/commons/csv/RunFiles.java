@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Temporary files of records in a compact binary form, for operations on more records than fit in memory.
+ * <p>
+ * Each record is a varint number of values, a varint record number, the comment and the values. Each String is a varint of 0 for null or of its UTF-8
+ * length plus 1, followed by its UTF-8 bytes.
+ * </p>
+ */
+final class RunFiles {
+
+    /** The size of run file buffers. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Creates a new empty run file.
+     *
+     * @param directory The directory, or null for the default temporary-file directory.
+     * @param prefix    The prefix of the file name.
+     * @return The new file.
+     * @throws IOException If an I/O error occurs.
+     */
+    static Path create(final Path directory, final String prefix) throws IOException {
+        return directory != null ? Files.createTempFile(directory, prefix, ".run") : Files.createTempFile(prefix, ".run");
+    }
+
+    /**
+     * Deletes run files.
+     *
+     * @param runs The run files.
+     * @throws IOException If an I/O error occurs on any file, after trying the others.
+     */
+    static void delete(final List<Path> runs) throws IOException {
+        IOException exception = null;
+        for (final Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (final IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Opens a run file to read.
+     *
+     * @param run The run file.
+     * @return A buffered input.
+     * @throws IOException If an I/O error occurs.
+     */
+    static DataInputStream newInput(final Path run) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+    }
+
+    /**
+     * Opens a run file to write.
+     *
+     * @param run The run file.
+     * @return A buffered output.
+     * @throws IOException If an I/O error occurs.
+     */
+    static DataOutputStream newOutput(final Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE));
+    }
+
+    /**
+     * Reads the next record of a run file.
+     *
+     * @param in     The input.
+     * @param parser The parser that the record belongs to, for access by header name.
+     * @return The record, or null at the end of the file.
+     * @throws IOException If an I/O error occurs.
+     */
+    static CSVRecord readRecord(final DataInputStream in, final CSVParser parser) throws IOException {
+        final long size;
+        try {
+            size = CSVRecordIndex.readVarLong(in);
+        } catch (final EOFException e) {
+            return null;
+        }
+        final long recordNumber = CSVRecordIndex.readVarLong(in);
+        final String comment = readString(in);
+        final String[] values = new String[(int) size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        return new CSVRecord(parser, values, comment, recordNumber, -1, -1);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = (int) CSVRecordIndex.readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a record to a run file.
+     *
+     * @param out    The output.
+     * @param record The record.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeRecord(final DataOutputStream out, final CSVRecord record) throws IOException {
+        final String[] values = record.values();
+        CSVRecordIndex.writeVarLong(out, values.length);
+        CSVRecordIndex.writeVarLong(out, record.getRecordNumber());
+        writeString(out, record.getComment());
+        for (final String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        CSVRecordIndex.writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private RunFiles() {
+        // noop
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * A sort key of records: the value of a column, by name or index, compared as a {@link CSVSchema.Type}.
+ * <p>
+ * {@link CSVSchema.Type#INTEGER} and {@link CSVSchema.Type#DECIMAL} values compare as numbers, {@link CSVSchema.Type#BOOLEAN} values as booleans, and
+ * {@link CSVSchema.Type#STRING} and {@link CSVSchema.Type#TIMESTAMP} values as Strings. Null and missing values, and blank values of the other types, convert
+ * to null, which compares before other values in ascending order.
+ * </p>
+ */
+final class SortKey {
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static int compareValues(final Comparable a, final Comparable b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        if (a.getClass() != b.getClass()) {
+            // A long and a BigDecimal of an INTEGER key.
+            return toBigDecimal(a).compareTo(toBigDecimal(b));
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Compares converted key values.
+     *
+     * @param keys The keys.
+     * @param a    The converted values of the keys in a record.
+     * @param b    The converted values of the keys in another record.
+     * @return A negative integer, zero, or a positive integer as {@code a} sorts before, with, or after {@code b}.
+     */
+    static int compare(final SortKey[] keys, final Comparable<?>[] a, final Comparable<?>[] b) {
+        for (int i = 0; i < keys.length; i++) {
+            final int result = compareValues(a[i], b[i]);
+            if (result != 0) {
+                return keys[i].descending ? -result : result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Converts the values of keys in a record.
+     *
+     * @param keys    The keys.
+     * @param columns The column index of each key, see {@link #resolve(CSVParser)}.
+     * @param record  The record.
+     * @return The converted values.
+     * @throws NumberFormatException if a value of a numeric key is not a number.
+     */
+    static Comparable<?>[] convert(final SortKey[] keys, final int[] columns, final CSVRecord record) {
+        final Comparable<?>[] values = new Comparable<?>[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            final int column = columns[i];
+            values[i] = keys[i].convert(column < record.size() ? record.get(column) : null);
+        }
+        return values;
+    }
+
+    /**
+     * Resolves the column indices of keys in the header of a parser.
+     *
+     * @param keys   The keys.
+     * @param parser The parser.
+     * @return The column index of each key.
+     * @throws IllegalArgumentException if a key's column is not in the header.
+     * @throws IllegalStateException    if a key's column is named and the parser has no header.
+     */
+    static int[] resolve(final SortKey[] keys, final CSVParser parser) {
+        final int[] columns = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            columns[i] = keys[i].name == null ? keys[i].column : CSVColumn.of(parser.getHeaderMapRaw(), keys[i].name).getIndex();
+        }
+        return columns;
+    }
+
+    private static BigDecimal toBigDecimal(final Comparable<?> value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : BigDecimal.valueOf(((Long) value).longValue());
+    }
+
+    /** The column index, or -1 to resolve {@link #name} in the header. */
+    private final int column;
+
+    private final boolean descending;
+
+    private final String name;
+
+    private final CSVSchema.Type type;
+
+    /**
+     * Constructs a key on a column name.
+     *
+     * @param name       The column name.
+     * @param type       How to compare the values.
+     * @param descending Whether the key sorts in descending order.
+     */
+    SortKey(final String name, final CSVSchema.Type type, final boolean descending) {
+        this(Objects.requireNonNull(name, "name"), -1, type, descending);
+    }
+
+    /**
+     * Constructs a key on a column index.
+     *
+     * @param column     The 0-based column index.
+     * @param type       How to compare the values.
+     * @param descending Whether the key sorts in descending order.
+     * @throws IllegalArgumentException if {@code column} is negative.
+     */
+    SortKey(final int column, final CSVSchema.Type type, final boolean descending) {
+        this(null, column, type, descending);
+        if (column < 0) {
+            throw new IllegalArgumentException("Column index must not be negative: " + column);
+        }
+    }
+
+    private SortKey(final String name, final int column, final CSVSchema.Type type, final boolean descending) {
+        this.name = name;
+        this.column = column;
+        this.type = Objects.requireNonNull(type, "type");
+        this.descending = descending;
+    }
+
+    private Comparable<?> convert(final String value) {
+        if (value == null || type == CSVSchema.Type.STRING || type == CSVSchema.Type.TIMESTAMP) {
+            return value;
+        }
+        final String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        switch (type) {
+        case INTEGER:
+            // Integers beyond the range of a long still compare exactly.
+            return trimmed.length() < 19 ? (Comparable<?>) Long.valueOf(trimmed) : new BigDecimal(trimmed);
+        case DECIMAL:
+            return new BigDecimal(trimmed);
+        default:
+            return Boolean.valueOf(trimmed);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Decodes UTF-8 bytes into characters, translating ASCII bytes directly instead of through a {@link CharsetDecoder}.
+ * <p>
+ * Every CSV metacharacter is a single ASCII byte, so most input is a plain byte to char widening. Only multi-byte sequences go through a decoder, which
+ * replaces malformed input like {@link java.io.InputStreamReader} does. The result is the same character sequence an {@link java.io.InputStreamReader}
+ * produces.
+ * </p>
+ * <p>
+ * Only UTF-8 is supported: the JDK already decodes US-ASCII and ISO-8859-1 streams at least as fast, but its UTF-8 stream decoder is more than twice as
+ * slow as this class on mostly-ASCII input.
+ * </p>
+ */
+final class Utf8Reader extends Reader {
+
+    /** Marks the absence of a pending low surrogate. */
+    private static final int NO_PENDING = -1;
+
+    private final InputStream inputStream;
+
+    /** The undecoded bytes, in read mode. */
+    private final ByteBuffer bytes;
+
+    /** Decodes multi-byte sequences. */
+    private final CharsetDecoder decoder;
+
+    /** Holds the two halves of a surrogate pair when the caller asks for a single character. */
+    private final char[] pair = new char[2];
+
+    /** The low surrogate left over from a single character read, or {@link #NO_PENDING}. */
+    private int pending = NO_PENDING;
+
+    private boolean eof;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param inputStream The UTF-8 input stream to decode.
+     */
+    Utf8Reader(final InputStream inputStream) {
+        this.inputStream = inputStream;
+        this.bytes = ByteBuffer.allocate(IOUtils.DEFAULT_BUFFER_SIZE);
+        this.bytes.flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Decodes into {@code cbuf}, which has room for at least two characters so a surrogate pair always fits.
+     *
+     * @param cbuf The destination buffer.
+     * @param off  The offset at which to start storing characters.
+     * @param len  The maximum number of characters to store, at least 2.
+     * @return The number of characters stored, or {@link IOUtils#EOF} at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int decode(final char[] cbuf, final int off, final int len) throws IOException {
+        final byte[] array = bytes.array();
+        int n = 0;
+        while (n < len) {
+            if (eof && bytes.hasRemaining()) {
+                // Only an incomplete sequence can be left at the end of the stream.
+                return n > 0 ? n : decodeEnd(cbuf, off, len);
+            }
+            if (!bytes.hasRemaining()) {
+                if (n > 0) {
+                    // Don't block for more input once there is something to return.
+                    return n;
+                }
+                if (!fill()) {
+                    return decodeEnd(cbuf, off, len);
+                }
+            }
+            int pos = bytes.position();
+            final int limit = Math.min(bytes.limit(), pos + len - n);
+            byte b;
+            while (pos < limit && (b = array[pos]) >= 0) {
+                cbuf[off + n++] = (char) b;
+                pos++;
+            }
+            if (pos < limit) {
+                bytes.position(pos);
+                final int count = decodeSequence(cbuf, off + n, len - n);
+                if (count == 0 && bytes.position() == pos) {
+                    // The decoder needs more room or an incomplete sequence reaches the end of the buffer.
+                    if (n > 0) {
+                        return n;
+                    }
+                    if (!fill()) {
+                        return decodeEnd(cbuf, off, len);
+                    }
+                    continue;
+                }
+                n += count;
+                pos = bytes.position();
+            }
+            bytes.position(pos);
+        }
+        return n;
+    }
+
+    /**
+     * Decodes the bytes left at the end of the stream, replacing an incomplete sequence.
+     *
+     * @return The number of characters stored, or {@link IOUtils#EOF} when nothing was left.
+     */
+    private int decodeEnd(final char[] cbuf, final int off, final int len) {
+        if (!bytes.hasRemaining()) {
+            return EOF;
+        }
+        final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        if (decoder.decode(bytes, out, true).isUnderflow()) {
+            decoder.flush(out);
+        }
+        final int n = out.position() - off;
+        return n == 0 ? EOF : n;
+    }
+
+    /**
+     * Decodes a run of non-ASCII bytes and the ASCII byte that ends it with {@link #decoder}.
+     * <p>
+     * Feeding the decoder the terminating ASCII byte lets it report a truncated sequence exactly as a streaming decoder would. A run that reaches the end of
+     * the buffer may leave an incomplete sequence behind for the next {@link #fill()}.
+     * </p>
+     *
+     * @return The number of characters stored.
+     */
+    private int decodeSequence(final char[] cbuf, final int off, final int len) {
+        final byte[] array = bytes.array();
+        final int limit = bytes.limit();
+        int end = bytes.position();
+        while (end < limit && array[end] < 0) {
+            end++;
+        }
+        if (end < limit) {
+            end++;
+        }
+        final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        bytes.limit(end);
+        decoder.decode(bytes, out, false);
+        bytes.limit(limit);
+        return out.position() - off;
+    }
+
+    /**
+     * Compacts the undecoded bytes and reads more from the input stream.
+     *
+     * @return false at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        bytes.compact();
+        try {
+            final int count = inputStream.read(bytes.array(), bytes.position(), bytes.remaining());
+            if (count == EOF) {
+                eof = true;
+                return false;
+            }
+            bytes.position(bytes.position() + count);
+            return true;
+        } finally {
+            bytes.flip();
+        }
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (pending != NO_PENDING) {
+            cbuf[off] = (char) pending;
+            pending = NO_PENDING;
+            return 1;
+        }
+        if (len > 1) {
+            return decode(cbuf, off, len);
+        }
+        final int n = decode(pair, 0, 2);
+        if (n > 0) {
+            cbuf[off] = pair[0];
+            if (n == 2) {
+                pending = pair[1];
+            }
+            return 1;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pending != NO_PENDING || bytes.hasRemaining() || inputStream.available() > 0;
+    }
+}
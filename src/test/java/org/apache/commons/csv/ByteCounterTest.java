@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link ByteCounter}.
+ */
+class ByteCounterTest {
+
+    private static final String TEXT = "a,éß,€あ\n😀,z\r\n";
+
+    /**
+     * Counts the bytes of each character of {@code text} with a new encoding, minus the byte-order mark the encoder writes every time.
+     */
+    private static long expectedCount(final String text, final Charset charset) {
+        final int bom = Math.max(0, 2 * "a".getBytes(charset).length - "aa".getBytes(charset).length);
+        return text.codePoints().mapToLong(cp -> new String(Character.toChars(cp)).getBytes(charset).length - bom).sum();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-8", "UTF-16", "UTF-16BE", "UTF-16LE", "UTF-32", "UTF-32LE", "x-UTF-16LE-BOM", "GB18030" })
+    void testCount(final String name) throws IOException {
+        final Charset charset = Charset.forName(name);
+        final long expected = expectedCount(TEXT, charset);
+        final char[] chars = TEXT.toCharArray();
+        assertEquals(expected, ByteCounter.of(charset).count(Constants.UNDEFINED, chars, 0, chars.length));
+        // One character at a time, which splits the surrogate pair.
+        final ByteCounter counter = ByteCounter.of(charset);
+        long count = 0;
+        int previous = Constants.UNDEFINED;
+        for (final char c : chars) {
+            count += counter.count(previous, c);
+            previous = c;
+        }
+        assertEquals(expected, count);
+        try (ExtendedBufferedReader reader = new ExtendedBufferedReader(new StringReader(TEXT), charset, true)) {
+            reader.read();
+            reader.read(new char[8], 0, 8);
+            while (reader.read() != -1) {
+                // consume
+            }
+            assertEquals(expected, reader.getBytesRead());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "ISO-8859-1", "US-ASCII", "windows-1252" })
+    void testCountSingleByte(final String name) throws IOException {
+        final char[] chars = "a,b\ncé�".toCharArray();
+        assertEquals(chars.length, ByteCounter.of(Charset.forName(name)).count(Constants.UNDEFINED, chars, 0, chars.length));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-8", "UTF-16", "GB18030" })
+    void testLoneLowSurrogate(final String name) {
+        final ByteCounter counter = ByteCounter.of(Charset.forName(name));
+        final char[] chars = { 'a', '\ude00' };
+        assertThrows(CharacterCodingException.class, () -> counter.count(Constants.UNDEFINED, chars, 0, chars.length));
+        assertThrows(CharacterCodingException.class, () -> counter.count(Constants.UNDEFINED, '\ude00'));
+    }
+}
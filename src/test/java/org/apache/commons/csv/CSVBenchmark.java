@@ -20,6 +20,8 @@
 package org.apache.commons.csv;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -31,6 +33,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullWriter;
 import org.apache.commons.lang3.StringUtils;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -38,6 +41,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -69,8 +73,50 @@ public class CSVBenchmark {
         }
     }
 
+    /**
+     * The data with its commas replaced by a multi-character delimiter, with a comma as the baseline.
+     */
+    @State(Scope.Benchmark)
+    public static class DelimitedData {
+
+        @Param({ ",", "||", "~|~", "<|~|>" })
+        public String delimiter;
+
+        private String data;
+
+        @Setup
+        public void init() throws IOException {
+            this.data = load().replace(",", delimiter);
+        }
+    }
+
+    /** The number of records the print benchmarks print. */
+    private static final int PRINT_RECORDS = 10_000_000;
+
+    /** The record the print benchmarks print, with a value to quote. */
+    private static final Object[] PRINT_RECORD = { "us", "new york", "New York, NY", 8_336_817, 40.7127 };
+
+    private static String load() throws IOException {
+        try (InputStream in = CSVBenchmark.class.getClassLoader().getResourceAsStream("org/apache/commons/csv/perf/worldcitiespop.txt.gz");
+                InputStream gzin = new GZIPInputStream(in, 8192)) {
+            return IOUtils.toString(gzin, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static long print(final int bufferSize) throws IOException {
+        try (CSVPrinter printer = new CSVPrinter(new BufferedWriter(NullWriter.INSTANCE), CSVFormat.DEFAULT, bufferSize)) {
+            for (int i = 0; i < PRINT_RECORDS; i++) {
+                printer.printRecord(PRINT_RECORD);
+            }
+            return printer.getRecordCount();
+        }
+    }
+
     private String data;
 
+    /** The data encoded as UTF-8, for the benchmarks that decode bytes. */
+    private byte[] utf8Data;
+
     private Reader getReader() {
         return new StringReader(data);
     }
@@ -80,10 +126,8 @@ public class CSVBenchmark {
      */
     @Setup
     public void init() throws IOException {
-        try (InputStream in = this.getClass().getClassLoader().getResourceAsStream("org/apache/commons/csv/perf/worldcitiespop.txt.gz");
-                InputStream gzin = new GZIPInputStream(in, 8192)) {
-            this.data = IOUtils.toString(gzin, StandardCharsets.ISO_8859_1);
-        }
+        this.data = load();
+        this.utf8Data = data.getBytes(StandardCharsets.UTF_8);
     }
 
     @Benchmark
@@ -103,6 +147,169 @@ public class CSVBenchmark {
         return count;
     }
 
+    @Benchmark
+    public int parseCommonsCSVBlockScanning(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setReader(getReader()).setFormat(format).setBlockScanning(true).get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                iter.next();
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    /**
+     * Parses UTF-8 bytes decoded by an {@link java.io.InputStreamReader}, to compare with {@link #parseCommonsCSVDirectDecoding(Blackhole)}.
+     */
+    @Benchmark
+    public int parseCommonsCSVBytes(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setInputStream(new ByteArrayInputStream(utf8Data)).setCharset(StandardCharsets.UTF_8).setFormat(format)
+                .get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                iter.next();
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVColumnBatch(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setReader(getReader()).setFormat(format).get()) {
+            final CSVColumnBatch batch = new CSVColumnBatch(1024);
+            int rows;
+            while ((rows = parser.readBatch(batch)) > 0) {
+                count += rows;
+                bh.consume(batch.getStrings(0));
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVDelimiter(final DelimitedData delimited, final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setDelimiter(delimited.delimiter).setSkipHeaderRecord(true).get();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(delimited.data)).setFormat(format).get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                iter.next();
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVDelimiterBlockScanning(final DelimitedData delimited, final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setDelimiter(delimited.delimiter).setSkipHeaderRecord(true).get();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(delimited.data)).setFormat(format).setBlockScanning(true).get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                iter.next();
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVDirectDecoding(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setInputStream(new ByteArrayInputStream(utf8Data)).setCharset(StandardCharsets.UTF_8).setFormat(format)
+                .setDirectDecoding(true).get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                iter.next();
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    /**
+     * Reads two values of each record, to compare with {@link #parseCommonsCSVLazyValuesReadTwoValues(Blackhole)}; run with {@code -prof gc} to compare
+     * allocation rates.
+     */
+    @Benchmark
+    public int parseCommonsCSVReadTwoValues(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setReader(getReader()).setFormat(format).get()) {
+            for (final CSVRecord record : parser) {
+                count++;
+                bh.consume(record.get(0));
+                bh.consume(record.get(5));
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVLazyValuesReadTwoValues(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setReader(getReader()).setFormat(format).setLazyValues(true).get()) {
+            for (final CSVRecord record : parser) {
+                count++;
+                bh.consume(record.get(0));
+                bh.consume(record.get(5));
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public int parseCommonsCSVTrackBytes(final Blackhole bh) throws Exception {
+        int count = 0;
+
+        final CSVFormat format = CSVFormat.Builder.create().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.builder().setReader(getReader()).setCharset(StandardCharsets.UTF_8).setFormat(format).setTrackBytes(true).get()) {
+            final Iterator<CSVRecord> iter = parser.iterator();
+            while (iter.hasNext()) {
+                count++;
+                bh.consume(iter.next().getBytePosition());
+            }
+        }
+
+        bh.consume(count);
+        return count;
+    }
+
     @Benchmark
     public int parseGenJavaCSV(final Blackhole bh) throws Exception {
         int count = 0;
@@ -181,6 +388,20 @@ public class CSVBenchmark {
         return count;
     }
 
+    @Benchmark
+    public long printCommonsCSV(final Blackhole bh) throws Exception {
+        final long count = print(0);
+        bh.consume(count);
+        return count;
+    }
+
+    @Benchmark
+    public long printCommonsCSVBuffered(final Blackhole bh) throws Exception {
+        final long count = print(8192);
+        bh.consume(count);
+        return count;
+    }
+
     @Benchmark
     public int read(final Blackhole bh) throws Exception {
         int count = 0;
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVBinder}.
+ */
+class CSVBinderTest {
+
+    public static class City {
+
+        private String name;
+        private long population;
+        private BigDecimal area;
+        private LocalDate founded;
+        private TimeUnit unit;
+        private String note;
+
+        public BigDecimal getArea() {
+            return area;
+        }
+
+        public LocalDate getFounded() {
+            return founded;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        public TimeUnit getUnit() {
+            return unit;
+        }
+
+        public void setArea(final BigDecimal area) {
+            this.area = area;
+        }
+
+        public void setFounded(final LocalDate founded) {
+            this.founded = founded;
+        }
+
+        public City setName(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        public void setNote(final Object note) {
+            this.note = "object";
+        }
+
+        public void setNote(final String note) {
+            this.note = note;
+        }
+
+        public void setPopulation(final long population) {
+            this.population = population;
+        }
+
+        public void setUnit(final TimeUnit unit) {
+            this.unit = unit;
+        }
+    }
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setNullString("NA").get();
+
+    private static final String INPUT = "Name,population,area,founded,unit,note,ignored\nParis,2100000,105.4,0250-01-01,DAYS,capital,x\nNowhere,NA,NA,NA,NA\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBean() throws IOException {
+        try (CSVParser parser = CSVParser.parse(INPUT, FORMAT)) {
+            final List<City> cities = parser.stream(City.class).collect(Collectors.toList());
+            assertEquals(2, cities.size());
+            final City paris = cities.get(0);
+            assertEquals("Paris", paris.getName());
+            assertEquals(2_100_000, paris.getPopulation());
+            assertEquals(new BigDecimal("105.4"), paris.getArea());
+            assertEquals(LocalDate.of(250, 1, 1), paris.getFounded());
+            assertEquals(TimeUnit.DAYS, paris.getUnit());
+            assertEquals("capital", paris.getNote());
+            final City nowhere = cities.get(1);
+            assertEquals("Nowhere", nowhere.getName());
+            assertEquals(0, nowhere.getPopulation());
+            assertNull(nowhere.getArea());
+            assertNull(nowhere.getUnit());
+            // Missing from the short record.
+            assertNull(nowhere.getNote());
+        }
+    }
+
+    @Test
+    void testConverters() throws IOException {
+        final CSVBinder<City> binder = CSVBinder.builder(City.class).setConverter(Long.class, value -> Long.valueOf(value.replace("_", "")))
+                .setConverter(String.class, value -> value.toUpperCase(Locale.ROOT)).setConverter(LocalDate.class, null).get();
+        try (CSVParser parser = CSVParser.parse("name,population,founded\nRome,2_800_000,0753-04-21\n", FORMAT)) {
+            final City rome = parser.stream(binder).findFirst().get();
+            assertEquals("ROME", rome.getName());
+            assertEquals(2_800_000, rome.getPopulation());
+            // No converter, so no setter.
+            assertNull(rome.getFounded());
+        }
+        try (CSVParser parser = CSVParser.parse("population\nmany\n", FORMAT)) {
+            assertThrows(NumberFormatException.class, () -> parser.stream(City.class).count());
+        }
+    }
+
+    @Test
+    void testErrors() throws IOException {
+        try (CSVParser parser = CSVParser.parse("a,b\n", CSVFormat.DEFAULT)) {
+            assertThrows(IllegalStateException.class, () -> parser.stream(City.class));
+        }
+        try (CSVParser parser = CSVParser.parse("a,b\n", FORMAT)) {
+            assertThrows(IllegalArgumentException.class, () -> parser.stream(City.class));
+        }
+        assertThrows(IllegalArgumentException.class, () -> CSVBinder.of(List.class));
+    }
+
+    @Test
+    void testParallelStream() throws IOException {
+        final StringBuilder builder = new StringBuilder("name,population\n");
+        for (int i = 0; i < 200_000; i++) {
+            builder.append("city").append(i).append(',').append(i).append('\n');
+        }
+        final Path file = dir.resolve("cities.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setSplittable(true).get()) {
+            assertEquals(200_000L * (200_000 - 1) / 2, parser.stream(City.class).parallel().mapToLong(City::getPopulation).sum());
+        }
+    }
+
+    @Test
+    void testRecordClass() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(compiler != null);
+        assumeTrue(Arrays.stream(Class.class.getMethods()).map(Method::getName).anyMatch("isRecord"::equals), "Java 16 or above");
+        final Path source = dir.resolve("Point.java");
+        Files.write(source, "public record Point(int x, Integer y, String label) { }".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, compiler.run(null, null, null, source.toString()));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() })) {
+            final Class<?> pointClass = loader.loadClass("Point");
+            try (CSVParser parser = CSVParser.parse("label,Y,x,z\na,2,1,0\nb,NA,NA,0\n", FORMAT)) {
+                assertEquals(Arrays.asList("Point[x=1, y=2, label=a]", "Point[x=0, y=null, label=b]"),
+                        parser.stream(pointClass).map(Object::toString).collect(Collectors.toList()));
+            }
+            // Without a header, components bind to the columns in order.
+            try (CSVParser parser = CSVParser.parse("3,4,c\n", CSVFormat.DEFAULT)) {
+                assertEquals("Point[x=3, y=4, label=c]", parser.stream(pointClass).findFirst().get().toString());
+            }
+            try (CSVParser parser = CSVParser.parse("x,y\n1,2\n", FORMAT)) {
+                assertThrows(IllegalArgumentException.class, () -> parser.stream(pointClass));
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVCheckpoint}.
+ */
+class CSVCheckpointTest {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setIgnoreHeaderCase(true).setCommentMarker('#')
+            .get();
+
+    @TempDir
+    Path dir;
+
+    private static void assertRecordEquals(final CSVRecord expected, final CSVRecord actual) {
+        assertArrayEquals(expected.values(), actual.values());
+        assertEquals(expected.getRecordNumber(), actual.getRecordNumber());
+        assertEquals(expected.getBytePosition(), actual.getBytePosition());
+        assertEquals(expected.getCharacterPosition(), actual.getCharacterPosition());
+        assertEquals(expected.getComment(), actual.getComment());
+        assertEquals(expected.get("NAME"), actual.get("name"));
+    }
+
+    private static CSVCheckpoint copy(final CSVCheckpoint checkpoint) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(checkpoint);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (CSVCheckpoint) in.readObject();
+        }
+    }
+
+    private Path createFile(final int records) throws IOException {
+        final StringBuilder builder = new StringBuilder("# header comment\nId,Name\n");
+        for (int i = 1; i <= records; i++) {
+            if (i % 4 == 0) {
+                builder.append("# comment ").append(i).append('\n');
+            }
+            builder.append(i).append(i % 3 == 0 ? ",\"multi\nline é\"" : ",näme€").append('\n');
+        }
+        builder.append("# trailer\n");
+        final Path file = dir.resolve("data.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private List<CSVRecord> readAll(final Path file) throws IOException {
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+            return parser.getRecords();
+        }
+    }
+
+    @Test
+    void testCheckpointAtEnd() throws Exception {
+        final Path file = createFile(5);
+        final CSVCheckpoint checkpoint;
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+            parser.getRecords();
+            checkpoint = copy(parser.getCheckpoint());
+        }
+        assertEquals(Files.size(file), checkpoint.getBytePosition());
+        assertEquals(6, checkpoint.getRecordNumber());
+        assertEquals("trailer", checkpoint.getTrailerComment());
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setCheckpoint(checkpoint).get()) {
+            assertNull(parser.nextRecord());
+            assertEquals("trailer", parser.getTrailerComment());
+        }
+    }
+
+    @Test
+    void testInputStream() throws Exception {
+        final Path file = createFile(10);
+        final List<CSVRecord> expected = readAll(file);
+        final CSVCheckpoint checkpoint;
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+            for (int i = 0; i < 3; i++) {
+                parser.nextRecord();
+            }
+            checkpoint = copy(parser.getCheckpoint());
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file);
+                InputStream inputStream = Channels.newInputStream(channel.position(checkpoint.getBytePosition()));
+                CSVParser parser = CSVParser.builder().setInputStream(inputStream).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT)
+                        .setCheckpoint(checkpoint).get()) {
+            final List<CSVRecord> actual = parser.getRecords();
+            assertEquals(expected.size() - 3, actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertRecordEquals(expected.get(i + 3), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testIteratorReadAhead() throws Exception {
+        final Path file = createFile(10);
+        final List<CSVRecord> expected = readAll(file);
+        final CSVCheckpoint checkpoint;
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+            final Iterator<CSVRecord> iterator = parser.iterator();
+            iterator.next();
+            assertTrue(iterator.hasNext());
+            checkpoint = parser.getCheckpoint();
+        }
+        assertEquals(2, checkpoint.getRecordNumber());
+        assertEquals(expected.get(1).getBytePosition(), checkpoint.getBytePosition());
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setCheckpoint(checkpoint).get()) {
+            assertRecordEquals(expected.get(1), parser.nextRecord());
+        }
+    }
+
+    @Test
+    void testResume() throws Exception {
+        final Path file = createFile(30);
+        final List<CSVRecord> expected = readAll(file);
+        for (int stop = 0; stop <= expected.size(); stop++) {
+            final CSVCheckpoint checkpoint;
+            try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+                for (int i = 0; i < stop; i++) {
+                    parser.nextRecord();
+                }
+                checkpoint = copy(parser.getCheckpoint());
+            }
+            assertEquals(stop + 1, checkpoint.getRecordNumber());
+            assertEquals("header comment", checkpoint.getHeaderComment());
+            assertEquals("\n", checkpoint.getFirstEndOfLine());
+            try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setCheckpoint(checkpoint).get()) {
+                assertEquals(Arrays.asList("Id", "Name"), parser.getHeaderNames());
+                assertEquals("header comment", parser.getHeaderComment());
+                assertEquals("\n", parser.getFirstEndOfLine());
+                for (int i = stop; i < expected.size(); i++) {
+                    assertRecordEquals(expected.get(i), parser.nextRecord());
+                }
+                assertNull(parser.nextRecord());
+                assertEquals("trailer", parser.getTrailerComment());
+            }
+        }
+    }
+
+    @Test
+    void testTrackBytesRequired() throws IOException {
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader("a,b\n")).setFormat(CSVFormat.DEFAULT).get()) {
+            assertThrows(IllegalStateException.class, parser::getCheckpoint);
+        }
+    }
+}
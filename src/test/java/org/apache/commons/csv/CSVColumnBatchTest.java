@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests {@link CSVColumnBatch}.
+ */
+class CSVColumnBatchTest {
+
+    @ParameterizedTest
+    @MethodSource("org.apache.commons.csv.CSVReusableRecordTest#formats")
+    void testMatchesRecords(final CSVFormat format) throws IOException {
+        final List<CSVRecord> expected;
+        try (CSVParser parser = CSVParser.parse(CSVReusableRecordTest.INPUT, format)) {
+            expected = parser.getRecords();
+        }
+        try (CSVParser parser = CSVParser.parse(CSVReusableRecordTest.INPUT, format)) {
+            final CSVColumnBatch batch = new CSVColumnBatch(2);
+            int i = 0;
+            while (parser.readBatch(batch) > 0) {
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    final CSVRecord record = expected.get(i++);
+                    assertEquals(record.getRecordNumber(), batch.getRecordNumber(row));
+                    for (int column = 0; column < batch.getColumnCount(); column++) {
+                        final String value = column < record.size() ? record.get(column) : null;
+                        assertEquals(value, batch.getStrings(column)[row]);
+                        assertEquals(value == null, batch.isNull(row, column));
+                    }
+                }
+            }
+            assertEquals(expected.size(), i);
+        }
+    }
+
+    @Test
+    void testNumericColumns() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setNullString("NA").get();
+        final String input = "id,name,price\n1,a,1.5\n2,b,NA\n3,c,-2e3\nNA,d,0.25\n5,e\n6,f,7,extra\n";
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).get()) {
+            final CSVColumnBatch batch = new CSVColumnBatch(4).setLongColumns(parser.getColumn("id").getIndex()).setDoubleColumns(2);
+            assertEquals(4, parser.readBatch(batch));
+            assertEquals(3, batch.getColumnCount());
+            assertArrayEquals(new long[] { 1, 2, 3, 0 }, batch.getLongs(0));
+            assertArrayEquals(new String[] { "a", "b", "c", "d" }, batch.getStrings(1));
+            assertArrayEquals(new double[] { 1.5, 0, -2000, 0.25 }, batch.getDoubles(2));
+            assertEquals(0b1000L, batch.getNulls(0)[0]);
+            assertEquals(0b0010L, batch.getNulls(2)[0]);
+            assertTrue(batch.isNull(3, 0));
+            assertFalse(batch.isNull(2, 2));
+            assertEquals(4, batch.getRecordNumber(3));
+            assertThrows(IllegalStateException.class, () -> batch.getStrings(0));
+            assertThrows(IllegalStateException.class, () -> batch.getLongs(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.getStrings(3));
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.isNull(4, 0));
+            // The last batch is partial, with a short record and a record with an extra column the first record lacks.
+            assertEquals(2, parser.readBatch(batch));
+            assertEquals(4, batch.getColumnCount());
+            assertEquals(5, batch.getLongs(0)[0]);
+            assertTrue(batch.isNull(0, 2));
+            assertEquals(7, batch.getDoubles(2)[1]);
+            assertTrue(batch.isNull(0, 3));
+            assertNull(batch.getStrings(3)[0]);
+            assertEquals("extra", batch.getStrings(3)[1]);
+            assertEquals(0, parser.readBatch(batch));
+            assertEquals(0, batch.getRowCount());
+        }
+    }
+
+    @Test
+    void testNumberFormatException() throws IOException {
+        try (CSVParser parser = CSVParser.parse("1\n2\nx\n4\n", CSVFormat.DEFAULT)) {
+            final CSVColumnBatch batch = new CSVColumnBatch(10).setLongColumns(0);
+            assertThrows(NumberFormatException.class, () -> parser.readBatch(batch));
+            assertEquals(2, batch.getRowCount());
+            assertEquals(1, parser.readBatch(batch));
+            assertEquals(4, batch.getLongs(0)[0]);
+        }
+    }
+
+    @Test
+    void testMaxRows() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setMaxRows(5).get();
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            input.append(i).append('\n');
+        }
+        try (CSVParser parser = CSVParser.parse(input.toString(), format)) {
+            final CSVColumnBatch batch = new CSVColumnBatch(3).setDoubleColumns(0);
+            assertEquals(3, parser.readBatch(batch));
+            assertEquals(2, parser.readBatch(batch));
+            assertEquals(4, batch.getDoubles(0)[1]);
+            assertEquals(0, parser.readBatch(batch));
+        }
+    }
+
+    @Test
+    void testCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new CSVColumnBatch(0));
+        assertThrows(IllegalArgumentException.class, () -> new CSVColumnBatch(1).setLongColumns(-1));
+        assertEquals(70, new CSVColumnBatch(70).getCapacity());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVSchema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVJoiner}.
+ */
+class CSVJoinerTest {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setRecordSeparator('\n').get();
+
+    // @formatter:off
+    private static final String ORDERS = "order,customer,amount\n"
+            + "o1,,5\n"
+            + "o2,1,10\n"
+            + "o3,1,20\n"
+            + "o4,3,30\n"
+            + "o5,4,40\n"
+            + "o6,4,50\n";
+
+    private static final String CUSTOMERS = "name,id\n"
+            + "n,\n"
+            + "Alice,1\n"
+            + "Bob,2\n"
+            + "Dan,4\n"
+            + "Dora,4\n";
+    // @formatter:on
+
+    @TempDir
+    Path dir;
+
+    private String join(final CSVJoiner joiner, final String left, final String right) throws IOException {
+        final StringWriter out = new StringWriter();
+        try (CSVParser leftParser = CSVParser.parse(left, FORMAT);
+                CSVParser rightParser = CSVParser.parse(right, FORMAT);
+                CSVPrinter printer = new CSVPrinter(out, FORMAT)) {
+            joiner.join(leftParser, rightParser, printer);
+        }
+        return out.toString();
+    }
+
+    private CSVJoiner joiner(final CSVJoiner.Type type) {
+        return CSVJoiner.builder().addKey("customer", "id", Type.INTEGER, false).setType(type).setTempDirectory(dir).get();
+    }
+
+    @Test
+    void testBuilderArguments() {
+        assertThrows(IllegalStateException.class, () -> CSVJoiner.builder().get());
+        assertThrows(IllegalArgumentException.class, () -> CSVJoiner.builder().addKey(0, -1, Type.STRING, false));
+        assertThrows(IllegalArgumentException.class, () -> CSVJoiner.builder().setMaxBufferedRecords(-1));
+        assertThrows(NullPointerException.class, () -> CSVJoiner.builder().setType(null));
+    }
+
+    @Test
+    void testDuplicateKeysSpill() throws IOException {
+        final StringBuilder left = new StringBuilder("k,l\n");
+        final StringBuilder right = new StringBuilder("k,r\n");
+        for (int k = 0; k < 20; k++) {
+            for (int i = 0; i < k; i++) {
+                left.append(k).append(",l").append(i).append('\n');
+                right.append(k).append(",\"r\n").append(i).append("\"\n");
+            }
+        }
+        final CSVJoiner joiner = CSVJoiner.builder().addKey(0, 0, Type.INTEGER, false).setMaxBufferedRecords(3).setTempDirectory(dir).get();
+        final StringWriter out = new StringWriter();
+        try (CSVParser leftParser = CSVParser.parse(left.toString(), FORMAT);
+                CSVParser rightParser = CSVParser.parse(right.toString(), FORMAT);
+                CSVPrinter printer = new CSVPrinter(out, FORMAT)) {
+            long expected = 0;
+            for (int k = 0; k < 20; k++) {
+                expected += k * k;
+            }
+            assertEquals(expected, joiner.join(leftParser, rightParser, printer));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+        try (CSVParser parser = CSVParser.parse(out.toString(), CSVFormat.DEFAULT)) {
+            int count = 0;
+            for (final CSVRecord record : parser) {
+                assertEquals(3, record.size());
+                // Each left record, in order, with each right record of its key, in order.
+                final int k = Integer.parseInt(record.get(0));
+                final int l = count / k;
+                final int r = count % k;
+                assertEquals("l" + l, record.get(1));
+                assertEquals("r\n" + r, record.get(2));
+                count = l == k - 1 && r == k - 1 ? 0 : count + 1;
+            }
+        }
+    }
+
+    @Test
+    void testHeaderNames() throws IOException {
+        final CSVJoiner joiner = joiner(CSVJoiner.Type.INNER);
+        try (CSVParser left = CSVParser.parse(ORDERS, FORMAT);
+                CSVParser right = CSVParser.parse(CUSTOMERS, FORMAT)) {
+            assertEquals(Arrays.asList("order", "customer", "amount", "name"), joiner.getHeaderNames(left, right));
+        }
+        try (CSVParser left = CSVParser.parse(ORDERS, FORMAT);
+                CSVParser right = CSVParser.parse("1,2\n", CSVFormat.DEFAULT)) {
+            assertEquals(Collections.emptyList(), joiner.getHeaderNames(left, right));
+        }
+    }
+
+    @Test
+    void testInner() throws IOException {
+        assertEquals("o2,1,10,Alice\no3,1,20,Alice\no5,4,40,Dan\no5,4,40,Dora\no6,4,50,Dan\no6,4,50,Dora\n",
+                join(joiner(CSVJoiner.Type.INNER), ORDERS, CUSTOMERS));
+    }
+
+    @Test
+    void testLeft() throws IOException {
+        assertEquals("o1,,5,\no2,1,10,Alice\no3,1,20,Alice\no4,3,30,\no5,4,40,Dan\no5,4,40,Dora\no6,4,50,Dan\no6,4,50,Dora\n",
+                join(joiner(CSVJoiner.Type.LEFT), ORDERS, CUSTOMERS));
+    }
+
+    @Test
+    void testRightAndFull() throws IOException {
+        // The printer quotes an empty first value.
+        assertEquals("\"\",,,n\no2,1,10,Alice\no3,1,20,Alice\n\"\",2,,Bob\no5,4,40,Dan\no5,4,40,Dora\no6,4,50,Dan\no6,4,50,Dora\n",
+                join(joiner(CSVJoiner.Type.RIGHT), ORDERS, CUSTOMERS));
+        assertEquals("o1,,5,\n\"\",,,n\no2,1,10,Alice\no3,1,20,Alice\n\"\",2,,Bob\no4,3,30,\no5,4,40,Dan\no5,4,40,Dora\no6,4,50,Dan\no6,4,50,Dora\n",
+                join(joiner(CSVJoiner.Type.FULL), ORDERS, CUSTOMERS));
+        // One empty input.
+        assertEquals("o1,,5,\no2,1,10,\n", join(joiner(CSVJoiner.Type.FULL), "order,customer,amount\no1,,5\no2,1,10\n", "name,id\n"));
+    }
+
+    @Test
+    void testMultipleKeysDescending() throws IOException {
+        final CSVJoiner joiner = CSVJoiner.builder().addKey(0, 1, Type.STRING, true).addKey(1, 0, Type.DECIMAL, false).get();
+        assertEquals("b,1.0,x\na,2,y\n", join(joiner, "k,n\nb,1.0\nb,3\na,1\na,2\n", "n,k,v\n1,b,x\n2,a0,z\n2,a,y\n"));
+    }
+
+    @Test
+    void testUnsorted() throws IOException {
+        assertThrows(IllegalStateException.class, () -> join(joiner(CSVJoiner.Type.INNER), "customer\n2\n1\n", CUSTOMERS));
+        assertThrows(IllegalStateException.class, () -> join(joiner(CSVJoiner.Type.INNER), "customer\n1\n", "id\n2\n1\n"));
+        assertThrows(IllegalArgumentException.class, () -> join(joiner(CSVJoiner.Type.INNER), "order\n1\n", CUSTOMERS));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link CSVParallelParser}.
+ */
+class CSVParallelParserTest {
+
+    private static final String INPUT = "id,text,n\r\n" + "1,plain,10\r\n" + "2,\"quoted, with comma\",20\r\n" + "\r\n" + "3,\"multi\r\nline\",30\n"
+            + "4,\"\"\"doubled\"\" quotes\",40\r" + "5,éè,50\n" + "6,\"😀\n\",60\n" + "7,last,70";
+
+    @TempDir
+    Path tempDir;
+
+    private void assertParallel(final String input, final CSVFormat format, final Charset charset, final int chunkSize, final boolean ordered)
+            throws IOException {
+        assertParallel(input, format, charset, chunkSize, ordered, CSVParallelParser.DEFAULT_MAX_BUFFERED_BYTES);
+    }
+
+    private void assertParallel(final String input, final CSVFormat format, final Charset charset, final int chunkSize, final boolean ordered,
+            final long maxBufferedBytes) throws IOException {
+        final Path path = write(input, charset);
+        final List<String> expected;
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(charset).setFormat(format).setTrackBytes(true).get()) {
+            expected = parser.stream().map(CSVParallelParserTest::describe).collect(Collectors.toList());
+        }
+        final CSVParallelParser parser = CSVParallelParser.builder().setPath(path).setCharset(charset).setFormat(format).setTrackBytes(true)
+                .setChunkSize(chunkSize).setOrdered(ordered).setMaxBufferedBytes(maxBufferedBytes).get();
+        try (Stream<CSVRecord> stream = parser.stream()) {
+            final Stream<CSVRecord> sorted = ordered ? stream : stream.sorted(Comparator.comparingLong(CSVRecord::getRecordNumber));
+            assertEquals(expected, sorted.map(CSVParallelParserTest::describe).collect(Collectors.toList()), () -> "chunkSize " + chunkSize);
+        }
+    }
+
+    private static String describe(final CSVRecord record) {
+        return record.getRecordNumber() + ":" + record.getCharacterPosition() + ":" + record.getBytePosition() + ":" + record.toList()
+                + (record.getParser().getHeaderMap() != null ? record.toMap() : "");
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        final CSVParallelParser parser = CSVParallelParser.builder().setPath(write("", StandardCharsets.UTF_8))
+                .setFormat(CSVFormat.DEFAULT.builder().setHeader().get()).get();
+        assertEquals(1, parser.getRangeCount());
+        assertTrue(parser.getHeaderNames().isEmpty());
+        try (Stream<CSVRecord> stream = parser.stream()) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void testHeader() throws IOException {
+        final CSVParallelParser parser = CSVParallelParser.builder().setPath(write(INPUT, StandardCharsets.UTF_8))
+                .setFormat(CSVFormat.DEFAULT.builder().setHeader().get()).setChunkSize(8).get();
+        assertEquals(Arrays.asList("id", "text", "n"), parser.getHeaderNames());
+        assertTrue(parser.getRangeCount() > 1);
+        try (Stream<CSVRecord> stream = parser.stream()) {
+            assertEquals(Arrays.asList("10", "20", "30", "40", "50", "60", "70"), stream.map(record -> record.get("n")).collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 8, 20 })
+    void testMaxBufferedBytes(final int maxBufferedBytes) throws IOException {
+        // Ranges larger than the limit are still parsed one at a time.
+        assertParallel(INPUT, CSVFormat.DEFAULT, StandardCharsets.UTF_8, 4, true, maxBufferedBytes);
+        assertParallel(INPUT, CSVFormat.DEFAULT, StandardCharsets.UTF_8, 4, false, maxBufferedBytes);
+    }
+
+    @Test
+    void testMaxRows() throws IOException {
+        final CSVParallelParser parser = CSVParallelParser.builder().setPath(write(INPUT, StandardCharsets.UTF_8))
+                .setFormat(CSVFormat.DEFAULT.builder().setMaxRows(3).get()).setChunkSize(8).get();
+        try (Stream<CSVRecord> stream = parser.stream()) {
+            assertEquals(Arrays.asList("id", "1", "2"), stream.map(record -> record.get(0)).collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 5, 8, 13, 1024 })
+    void testOrdered(final int chunkSize) throws IOException {
+        assertParallel(INPUT, CSVFormat.DEFAULT, StandardCharsets.UTF_8, chunkSize, true);
+        assertParallel(INPUT, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get(), StandardCharsets.UTF_8, chunkSize, true);
+        assertParallel(INPUT, CSVFormat.RFC4180, StandardCharsets.UTF_8, chunkSize, true);
+        assertParallel(INPUT, CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).get(), StandardCharsets.ISO_8859_1, chunkSize, true);
+    }
+
+    @Test
+    void testQuoteOutsideQuotedValue() throws IOException {
+        // The stray quote in "b"c" flips the quote parity, so the line break inside "g\nh" looks like a record boundary.
+        final CSVParallelParser parser = CSVParallelParser.builder().setPath(write("a,b\"c\nd,e\nf,\"g\nh\"\ni,j\n", StandardCharsets.UTF_8))
+                .setChunkSize(4).get();
+        try (Stream<CSVRecord> stream = parser.stream()) {
+            final UncheckedIOException e = assertThrows(UncheckedIOException.class, stream::count);
+            assertInstanceOf(CSVException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testUnsupportedFormat() throws IOException {
+        final Path path = write(INPUT, StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVParallelParser.builder().setPath(path).setFormat(CSVFormat.DEFAULT.builder().setEscape('\\').get()).get());
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVParallelParser.builder().setPath(path).setFormat(CSVFormat.DEFAULT.builder().setCommentMarker('#').get()).get());
+        assertThrows(IllegalArgumentException.class, () -> CSVParallelParser.builder().setPath(path).setCharset(StandardCharsets.UTF_16).get());
+        assertThrows(IllegalArgumentException.class, () -> CSVParallelParser.builder().setChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVParallelParser.builder().setMaxBufferedBytes(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 4, 16, 1024 })
+    void testUnordered(final int chunkSize) throws IOException {
+        assertParallel(INPUT, CSVFormat.DEFAULT, StandardCharsets.UTF_8, chunkSize, false);
+        assertParallel(INPUT, CSVFormat.DEFAULT.builder().setHeader().get(), StandardCharsets.UTF_8, chunkSize, false);
+    }
+
+    private Path write(final String input, final Charset charset) throws IOException {
+        final Path path = tempDir.resolve("parallel.csv");
+        Files.write(path, input.getBytes(charset));
+        return path;
+    }
+}
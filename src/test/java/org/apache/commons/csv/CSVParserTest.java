@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -59,10 +60,12 @@ import java.nio.file.Paths;
 import java.nio.file.spi.FileSystemProvider;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -72,6 +75,7 @@ import org.apache.commons.io.input.BrokenInputStream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -246,6 +250,52 @@ class CSVParserTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { CSV_INPUT, "a,b\r\n\"c\"\"d\",e\r\n", "one,\"two\nlines\",three\n", "a\\,b,c\\\nd\n", "a,b,\"c,d\"\n😀,é\n" })
+    void testBlockScanning(final String input) throws IOException {
+        final CSVFormat trimmed = CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).get();
+        for (final CSVFormat format : new CSVFormat[] { trimmed, trimmed.builder().setEscape('\\').get() }) {
+            try (CSVParser expected = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setCharset(UTF_8).setTrackBytes(true).get();
+                    CSVParser actual = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setCharset(UTF_8).setTrackBytes(true)
+                            .setBlockScanning(true).get()) {
+                for (final CSVRecord expectedRecord : expected) {
+                    final CSVRecord actualRecord = actual.nextRecord();
+                    assertNotNull(actualRecord);
+                    assertEquals(expectedRecord.toList(), actualRecord.toList());
+                    assertEquals(expectedRecord.getCharacterPosition(), actualRecord.getCharacterPosition());
+                    assertEquals(expectedRecord.getBytePosition(), actualRecord.getBytePosition());
+                    assertEquals(expected.getCurrentLineNumber(), actual.getCurrentLineNumber());
+                }
+                assertNull(actual.nextRecord());
+            }
+        }
+    }
+
+    @Test
+    void testBlockScanningAcrossBufferBoundaries() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            final String value = String.join("", Collections.nCopies(i % 50, Character.toString((char) ('a' + i % 26))));
+            builder.append(value).append("[|]\"").append(value).append("\n\"\"").append(i).append("\"[|]").append(i).append("\r\n");
+        }
+        final String input = builder.toString();
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setDelimiter("[|]").get();
+        try (CSVParser expected = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).get();
+                CSVParser bulk = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setBlockScanning(true).get();
+                CSVParser chunked = CSVParser.builder().setReader(new ChunkedReader(input)).setFormat(format).setBlockScanning(true).get()) {
+            for (final CSVRecord expectedRecord : expected) {
+                for (final CSVParser actual : new CSVParser[] { bulk, chunked }) {
+                    final CSVRecord actualRecord = actual.nextRecord();
+                    assertEquals(expectedRecord.toList(), actualRecord.toList());
+                    assertEquals(expectedRecord.getCharacterPosition(), actualRecord.getCharacterPosition());
+                    assertEquals(expected.getCurrentLineNumber(), actual.getCurrentLineNumber());
+                }
+            }
+            assertNull(bulk.nextRecord());
+            assertNull(chunked.nextRecord());
+        }
+    }
+
     @Test
     @Disabled("CSV-107")
     void testBOM() throws IOException {
@@ -530,6 +580,19 @@ class CSVParserTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { "US-ASCII", "ISO-8859-1", "UTF-8" })
+    void testDirectDecoding(final String charsetName) throws IOException {
+        final Charset charset = Charset.forName(charsetName);
+        final byte[] bytes = "a,b\n\"c\nd\",é😀\n".getBytes(charset);
+        try (CSVParser expected = CSVParser.parse(new ByteArrayInputStream(bytes), charset, CSVFormat.DEFAULT);
+                CSVParser actual = CSVParser.builder().setInputStream(new ByteArrayInputStream(bytes)).setCharset(charset).setFormat(CSVFormat.DEFAULT)
+                        .setDirectDecoding(true).get()) {
+            assertEquals(expected.stream().map(CSVRecord::toList).collect(Collectors.toList()),
+                    actual.stream().map(CSVRecord::toList).collect(Collectors.toList()));
+        }
+    }
+
     @Test
     void testDuplicateHeadersAllowedByDefault() throws Exception {
         try (CSVParser parser = CSVParser.parse("a,b,a\n1,2,3\nx,y,z", CSVFormat.DEFAULT.withHeader())) {
@@ -706,6 +769,54 @@ class CSVParserTest {
         }
     }
 
+    @Test
+    void testFilterByIndex() throws IOException {
+        final String input = "US,1\nFR,2\n US ,3\nDE,4\nUS,5\nUS\n\n";
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setTrim(true).get();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setFilter(0, "US"::contentEquals).get()) {
+            final List<CSVRecord> records = parser.getRecords();
+            assertEquals(Arrays.asList("1", "3", "5", null), records.stream().map(r -> r.isSet(1) ? r.get(1) : null).collect(Collectors.toList()));
+            // Rejected records take record numbers too.
+            assertEquals(Arrays.asList(1L, 3L, 5L, 6L), records.stream().map(CSVRecord::getRecordNumber).collect(Collectors.toList()));
+            assertEquals(6, parser.getRecordNumber());
+        }
+        // A record without the column is tested with null; max rows counts kept records.
+        final List<CharSequence> tested = new ArrayList<>();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader("a,1\nb\nc,\nd,4\ne,5")).setFormat(CSVFormat.DEFAULT.builder()
+                .setMaxRows(2).setNullString("").get()).setFilter(1, v -> tested.add(v == null ? null : v.toString()) && v != null).get()) {
+            assertEquals(Arrays.asList("a", "d"), parser.stream().map(r -> r.get(0)).collect(Collectors.toList()));
+        }
+        assertEquals(Arrays.asList("1", null, null, "4"), tested);
+        assertThrows(IllegalArgumentException.class, () -> CSVParser.builder().setFilter(-1, v -> true));
+    }
+
+    @Test
+    void testFilterByName() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setCommentMarker('#').get();
+        final String input = "id,country,name\n1,US,Ann\n# comment\n2,FR,Bob\n3,US,Cid\n";
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setFilter("country", "FR"::contentEquals)
+                .setProjection("name").get()) {
+            final CSVRecord record = parser.nextRecord();
+            assertEquals("Bob", record.get("name"));
+            assertEquals(1, record.size());
+            assertEquals("comment", record.getComment());
+            assertEquals(2, record.getRecordNumber());
+            assertNull(parser.nextRecord());
+        }
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setFilter("country", "US"::contentEquals).get()) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertTrue(parser.readRecord(record));
+            assertEquals("Ann", record.get("name").toString());
+            assertTrue(parser.readRecord(record));
+            assertEquals("Cid", record.get("name").toString());
+            assertNull(record.getComment());
+            assertEquals(3, record.getRecordNumber());
+            assertFalse(parser.readRecord(record));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setFilter("none", v -> true).get());
+    }
+
     @Test
     void testFirstEndOfLineCr() throws IOException {
         final String data = "foo\rbaar,\rhello,world\r,kanu";
@@ -1918,6 +2029,52 @@ class CSVParserTest {
         }
     }
 
+    @Test
+    void testProjectionByIndex() throws IOException {
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader("a,b,c,d\n1,2,3,4\n5,6\n")).setProjection(2, 0).get()) {
+            final List<CSVRecord> records = parser.getRecords();
+            assertEquals(3, records.size());
+            assertValuesEquals(new String[] { "c", "a" }, records.get(0));
+            assertValuesEquals(new String[] { "3", "1" }, records.get(1));
+            // Column 2 is missing, so its value is null.
+            assertValuesEquals(new String[] { null, "5" }, records.get(2));
+        }
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader("a,b,c\n1\n")).setProjection(1, 2).get()) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertTrue(parser.readRecord(record));
+            assertEquals("b", record.get(0).toString());
+            assertEquals("c", record.get(1).toString());
+            assertTrue(parser.readRecord(record));
+            assertEquals(0, record.size());
+        }
+        assertThrows(IllegalArgumentException.class, () -> CSVParser.builder().setProjection(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> CSVParser.builder().setProjection(-1));
+    }
+
+    @Test
+    void testProjectionByName() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().get();
+        final String input = "id,name,age\n1,Ann,30\n2,Bob,40";
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setProjection("age", "id").get()) {
+            assertEquals(Arrays.asList("age", "id"), parser.getHeaderNames());
+            final CSVRecord record = parser.nextRecord();
+            assertValuesEquals(new String[] { "30", "1" }, record);
+            assertEquals("30", record.get("age"));
+            assertEquals("1", record.get("id"));
+            assertFalse(record.isMapped("name"));
+            assertTrue(record.isConsistent());
+            assertThrows(IllegalArgumentException.class, () -> record.get("name"));
+            final CSVReusableRecord reusableRecord = new CSVReusableRecord();
+            assertTrue(parser.readRecord(reusableRecord));
+            assertEquals("2", reusableRecord.get("id").toString());
+            assertEquals("40", reusableRecord.get("age").toString());
+            assertEquals(2, reusableRecord.getRecordNumber());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setProjection("age", "size").get());
+        assertThrows(IllegalStateException.class, () -> CSVParser.builder().setReader(new StringReader(input)).setProjection("age").get());
+    }
+
     @Test
     void testProvidedHeader() throws Exception {
         final Reader in = new StringReader("a,b,c\n1,2,3\nx,y,z");
@@ -2078,6 +2235,77 @@ class CSVParserTest {
         }
     }
 
+    @Test
+    void testStreamParallel(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("parallel.csv");
+        final StringBuilder sb = new StringBuilder("id,text\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            sb.append(i).append(i % 3 == 0 ? ",\"multi\nline, \"\"quoted\"\"\"\r\n" : ",plain é\r\n");
+        }
+        Files.write(path, sb.toString().getBytes(UTF_8));
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().get();
+        final List<String> expected;
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(format).setTrackBytes(true).get()) {
+            expected = parser.stream().map(r -> r.getRecordNumber() + ":" + r.getCharacterPosition() + ":" + r.getBytePosition() + ":" + r.toMap())
+                    .collect(Collectors.toList());
+        }
+        assertEquals(20_000, expected.size());
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(format).setTrackBytes(true).setSplittable(true).get()) {
+            final Spliterator<CSVRecord> spliterator = parser.stream().spliterator();
+            final Spliterator<CSVRecord> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            assertEquals(expected.size(), prefix.estimateSize() + spliterator.estimateSize());
+        }
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(format).setTrackBytes(true).setSplittable(true).get()) {
+            assertEquals(expected, parser.stream().parallel().map(r -> r.getRecordNumber() + ":" + r.getCharacterPosition() + ":" + r.getBytePosition() + ":"
+                    + r.toMap()).collect(Collectors.toList()));
+        }
+        // Range parsers keep the projection.
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(format).setProjection("text").setSplittable(true).get()) {
+            assertEquals(expected.stream().map(e -> e.substring(e.indexOf('{')).replaceFirst("id=\\d+, ", "")).collect(Collectors.toList()),
+                    parser.stream().parallel().map(r -> r.toMap().toString()).collect(Collectors.toList()));
+        }
+        // A stream that has started reading is not split by file ranges.
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(format).setSplittable(true).get()) {
+            parser.nextRecord();
+            assertEquals(expected.size() - 1, parser.stream().parallel().count());
+        }
+    }
+
+    @Test
+    void testStreamParallelNotSplittable(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("parallel.csv");
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            // A quote inside an unquoted value, which quote counting cannot split.
+            sb.append(i).append(",b\"c,d\r\n");
+        }
+        Files.write(path, sb.toString().getBytes(UTF_8));
+        final List<List<String>> expected;
+        try (CSVParser parser = CSVParser.parse(path, UTF_8, CSVFormat.DEFAULT)) {
+            expected = parser.stream().map(CSVRecord::toList).collect(Collectors.toList());
+        }
+        assertEquals(20_000, expected.size());
+        assertEquals(Arrays.asList("0", "b\"c", "d"), expected.get(0));
+        try (CSVParser parser = CSVParser.parse(path, UTF_8, CSVFormat.DEFAULT)) {
+            final Spliterator<CSVRecord> spliterator = parser.stream().spliterator();
+            final Spliterator<CSVRecord> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        }
+        try (CSVParser parser = CSVParser.parse(path, UTF_8, CSVFormat.DEFAULT)) {
+            assertEquals(expected, parser.stream().parallel().peek(r -> assertSame(parser, r.getParser())).map(CSVRecord::toList)
+                    .collect(Collectors.toList()));
+        }
+        // A splittable parser counts quotes to find record boundaries, which this input defeats.
+        try (CSVParser parser = CSVParser.builder().setPath(path).setCharset(UTF_8).setFormat(CSVFormat.DEFAULT).setSplittable(true).get()) {
+            final UncheckedIOException exception = assertThrows(UncheckedIOException.class, () -> parser.stream().parallel().count());
+            assertInstanceOf(CSVException.class, exception.getCause());
+        }
+    }
+
     @Test
     void testThrowExceptionWithLineAndPosition() throws IOException {
         final String csvContent = "col1,col2,col3,col4,col5,col6,col7,col8,col9,col10\nrec1,rec2,rec3,rec4,rec5,rec6,rec7,rec8,\"\"rec9\"\",rec10";
@@ -273,6 +273,55 @@ class CSVPrinterTest {
         }
     }
 
+    private void printBufferSample(final CSVPrinter printer) throws IOException {
+        printer.printComment("note\nsecond line");
+        printer.printRecord("a", null, "b,c", "d\"e", "f\ng", StringUtils.repeat("x\",\\", 3_000), 1.5);
+        printer.print(new StringReader("reader \"value\", with\nbreaks"));
+        printer.print("");
+        printer.println();
+        printer.printRecords(Arrays.asList(new Object[] { "h", "i" }, new Object[] { "j\r\n" }));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 7, 8192 })
+    void testBufferSize(final int bufferSize) throws IOException {
+        final CSVFormat[] formats = { CSVFormat.DEFAULT.builder().setCommentMarker('#').get(), CSVFormat.MYSQL,
+                CSVFormat.EXCEL.builder().setQuoteMode(QuoteMode.ALL).get() };
+        for (final CSVFormat format : formats) {
+            final StringWriter expected = new StringWriter();
+            try (CSVPrinter printer = new CSVPrinter(expected, format)) {
+                printBufferSample(printer);
+            }
+            // A Writer, a StringBuilder and another Appendable.
+            final StringWriter writer = new StringWriter();
+            final StringBuilder builder = new StringBuilder();
+            final StringBuffer buffer = new StringBuffer();
+            for (final Appendable appendable : new Appendable[] { writer, builder, buffer }) {
+                try (CSVPrinter printer = new CSVPrinter(appendable, format, bufferSize)) {
+                    printBufferSample(printer);
+                    assertEquals(3, printer.getRecordCount());
+                }
+                assertEquals(expected.toString(), appendable.toString());
+            }
+        }
+    }
+
+    @Test
+    void testBufferSizeFlush() throws IOException {
+        final StringWriter sw = new StringWriter();
+        try (CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT, 1024)) {
+            printer.printRecord("a", "b");
+            assertEquals("", sw.toString());
+            printer.flush();
+            assertEquals("a,b\r\n", sw.toString());
+            // Output appended to the printer's target stays in order.
+            printer.getOut().append("c\r\n");
+            printer.printRecord("d");
+        }
+        assertEquals("a,b\r\nc\r\nd\r\n", sw.toString());
+        assertThrows(IllegalArgumentException.class, () -> new CSVPrinter(sw, CSVFormat.DEFAULT, -1));
+    }
+
     @Test
     void testCloseBackwardCompatibility() throws IOException {
         try (Writer writer = mock(Writer.class)) {
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests {@link CSVPushParser}.
+ */
+class CSVPushParserTest {
+
+    private static final String INPUT = "# header comment\nid,name\r\n1,\"a\r\nb\"\r2,\"c\"\"d\" \n\n# a \"comment\n3,e,\r\n4,\"f,g\"\r";
+
+    static Stream<CSVFormat> formats() {
+        // @formatter:off
+        return Stream.of(
+                CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.builder().setCommentMarker('#').setHeader().setSkipHeaderRecord(true).get(),
+                CSVFormat.DEFAULT.builder().setCommentMarker('#').setIgnoreEmptyLines(false).setTrailingDelimiter(true).setLenientEof(true).get(),
+                CSVFormat.DEFAULT.builder().setCommentMarker('#').setIgnoreSurroundingSpaces(true).setMaxRows(3).get(),
+                CSVFormat.DEFAULT.builder().setDelimiter(",e").setAllowMissingColumnNames(true).get(),
+                CSVFormat.DEFAULT.builder().setDelimiter("[|]").setTrim(true).get(),
+                CSVFormat.DEFAULT.builder().setEscape('e').get());
+        // @formatter:on
+    }
+
+    /**
+     * Asserts that the push parser returns the records of the parser for the input in chunks of each size, and in two chunks split at each position, each
+     * record as soon as the input completes it: after its line break, and after the next character for a CR.
+     */
+    private static void assertChunks(final String input, final CSVFormat format) throws IOException {
+        final List<CSVRecord> expected = new ArrayList<>();
+        final List<Integer> completions = new ArrayList<>();
+        try (CSVParser parser = CSVParser.parse(input, format)) {
+            CSVRecord record;
+            while ((record = parser.nextRecord()) != null) {
+                expected.add(record);
+                final int end = (int) parser.getCharacterPosition();
+                final char last = input.charAt(end - 1);
+                completions.add(last == Constants.LF ? end : last == Constants.CR ? end + 1 : Integer.MAX_VALUE);
+            }
+        }
+        for (int size = 1; size <= input.length(); size++) {
+            final CSVPushParser parser = CSVPushParser.builder().setFormat(format).get();
+            final List<CSVRecord> actual = new ArrayList<>();
+            for (int i = 0; i < input.length(); i += size) {
+                final int length = Math.min(i + size, input.length());
+                actual.addAll(parser.feed(input.substring(i, length)));
+                assertEquals(completed(completions, length), actual.size());
+            }
+            actual.addAll(parser.end());
+            assertRecordsEquals(expected, actual);
+        }
+        for (int split = 1; split < input.length(); split++) {
+            final CSVPushParser parser = CSVPushParser.builder().setFormat(format).get();
+            final List<CSVRecord> actual = new ArrayList<>(parser.feed(input.substring(0, split)));
+            assertEquals(completed(completions, split), actual.size());
+            actual.addAll(parser.feed(input.substring(split)));
+            actual.addAll(parser.end());
+            assertRecordsEquals(expected, actual);
+        }
+    }
+
+    private static void assertRecordsEquals(final List<CSVRecord> expected, final List<CSVRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final CSVRecord e = expected.get(i);
+            final CSVRecord a = actual.get(i);
+            assertArrayEquals(e.values(), a.values());
+            assertEquals(e.getComment(), a.getComment());
+            assertEquals(e.getRecordNumber(), a.getRecordNumber());
+            assertEquals(e.getCharacterPosition(), a.getCharacterPosition());
+        }
+    }
+
+    private static int completed(final List<Integer> completions, final int length) {
+        int count = 0;
+        while (count < completions.size() && completions.get(count) <= length) {
+            count++;
+        }
+        return count;
+    }
+
+    private static List<CSVRecord> parse(final String input, final CSVFormat format) throws IOException {
+        try (CSVParser parser = CSVParser.parse(input, format)) {
+            return parser.getRecords();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void testByteChunks(final CSVFormat format) throws IOException {
+        final String input = "été,\"€\n😀\"\r\nü,x\n";
+        final List<CSVRecord> expected = parse(input, format);
+        final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        for (int size = 1; size <= bytes.length; size++) {
+            final CSVPushParser parser = CSVPushParser.builder().setFormat(format).setCharset(StandardCharsets.UTF_8).get();
+            final List<CSVRecord> actual = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i += size) {
+                final ByteBuffer chunk = ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i));
+                actual.addAll(parser.feed(chunk));
+                assertEquals(0, chunk.remaining());
+            }
+            actual.addAll(parser.end());
+            assertRecordsEquals(expected, actual);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void testCharChunks(final CSVFormat format) throws IOException {
+        final List<CSVRecord> expected = parse(INPUT, format);
+        final char[] chars = INPUT.toCharArray();
+        for (int size = 1; size <= chars.length; size++) {
+            final CSVPushParser parser = CSVPushParser.builder().setFormat(format).get();
+            final List<CSVRecord> actual = new ArrayList<>();
+            for (int i = 0; i < chars.length; i += size) {
+                actual.addAll(parser.feed(chars, i, Math.min(size, chars.length - i)));
+            }
+            actual.addAll(parser.end());
+            assertRecordsEquals(expected, actual);
+            try (CSVParser expectedParser = CSVParser.parse(INPUT, format)) {
+                expectedParser.getRecords();
+                assertEquals(expectedParser.getHeaderNames(), parser.getHeaderNames());
+                assertEquals(expectedParser.getHeaderComment(), parser.getHeaderComment());
+                assertEquals(expectedParser.getTrailerComment(), parser.getTrailerComment());
+            }
+        }
+    }
+
+    @Test
+    void testEnd() throws IOException {
+        final CSVPushParser parser = CSVPushParser.builder().get();
+        assertTrue(parser.feed("a,b").isEmpty());
+        assertEquals(3, parser.getPendingLength());
+        assertEquals(Arrays.asList("a", "b"), parser.end().get(0).toList());
+        assertEquals(0, parser.getPendingLength());
+        assertThrows(IllegalStateException.class, () -> parser.feed("c"));
+        assertThrows(IllegalStateException.class, parser::end);
+    }
+
+    @Test
+    void testEscapedLineBreaks() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setEscape('\\').get();
+        assertChunks("a\\\r\nb,\"c\\\r\\\nd\"\n\\\n\\\r\ne\\\r\r\n", format);
+        assertChunks("\"a\\\"\"\n\\\\\",b\\\\\n", format);
+    }
+
+    @Test
+    void testInvalidInput() throws IOException {
+        final CSVPushParser parser = CSVPushParser.builder().get();
+        // The records before the invalid input are returned first.
+        assertEquals(1, parser.feed("a\n\"b\"c").size());
+        final CSVException e = assertThrows(CSVException.class, () -> parser.feed("\n"));
+        assertSame(e, assertThrows(CSVException.class, parser::end));
+    }
+
+    @Test
+    void testLenientEof() throws IOException {
+        final String input = "a,\"b";
+        assertTrue(CSVPushParser.builder().get().end().isEmpty());
+        final CSVPushParser strict = CSVPushParser.builder().get();
+        strict.feed(input);
+        assertThrows(CSVException.class, strict::end);
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setLenientEof(true).get();
+        final CSVPushParser lenient = CSVPushParser.builder().setFormat(format).get();
+        assertTrue(lenient.feed(input).isEmpty());
+        assertRecordsEquals(parse(input, format), lenient.end());
+    }
+
+    @Test
+    void testMultiCharacterDelimiter() throws IOException {
+        final String input = "a[|]b[|\n[|]\"c[|]\n\"[|]d[|\r\ne[|]]\n[[|]|]\n";
+        assertChunks(input, CSVFormat.DEFAULT.builder().setDelimiter("[|]").get());
+        assertChunks(input + "a![!|!]b!\n[|]c\n", CSVFormat.DEFAULT.builder().setDelimiter("[|]").setEscape('!').get());
+    }
+
+    @Test
+    void testQuoteAfterLeadingSpaces() throws IOException {
+        final String input = "a,  \"b\nc\" ,d\n  \"e\"  \n";
+        assertChunks(input, CSVFormat.DEFAULT);
+        assertChunks(input, CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).get());
+    }
+
+    @Test
+    void testQuotedValueInChunks() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setEscape('\\').get();
+        final StringBuilder builder = new StringBuilder("1,\"");
+        for (int i = 0; i < 1000; i++) {
+            builder.append("line \\\"").append(i).append("\"\"\r\n");
+        }
+        final String input = builder.append("\"\n").toString();
+        final CSVPushParser parser = CSVPushParser.builder().setFormat(format).get();
+        for (int i = 0; i < input.length() - 1; i++) {
+            assertTrue(parser.feed(input.substring(i, i + 1)).isEmpty());
+        }
+        assertRecordsEquals(parse(input, format), parser.feed("\n"));
+        assertEquals(Arrays.asList("2", "x"), parser.feed("2,x\n").get(0).toList());
+    }
+
+    @Test
+    void testTrailingData() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setEscape('\\').setTrailingData(true).get();
+        assertChunks("\"a\"b\\\nc,\"d\"\" \"e\"f\ng\n\"h\"\"\"\r\n", format);
+    }
+
+    @Test
+    void testRecordsAsTheyComplete() throws IOException {
+        final CSVPushParser parser = CSVPushParser.builder().setFormat(CSVFormat.DEFAULT.builder().setHeader().get()).get();
+        assertTrue(parser.feed("id,na").isEmpty());
+        assertThrows(IllegalStateException.class, () -> parser.getColumn("name"));
+        assertTrue(parser.feed("me\n1,").isEmpty());
+        assertEquals(Arrays.asList("id", "name"), parser.getHeaderNames());
+        final CSVColumn name = parser.getColumn("name");
+        assertEquals(2, parser.getPendingLength());
+        final List<CSVRecord> records = parser.feed("one\n2,two\r");
+        assertEquals(1, records.size());
+        assertEquals("one", records.get(0).get("name"));
+        assertEquals("one", records.get(0).get(name));
+        // The CR may start a CRLF, so the record completes with the next character.
+        assertEquals("two", parser.feed("3").get(0).get("name"));
+        assertEquals(3, parser.end().get(0).getRecordNumber());
+    }
+}
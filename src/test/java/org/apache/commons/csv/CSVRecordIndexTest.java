@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVRecordIndex}.
+ */
+class CSVRecordIndexTest {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setCommentMarker('#').get();
+
+    @TempDir
+    Path dir;
+
+    private Path createFile(final int records) throws IOException {
+        final StringBuilder builder = new StringBuilder("id,name\r\n");
+        for (int i = 1; i <= records; i++) {
+            if (i % 4 == 0) {
+                builder.append("# comment ").append(i).append('\n');
+            }
+            builder.append(i).append(i % 3 == 0 ? ",\"multi\nline é\"" : ",näme€").append("\r\n");
+        }
+        final Path file = dir.resolve("data.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    void testBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> CSVRecordIndex.builder().setInterval(0));
+    }
+
+    @Test
+    void testChangedFile() throws IOException {
+        final Path file = createFile(20);
+        final CSVRecordIndex index = CSVRecordIndex.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setInterval(5).get();
+        final FileTime lastModified = Files.getLastModifiedTime(file);
+        // Same size, other time.
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 2000));
+        assertThrows(IllegalStateException.class, () -> index.parse(13));
+        Files.setLastModifiedTime(file, lastModified);
+        try (CSVParser parser = index.parse(13)) {
+            assertEquals("13", parser.nextRecord().get("id"));
+        }
+        // Other size, same time.
+        Files.write(file, "21,x\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(file, lastModified);
+        assertThrows(IllegalStateException.class, () -> index.parse(13));
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        final Path file = dir.resolve("empty.csv");
+        Files.write(file, "id,name\n".getBytes(StandardCharsets.UTF_8));
+        final CSVRecordIndex index = CSVRecordIndex.builder().setPath(file).setFormat(FORMAT).get();
+        assertEquals(0, index.getRecordCount());
+        assertEquals(0, index.size());
+        try (CSVParser parser = index.parse(1)) {
+            assertNull(parser.nextRecord());
+        }
+    }
+
+    @Test
+    void testParse() throws IOException {
+        final Path file = createFile(50);
+        final List<CSVRecord> expected;
+        try (CSVParser parser = CSVParser.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setTrackBytes(true).get()) {
+            expected = parser.getRecords();
+        }
+        final CSVRecordIndex index = CSVRecordIndex.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setInterval(7).get();
+        assertEquals(50, index.getRecordCount());
+        assertEquals(8, index.size());
+        assertEquals(7, index.getInterval());
+        for (final CSVRecord e : expected) {
+            try (CSVParser parser = index.parse(e.getRecordNumber())) {
+                final CSVRecord a = parser.nextRecord();
+                assertArrayEquals(e.values(), a.values());
+                assertEquals(e.getRecordNumber(), a.getRecordNumber());
+                assertEquals(e.getBytePosition(), a.getBytePosition());
+                assertEquals(e.getCharacterPosition(), a.getCharacterPosition());
+                assertEquals(e.getComment(), a.getComment());
+                assertEquals(e.get("name"), a.get("name"));
+            }
+        }
+        try (CSVParser parser = index.parse(51)) {
+            assertNull(parser.nextRecord());
+        }
+        assertThrows(IllegalArgumentException.class, () -> index.parse(0));
+    }
+
+    @Test
+    void testSidecar() throws IOException {
+        final Path file = createFile(20);
+        final Path sidecar = dir.resolve("data.csv.idx");
+        final CSVRecordIndex.Builder builder = CSVRecordIndex.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(FORMAT).setInterval(5);
+        assertEquals(20, builder.setIndexPath(sidecar).get().getRecordCount());
+        assertTrue(Files.size(sidecar) < 100);
+        final CSVRecordIndex read = builder.get();
+        assertEquals(4, read.size());
+        try (CSVParser parser = read.parse(13)) {
+            assertEquals("13", parser.nextRecord().get("id"));
+        }
+        // A changed file is indexed again.
+        Files.write(file, "21,x\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        assertEquals(21, builder.get().getRecordCount());
+        // So is a truncated sidecar file.
+        Files.write(sidecar, new byte[] { 0x43, 0x53 });
+        assertEquals(21, builder.get().getRecordCount());
+        assertEquals(6, builder.setInterval(4).get().size());
+        // So is a sidecar file written with another format, here without comments.
+        assertEquals(26, builder.setFormat(FORMAT.builder().setCommentMarker(null).get()).get().getRecordCount());
+    }
+}
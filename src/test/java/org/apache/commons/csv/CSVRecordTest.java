@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -35,6 +36,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -45,6 +47,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 class CSVRecordTest {
@@ -127,6 +130,42 @@ class CSVRecordTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testGetColumn(final boolean ignoreHeaderCase) throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setIgnoreHeaderCase(ignoreHeaderCase).get();
+        try (CSVParser parser = CSVParser.parse("Id,Name,City\n1,a,x\n2,b\n", format);
+                CSVParser other = CSVParser.parse("City,Id\ny,3\n", format)) {
+            final CSVColumn city = parser.getColumn("City");
+            assertEquals(2, city.getIndex());
+            assertEquals("City", city.getName());
+            assertThrows(IllegalArgumentException.class, () -> parser.getColumn("Town"));
+            assertThrows(IllegalArgumentException.class, () -> parser.getColumn(null));
+            if (ignoreHeaderCase) {
+                assertEquals(1, parser.getColumn("NAME").getIndex());
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> parser.getColumn("NAME"));
+            }
+            assertEquals("x", parser.nextRecord().get(city));
+            final CSVRecord shortRecord = parser.nextRecord();
+            assertThrows(IllegalArgumentException.class, () -> shortRecord.get(city));
+            // A record of another parser gets the value by name.
+            assertEquals("y", other.nextRecord().get(city));
+        }
+        assertThrows(IllegalStateException.class, () -> record.getParser().getColumn("first"));
+    }
+
+    @Test
+    void testGetColumnProjection() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader("Id,Name,City\n1,a,x\n")).setFormat(format).setProjection("City", "Id")
+                .get()) {
+            final CSVColumn id = parser.getColumn("Id");
+            assertEquals(1, id.getIndex());
+            assertEquals("1", parser.nextRecord().get(id));
+        }
+    }
+
     @Test
     void testGetInt() {
         assertEquals(values[0], record.get(0));
@@ -239,6 +278,74 @@ class CSVRecordTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("org.apache.commons.csv.CSVReusableRecordTest#formats")
+    void testLazyValues(final CSVFormat format) throws IOException, ClassNotFoundException {
+        final String input = "h1,h2,h3,h4\n" + CSVReusableRecordTest.INPUT;
+        final CSVFormat headerFormat = format.builder().setHeader().setSkipHeaderRecord(true).get();
+        final List<CSVRecord> expected;
+        try (CSVParser parser = CSVParser.parse(input, headerFormat)) {
+            expected = parser.getRecords();
+        }
+        final List<CSVRecord> actual;
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(headerFormat).setLazyValues(true).get()) {
+            assertEquals(Arrays.asList("h1", "h2", "h3", "h4"), parser.getHeaderNames());
+            actual = parser.getRecords();
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final CSVRecord e = expected.get(i);
+            final CSVRecord a = actual.get(i);
+            assertEquals(e.size(), a.size());
+            for (int j = a.size() - 1; j >= 0; j--) {
+                assertEquals(e.get(j), a.get(j));
+                assertSame(a.get(j), a.get(j));
+            }
+            assertEquals(e.isConsistent(), a.isConsistent());
+            assertEquals(e.toMap(), a.toMap());
+            assertEquals(e.toList(), a.toList());
+            assertEquals(e.toString(), a.toString());
+            assertEquals(e.getComment(), a.getComment());
+            assertEquals(e.getRecordNumber(), a.getRecordNumber());
+            assertEquals(e.getCharacterPosition(), a.getCharacterPosition());
+            assertArrayEquals(e.values(), a.values());
+        }
+        // A lazy record serializes its values.
+        final CSVRecord lazy;
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(headerFormat).setLazyValues(true).get()) {
+            lazy = parser.nextRecord();
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(lazy);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertArrayEquals(expected.get(0).values(), ((CSVRecord) ois.readObject()).values());
+        }
+    }
+
+    @Test
+    void testLazyValuesProjection() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+        final StringBuilder input = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < 5000; i++) {
+            // Records with characters outside ISO-8859-1 keep their own buffers.
+            input.append(i).append(i % 3 == 0 ? ",value € " : ",value é ").append(i).append(',').append(i % 7).append('\n');
+        }
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input.toString())).setFormat(format).setProjection("c", "b", "a")
+                .setLazyValues(true).get()) {
+            final CSVColumn a = parser.getColumn("a");
+            int i = 0;
+            for (final CSVRecord record : parser) {
+                assertEquals(Integer.toString(i), record.get(a));
+                assertEquals(Integer.toString(i % 7), record.get("c"));
+                assertEquals(Arrays.asList(Integer.toString(i % 7), (i % 3 == 0 ? "value € " : "value é ") + i, Integer.toString(i)), record.toList());
+                i++;
+            }
+            assertEquals(5000, i);
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = { false, true })
     void testNullNameAccessorsMatchAcrossIgnoreHeaderCase(final boolean ignoreHeaderCase) throws IOException {
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests {@link CSVReusableRecord}.
+ */
+class CSVReusableRecordTest {
+
+    static final String INPUT = "# comment\na,\" b \",NULL\n\n\"NULL\",,\"\"\n x , \"multi\nline\" ,3,\nlast";
+
+    static Stream<CSVFormat> formats() {
+        // @formatter:off
+        return Stream.of(
+                CSVFormat.DEFAULT,
+                CSVFormat.DEFAULT.builder().setCommentMarker('#').setNullString("NULL").get(),
+                CSVFormat.DEFAULT.builder().setCommentMarker('#').setTrim(true).setTrailingDelimiter(true).get(),
+                CSVFormat.DEFAULT.builder().setQuoteMode(QuoteMode.ALL_NON_NULL).setNullString("NULL").get(),
+                CSVFormat.DEFAULT.builder().setQuoteMode(QuoteMode.NON_NUMERIC).setIgnoreEmptyLines(false).get());
+        // @formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void testMatchesRecords(final CSVFormat format) throws IOException {
+        final List<CSVRecord> expected;
+        try (CSVParser parser = CSVParser.parse(INPUT, format)) {
+            expected = parser.getRecords();
+        }
+        final List<CSVRecord> actual = new ArrayList<>();
+        try (CSVParser parser = CSVParser.parse(INPUT, format)) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            while (parser.readRecord(record)) {
+                final CSVRecord copy = record.toRecord();
+                for (int i = 0; i < record.size(); i++) {
+                    assertEquals(copy.get(i), record.get(i) == null ? null : record.get(i).toString());
+                }
+                actual.add(copy);
+            }
+            assertFalse(parser.readRecord(record));
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final CSVRecord e = expected.get(i);
+            final CSVRecord a = actual.get(i);
+            assertArrayEquals(e.values(), a.values());
+            assertEquals(e.getComment(), a.getComment());
+            assertEquals(e.getRecordNumber(), a.getRecordNumber());
+            assertEquals(e.getCharacterPosition(), a.getCharacterPosition());
+        }
+    }
+
+    @Test
+    void testMaxRows() throws IOException {
+        try (CSVParser parser = CSVParser.parse("a\nb\nc\nd", CSVFormat.DEFAULT.builder().setMaxRows(3).get())) {
+            assertEquals("a", parser.iterator().next().get(0));
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertTrue(parser.readRecord(record));
+            assertEquals("b", record.get(0).toString());
+            assertTrue(parser.readRecord(record));
+            assertEquals(3, record.getRecordNumber());
+            assertFalse(parser.readRecord(record));
+        }
+    }
+
+    @Test
+    void testNamedValues() throws IOException {
+        try (CSVParser parser = CSVParser.parse("id,name\n1,one\n2", CSVFormat.DEFAULT.builder().setHeader().get())) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            final CSVColumn name = parser.getColumn("name");
+            assertThrows(IllegalStateException.class, () -> record.get(name));
+            assertTrue(parser.readRecord(record));
+            assertEquals("one", record.get("name").toString());
+            assertEquals("one", record.get(name).toString());
+            assertSame(parser, record.getParser());
+            assertThrows(IllegalArgumentException.class, () -> record.get("none"));
+            assertTrue(parser.readRecord(record));
+            assertThrows(IllegalArgumentException.class, () -> record.get("name"));
+            assertThrows(IllegalArgumentException.class, () -> record.get(name));
+        }
+    }
+
+    @Test
+    void testTypedValues() throws IOException {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setNullString("").setTrim(true).get();
+        try (CSVParser parser = CSVParser.parse("i,l,d,b\n 42 ,-9223372036854775808,1.25,TRUE\n,,,\nx,1.5,e,no", format)) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertTrue(parser.readRecord(record));
+            assertEquals(42, record.getInt(0));
+            assertEquals(42, record.getInt("i", 0));
+            assertEquals(Long.MIN_VALUE, record.getLong("l"));
+            assertEquals(1.25, record.getDouble(2));
+            assertEquals(1.25, record.getDouble("d", 0));
+            assertTrue(record.getBoolean("b"));
+            assertTrue(parser.readRecord(record));
+            // Null values
+            assertThrows(NumberFormatException.class, () -> record.getInt(0));
+            assertThrows(NumberFormatException.class, () -> record.getLong("l"));
+            assertEquals(-1, record.getInt(0, -1));
+            assertEquals(-1, record.getLong("l", -1));
+            assertEquals(-1, record.getDouble(2, -1));
+            assertFalse(record.getBoolean(3));
+            assertTrue(parser.readRecord(record));
+            assertThrows(NumberFormatException.class, () -> record.getInt("i", 0));
+            assertThrows(NumberFormatException.class, () -> record.getLong(1));
+            assertThrows(NumberFormatException.class, () -> record.getDouble("d"));
+            assertFalse(record.getBoolean(3));
+            assertThrows(ArrayIndexOutOfBoundsException.class, () -> record.getInt(4));
+        }
+    }
+
+    @Test
+    void testValuesAreReused() throws IOException {
+        try (CSVParser parser = CSVParser.parse("abc,de\nf,ghij\n", CSVFormat.DEFAULT)) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertTrue(parser.readRecord(record));
+            final CharSequence first = record.get(1);
+            assertEquals("de", first.toString());
+            assertEquals('e', first.charAt(1));
+            assertEquals("e", first.subSequence(1, 2));
+            assertThrows(IndexOutOfBoundsException.class, () -> first.charAt(2));
+            assertTrue(parser.readRecord(record));
+            // The view now shows the value of the second record.
+            assertSame(first, record.get(1));
+            assertEquals("ghij", first.toString());
+            assertThrows(ArrayIndexOutOfBoundsException.class, () -> record.get(2));
+            assertFalse(parser.readRecord(record));
+        }
+    }
+
+    @Test
+    void testWithoutHeader() throws IOException {
+        try (CSVParser parser = CSVParser.parse("a,b", CSVFormat.DEFAULT)) {
+            final CSVReusableRecord record = new CSVReusableRecord();
+            assertThrows(IllegalStateException.class, () -> record.get("a"));
+            assertTrue(parser.readRecord(record));
+            assertThrows(IllegalStateException.class, () -> record.get("a"));
+            assertNull(record.getComment());
+            assertEquals("CSVReusableRecord [comment='null', recordNumber=1, values=[a, b]]", record.toString());
+        }
+    }
+}
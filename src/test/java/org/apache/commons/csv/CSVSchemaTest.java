@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import org.apache.commons.csv.CSVSchema.Column;
+import org.apache.commons.csv.CSVSchema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVSchema}.
+ */
+class CSVSchemaTest {
+
+    private static final CSVFormat HEADER_FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+
+    @TempDir
+    Path dir;
+
+    private static void assertColumn(final Column column, final String name, final Type type, final int maxLength, final long nullCount) {
+        assertEquals(name, column.getName());
+        assertEquals(type, column.getType());
+        assertEquals(maxLength, column.getMaxLength());
+        assertEquals(nullCount, column.getNullCount());
+    }
+
+    @Test
+    void testInfer() throws IOException {
+        // @formatter:off
+        final String input = "id,price,flag,day,time,name,empty\n"
+                + "1,1.5,true,2024-01-31,2024-01-31T10:15:30,Alice,\n"
+                + "-22,2,FALSE,2024-02-01,2024-02-01 10:15:30.5,Bob,\n"
+                + ",-3e2,,,2024-02-01T10:15:30,,\n"
+                + "9223372036854775807,.5,false,2024-12-01,2024-02-01T10:15:30,Carol\n";
+        // @formatter:on
+        final CSVSchema schema = CSVSchema.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).get();
+        assertEquals(4, schema.getRecordCount());
+        assertEquals(7, schema.getColumns().size());
+        assertColumn(schema.getColumn("id"), "id", Type.INTEGER, 19, 1);
+        assertColumn(schema.getColumn("price"), "price", Type.DECIMAL, 4, 0);
+        assertColumn(schema.getColumn("flag"), "flag", Type.BOOLEAN, 5, 1);
+        assertColumn(schema.getColumn("day"), "day", Type.TIMESTAMP, 10, 1);
+        assertSame(DateTimeFormatter.ISO_LOCAL_DATE, schema.getColumn("day").getTimestampFormatter());
+        // Mixed 'T' and space separators match no single formatter.
+        assertColumn(schema.getColumn("time"), "time", Type.STRING, 21, 0);
+        assertNull(schema.getColumn("time").getTimestampFormatter());
+        assertColumn(schema.getColumn(5), "name", Type.STRING, 5, 1);
+        assertColumn(schema.getColumn(6), "empty", Type.STRING, 0, 4);
+        assertEquals(1.0, schema.getColumn(6).getNullRatio());
+        assertEquals(0.25, schema.getColumn(0).getNullRatio());
+        assertThrows(IllegalArgumentException.class, () -> schema.getColumn("missing"));
+    }
+
+    @Test
+    void testHeaderOnly() throws IOException {
+        final CSVSchema schema = CSVSchema.builder().setReader(new StringReader("id,name\n")).setFormat(HEADER_FORMAT).get();
+        assertEquals(0, schema.getRecordCount());
+        assertEquals(2, schema.getColumns().size());
+        assertColumn(schema.getColumn("id"), "id", Type.STRING, 0, 0);
+        assertColumn(schema.getColumn("name"), "name", Type.STRING, 0, 0);
+        // Records shorter than the header miss the last columns.
+        final CSVSchema shortRecords = CSVSchema.builder().setReader(new StringReader("id,name,note\n1\n2,x\n")).setFormat(HEADER_FORMAT).get();
+        assertEquals(3, shortRecords.getColumns().size());
+        assertColumn(shortRecords.getColumn("name"), "name", Type.STRING, 1, 1);
+        assertColumn(shortRecords.getColumn("note"), "note", Type.STRING, 0, 2);
+    }
+
+    @Test
+    void testInferParser() throws IOException {
+        final String input = "a,b\n1,x\n2.5,y\n10000000000000000000,z\n";
+        try (CSVParser parser = CSVParser.parse(input, HEADER_FORMAT)) {
+            final CSVSchema schema = CSVSchema.infer(parser, 1);
+            assertEquals(1, schema.getRecordCount());
+            assertEquals(Type.INTEGER, schema.getColumn("a").getType());
+            assertEquals(Type.DECIMAL, CSVSchema.infer(parser, 1).getColumn("a").getType());
+            // Out of the range of a long.
+            assertEquals(Type.DECIMAL, CSVSchema.infer(parser, 10).getColumn("a").getType());
+            assertEquals(0, CSVSchema.infer(parser, 10).getRecordCount());
+        }
+    }
+
+    @Test
+    void testNoHeader() throws IOException {
+        final CSVSchema schema = CSVSchema.builder().setReader(new StringReader("1,NULL\n2\n3,4,x\n"))
+                .setFormat(CSVFormat.DEFAULT.builder().setNullString("NULL").get()).get();
+        assertEquals(3, schema.getColumns().size());
+        assertColumn(schema.getColumn(0), null, Type.INTEGER, 1, 0);
+        assertColumn(schema.getColumn(1), null, Type.INTEGER, 1, 2);
+        assertColumn(schema.getColumn(2), null, Type.STRING, 1, 2);
+    }
+
+    @Test
+    void testSamples() throws IOException {
+        final StringBuilder builder = new StringBuilder("id,value,note\n");
+        for (int i = 0; i < 100_000; i++) {
+            // Only the second half of the file has decimals and multi-line values.
+            builder.append(i).append(',').append(i < 50_000 ? Integer.toString(i) : i + ".5").append(',').append(i < 50_000 ? "a" : "\"b\nc\"").append('\n');
+        }
+        final Path file = dir.resolve("data.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        final CSVSchema head = CSVSchema.builder().setPath(file).setFormat(HEADER_FORMAT).setMaxRecords(100).get();
+        assertEquals(100, head.getRecordCount());
+        assertEquals(Type.INTEGER, head.getColumn("value").getType());
+        assertEquals(1, head.getColumn("note").getMaxLength());
+        final CSVSchema sampled = CSVSchema.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setMaxRecords(100)
+                .setSamples(4).get();
+        assertEquals(100, sampled.getRecordCount());
+        assertEquals(Type.INTEGER, sampled.getColumn("id").getType());
+        assertEquals(Type.DECIMAL, sampled.getColumn("value").getType());
+        assertEquals(3, sampled.getColumn("note").getMaxLength());
+        assertEquals(0, sampled.getColumn("note").getNullCount());
+        // A format that cannot be split samples the first records.
+        final CSVFormat commentFormat = HEADER_FORMAT.builder().setCommentMarker('#').get();
+        assertEquals(Type.INTEGER, CSVSchema.builder().setPath(file).setFormat(commentFormat).setMaxRecords(100).setSamples(4).get().getColumn("value")
+                .getType());
+    }
+
+    @Test
+    void testSamplesInsideQuotedValues() throws IOException {
+        final StringBuilder builder = new StringBuilder("id,note,count\n");
+        for (int i = 0; i < 20_000; i++) {
+            // Most of the file is inside quoted values, which contain line breaks and delimiters.
+            builder.append(i).append(",\"first line\nsecond, line ").append(i).append("\",").append(i % 10).append('\n');
+        }
+        final Path file = dir.resolve("quoted.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        final CSVSchema sampled = CSVSchema.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setMaxRecords(100)
+                .setSamples(7).get();
+        assertEquals(100, sampled.getRecordCount());
+        assertEquals(3, sampled.getColumns().size());
+        assertEquals(Type.INTEGER, sampled.getColumn("id").getType());
+        assertEquals(Type.STRING, sampled.getColumn("note").getType());
+        assertEquals(0, sampled.getColumn("note").getNullCount());
+        assertEquals(Type.INTEGER, sampled.getColumn("count").getType());
+        assertEquals(1, sampled.getColumn("count").getMaxLength());
+    }
+
+    @Test
+    void testBuilderArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CSVSchema.builder().setMaxRecords(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVSchema.builder().setSamples(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVSchema.builder().setTimestampFormatters(new DateTimeFormatter[33]));
+    }
+
+    @Test
+    void testTimestampFormatters() throws IOException {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        final CSVSchema schema = CSVSchema.builder().setReader(new StringReader("31/01/2024\n01/02/2024\n")).setTimestampFormatters(formatter).get();
+        assertEquals(Type.TIMESTAMP, schema.getColumn(0).getType());
+        assertSame(formatter, schema.getColumn(0).getTimestampFormatter());
+    }
+
+    @Test
+    void testThirtyTwoTimestampFormatters() throws IOException {
+        final DateTimeFormatter[] formatters = new DateTimeFormatter[Integer.SIZE];
+        Arrays.fill(formatters, DateTimeFormatter.ISO_LOCAL_TIME);
+        final DateTimeFormatter last = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        formatters[formatters.length - 1] = last;
+        final CSVSchema schema = CSVSchema.builder().setReader(new StringReader("31/01/2024\n01/02/2024\n")).setTimestampFormatters(formatters).get();
+        assertEquals(Type.TIMESTAMP, schema.getColumn(0).getType());
+        assertSame(last, schema.getColumn(0).getTimestampFormatter());
+    }
+}
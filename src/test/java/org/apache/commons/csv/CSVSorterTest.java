@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVSchema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVSorter}.
+ */
+class CSVSorterTest {
+
+    private static final CSVFormat HEADER_FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+
+    @TempDir
+    Path dir;
+
+    private static List<String> names(final String output) throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (CSVParser parser = CSVParser.parse(output, HEADER_FORMAT)) {
+            parser.forEach(record -> names.add(record.get(0)));
+        }
+        return names;
+    }
+
+    private String sort(final CSVSorter.Builder builder) throws IOException {
+        final StringWriter out = new StringWriter();
+        builder.setTempDirectory(dir).get().sort(out);
+        return out.toString();
+    }
+
+    @Test
+    void testBuilderArguments() {
+        assertThrows(IllegalStateException.class, () -> CSVSorter.builder().setReader(new StringReader("")).get());
+        assertThrows(IllegalArgumentException.class, () -> CSVSorter.builder().addKey(-1, Type.STRING, false));
+        assertThrows(IllegalArgumentException.class, () -> CSVSorter.builder().setMaxMemory(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVSorter.builder().setMaxMergeRuns(1));
+    }
+
+    @Test
+    void testComparatorAndOutputFormat() throws IOException {
+        final String input = "#first\nb;2\n#second\na;1\n";
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setDelimiter(';').setCommentMarker('#').get();
+        final CSVSorter.Builder builder = CSVSorter.builder().setReader(new StringReader(input)).setFormat(format)
+                .setComparator(Comparator.comparing(record -> record.get(0)));
+        assertEquals("# second\r\na,1\r\n# first\r\nb,2\r\n", sort(builder.setOutputFormat(CSVFormat.DEFAULT.builder().setCommentMarker('#').get())));
+        // Without a comment marker, the comments are dropped.
+        assertEquals("a\t1\nb\t2\n", sort(builder.setReader(new StringReader(input)).setOutputFormat(CSVFormat.TDF.builder().setRecordSeparator('\n').get())));
+    }
+
+    @Test
+    void testExternal() throws IOException {
+        final StringBuilder builder = new StringBuilder("id,group,note\n");
+        final int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            builder.append(i).append(',').append(i * 7919 % 100).append(',').append(i % 10 == 0 ? "\"multi\nline, " + i + "\"" : "n" + i).append('\n');
+        }
+        final Path file = dir.resolve("input.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        // A small budget and fan-in spill many runs and merge them in several passes.
+        final CSVSorter sorter = CSVSorter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT)
+                .addKey("group", Type.INTEGER, true).setMaxMemory(16 * 1024).setMaxMergeRuns(3).setTempDirectory(dir).get();
+        final StringWriter out = new StringWriter();
+        assertEquals(count, sorter.sort(out));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        try (CSVParser parser = CSVParser.parse(out.toString(), HEADER_FORMAT)) {
+            assertEquals(3, parser.getHeaderNames().size());
+            final List<CSVRecord> records = parser.getRecords();
+            assertEquals(count, records.size());
+            for (int i = 1; i < count; i++) {
+                final CSVRecord previous = records.get(i - 1);
+                final CSVRecord record = records.get(i);
+                final int group = Integer.parseInt(record.get("group"));
+                final int previousGroup = Integer.parseInt(previous.get("group"));
+                // Descending groups, input order within a group.
+                if (group == previousGroup) {
+                    assertEquals(1, Integer.compare(Integer.parseInt(record.get("id")), Integer.parseInt(previous.get("id"))));
+                } else {
+                    assertEquals(-1, Integer.compare(group, previousGroup));
+                }
+                final int id = Integer.parseInt(record.get("id"));
+                assertEquals(id % 10 == 0 ? "multi\nline, " + id : "n" + id, record.get("note"));
+            }
+        }
+        // The same file sorts the same in memory.
+        final StringWriter inMemory = new StringWriter();
+        CSVSorter.builder().setPath(file).setFormat(HEADER_FORMAT).addKey("group", Type.INTEGER, true).get().sort(inMemory);
+        assertEquals(inMemory.toString(), out.toString());
+    }
+
+    @Test
+    void testFailureDeletesRuns() throws IOException {
+        // Each record is its own run, so the comparator first runs while merging runs into a new run.
+        final CSVSorter.Builder builder = CSVSorter.builder().setReader(new StringReader("c\nb\na\n")).setMaxMemory(1).setMaxMergeRuns(2)
+                .setComparator((a, b) -> {
+                    throw new IllegalStateException("Comparator failure");
+                });
+        assertThrows(IllegalStateException.class, () -> sort(builder));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testHeader() throws IOException {
+        final String input = "a,b\n2,x\n1,y\n";
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader("a", "b").setSkipHeaderRecord(true).get();
+        final CSVSorter.Builder builder = CSVSorter.builder().setReader(new StringReader(input)).setFormat(format).addKey("a", Type.INTEGER, false);
+        assertEquals("a,b\r\n1,y\r\n2,x\r\n", sort(builder));
+        // An output format with its own header replaces the header of the input.
+        final CSVFormat outputFormat = CSVFormat.DEFAULT.builder().setHeader("A", "B").get();
+        assertEquals("A,B\r\n1,y\r\n2,x\r\n", sort(builder.setReader(new StringReader(input)).setOutputFormat(outputFormat)));
+    }
+
+    @Test
+    void testKeys() throws IOException {
+        // @formatter:off
+        final String input = "name,size,ratio,flag\n"
+                + "a,10,0.5,true\n"
+                + "b,9,1e-1,false\n"
+                + "c,,0.10,true\n"
+                + "d,12345678901234567890,-2,\n"
+                + "e,-3,0.1,FALSE\n";
+        // @formatter:on
+        final CSVSorter.Builder integers = CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey("size", Type.INTEGER, false);
+        assertEquals("name,size,ratio,flag\r\nc,,0.10,true\r\ne,-3,0.1,FALSE\r\nb,9,1e-1,false\r\na,10,0.5,true\r\nd,12345678901234567890,-2,\r\n",
+                sort(integers));
+        // Equal decimals, such as 0.1 and 0.10, fall back to the next key.
+        final CSVSorter.Builder decimals = CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey(2, Type.DECIMAL, false)
+                .addKey(0, Type.STRING, true);
+        assertEquals(Arrays.asList("d", "e", "c", "b", "a"), names(sort(decimals)));
+        final CSVSorter.Builder booleans = CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey("flag", Type.BOOLEAN, true)
+                .addKey("name", Type.STRING, false);
+        assertEquals(Arrays.asList("a", "c", "b", "e", "d"), names(sort(booleans)));
+        final CSVSorter.Builder strings = CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey("size", Type.STRING, false);
+        assertEquals(Arrays.asList("c", "e", "a", "d", "b"), names(sort(strings)));
+        assertThrows(IllegalArgumentException.class,
+                () -> sort(CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey("missing", Type.STRING, false)));
+        assertThrows(IllegalStateException.class, () -> sort(CSVSorter.builder().setReader(new StringReader(input)).addKey("name", Type.STRING, false)));
+        assertThrows(NumberFormatException.class,
+                () -> sort(CSVSorter.builder().setReader(new StringReader(input)).setFormat(HEADER_FORMAT).addKey("name", Type.INTEGER, false)));
+    }
+
+    @Test
+    void testNoHeader() throws IOException {
+        final String input = "3,c\n1,a\n2\n";
+        final CSVSorter.Builder builder = CSVSorter.builder().setReader(new StringReader(input)).addKey(1, Type.STRING, false).setMaxMemory(1);
+        // Missing values sort first, and each record is its own run.
+        assertEquals("2\r\n1,a\r\n3,c\r\n", sort(builder));
+        assertEquals("", sort(CSVSorter.builder().setReader(new StringReader("")).addKey(0, Type.STRING, false)));
+    }
+
+    @Test
+    void testSortAgain() throws Exception {
+        final Path file = dir.resolve("input.csv");
+        Files.write(file, "id,name\n3,c\n1,a\n4,d\n2,b\n".getBytes(StandardCharsets.UTF_8));
+        final Path runs = Files.createDirectory(dir.resolve("runs"));
+        // Each record is its own run, so concurrent sorts spill and merge runs at the same time.
+        final CSVSorter sorter = CSVSorter.builder().setPath(file).setFormat(HEADER_FORMAT).addKey("id", Type.INTEGER, false).setMaxMemory(1)
+                .setMaxMergeRuns(2).setTempDirectory(runs).get();
+        final Callable<String> sort = () -> {
+            final StringWriter out = new StringWriter();
+            sorter.sort(out);
+            return out.toString();
+        };
+        final String expected = "id,name\r\n1,a\r\n2,b\r\n3,c\r\n4,d\r\n";
+        assertEquals(expected, sort.call());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final Future<String> future : executor.invokeAll(Collections.nCopies(8, sort))) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (Stream<Path> files = Files.list(runs)) {
+            assertEquals(0, files.count());
+        }
+        // A reader can only be read once.
+        final CSVSorter readerSorter = CSVSorter.builder().setReader(new StringReader("b\na\n")).addKey(0, Type.STRING, false).setTempDirectory(dir).get();
+        final StringWriter out = new StringWriter();
+        readerSorter.sort(out);
+        assertEquals("a\r\nb\r\n", out.toString());
+        assertThrows(IllegalStateException.class, () -> readerSorter.sort(new StringWriter()));
+    }
+}
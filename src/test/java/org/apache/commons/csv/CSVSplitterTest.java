@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link CSVSplitter}.
+ */
+class CSVSplitterTest {
+
+    private static final CSVFormat HEADER_FORMAT = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+
+    private static final int RECORDS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    /**
+     * Parses shards and checks that they hold the records of the file in order.
+     */
+    private List<List<CSVRecord>> assertShards(final CSVSplitter splitter, final List<Path> shards, final CSVFormat format) throws IOException {
+        assertEquals(splitter.getShardCount(), shards.size());
+        final List<List<CSVRecord>> parsed = new ArrayList<>();
+        long id = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            try (CSVParser parser = CSVParser.builder().setPath(shards.get(i)).setCharset(StandardCharsets.UTF_8).setFormat(format).get()) {
+                final List<CSVRecord> records = parser.getRecords();
+                assertEquals(splitter.getRecordCount(i), records.size());
+                for (final CSVRecord record : records) {
+                    assertEquals(Long.toString(id), record.get(0));
+                    assertEquals("line\n" + id + ", \"é\"", record.get(1));
+                    id++;
+                }
+                parsed.add(records);
+            }
+        }
+        assertEquals(RECORDS, id);
+        return parsed;
+    }
+
+    private byte[] concatenate(final List<Path> shards) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (final Path shard : shards) {
+            Files.copy(shard, out);
+        }
+        return out.toByteArray();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final StringBuilder builder = new StringBuilder("id,note\r\n");
+        for (int i = 0; i < RECORDS; i++) {
+            builder.append(i).append(",\"line\n").append(i).append(", \"\"é\"\"\"\r\n");
+        }
+        file = dir.resolve("input.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> split(final CSVSplitter splitter) throws IOException {
+        return splitter.split(i -> dir.resolve(String.format("part-%05d.csv", i)));
+    }
+
+    @Test
+    void testBuilderArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CSVSplitter.builder().setShardCount(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVSplitter.builder().setShardRecords(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVSplitter.builder().setShardSize(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVSplitter.builder().setPath(file).setFormat(CSVFormat.DEFAULT.builder().setCommentMarker('#').get()).get());
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        final Path empty = dir.resolve("empty.csv");
+        Files.write(empty, new byte[0]);
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(empty).setFormat(HEADER_FORMAT).setShardCount(4).get();
+        assertEquals(1, splitter.getShardCount());
+        assertEquals(0, splitter.getRecordCount(0));
+        assertEquals(0, Files.size(split(splitter).get(0)));
+    }
+
+    @Test
+    void testNoHeader() throws IOException {
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setShardRecords(3_000).setRepeatHeader(true)
+                .get();
+        assertEquals(4, splitter.getShardCount());
+        // Without a header record in the format, the header line is a record of the first shard.
+        assertEquals(3_000, splitter.getRecordCount(0));
+        assertEquals(1_001, splitter.getRecordCount(3));
+        assertArrayEquals(Files.readAllBytes(file), concatenate(split(splitter)));
+    }
+
+    @Test
+    void testRepeatHeader() throws IOException {
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setShardCount(5)
+                .setRepeatHeader(true).get();
+        final List<Path> shards = split(splitter);
+        for (final Path shard : shards) {
+            try (CSVParser parser = CSVParser.builder().setPath(shard).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).get()) {
+                assertEquals(2, parser.getHeaderNames().size());
+                assertEquals("note", parser.getHeaderNames().get(1));
+            }
+        }
+        assertShards(splitter, shards, HEADER_FORMAT);
+    }
+
+    @Test
+    void testShardCount() throws IOException {
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setShardCount(7).get();
+        assertEquals(7, splitter.getShardCount());
+        final List<Path> shards = split(splitter);
+        assertArrayEquals(Files.readAllBytes(file), concatenate(shards));
+        final long target = Files.size(file) / 7;
+        long records = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            final long size = Files.size(shards.get(i));
+            if (i < shards.size() - 1) {
+                assertTrue(Math.abs(size - target) < 100, () -> Long.toString(size));
+            }
+            records += splitter.getRecordCount(i);
+        }
+        assertEquals(RECORDS, records);
+    }
+
+    @Test
+    void testShardRecords() throws IOException {
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setShardRecords(999)
+                .setRepeatHeader(true).get();
+        assertEquals(11, splitter.getShardCount());
+        final List<List<CSVRecord>> shards = assertShards(splitter, split(splitter), HEADER_FORMAT);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(999, shards.get(i).size());
+        }
+        assertEquals(10, shards.get(10).size());
+    }
+
+    @Test
+    void testShardSize() throws IOException {
+        final CSVSplitter splitter = CSVSplitter.builder().setPath(file).setCharset(StandardCharsets.UTF_8).setFormat(HEADER_FORMAT).setShardSize(100_000)
+                .setRepeatHeader(true).get();
+        final long size = Files.size(file);
+        assertEquals((int) ((size - "id,note\r\n".length()) / 100_000 + 1), splitter.getShardCount());
+        assertShards(splitter, split(splitter), HEADER_FORMAT);
+    }
+}
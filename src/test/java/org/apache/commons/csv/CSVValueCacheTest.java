@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.csv.CsvAssertions.assertValuesEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.apache.commons.csv.CSVValueCache.Eviction;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CSVValueCache}.
+ */
+class CSVValueCacheTest {
+
+    @Test
+    void testBuilder() {
+        assertEquals(CSVValueCache.DEFAULT_MAX_SIZE, CSVValueCache.builder().get().getMaxSize());
+        assertEquals(CSVValueCache.DEFAULT_MAX_LENGTH, CSVValueCache.builder().get().getMaxLength());
+        assertEquals(Eviction.REPLACE, CSVValueCache.builder().setEviction(null).get().getEviction());
+        assertEquals(1, CSVValueCache.builder().setMaxSize(1).get().getMaxSize());
+        assertEquals(128, CSVValueCache.builder().setMaxSize(100).get().getMaxSize());
+        assertThrows(IllegalArgumentException.class, () -> CSVValueCache.builder().setMaxSize(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVValueCache.builder().setMaxLength(-1));
+    }
+
+    @Test
+    void testEvictionKeep() {
+        final CSVValueCache cache = CSVValueCache.builder().setMaxSize(1).setEviction(Eviction.KEEP).get();
+        final String us = cache.get("US");
+        assertNotSame(us, cache.get("FR"));
+        assertSame(us, cache.get(new StringBuilder("US")));
+        assertEquals(0, cache.getEvictions());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void testEvictionReplace() {
+        final CSVValueCache cache = CSVValueCache.builder().setMaxSize(1).get();
+        final String us = cache.get("US");
+        final String fr = cache.get("FR");
+        assertSame(fr, cache.get(new StringBuilder("FR")));
+        assertNotSame(us, cache.get(new StringBuilder("US")));
+        assertEquals(2, cache.getEvictions());
+        assertEquals(1, cache.getSize());
+        assertEquals("CSVValueCache [size=1, maxSize=1, hits=1, misses=3, evictions=2, eviction=REPLACE]", cache.toString());
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getHitRate());
+    }
+
+    @Test
+    void testGet() {
+        final CSVValueCache cache = CSVValueCache.builder().setMaxLength(3).get();
+        assertNull(cache.get(null));
+        final String usd = cache.get(new StringBuilder("USD"));
+        assertEquals("USD", usd);
+        assertSame(usd, cache.get(new StringBuilder("USD")));
+        assertSame(usd, cache.get(new StringBuilder(" USD "), 1, 4));
+        // Too long to cache.
+        final String euro = cache.get("EURO");
+        assertNotSame(euro, cache.get(new StringBuilder("EURO")));
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.4, cache.getHitRate());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void testParser() throws IOException {
+        final CSVValueCache cache = CSVValueCache.builder().get();
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setTrim(true).setNullString("N/A").get();
+        final String input = "US, 1 ,N/A\n\"US\",2,\"\"\nUS ,3,N/A\n";
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setValueCache(cache).get()) {
+            final List<CSVRecord> records = parser.getRecords();
+            final List<CSVRecord> expected = CSVParser.parse(input, format).getRecords();
+            for (int i = 0; i < expected.size(); i++) {
+                assertValuesEquals(expected.get(i).values(), records.get(i));
+            }
+            assertSame(records.get(0).get(0), records.get(1).get(0));
+            assertSame(records.get(0).get(0), records.get(2).get(0));
+            assertNull(records.get(2).get(2));
+        }
+        // Values mapped to null are not looked up.
+        assertEquals(7, cache.getHits() + cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+}
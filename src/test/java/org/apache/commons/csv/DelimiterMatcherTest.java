@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link DelimiterMatcher}.
+ */
+class DelimiterMatcherTest {
+
+    /**
+     * Scans like {@link DelimiterMatcher#scan(char[], int, int, int)} by comparing the delimiter at every position.
+     */
+    private static int naiveScan(final String delimiter, final char[] buf, final int from, final int to, final int escape) {
+        for (int i = from; i < to; i++) {
+            final char c = buf[i];
+            if (c == Constants.LF || c == Constants.CR || c == escape) {
+                return i;
+            }
+            final int n = Math.min(delimiter.length(), to - i);
+            if (new String(buf, i, n).equals(delimiter.substring(0, n))) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Parses the input and returns the values of its records, or the message of the exception parsing throws.
+     */
+    private static Object parse(final String delimiter, final String input, final boolean blockScanning) {
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setDelimiter(delimiter).setEscape('\\').get();
+        try (CSVParser parser = CSVParser.builder().setReader(new StringReader(input)).setFormat(format).setBlockScanning(blockScanning).get()) {
+            return parser.getRecords().stream().map(CSVRecord::toList).collect(Collectors.toList());
+        } catch (final IOException | UncheckedIOException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    void testMatchesEscaped() {
+        final DelimiterMatcher matcher = new DelimiterMatcher("[|]".toCharArray());
+        assertTrue(matcher.matchesEscaped("[!|!]x".toCharArray(), 6, '!'));
+        assertFalse(matcher.matchesEscaped("[!|!]".toCharArray(), 4, '!'));
+        assertFalse(matcher.matchesEscaped("[!|?]".toCharArray(), 5, '!'));
+        assertFalse(matcher.matchesEscaped(new char[5], -1, '!'));
+    }
+
+    @Test
+    void testMatchesTail() {
+        final DelimiterMatcher matcher = new DelimiterMatcher("~|~".toCharArray());
+        assertEquals(3, matcher.length());
+        assertTrue(matcher.matchesTail("|~".toCharArray(), 2));
+        assertFalse(matcher.matchesTail("|~".toCharArray(), 1));
+        assertFalse(matcher.matchesTail("||".toCharArray(), 2));
+        assertFalse(matcher.matchesTail(new char[2], -1));
+        assertTrue(new DelimiterMatcher(new char[] { ',' }).matchesTail(new char[0], 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { ",", "||", "~|~", "aab", "abab", "<|~|>" })
+    void testParseMatchesWithoutBlockScanning(final String delimiter) {
+        final Random random = new Random(delimiter.hashCode());
+        final String alphabet = delimiter + "ab\\\n ";
+        for (int n = 0; n < 200; n++) {
+            final StringBuilder input = new StringBuilder();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                if (random.nextInt(4) == 0) {
+                    input.append(delimiter);
+                } else {
+                    input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            assertEquals(parse(delimiter, input.toString(), false), parse(delimiter, input.toString(), true), input::toString);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { ",", "||", "~|~", "aab", "abab", "aaaa", "<|~|>" })
+    void testScan(final String delimiter) {
+        final DelimiterMatcher matcher = new DelimiterMatcher(delimiter.toCharArray());
+        final Random random = new Random(delimiter.hashCode());
+        final String alphabet = delimiter + "ab\n!";
+        for (int n = 0; n < 2000; n++) {
+            final char[] buf = new char[random.nextInt(20)];
+            for (int i = 0; i < buf.length; i++) {
+                buf[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            final int from = random.nextInt(buf.length + 1);
+            assertEquals(naiveScan(delimiter, buf, from, buf.length, '!'), matcher.scan(buf, from, buf.length, '!'), () -> new String(buf) + " from " + from);
+        }
+    }
+}
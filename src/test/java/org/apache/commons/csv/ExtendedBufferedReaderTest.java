@@ -65,6 +65,25 @@ class ExtendedBufferedReaderTest {
         }
     }
 
+    @Test
+    void testPeekArrayKeepsMark() throws Exception {
+        try (ExtendedBufferedReader br = new ExtendedBufferedReader(new ChunkedReader("a\nbcdef"))) {
+            br.mark(10);
+            assertEquals('a', br.read());
+            assertEquals('\n', br.read());
+            final char[] peeked = new char[4];
+            assertEquals(4, br.peek(peeked));
+            assertArrayEquals(new char[] { 'b', 'c', 'd', 'e' }, peeked);
+            br.skipBuffered(2);
+            assertEquals('d', br.peek());
+            assertEquals(4, br.getPosition());
+            br.reset();
+            assertEquals(0, br.getPosition());
+            assertEquals(0, br.getLineNumber());
+            assertEquals('a', br.read());
+        }
+    }
+
     @Test
     void testReadAndPeekArrayFromChunkedReader() throws Exception {
         try (ExtendedBufferedReader br = new ExtendedBufferedReader(new ChunkedReader("abcdef"))) {
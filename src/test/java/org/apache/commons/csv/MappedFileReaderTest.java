@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link MappedFileReader}.
+ */
+class MappedFileReaderTest {
+
+    private static final String CSV = "id,name,note\n1,é😀,\"multi\nline € value\"\n2,ü,\"a,b\"\r\n3,😀😀😀,end\n";
+
+    @TempDir
+    Path tempDir;
+
+    private static String read(final Reader reader, final int bufferSize) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[bufferSize];
+        int n;
+        while ((n = reader.read(buffer, 0, bufferSize)) != EOF) {
+            builder.append(buffer, 0, n);
+        }
+        return builder.toString();
+    }
+
+    private Path write(final String content, final Charset charset) throws IOException {
+        return Files.write(tempDir.resolve("test.csv"), content.getBytes(charset));
+    }
+
+    @Test
+    void testClosed() throws IOException {
+        final Path path = write(CSV, StandardCharsets.UTF_8);
+        final MappedFileReader reader = new MappedFileReader(path, StandardCharsets.UTF_8);
+        reader.close();
+        assertThrows(IOException.class, () -> reader.read(new char[10], 0, 10));
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        try (Reader reader = new MappedFileReader(write("", StandardCharsets.UTF_8), StandardCharsets.UTF_8)) {
+            assertEquals(EOF, reader.read(new char[10], 0, 10));
+        }
+    }
+
+    @Test
+    void testParseAcrossWindows() throws IOException {
+        final Path path = write(CSV, StandardCharsets.UTF_8);
+        final List<List<String>> expected;
+        try (CSVParser parser = CSVParser.parse(path, StandardCharsets.UTF_8, CSVFormat.DEFAULT)) {
+            expected = parser.stream().map(CSVRecord::toList).collect(Collectors.toList());
+        }
+        for (int windowSize = 16; windowSize < 40; windowSize++) {
+            try (CSVParser parser = CSVParser.builder().setReader(new MappedFileReader(path, StandardCharsets.UTF_8, windowSize)).get()) {
+                assertEquals(expected, parser.stream().map(CSVRecord::toList).collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-8", "UTF-16", "UTF-16LE", "ISO-8859-1", "US-ASCII" })
+    void testReadAcrossWindows(final String charsetName) throws IOException {
+        final Charset charset = Charset.forName(charsetName);
+        final Path path = write(CSV, charset);
+        final String expected = new String(Files.readAllBytes(path), charset);
+        for (final int bufferSize : new int[] { 1, 2, 7, 1024 }) {
+            for (int windowSize = 16; windowSize < 24; windowSize++) {
+                try (Reader reader = new MappedFileReader(path, charset, windowSize)) {
+                    assertEquals(expected, read(reader, bufferSize));
+                }
+            }
+        }
+    }
+}
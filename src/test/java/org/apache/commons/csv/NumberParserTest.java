@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link NumberParser}.
+ */
+class NumberParserTest {
+
+    private static char[] chars(final String value) {
+        // Surround the value to test the range arguments.
+        return ("[" + value + "]").toCharArray();
+    }
+
+    private static double parseDouble(final String value) {
+        return NumberParser.parseDouble(chars(value), 1, value.length() + 1);
+    }
+
+    private static int parseInt(final String value) {
+        return NumberParser.parseInt(chars(value), 1, value.length() + 1);
+    }
+
+    private static long parseLong(final String value) {
+        return NumberParser.parseLong(chars(value), 1, value.length() + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "true", "TRUE", "True", "false", "", "yes", "1", "truee", "tru" })
+    void testParseBoolean(final String value) {
+        assertEquals(Boolean.parseBoolean(value), NumberParser.parseBoolean(chars(value), 1, value.length() + 1), value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-0", "+0", "1", "-1", "1.5", "-1.5", ".5", "5.", "0.1", "0.3", "123.456", "3.141592653589793", "999999999999999",
+            "9999999999999999", "0.0000000000000000000001", "0.00000000000000000000001", "1e10", "1E-5", "-2.5e+3", "NaN", "-Infinity", "0x1p3", "1d",
+            " 1.5 ", "12345678901234567890", "1.7976931348623157E308", "4.9E-324", "0000000000000000000012.5" })
+    void testParseDouble(final String value) {
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parseDouble(value)), value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", "+", ".", "-.", "1.2.3", "abc", "1,5", "--1" })
+    void testParseDoubleInvalid(final String value) {
+        assertThrows(NumberFormatException.class, () -> Double.parseDouble(value));
+        assertThrows(NumberFormatException.class, () -> parseDouble(value));
+    }
+
+    @Test
+    void testParseDoubleRandom() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            // Up to 18 digits, so both the exact and the fallback paths are taken.
+            final String digits = Long.toString(random.nextLong() % (long) Math.pow(10, 1 + random.nextInt(18)));
+            final int dot = digits.length() - random.nextInt(digits.startsWith("-") ? digits.length() - 1 : digits.length());
+            final String value = new StringBuilder(digits).insert(dot, '.').toString();
+            assertEquals(Double.parseDouble(value), parseDouble(value), value);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-0", "+7", "2147483647", "-2147483648", "42", "\u0661\u0662", "-\uff19" })
+    void testParseInt(final String value) {
+        assertEquals(Integer.parseInt(value), parseInt(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", "+", "2147483648", "-2147483649", "1.0", " 1", "0x10", "99999999999999999999" })
+    void testParseIntInvalid(final String value) {
+        assertThrows(NumberFormatException.class, () -> Integer.parseInt(value));
+        assertThrows(NumberFormatException.class, () -> parseInt(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-0", "+7", "9223372036854775807", "-9223372036854775808", "1234567890123", "\u0661\u0662", "-\uff19" })
+    void testParseLong(final String value) {
+        assertEquals(Long.parseLong(value), parseLong(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", "+", "9223372036854775808", "-9223372036854775809", "1-", "12a", "+-1" })
+    void testParseLongInvalid(final String value) {
+        assertThrows(NumberFormatException.class, () -> Long.parseLong(value));
+        final NumberFormatException e = assertThrows(NumberFormatException.class, () -> parseLong(value));
+        assertEquals("For input string: \"" + value + "\"", e.getMessage());
+    }
+}
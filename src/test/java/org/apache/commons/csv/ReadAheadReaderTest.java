@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ReadAheadReader}.
+ */
+class ReadAheadReaderTest {
+
+    /**
+     * Repeats a string forever, or fails after a number of characters, and records whether it is closed.
+     */
+    private static final class SourceReader extends Reader {
+
+        private boolean closed;
+        private final int failAt;
+        private int position;
+        private final String text;
+
+        SourceReader(final String text, final int failAt) {
+            this.text = text;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            if (position == failAt) {
+                throw new IOException("Source failure");
+            }
+            final int count = Math.min(len, 3);
+            for (int i = 0; i < count; i++) {
+                cbuf[off + i] = text.charAt(position++ % text.length());
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Blocks the first read until released, ignoring interrupts like a blocking socket read, and records whether it is closed.
+     */
+    private static final class BlockingReader extends Reader {
+
+        private volatile boolean closed;
+        private final CountDownLatch reading = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            reading.countDown();
+            boolean done = false;
+            while (!done) {
+                try {
+                    release.await();
+                    done = true;
+                } catch (final InterruptedException e) {
+                    // Keeps blocking.
+                }
+            }
+            return EOF;
+        }
+    }
+
+    private static final String INPUT = "a,b,c\n\"d\r\ne\",f,g\n1,2,3\n";
+
+    private static String read(final Reader reader, final int bufferSize) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[bufferSize];
+        int n;
+        while ((n = reader.read(buffer, 0, bufferSize)) != EOF) {
+            builder.append(buffer, 0, n);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    void testBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> CSVParser.builder().setReadAhead(-1));
+    }
+
+    @Test
+    void testClose() throws IOException {
+        final List<Thread> threads = new ArrayList<>();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = ReadAheadReader.DEFAULT_THREAD_FACTORY.newThread(runnable);
+            threads.add(thread);
+            return thread;
+        };
+        final SourceReader source = new SourceReader("x,y\n", -1);
+        final CSVParser parser = CSVParser.builder().setReader(source).setReadAhead(2).setBufferSize(16).setReadAheadThreadFactory(threadFactory).get();
+        final Iterator<CSVRecord> iterator = parser.iterator();
+        assertEquals("y", iterator.next().get(1));
+        assertEquals("x", iterator.next().get(0));
+        assertEquals(1, threads.size());
+        assertTrue(threads.get(0).isDaemon());
+        parser.close();
+        assertFalse(threads.get(0).isAlive());
+        assertTrue(source.closed);
+        final ReadAheadReader reader = new ReadAheadReader(new StringReader(INPUT), 1, 4, threadFactory);
+        reader.close();
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testCloseDuringBlockedRead() throws Exception {
+        final List<Thread> threads = new ArrayList<>();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = ReadAheadReader.DEFAULT_THREAD_FACTORY.newThread(runnable);
+            threads.add(thread);
+            return thread;
+        };
+        final BlockingReader source = new BlockingReader();
+        final ReadAheadReader reader = new ReadAheadReader(source, 2, 8, threadFactory);
+        source.reading.await();
+        // Returns although the read in progress ignores the interrupt.
+        reader.close();
+        assertFalse(source.closed);
+        source.release.countDown();
+        threads.get(0).join();
+        assertTrue(source.closed);
+    }
+
+    @Test
+    void testFailure() throws IOException {
+        final SourceReader source = new SourceReader("x,y\n", 9);
+        final CSVParser parser = CSVParser.builder().setReader(source).setReadAhead(3).get();
+        final Iterator<CSVRecord> iterator = parser.iterator();
+        // The records before the failure come first.
+        assertEquals(2, iterator.next().size());
+        assertEquals(2, iterator.next().size());
+        final IOException e = assertThrows(IOException.class, parser::nextRecord);
+        assertEquals("Source failure", e.getMessage());
+        parser.close();
+        try (ReadAheadReader reader = new ReadAheadReader(new SourceReader("x", 3), 2, 8, ReadAheadReader.DEFAULT_THREAD_FACTORY)) {
+            assertEquals(3, reader.read(new char[8], 0, 8));
+            final IOException first = assertThrows(IOException.class, reader::read);
+            assertSame(first, assertThrows(IOException.class, reader::read));
+        }
+    }
+
+    @Test
+    void testParse() throws IOException {
+        final List<CSVRecord> expected = CSVParser.parse(INPUT, CSVFormat.DEFAULT).getRecords();
+        for (int buffers = 1; buffers <= 3; buffers++) {
+            for (final int bufferSize : new int[] { 1, 2, 5, 8192 }) {
+                try (CSVParser parser = CSVParser.builder().setReader(new StringReader(INPUT)).setReadAhead(buffers).setBufferSize(bufferSize).get()) {
+                    final List<CSVRecord> actual = parser.getRecords();
+                    assertEquals(expected.size(), actual.size());
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertArrayEquals(expected.get(i).values(), actual.get(i).values());
+                        assertEquals(expected.get(i).getCharacterPosition(), actual.get(i).getCharacterPosition());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRead() throws IOException {
+        for (final int bufferSize : new int[] { 1, 2, 7, 1024 }) {
+            try (ReadAheadReader reader = new ReadAheadReader(new StringReader(INPUT), 2, bufferSize, ReadAheadReader.DEFAULT_THREAD_FACTORY)) {
+                assertEquals(INPUT.charAt(0), reader.read());
+                assertEquals(INPUT.substring(1), read(reader, 3));
+                assertEquals(EOF, reader.read());
+                assertEquals(EOF, reader.read(new char[1], 0, 1));
+                assertFalse(reader.ready());
+            }
+        }
+    }
+
+    @Test
+    void testStopOnHeaderFailure() {
+        final List<Thread> threads = new ArrayList<>();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = ReadAheadReader.DEFAULT_THREAD_FACTORY.newThread(runnable);
+            threads.add(thread);
+            return thread;
+        };
+        final SourceReader source = new SourceReader("a,a\n", -1);
+        final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setDuplicateHeaderMode(DuplicateHeaderMode.DISALLOW).get();
+        assertThrows(IllegalArgumentException.class,
+                () -> CSVParser.builder().setReader(source).setFormat(format).setReadAhead(2).setReadAheadThreadFactory(threadFactory).get());
+        assertFalse(threads.get(0).isAlive());
+        // The caller closes its own reader.
+        assertFalse(source.closed);
+    }
+}
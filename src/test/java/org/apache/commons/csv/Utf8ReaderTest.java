@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.csv;
+
+import static org.apache.commons.io.IOUtils.EOF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link Utf8Reader}.
+ */
+class Utf8ReaderTest {
+
+    /**
+     * Delivers at most three bytes per read so multi-byte sequences straddle buffer fills.
+     */
+    private static final class ChunkedInputStream extends ByteArrayInputStream {
+
+        ChunkedInputStream(final byte[] buf) {
+            super(buf);
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            return super.read(b, off, Math.min(len, 3));
+        }
+    }
+
+    private static final byte[] MALFORMED_UTF_8 = { 'a', (byte) 0xE2, (byte) 0x82, ',', (byte) 0xC3, (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80, 'b',
+            (byte) 0xFF, (byte) 0xF0, (byte) 0x9F };
+
+    private static String read(final Reader reader, final int bufferSize) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[bufferSize];
+        int n;
+        while ((n = reader.read(buffer, 0, bufferSize)) != EOF) {
+            builder.append(buffer, 0, n);
+        }
+        return builder.toString();
+    }
+
+    private void assertDecodesLikeInputStreamReader(final byte[] bytes) throws IOException {
+        final String expected = read(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), 1024);
+        for (final int bufferSize : new int[] { 1, 2, 3, 1024 }) {
+            try (InputStream in = new ChunkedInputStream(bytes); Reader reader = new Utf8Reader(in)) {
+                assertEquals(expected, read(reader, bufferSize), () -> "buffer size " + bufferSize);
+            }
+        }
+    }
+
+    @Test
+    void testMalformedInput() throws IOException {
+        assertDecodesLikeInputStreamReader(MALFORMED_UTF_8);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "a,b,c\r\n", "\"é\",ü\n€,😀😀\n", "a😀" })
+    void testWellFormedInput(final String input) throws IOException {
+        assertDecodesLikeInputStreamReader(input.getBytes(StandardCharsets.UTF_8));
+    }
+}